@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lutem.mvp.model.Game;
 import com.lutem.mvp.repository.GameRepository;
+import com.lutem.mvp.service.CatalogSnapshotLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -19,19 +20,26 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Seeds/syncs local H2 database from production data.
  * Only runs with 'seed' profile: -Dspring.profiles.active=local,seed
  *
- * Reads from local games-seed.json first (fast, reliable).
- * Falls back to production API if local file is missing.
+ * An empty database is bulk-loaded (JDBC batches, no lookups) from the binary
+ * catalog snapshot games-seed.snapshot when there is one, otherwise from
+ * games-seed.json or the production API. Re-syncing a database that already
+ * has games reads the JSON sources and matches game by game. The seed time is
+ * logged either way.
  *
  * Usage:
  *   Initial seed:    mvn spring-boot:run -Dspring-boot.run.profiles=local,seed
  *   Force re-sync:   mvn spring-boot:run -Dspring-boot.run.profiles=local,seed -Dspring-boot.run.arguments=--force-reseed
  *   Refresh seed file first:
  *     curl -s https://lutemprototype-production.up.railway.app/games/all > backend/src/main/resources/games-seed.json
+ *   Or the snapshot (admin token needed):
+ *     curl -s -H "Authorization: Bearer ..." https://lutemprototype-production.up.railway.app/admin/games/snapshot \
+ *       > backend/src/main/resources/games-seed.snapshot
  */
 @Configuration
 @Profile("seed")
@@ -40,10 +48,13 @@ public class DataSeeder {
     private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
     private static final String PROD_API_URL = "https://lutemprototype-production.up.railway.app";
     private static final String SEED_FILE = "games-seed.json";
+    private static final String SNAPSHOT_FILE = "games-seed.snapshot";
 
     @Bean
     CommandLineRunner seedFromProduction(GameRepository gameRepository,
+                                          CatalogSnapshotLoader snapshotLoader,
                                           ObjectMapper objectMapper,
+                                          OutboundHttpClient outboundHttpClient,
                                           Environment env) {
         return args -> {
             boolean forceReseed = "true".equalsIgnoreCase(env.getProperty("FORCE_RESEED"))
@@ -58,12 +69,18 @@ public class DataSeeder {
                 return;
             }
 
+            if (existingCount == 0) {
+                seedEmptyDatabase(snapshotLoader, objectMapper, outboundHttpClient);
+                return;
+            }
+
             if (forceReseed && existingCount > 0) {
                 logger.info("Force re-sync enabled. Will update existing and add new games.");
             }
 
+            long start = System.nanoTime();
             try {
-                List<Game> prodGames = loadGames(objectMapper);
+                List<Game> prodGames = loadGames(objectMapper, outboundHttpClient);
                 logger.info("Loaded {} games", prodGames.size());
 
                 int created = 0;
@@ -100,8 +117,9 @@ public class DataSeeder {
                 }
 
                 logger.info("========== Sync complete! ==========");
-                logger.info("Created: {} | Updated: {} | Skipped: {} | Total in local DB: {}",
-                    created, updated, skipped, gameRepository.count());
+                logger.info("Created: {} | Updated: {} | Skipped: {} | Total in local DB: {} | Took {} ms",
+                    created, updated, skipped, gameRepository.count(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
 
             } catch (Exception e) {
                 logger.error("Seed failed: {}", e.getMessage(), e);
@@ -109,7 +127,31 @@ public class DataSeeder {
         };
     }
 
-    private List<Game> loadGames(ObjectMapper objectMapper) throws Exception {
+    private void seedEmptyDatabase(CatalogSnapshotLoader snapshotLoader, ObjectMapper objectMapper,
+                                   OutboundHttpClient outboundHttpClient) {
+        long start = System.nanoTime();
+        try {
+            int seeded;
+            String source;
+            ClassPathResource snapshot = new ClassPathResource(SNAPSHOT_FILE);
+            if (snapshot.exists()) {
+                try (InputStream is = snapshot.getInputStream()) {
+                    seeded = snapshotLoader.load(is);
+                }
+                source = SNAPSHOT_FILE;
+            } else {
+                seeded = snapshotLoader.insertAll(loadGames(objectMapper, outboundHttpClient));
+                source = "JSON";
+            }
+            logger.info("========== Seed complete! ==========");
+            logger.info("Seeded {} games from {} in {} ms", seeded, source,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            logger.error("Seed failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<Game> loadGames(ObjectMapper objectMapper, OutboundHttpClient outboundHttpClient) throws Exception {
         // Try local seed file first (classpath)
         ClassPathResource seedResource = new ClassPathResource(SEED_FILE);
         if (seedResource.exists()) {
@@ -121,7 +163,7 @@ public class DataSeeder {
 
         // Fallback: fetch from production API
         logger.info("No local seed file found. Fetching from production: {}", PROD_API_URL);
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = outboundHttpClient.restTemplate();
         String response = restTemplate.getForObject(PROD_API_URL + "/games/all", String.class);
         return objectMapper.readValue(response, new TypeReference<>() {});
     }
@@ -0,0 +1,29 @@
+package com.lutem.mvp.config;
+
+import com.lutem.mvp.model.GameCollectionChangeListener;
+import com.lutem.mvp.repository.GameReadModelStore;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers Hibernate event listeners that JPA callbacks can't express
+ * (collection events), next to the entity listeners declared on the models.
+ */
+@Configuration
+public class HibernateListenerConfig {
+
+    public HibernateListenerConfig(EntityManagerFactory entityManagerFactory,
+                                   GameReadModelStore readModelStore,
+                                   ApplicationEventPublisher eventPublisher) {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        GameCollectionChangeListener listener = new GameCollectionChangeListener(readModelStore, eventPublisher);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+    }
+}
@@ -0,0 +1,177 @@
+package com.lutem.mvp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Shared outbound HTTP layer for Steam, the Steam Store, Anthropic and the seeder.
+ *
+ * All RestTemplates handed out here sit on one JDK HttpClient, which keeps a
+ * keep-alive connection pool per host and negotiates HTTP/2 over TLS where
+ * the server supports it (falling back to HTTP/1.1). Requests get connect and
+ * read timeouts, ask for gzip and are transparently decompressed, and are
+ * timed per host as lutem.http.client.requests{host, outcome}.
+ */
+@Component
+public class OutboundHttpClient {
+
+    static final String METRIC = "lutem.http.client.requests";
+
+    private final HttpClient httpClient;
+    private final Duration defaultReadTimeout;
+    private final List<ClientHttpRequestInterceptor> interceptors;
+
+    public OutboundHttpClient(@Value("${lutem.http.connect-timeout-ms:5000}") long connectTimeoutMs,
+                              @Value("${lutem.http.read-timeout-ms:15000}") long readTimeoutMs,
+                              MeterRegistry meterRegistry) {
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.defaultReadTimeout = Duration.ofMillis(readTimeoutMs);
+        // Metrics outermost so decompression failures count as errors for the host
+        this.interceptors = List.of(new MetricsInterceptor(meterRegistry), new GzipInterceptor());
+    }
+
+    /**
+     * RestTemplate on the shared pool with the default read timeout.
+     */
+    public RestTemplate restTemplate() {
+        return restTemplate(defaultReadTimeout);
+    }
+
+    /**
+     * RestTemplate on the shared pool with its own read timeout (e.g. slow LLM calls).
+     */
+    public RestTemplate restTemplate(Duration readTimeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setInterceptors(interceptors);
+        return restTemplate;
+    }
+
+    /**
+     * Times each exchange up to the response headers, tagged by host and
+     * outcome. Only the host is used as a tag: query strings carry API keys.
+     */
+    private static class MetricsInterceptor implements ClientHttpRequestInterceptor {
+
+        private final MeterRegistry meterRegistry;
+
+        MetricsInterceptor(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                            ClientHttpRequestExecution execution) throws IOException {
+            String host = request.getURI().getHost() != null ? request.getURI().getHost() : "unknown";
+            long start = System.nanoTime();
+            String outcome = "IO_ERROR";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                outcome = outcome(response.getStatusCode());
+                return response;
+            } finally {
+                Timer.builder(METRIC)
+                    .tag("host", host)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+
+        private static String outcome(HttpStatusCode status) {
+            if (status.is2xxSuccessful()) {
+                return "SUCCESS";
+            }
+            if (status.is3xxRedirection()) {
+                return "REDIRECTION";
+            }
+            if (status.is4xxClientError()) {
+                return "CLIENT_ERROR";
+            }
+            return status.is5xxServerError() ? "SERVER_ERROR" : "UNKNOWN";
+        }
+    }
+
+    /**
+     * Asks for gzip and unwraps gzip-encoded bodies; the JDK client does neither.
+     */
+    private static class GzipInterceptor implements ClientHttpRequestInterceptor {
+
+        @Override
+        public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                            ClientHttpRequestExecution execution) throws IOException {
+            if (!request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+                request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            }
+            ClientHttpResponse response = execution.execute(request, body);
+            String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+            return "gzip".equalsIgnoreCase(encoding) ? new GzipResponse(response) : response;
+        }
+    }
+
+    private static class GzipResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        GzipResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(delegate.getHeaders());
+            copy.remove(HttpHeaders.CONTENT_ENCODING);
+            copy.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new GZIPInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
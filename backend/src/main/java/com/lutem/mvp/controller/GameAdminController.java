@@ -1,18 +1,29 @@
 package com.lutem.mvp.controller;
 
+import com.lutem.mvp.dto.TaggingJobResponse;
 import com.lutem.mvp.model.Game;
+import com.lutem.mvp.model.TaggingJob;
 import com.lutem.mvp.model.TaggingSource;
 import com.lutem.mvp.repository.GameRepository;
 import com.lutem.mvp.repository.GameSessionRepository;
 import com.lutem.mvp.repository.UserLibraryRepository;
 import com.lutem.mvp.service.AITaggingService;
 import com.lutem.mvp.service.AITaggingService.TaggingResult;
+import com.lutem.mvp.service.GameExportService;
+import com.lutem.mvp.service.GameImportService;
+import com.lutem.mvp.service.TaggingJobProgressStream;
+import com.lutem.mvp.service.TaggingJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.*;
 
 @RestController
@@ -33,6 +44,18 @@ public class GameAdminController {
     @Autowired
     private AITaggingService aiTaggingService;
     
+    @Autowired
+    private TaggingJobService taggingJobService;
+    
+    @Autowired
+    private GameImportService gameImportService;
+    
+    @Autowired
+    private GameExportService gameExportService;
+    
+    @Autowired
+    private TaggingJobProgressStream taggingJobProgressStream;
+    
     // Get all games (for admin view)
     @GetMapping
     public List<Game> getAllGames() {
@@ -149,11 +172,12 @@ public class GameAdminController {
     }
     
     /**
-     * Trigger AI tagging for pending games.
+     * Queue AI tagging for pending games. Returns 202 with the job right away;
+     * follow progress via GET /tag/jobs/{jobId} or the /events stream.
      * Body: { "gameIds": [1,2,3] } or { "all": true }
      */
     @PostMapping("/tag")
-    public ResponseEntity<TaggingResult> tagGames(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> tagGames(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
         if (!aiTaggingService.isConfigured()) {
             TaggingResult error = new TaggingResult();
             error.setTotal(0);
@@ -173,8 +197,28 @@ public class GameAdminController {
         }
         // If "all" is true, gameIds stays null → tags all pending
         
-        TaggingResult result = aiTaggingService.tagGames(gameIds);
-        return ResponseEntity.ok(result);
+        TaggingJob job = taggingJobService.enqueue(gameIds, "admin", (Long) httpRequest.getAttribute("userId"));
+        return ResponseEntity.accepted().body(taggingJobService.toResponse(job));
+    }
+    
+    /**
+     * Progress of a tagging job.
+     */
+    @GetMapping("/tag/jobs/{jobId}")
+    public ResponseEntity<TaggingJobResponse> getTaggingJob(@PathVariable Long jobId) {
+        return taggingJobService.getJobResponse(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Server-Sent Events stream of a tagging job's progress; closes when the job completes.
+     */
+    @GetMapping(value = "/tag/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTaggingJob(@PathVariable Long jobId) {
+        return taggingJobService.getJobResponse(jobId)
+            .map(job -> ResponseEntity.ok(taggingJobProgressStream.subscribe(job)))
+            .orElse(ResponseEntity.notFound().build());
     }
     
     /**
@@ -201,90 +245,52 @@ public class GameAdminController {
      * Usage:
      *   1. Export: curl https://production/games > games.json
      *   2. Import: curl -X POST http://localhost:8080/admin/games/import -H "Content-Type: application/json" -d @games.json
+     *
+     * The response carries updated/created/skipped/errors/total plus timingsMs per import phase.
      */
     @PostMapping("/import")
     public Map<String, Object> importGames(@RequestBody List<Game> games) {
-        int updated = 0;
-        int skipped = 0;
-        int created = 0;
-        List<String> errors = new ArrayList<>();
-        
-        for (Game incoming : games) {
-            try {
-                Game existing = null;
-                
-                // Try to match by steamAppId first (most reliable)
-                if (incoming.getSteamAppId() != null) {
-                    existing = gameRepository.findBySteamAppId(incoming.getSteamAppId()).orElse(null);
-                }
-                
-                // Fall back to name match
-                if (existing == null && incoming.getName() != null) {
-                    existing = gameRepository.findByNameIgnoreCase(incoming.getName()).orElse(null);
-                }
-                
-                if (existing != null) {
-                    // Update tag-related fields only
-                    boolean changed = false;
-                    
-                    if (incoming.getEmotionalGoals() != null && !incoming.getEmotionalGoals().isEmpty()) {
-                        existing.setEmotionalGoals(incoming.getEmotionalGoals());
-                        changed = true;
-                    }
-                    if (incoming.getInterruptibility() != null) {
-                        existing.setInterruptibility(incoming.getInterruptibility());
-                        changed = true;
-                    }
-                    if (incoming.getAudioDependency() != null) {
-                        existing.setAudioDependency(incoming.getAudioDependency());
-                        changed = true;
-                    }
-                    if (incoming.getContentRating() != null) {
-                        existing.setContentRating(incoming.getContentRating());
-                        changed = true;
-                    }
-                    if (incoming.getNsfwLevel() != null) {
-                        existing.setNsfwLevel(incoming.getNsfwLevel());
-                        changed = true;
-                    }
-                    if (incoming.getEnergyRequired() != null) {
-                        existing.setEnergyRequired(incoming.getEnergyRequired());
-                        changed = true;
-                    }
-                    if (incoming.getTaggingSource() != null) {
-                        existing.setTaggingSource(incoming.getTaggingSource());
-                        changed = true;
-                    }
-                    if (incoming.getTaggingConfidence() != null) {
-                        existing.setTaggingConfidence(incoming.getTaggingConfidence());
-                        changed = true;
-                    }
-                    
-                    if (changed) {
-                        gameRepository.save(existing);
-                        updated++;
-                    } else {
-                        skipped++;
-                    }
-                } else {
-                    // Game doesn't exist locally - optionally create it
-                    incoming.setId(null);
-                    gameRepository.save(incoming);
-                    created++;
-                }
-            } catch (Exception e) {
-                errors.add(incoming.getName() + ": " + e.getMessage());
-            }
-        }
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("updated", updated);
-        result.put("created", created);
-        result.put("skipped", skipped);
-        result.put("errors", errors);
-        result.put("total", games.size());
-        
-        return result;
+        return gameImportService.importGames(games);
+    }
+    
+    /**
+     * Export every game (including pending) as NDJSON, streamed from a database
+     * cursor instead of serializing the whole catalog at once.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportGames(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"games.ndjson\"");
+        gameExportService.writeNdjson(response.getOutputStream());
+    }
+    
+    /**
+     * Export every game as a compact binary catalog snapshot, the fast path
+     * DataSeeder uses to seed fresh instances.
+     * 
+     * Usage:
+     *   curl -H "Authorization: Bearer ..." https://production/admin/games/snapshot > backend/src/main/resources/games-seed.snapshot
+     */
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void exportSnapshot(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader("Content-Disposition", "attachment; filename=\"games-seed.snapshot\"");
+        gameExportService.writeSnapshot(response.getOutputStream());
+    }
+    
+    /**
+     * Streaming variant of the import for NDJSON bodies (one game per line, as
+     * produced by GET /admin/games/export). Records are read and committed in
+     * chunks, so the payload is never held in memory.
+     * 
+     * Usage:
+     *   curl -H "Authorization: Bearer ..." https://production/admin/games/export > games.ndjson
+     *   curl -X POST http://localhost:8080/admin/games/import -H "Content-Type: application/x-ndjson" --data-binary @games.ndjson
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Map<String, Object> importGamesNdjson(HttpServletRequest request) throws IOException {
+        return gameImportService.importNdjson(request.getInputStream());
     }
     
     // Debug: Check database counts
@@ -378,27 +384,19 @@ public class GameAdminController {
             }
         }
         
-        // Now tag all created games with AI
-        int taggedCount = 0;
+        // Tag the created games in the background
+        TaggingJob job = null;
         if (!gamesToTag.isEmpty()) {
-            try {
-                TaggingResult taggingResult = aiTaggingService.tagGames(gamesToTag);
-                taggedCount = taggingResult.getSuccessCount();
-                // Merge any tagging failures into our failed games map
-                if (taggingResult.getFailedGames() != null) {
-                    failedGames.putAll(taggingResult.getFailedGames());
-                }
-            } catch (Exception e) {
-                // Tagging failed but games were still created
-                logger.error("AI tagging failed: {}", e.getMessage());
-            }
+            job = taggingJobService.enqueue(gamesToTag, "ai-import", null);
         }
         
         result.put("total", games.size());
         result.put("successCount", createdGames.size());
         result.put("failedCount", failedGames.size());
-        result.put("taggedCount", taggedCount);
-        result.put("message", String.format("Created %d games, tagged %d with AI", createdGames.size(), taggedCount));
+        result.put("queuedForTagging", gamesToTag.size());
+        result.put("jobId", job != null ? job.getId() : null);
+        result.put("message", String.format("Created %d games, queued %d for AI tagging",
+            createdGames.size(), gamesToTag.size()));
         result.put("createdGames", createdGames);
         result.put("failedGames", failedGames);
         
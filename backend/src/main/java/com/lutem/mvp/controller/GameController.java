@@ -1,10 +1,6 @@
 package com.lutem.mvp.controller;
 
-import com.lutem.mvp.model.EmotionalGoal;
-import com.lutem.mvp.model.EnergyLevel;
-import com.lutem.mvp.model.Interruptibility;
-import com.lutem.mvp.model.SocialPreference;
-import com.lutem.mvp.model.TimeOfDay;
+import com.lutem.mvp.dto.BatchRecommendationRequest;
 import com.lutem.mvp.dto.RecommendationRequest;
 import com.lutem.mvp.dto.RecommendationResponse;
 import com.lutem.mvp.dto.SessionFeedback;
@@ -13,23 +9,32 @@ import com.lutem.mvp.dto.SatisfactionStats;
 import com.lutem.mvp.model.Game;
 import com.lutem.mvp.model.GameSession;
 import com.lutem.mvp.model.User;
+import com.lutem.mvp.repository.GameReadModelStore;
+import com.lutem.mvp.repository.GameReadModelStore.SortKey;
 import com.lutem.mvp.repository.GameRepository;
 import com.lutem.mvp.repository.GameSessionRepository;
 import com.lutem.mvp.repository.UserRepository;
+import com.lutem.mvp.service.GameAttributeIndex;
+import com.lutem.mvp.service.GameCatalog;
+import com.lutem.mvp.service.GameCatalogService;
+import com.lutem.mvp.service.GamePageCursor;
+import com.lutem.mvp.service.GameSearch;
 import com.lutem.mvp.service.GameSessionService;
+import com.lutem.mvp.service.RecommendationScorer;
+import com.lutem.mvp.service.TopKRanker;
 import com.lutem.mvp.service.UserSatisfactionService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -37,9 +42,15 @@ public class GameController {
 
     private static final Logger logger = LoggerFactory.getLogger(GameController.class);
 
+    // 1 main recommendation + 4 alternatives
+    private static final int RECOMMENDATION_COUNT = 5;
+
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private GameReadModelStore readModelStore;
+
     @Autowired
     private GameSessionRepository sessionRepository;
 
@@ -49,9 +60,21 @@ public class GameController {
     @Autowired
     private GameSessionService sessionService;
 
+    @Autowired
+    private GameCatalogService catalogService;
+
+    @Autowired
+    private GameSearch gameSearch;
+
+    @Autowired
+    private RecommendationScorer scorer;
+
     @Autowired(required = false)
     private UserSatisfactionService satisfactionService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     // GET /games - Returns only fully tagged games (for frontend recommendation UI)
     @GetMapping("/games")
     @Transactional(readOnly = true)
@@ -63,39 +86,62 @@ public class GameController {
         return games;
     }
 
-    // GET /games/paged - Returns paginated list of fully tagged games
+    // GET /games/paged - Returns a keyset page of fully tagged games.
+    // Pass the previous response's nextCursor to continue; includeTotal=false skips the count query.
     @GetMapping("/games/paged")
     @Transactional(readOnly = true)
     public Map<String, Object> getGamesPaged(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
 
-        page = Math.max(0, Math.min(page, 10000));
         size = Math.max(1, Math.min(size, 100));
+        SortKey sortKey = SortKey.fromParam(sortBy);
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        GamePageCursor after = cursor != null && !cursor.isBlank()
+            ? GamePageCursor.decode(cursor, sortKey, descending)
+            : null;
 
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-            ? Sort.by(sortBy).descending()
-            : Sort.by(sortBy).ascending();
-
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Game> gamesPage = gameRepository.findAllFullyTaggedPaged(pageable);
+        // One extra row tells us whether there is a next page without counting
+        List<Game> games = readModelStore.findPage(sortKey, descending,
+            after != null ? after.getKey() : null, after != null ? after.getGameId() : null, size + 1);
+        boolean hasNext = games.size() > size;
+        if (hasNext) {
+            games = games.subList(0, size);
+        }
 
         Map<String, Object> response = new HashMap<>();
-        response.put("games", gamesPage.getContent());
-        response.put("currentPage", gamesPage.getNumber());
-        response.put("totalItems", gamesPage.getTotalElements());
-        response.put("totalPages", gamesPage.getTotalPages());
-        response.put("hasNext", gamesPage.hasNext());
-        response.put("hasPrevious", gamesPage.hasPrevious());
+        response.put("games", games);
+        response.put("size", size);
+        response.put("hasNext", hasNext);
+        response.put("hasPrevious", after != null);
+        response.put("nextCursor", hasNext
+            ? GamePageCursor.after(sortKey, descending, games.get(games.size() - 1)).encode()
+            : null);
+        if (includeTotal) {
+            long total = readModelStore.count();
+            response.put("totalItems", total);
+            response.put("totalPages", (total + size - 1) / size);
+        }
 
-        logger.info("Returning page {} of {} games (total: {})",
-            page, gamesPage.getNumberOfElements(), gamesPage.getTotalElements());
+        logger.info("Returning {} games sorted by {} {} (hasNext: {})", games.size(), sortBy, sortDir, hasNext);
 
         return response;
     }
 
+    // GET /games/search - Name/genre search over fully tagged games, typo tolerant, popular games first
+    @GetMapping("/games/search")
+    public List<Game> searchGames(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        limit = Math.max(1, Math.min(limit, 50));
+        List<Game> games = gameSearch.search(query, limit);
+        logger.debug("Search '{}' returned {} games", query, games.size());
+        return games;
+    }
+
     // GET /games/all - Returns ALL games including pending (for admin/library views)
     @GetMapping("/games/all")
     @Transactional(readOnly = true)
@@ -103,14 +149,13 @@ public class GameController {
         return gameRepository.findAll();
     }
 
-    // POST /recommendations with multi-dimensional scoring
+    // POST /recommendations with multi-dimensional scoring.
+    // Not @Transactional: scoring runs on the catalog snapshot, and a transaction here would
+    // hold a pooled connection through the Firestore stats wait. Only the session write is.
     @PostMapping("/recommendations")
-    @Transactional
     public RecommendationResponse getRecommendation(
             @Valid @RequestBody RecommendationRequest request,
             HttpServletRequest httpRequest) {
-        // Public path: getCurrentUser is null when no JWT is present.
-        User authenticatedUser = getCurrentUser(httpRequest);
         // Backend validation
         List<String> validationErrors = validateRequest(request);
         if (!validationErrors.isEmpty()) {
@@ -118,65 +163,143 @@ public class GameController {
             return createValidationErrorResponse(validationErrors);
         }
 
-        // Load Firestore satisfaction data if user is logged in
-        SatisfactionStats userStats = null;
-        if (request.getUserId() != null && satisfactionService != null) {
-            try {
-                userStats = satisfactionService.getSatisfactionStats(request.getUserId());
-                logger.debug("Loaded satisfaction stats for user: {} ({} completed sessions)",
-                    request.getUserId(), userStats.getCompletedSessions());
-            } catch (Exception e) {
-                logger.warn("Could not load satisfaction stats: {}", e.getMessage());
-            }
+        // Start the Firestore stats fetch first so it overlaps catalog load and filtering
+        long statsStartedAt = System.nanoTime();
+        CompletableFuture<SatisfactionStats> pendingStats = startSatisfactionStats(request.getUserId());
+
+        // Fully tagged games come from the in-memory catalog snapshot (no DB round trip)
+        GameCatalog catalog = catalogService.getCatalog();
+        logger.info("Scoring {} fully tagged games from catalog v{}", catalog.size(), catalog.getVersion());
+
+        // Hard filters (start time, audio, content rating, NSFW) as bitset ops on the catalog index
+        long[] candidates = catalog.getIndex().candidates(request);
+        logger.debug("After filters: {} candidate games", GameAttributeIndex.cardinality(candidates));
+
+        SatisfactionStats userStats = awaitSatisfactionStats(pendingStats, statsStartedAt);
+
+        // Phase 1: primitive scoring pass over all candidates, keeping the top 5
+        // (1 main + 4 alternatives) in a bounded heap
+        RecommendationScorer.ScoringContext scoring = scorer.prepare(request, userStats, catalog);
+        TopKRanker ranker = scorer.rank(scoring, candidates, RECOMMENDATION_COUNT);
+
+        RecommendationResponse response = buildResponse(scoring, ranker);
+        if (!ranker.isEmpty()) {
+            recordSessions(List.of(request), List.of(response), httpRequest);
         }
+        return response;
+    }
 
-        // Get only fully tagged games (batch fetching handles lazy collections efficiently)
-        List<Game> games = gameRepository.findAllFullyTagged();
-        logger.info("Found {} fully tagged games for recommendations", games.size());
+    // POST /recommendations/batch - Several requests (e.g. mood/time presets) in one call.
+    // Shares one catalog snapshot and one stats load, and scores all requests in a
+    // single pass over the games. Sessions are only recorded when recordSessions=true.
+    // Not @Transactional, like the single-request path.
+    @PostMapping("/recommendations/batch")
+    public ResponseEntity<?> getRecommendationBatch(
+            @Valid @RequestBody BatchRecommendationRequest batch,
+            HttpServletRequest httpRequest) {
+        List<RecommendationRequest> requests = batch.getRequests();
+
+        Set<String> userIds = requests.stream()
+            .filter(Objects::nonNull)
+            .map(RecommendationRequest::getUserId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (userIds.size() > 1) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "status", "error",
+                "message", "All requests in a batch must be for the same user"));
+        }
+        long statsStartedAt = System.nanoTime();
+        CompletableFuture<SatisfactionStats> pendingStats =
+            startSatisfactionStats(userIds.isEmpty() ? null : userIds.iterator().next());
+
+        GameCatalog catalog = catalogService.getCatalog();
+        logger.info("Scoring {} batched requests against {} games from catalog v{}",
+            requests.size(), catalog.size(), catalog.getVersion());
+
+        // Invalid requests keep their slot (with a validation error response) but aren't scored
+        RecommendationResponse[] responses = new RecommendationResponse[requests.size()];
+        List<Integer> scoredSlots = new ArrayList<>();
+        List<long[]> candidates = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            RecommendationRequest request = requests.get(i);
+            List<String> validationErrors = request != null
+                ? validateRequest(request)
+                : List.of("request is required");
+            if (!validationErrors.isEmpty()) {
+                responses[i] = createValidationErrorResponse(validationErrors);
+                continue;
+            }
+            scoredSlots.add(i);
+            candidates.add(catalog.getIndex().candidates(request));
+        }
 
-        // Filter by audio availability
-        if (request.getAudioAvailability() != null) {
-            games = filterByAudioAvailability(games, request.getAudioAvailability());
-            logger.debug("After audio filter: {} games", games.size());
+        SatisfactionStats userStats = awaitSatisfactionStats(pendingStats, statsStartedAt);
+        List<RecommendationScorer.ScoringContext> contexts = new ArrayList<>();
+        for (int slot : scoredSlots) {
+            contexts.add(scorer.prepare(requests.get(slot), userStats, catalog));
         }
 
-        // Filter by content rating and NSFW preferences
-        games = filterByContentPreferences(games, request.getMaxContentRating(), request.getAllowNsfw());
-        logger.debug("After content filter: {} games", games.size());
-        
-        // Score all games (now with personalized satisfaction data)
-        Map<Game, ScoringResult> scoredGames = new HashMap<>();
-        
-        for (Game game : games) {
-            ScoringResult result = scoreGame(game, request, userStats);
-            if (result.score > 0) {
-                scoredGames.put(game, result);
+        List<TopKRanker> rankers = scorer.rankAll(contexts, candidates, RECOMMENDATION_COUNT);
+        List<RecommendationRequest> matchedRequests = new ArrayList<>();
+        List<RecommendationResponse> matchedResponses = new ArrayList<>();
+        for (int j = 0; j < scoredSlots.size(); j++) {
+            int slot = scoredSlots.get(j);
+            responses[slot] = buildResponse(contexts.get(j), rankers.get(j));
+            if (!rankers.get(j).isEmpty()) {
+                matchedRequests.add(requests.get(slot));
+                matchedResponses.add(responses[slot]);
             }
         }
+        if (batch.isRecordSessions() && !matchedResponses.isEmpty()) {
+            recordSessions(matchedRequests, matchedResponses, httpRequest);
+        }
 
-        // Sort by score (descending)
-        List<Map.Entry<Game, ScoringResult>> rankedGames = scoredGames.entrySet().stream()
-            .sorted(Map.Entry.<Game, ScoringResult>comparingByValue((r1, r2) -> 
-                Double.compare(r2.score, r1.score)))
-            .collect(Collectors.toList());
+        return ResponseEntity.ok(Arrays.asList(responses));
+    }
+
+    // Start loading Firestore satisfaction data if user is logged in (null future otherwise)
+    private CompletableFuture<SatisfactionStats> startSatisfactionStats(String userId) {
+        if (userId == null || satisfactionService == null) {
+            return null;
+        }
+        return satisfactionService.getSatisfactionStatsAsync(userId);
+    }
+
+    // Wait out the rest of the stats latency budget; null means non-personalized scoring
+    private SatisfactionStats awaitSatisfactionStats(CompletableFuture<SatisfactionStats> pending, long startedAt) {
+        if (pending == null) {
+            return null;
+        }
+        SatisfactionStats userStats = satisfactionService.awaitForRecommendation(pending, startedAt);
+        if (userStats != null) {
+            logger.debug("Loaded satisfaction stats ({} completed sessions)", userStats.getCompletedSessions());
+        }
+        return userStats;
+    }
 
-        if (rankedGames.isEmpty()) {
+    // Turns a ranked top 5 into the API response
+    private RecommendationResponse buildResponse(RecommendationScorer.ScoringContext scoring, TopKRanker ranker) {
+        if (ranker.isEmpty()) {
             return createNoMatchResponse();
         }
 
-        // Get top 5 (1 main + 4 alternatives)
-        Game topRecommendation = rankedGames.get(0).getKey();
-        String topReason = rankedGames.get(0).getValue().reason;
-        double topScore = rankedGames.get(0).getValue().score;
+        // Phase 2: reason text only for the games we actually return
+        List<Game> games = scoring.getCatalog().getGames();
+        int[] ranked = ranker.rankedPositions();
+        double[] rankedScores = ranker.rankedScores();
+        Game topRecommendation = games.get(ranked[0]);
+        String topReason = scorer.explain(scoring, ranked[0]);
+        double topScore = rankedScores[0];
         
         List<Game> alternatives = new ArrayList<>();
         List<String> alternativeReasons = new ArrayList<>();
         List<Double> alternativeScores = new ArrayList<>();
         
-        for (int i = 1; i < Math.min(5, rankedGames.size()); i++) {
-            alternatives.add(rankedGames.get(i).getKey());
-            alternativeReasons.add(rankedGames.get(i).getValue().reason);
-            alternativeScores.add(rankedGames.get(i).getValue().score);
+        for (int r = 1; r < ranked.length; r++) {
+            alternatives.add(games.get(ranked[r]));
+            alternativeReasons.add(scorer.explain(scoring, ranked[r]));
+            alternativeScores.add(rankedScores[r]);
         }
 
         // Calculate match percentages
@@ -188,204 +311,35 @@ public class GameController {
             alternativeMatchPercentages.add(calculateMatchPercentage(score, maxScore));
         }
 
-        // **NEW: Record this recommendation as a session in the database**
-        GameSession session = sessionService.recordRecommendation(
-            topRecommendation,
-            request.getAvailableMinutes(),
-            request.getDesiredMood(), // Uses helper method from request
-            authenticatedUser
-        );
-        
-        // Build response with sessionId
-        RecommendationResponse response = new RecommendationResponse(
+        return new RecommendationResponse(
             topRecommendation, alternatives, topReason, alternativeReasons,
             topMatchPercentage, alternativeMatchPercentages
         );
-        response.setSessionId(session.getId());
-
-        logger.info("Recommendation created - Session ID: {}, Game: {}",
-            session.getId(), topRecommendation.getName());
-
-        return response;
     }
 
-    private ScoringResult scoreGame(Game game, RecommendationRequest request, SatisfactionStats userStats) {
-        double score = 0.0;
-        List<String> matchReasons = new ArrayList<>();
-
-        // 1. TIME MATCH (30%)
-        if (game.getMinMinutes() > request.getAvailableMinutes()) {
-            return new ScoringResult(0.0, "Too long for available time");
-        }
-        
-        if (game.getMaxMinutes() <= request.getAvailableMinutes()) {
-            score += 30.0;
-            matchReasons.add("Fits your " + request.getAvailableMinutes() + "-minute window");
-        } else if (game.getMinMinutes() <= request.getAvailableMinutes()) {
-            score += 20.0;
-            matchReasons.add("Can start in " + request.getAvailableMinutes() + " minutes");
-        }
-
-        // 2. EMOTIONAL GOAL MATCH (25%)
-        if (request.getDesiredEmotionalGoals() != null && !request.getDesiredEmotionalGoals().isEmpty()) {
-            for (EmotionalGoal goal : request.getDesiredEmotionalGoals()) {
-                if (game.hasEmotionalGoal(goal)) {
-                    score += 25.0 / request.getDesiredEmotionalGoals().size();
-                    matchReasons.add("Great for " + goal.getDisplayName().toLowerCase());
-                }
-            }
-        }
-
-        // 3. INTERRUPTIBILITY MATCH (20%)
-        if (request.getRequiredInterruptibility() != null) {
-            if (game.getInterruptibility() == request.getRequiredInterruptibility()) {
-                score += 20.0;
-                matchReasons.add(game.getInterruptibility().getDisplayName() + " - " + getInterruptibilityDescription(game.getInterruptibility()));
-            } else if (game.getInterruptibility().ordinal() >= request.getRequiredInterruptibility().ordinal()) {
-                score += 15.0;
-                matchReasons.add("Easy to pause when needed");
-            } else {
-                score -= 3.0;
-            }
-        }
-
-        // 4. ENERGY LEVEL MATCH (15%)
-        if (request.getCurrentEnergyLevel() != null) {
-            if (game.getEnergyRequired() == request.getCurrentEnergyLevel()) {
-                score += 15.0;
-                matchReasons.add("Perfect match for your " + game.getEnergyRequired().getDisplayName().toLowerCase() + " energy level");
-            } else if (game.getEnergyRequired().ordinal() < request.getCurrentEnergyLevel().ordinal()) {
-                score += 12.0;
-                matchReasons.add("Won't drain your energy");
-            } else {
-                score -= 2.0;
-            }
-        }
-
-        // 5. TIME OF DAY MATCH (5%)
-        if (request.getTimeOfDay() != null) {
-            if (game.isSuitableForTimeOfDay(request.getTimeOfDay())) {
-                score += 5.0;
-                matchReasons.add("Ideal for " + request.getTimeOfDay().getDisplayName().toLowerCase());
-            }
-        }
-
-        // 6. SOCIAL PREFERENCE MATCH (5%)
-        if (request.getSocialPreference() != null) {
-            if (game.matchesSocialPreference(request.getSocialPreference())) {
-                score += 5.0;
-                matchReasons.add("Perfect for " + request.getSocialPreference().getDisplayName().toLowerCase() + " play");
-            } else {
-                score -= 2.0;
-            }
-        }
-
-        // 7. SATISFACTION BONUS - FIRESTORE (max 15%) 
-        // Uses personalized Firestore data if available
-        if (userStats != null && userStats.getRatingsByGame() != null) {
-            Double userRating = userStats.getRatingsByGame().get(game.getId());
-            if (userRating != null && userRating > 0) {
-                score += (userRating / 5.0) * 15.0;
-                if (userRating >= 4.0) {
-                    matchReasons.add("You rated this " + String.format("%.1f", userRating) + "/5 ⭐");
-                } else if (userRating >= 3.0) {
-                    matchReasons.add("Previously enjoyed by you");
-                }
-            }
-        } else {
-            // Fallback: database/memory satisfaction
-            double avg = getAverageSatisfaction(game.getId());
-            if (game.getSessionCount() > 0) {
-                score += (avg / 5.0) * 10.0;
-                if (avg >= 4.0) {
-                    matchReasons.add("You've loved this before (" + String.format("%.1f", avg) + "/5 ⭐)");
-                } else if (avg >= 3.5) {
-                    matchReasons.add("Previously enjoyed by you");
-                }
-            }
-        }
-
-        // 8. GENRE PREFERENCE BOOST (max 15%)
-        if (request.getPreferredGenres() != null && !request.getPreferredGenres().isEmpty()) {
-            long genreMatches = game.getGenres().stream()
-                .filter(genre -> request.getPreferredGenres().stream()
-                    .anyMatch(prefGenre -> prefGenre.equalsIgnoreCase(genre)))
-                .count();
-            
-            if (genreMatches > 0) {
-                double genreBonus = (genreMatches / (double) request.getPreferredGenres().size()) * 15.0;
-                score += genreBonus;
-                String matchedGenres = game.getGenres().stream()
-                    .filter(genre -> request.getPreferredGenres().stream()
-                        .anyMatch(prefGenre -> prefGenre.equalsIgnoreCase(genre)))
-                    .collect(Collectors.joining(", "));
-                matchReasons.add("Matches your taste: " + matchedGenres);
-            }
-        }
-        
-        // 9. GENRE SATISFACTION BOOST - FIRESTORE (max 10%)
-        // If user rates certain genres highly, boost games in those genres
-        if (userStats != null && userStats.getRatingsByGenre() != null) {
-            for (String gameGenre : game.getGenres()) {
-                Double genreRating = userStats.getRatingsByGenre().get(gameGenre);
-                if (genreRating != null && genreRating >= 4.0) {
-                    score += 5.0; // Boost for highly-rated genres
-                    if (!matchReasons.stream().anyMatch(r -> r.contains("satisfying genre"))) {
-                        matchReasons.add("Based on your history with " + gameGenre.toLowerCase() + " games");
-                    }
-                    break; // Only add this reason once
-                }
-            }
-        }
-        
-        // 10. TIME-OF-DAY SATISFACTION PATTERN (max 5%)
-        // Boost games that match patterns where user is typically satisfied
-        if (userStats != null && userStats.getBestTimeOfDay() != null && request.getTimeOfDay() != null) {
-            String currentTime = request.getTimeOfDay().name();
-            if (currentTime.equals(userStats.getBestTimeOfDay())) {
-                Double todRating = userStats.getRatingsByTimeOfDay().get(currentTime);
-                if (todRating != null && todRating >= 4.0) {
-                    score += 3.0;
-                    matchReasons.add("You're typically satisfied gaming at this time");
-                }
-            }
-        }
-        
-        // 11. POPULARITY BONUS (max 10%)
-        // Boost highly-rated community games as tiebreaker
-        // PopularityScore formula: qualityScore (0-100) + visibilityBonus (0-25)
-        // Max possible ~125, so normalize to 10% max bonus
-        if (game.getPopularityScore() != null && game.getPopularityScore() > 0) {
-            double normalizedPopularity = Math.min(game.getPopularityScore() / 125.0, 1.0);
-            double popularityBonus = normalizedPopularity * 10.0;
-            score += popularityBonus;
-            
-            // Only mention if highly rated (>90% positive)
-            if (game.getSteamPositiveReviews() != null && game.getSteamNegativeReviews() != null) {
-                int total = game.getSteamPositiveReviews() + game.getSteamNegativeReviews();
-                if (total > 100) { // Only show for games with meaningful reviews
-                    double ratio = (double) game.getSteamPositiveReviews() / total;
-                    if (ratio >= 0.95) {
-                        matchReasons.add("Overwhelmingly positive reviews");
-                    } else if (ratio >= 0.90) {
-                        matchReasons.add("Very positive community reviews");
-                    }
-                }
+    // Records each matched response's top game as a GameSession, in one short transaction after
+    // scoring. The user lookup is in here too, so nothing touches the pool before this.
+    private void recordSessions(List<RecommendationRequest> requests, List<RecommendationResponse> responses,
+            HttpServletRequest httpRequest) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Public path: getCurrentUser is null when no JWT is present.
+            User authenticatedUser = getCurrentUser(httpRequest);
+            for (int i = 0; i < responses.size(); i++) {
+                RecommendationResponse response = responses.get(i);
+                Game topRecommendation = response.getTopRecommendation();
+                RecommendationRequest request = requests.get(i);
+                GameSession session = sessionService.recordRecommendation(
+                    topRecommendation,
+                    request.getAvailableMinutes(),
+                    request.getDesiredMood(), // Uses helper method from request
+                    authenticatedUser
+                );
+                response.setSessionId(session.getId());
+
+                logger.info("Recommendation created - Session ID: {}, Game: {}",
+                    session.getId(), topRecommendation.getName());
             }
-        }
-
-        // Build reason summary
-        String reason;
-        if (matchReasons.isEmpty()) {
-            reason = "Available game for your time slot";
-        } else if (matchReasons.size() <= 3) {
-            reason = String.join(" • ", matchReasons);
-        } else {
-            reason = matchReasons.subList(0, 3).stream()
-                .collect(Collectors.joining(" • "));
-        }
-        
-        return new ScoringResult(Math.max(0, score), reason);
+        });
     }
 
     // POST /sessions/feedback - Saves feedback to database
@@ -534,18 +488,15 @@ public class GameController {
         return response;
     }
 
-    // Helper method to get average satisfaction from database
-    private double getAverageSatisfaction(Long gameId) {
-        Double dbAverage = sessionService.getAverageSatisfaction(gameId);
-        return (dbAverage != null && dbAverage > 0) ? dbAverage : 0.0;
-    }
-
     // Validation helper
     private List<String> validateRequest(RecommendationRequest request) {
         List<String> errors = new ArrayList<>();
         
         if (request.getAvailableMinutes() <= 0) {
             errors.add("availableMinutes must be positive");
+        } else if (request.getAvailableMinutes() > 1440) {
+            // Bean validation covers this for single requests; batch entries aren't bean-validated
+            errors.add("availableMinutes cannot exceed 1440");
         }
         
         if (request.getDesiredEmotionalGoals() == null || request.getDesiredEmotionalGoals().isEmpty()) {
@@ -588,90 +539,7 @@ public class GameController {
         return Math.min(100, Math.max(50, (int) ((score / maxScore) * 100)));
     }
 
-    // Helper to get interruptibility description
-    private String getInterruptibilityDescription(Interruptibility level) {
-        switch (level) {
-            case HIGH:
-                return "Pause anytime";
-            case MEDIUM:
-                return "Can pause between rounds";
-            case LOW:
-                return "Complete sessions preferred";
-            default:
-                return "";
-        }
-    }
-
-    // Inner class for scoring results
-    private static class ScoringResult implements Comparable<ScoringResult> {
-        double score;
-        String reason;
-
-        ScoringResult(double score, String reason) {
-            this.score = score;
-            this.reason = reason;
-        }
-
-        @Override
-        public int compareTo(ScoringResult other) {
-            return Double.compare(other.score, this.score); // Descending order
-        }
-    }
-    
-    // Filter by audio availability
-    // 'full' = show all games
-    // 'low' = exclude games where audioDependency = REQUIRED
-    // 'muted' = only show games where audioDependency = OPTIONAL
-    private List<Game> filterByAudioAvailability(List<Game> games, String audioAvailability) {
-        if (audioAvailability == null || "full".equalsIgnoreCase(audioAvailability)) {
-            return games; // No filtering needed
-        }
-        
-        return games.stream()
-            .filter(game -> {
-                if (game.getAudioDependency() == null) {
-                    return true; // Untagged games pass through
-                }
-                
-                if ("muted".equalsIgnoreCase(audioAvailability)) {
-                    // Only OPTIONAL games can be played without sound
-                    return game.getAudioDependency() == com.lutem.mvp.model.AudioDependency.OPTIONAL;
-                } else if ("low".equalsIgnoreCase(audioAvailability)) {
-                    // OPTIONAL and HELPFUL are OK, REQUIRED is excluded
-                    return game.getAudioDependency() != com.lutem.mvp.model.AudioDependency.REQUIRED;
-                }
-                return true;
-            })
-            .collect(Collectors.toList());
-    }
-    
     private User getCurrentUser(HttpServletRequest request) {
         return com.lutem.mvp.util.RequestUtils.getCurrentUser(request, userRepository);
     }
-
-    // Filter by content rating and NSFW preferences
-    private List<Game> filterByContentPreferences(List<Game> games,
-            com.lutem.mvp.model.ContentRating maxRating, Boolean allowNsfw) {
-        
-        return games.stream()
-            .filter(game -> {
-                // Filter by max content rating
-                if (maxRating != null && game.getContentRating() != null) {
-                    if (game.getContentRating().ordinal() > maxRating.ordinal()) {
-                        return false; // Game exceeds user's max rating
-                    }
-                }
-                
-                // Filter by NSFW preference
-                if (allowNsfw != null && !allowNsfw) {
-                    if (game.getNsfwLevel() != null && 
-                        game.getNsfwLevel() != com.lutem.mvp.model.NsfwLevel.NONE) {
-                        return false; // User doesn't want NSFW content
-                    }
-                }
-                
-                return true;
-            })
-            .collect(Collectors.toList());
-    }
 }
@@ -3,10 +3,12 @@ package com.lutem.mvp.controller;
 import com.lutem.mvp.dto.SteamImportResponse;
 import com.lutem.mvp.dto.UserLibraryGameDTO;
 import com.lutem.mvp.model.Game;
+import com.lutem.mvp.model.TaggingJob;
 import com.lutem.mvp.model.TaggingSource;
 import com.lutem.mvp.repository.GameRepository;
 import com.lutem.mvp.service.AITaggingService;
 import com.lutem.mvp.service.SteamService;
+import com.lutem.mvp.service.TaggingJobService;
 import com.lutem.mvp.service.UserLibraryService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -37,6 +39,9 @@ public class SteamController {
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private TaggingJobService taggingJobService;
+
     @Value("${lutem.ai-import.unlock-code:}")
     private String unlockCode;
 
@@ -279,28 +284,40 @@ public class SteamController {
             }
         }
 
-        int taggedCount = 0;
+        // Tag the created games in the background; poll /ai-import/jobs/{jobId} for progress
+        TaggingJob job = null;
         if (!gamesToTag.isEmpty()) {
-            try {
-                AITaggingService.TaggingResult taggingResult = aiTaggingService.tagGames(gamesToTag);
-                taggedCount = taggingResult.getSuccessCount();
-                if (taggingResult.getFailedGames() != null) {
-                    failedGames.putAll(taggingResult.getFailedGames());
-                }
-            } catch (Exception e) {
-                logger.error("AI tagging failed: {}", e.getMessage());
-            }
+            job = taggingJobService.enqueue(gamesToTag, "ai-import", userId);
         }
 
         Map<String, Object> result = new HashMap<>();
         result.put("total", games.size());
         result.put("successCount", createdGames.size());
         result.put("failedCount", failedGames.size());
-        result.put("taggedCount", taggedCount);
-        result.put("message", String.format("Created %d games, tagged %d with AI", createdGames.size(), taggedCount));
+        result.put("queuedForTagging", gamesToTag.size());
+        result.put("jobId", job != null ? job.getId() : null);
+        result.put("message", String.format("Created %d games, queued %d for AI tagging",
+            createdGames.size(), gamesToTag.size()));
         result.put("createdGames", createdGames);
         result.put("failedGames", failedGames);
 
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * Progress of an AI import tagging job started by the current user.
+     */
+    @GetMapping("/ai-import/jobs/{jobId}")
+    public ResponseEntity<?> getAiImportJob(@PathVariable Long jobId, HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+        }
+
+        Optional<TaggingJob> job = taggingJobService.getJob(jobId);
+        if (job.isEmpty() || !userId.equals(job.get().getCreatedByUserId())) {
+            return ResponseEntity.status(404).body(Map.of("error", "Job not found"));
+        }
+        return ResponseEntity.ok(taggingJobService.toResponse(job.get()));
+    }
 }
@@ -53,6 +53,29 @@ public class UserStatsController {
         }
     }
 
+    /**
+     * Rebuild a user's satisfaction aggregate from all of their sessions.
+     * Repair path for when the incremental aggregate drifts (e.g. edited sessions).
+     *
+     * @param uid Firebase user ID
+     * @return Freshly computed satisfaction statistics
+     */
+    @PostMapping("/{uid}/satisfaction-stats/rebuild")
+    public ResponseEntity<SatisfactionStats> rebuildSatisfactionStats(
+            @PathVariable String uid,
+            HttpServletRequest request) {
+        if (!isOwner(request, uid)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            satisfactionService.rebuildAggregate(uid);
+            return ResponseEntity.ok(satisfactionService.getSatisfactionStats(uid));
+        } catch (ExecutionException | InterruptedException e) {
+            logger.error("Error rebuilding satisfaction stats for {}: {}", uid, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * Get weekly summary for a user.
      * Used by dashboard to display recent activity recap.
@@ -0,0 +1,35 @@
+package com.lutem.mvp.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Several recommendation requests (e.g. mood/time presets) scored together
+ * against one catalog snapshot. All requests must be for the same user.
+ * Entries are deliberately not bean-validated: an invalid entry gets a
+ * validation-error response in its own slot instead of failing the batch.
+ */
+public class BatchRecommendationRequest {
+    @NotEmpty(message = "At least one request is required")
+    @Size(max = 20, message = "At most 20 requests per batch")
+    private List<RecommendationRequest> requests;
+
+    // Prefetches leave this off so they don't create GameSession rows
+    private boolean recordSessions;
+
+    // Constructors
+    public BatchRecommendationRequest() {}
+
+    public BatchRecommendationRequest(List<RecommendationRequest> requests, boolean recordSessions) {
+        this.requests = requests;
+        this.recordSessions = recordSessions;
+    }
+
+    // Getters and Setters
+    public List<RecommendationRequest> getRequests() { return requests; }
+    public void setRequests(List<RecommendationRequest> requests) { this.requests = requests; }
+
+    public boolean isRecordSessions() { return recordSessions; }
+    public void setRecordSessions(boolean recordSessions) { this.recordSessions = recordSessions; }
+}
@@ -0,0 +1,80 @@
+package com.lutem.mvp.dto;
+
+import com.lutem.mvp.model.TaggingJob;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Progress of a background AI tagging job. Uses the same count/failedGames
+ * field names as AITaggingService.TaggingResult so clients can show either.
+ */
+public class TaggingJobResponse {
+    
+    private Long jobId;
+    private String status;
+    private int total;
+    private int successCount;
+    private int failedCount;
+    private int processed;
+    private boolean finished;
+    
+    // gameId -> last error, for games that ran out of attempts
+    private Map<Long, String> failedGames = new HashMap<>();
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    
+    public TaggingJobResponse() {}
+    
+    public static TaggingJobResponse from(TaggingJob job, Map<Long, String> failedGames) {
+        TaggingJobResponse response = new TaggingJobResponse();
+        response.jobId = job.getId();
+        response.status = job.getStatus().name();
+        response.total = job.getTotal();
+        response.successCount = job.getSucceeded();
+        response.failedCount = job.getFailed();
+        response.processed = job.getProcessed();
+        response.finished = job.isFinished();
+        response.failedGames = failedGames;
+        response.createdAt = job.getCreatedAt();
+        response.startedAt = job.getStartedAt();
+        response.finishedAt = job.getFinishedAt();
+        return response;
+    }
+    
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    
+    public int getSuccessCount() { return successCount; }
+    public void setSuccessCount(int successCount) { this.successCount = successCount; }
+    
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+    
+    public int getProcessed() { return processed; }
+    public void setProcessed(int processed) { this.processed = processed; }
+    
+    public boolean isFinished() { return finished; }
+    public void setFinished(boolean finished) { this.finished = finished; }
+    
+    public Map<Long, String> getFailedGames() { return failedGames; }
+    public void setFailedGames(Map<Long, String> failedGames) { this.failedGames = failedGames; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,19 @@
+package com.lutem.mvp.event;
+
+import com.lutem.mvp.service.GameCatalog;
+
+/**
+ * Published by {@link com.lutem.mvp.service.GameCatalogService} after it swaps
+ * in a snapshot with a new game list (full load or delta refresh). Snapshots
+ * that only patch satisfaction averages keep their game list and aren't announced.
+ */
+public class GameCatalogPublishedEvent {
+
+    private final GameCatalog catalog;
+
+    public GameCatalogPublishedEvent(GameCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public GameCatalog getCatalog() { return catalog; }
+}
@@ -0,0 +1,26 @@
+package com.lutem.mvp.event;
+
+/**
+ * Published whenever a Game row is inserted, updated or deleted.
+ * Fired from {@link com.lutem.mvp.model.GameChangeListener} so every write path
+ * (admin CRUD/import, AI tagging, Steam import, seeding) is covered without
+ * callers having to remember to notify anyone.
+ */
+public class GameChangedEvent {
+
+    public enum ChangeType {
+        SAVED,
+        DELETED
+    }
+
+    private final Long gameId;
+    private final ChangeType changeType;
+
+    public GameChangedEvent(Long gameId, ChangeType changeType) {
+        this.gameId = gameId;
+        this.changeType = changeType;
+    }
+
+    public Long getGameId() { return gameId; }
+    public ChangeType getChangeType() { return changeType; }
+}
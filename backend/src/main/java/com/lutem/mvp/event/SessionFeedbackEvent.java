@@ -0,0 +1,25 @@
+package com.lutem.mvp.event;
+
+/**
+ * Published after a satisfaction score is recorded for a GameSession.
+ */
+public class SessionFeedbackEvent {
+
+    private final Long sessionId;
+    private final Long gameId;
+    private final Integer satisfactionScore;
+    // Firebase uid (User.googleId) of the session owner; null for anonymous sessions
+    private final String userUid;
+
+    public SessionFeedbackEvent(Long sessionId, Long gameId, Integer satisfactionScore, String userUid) {
+        this.sessionId = sessionId;
+        this.gameId = gameId;
+        this.satisfactionScore = satisfactionScore;
+        this.userUid = userUid;
+    }
+
+    public Long getSessionId() { return sessionId; }
+    public Long getGameId() { return gameId; }
+    public Integer getSatisfactionScore() { return satisfactionScore; }
+    public String getUserUid() { return userUid; }
+}
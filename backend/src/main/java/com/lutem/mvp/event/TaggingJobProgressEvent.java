@@ -0,0 +1,16 @@
+package com.lutem.mvp.event;
+
+/**
+ * Published by {@link com.lutem.mvp.service.TaggingJobService} after a
+ * tagging job's counters change (chunk finished, job completed).
+ */
+public class TaggingJobProgressEvent {
+
+    private final Long jobId;
+
+    public TaggingJobProgressEvent(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getJobId() { return jobId; }
+}
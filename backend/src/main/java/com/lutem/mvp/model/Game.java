@@ -8,7 +8,8 @@ import java.util.ArrayList;
 @Table(name = "games", indexes = {
     @Index(name = "idx_game_steam_app_id", columnList = "steamAppId"),
     @Index(name = "idx_game_tagging_source", columnList = "taggingSource"),
-    @Index(name = "idx_game_name", columnList = "name")
+    @Index(name = "idx_game_name", columnList = "name"),
+    @Index(name = "idx_game_change_version", columnList = "change_version")
 })
 @NamedEntityGraph(
     name = "Game.withCollections",
@@ -19,6 +20,7 @@ import java.util.ArrayList;
         @NamedAttributeNode("genres")
     }
 )
+@EntityListeners({GameChangeListener.class, GameReadModelListener.class})
 public class Game {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -140,6 +142,14 @@ public class Game {
      */
     private Integer steamPlaytimeForever;
 
+    /**
+     * Value from the game_change_seq sequence, bumped on every save by
+     * GameReadModelStore (never written by Hibernate). Higher means newer,
+     * across all app instances.
+     */
+    @Column(name = "change_version", insertable = false, updatable = false)
+    private Long changeVersion;
+
     // Constructors
     public Game() {
         this.emotionalGoals = new ArrayList<>();
@@ -289,6 +299,9 @@ public class Game {
         this.steamPlaytimeForever = steamPlaytimeForever; 
     }
 
+    public Long getChangeVersion() { return changeVersion; }
+    public void setChangeVersion(Long changeVersion) { this.changeVersion = changeVersion; }
+
     // Helper methods
     public boolean hasEmotionalGoal(EmotionalGoal goal) {
         return emotionalGoals.contains(goal);
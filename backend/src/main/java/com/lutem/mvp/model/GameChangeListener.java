@@ -0,0 +1,37 @@
+package com.lutem.mvp.model;
+
+import com.lutem.mvp.event.GameChangedEvent;
+import com.lutem.mvp.event.GameChangedEvent.ChangeType;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener that turns Game writes into {@link GameChangedEvent}s.
+ * Instantiated by Hibernate through Spring's bean container, so the publisher
+ * is injected like in any other bean.
+ */
+public class GameChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Game game) {
+        publish(game, ChangeType.SAVED);
+    }
+
+    @PostRemove
+    public void onRemove(Game game) {
+        publish(game, ChangeType.DELETED);
+    }
+
+    private void publish(Game game, ChangeType changeType) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new GameChangedEvent(game.getId(), changeType));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.lutem.mvp.model;
+
+import com.lutem.mvp.event.GameChangedEvent;
+import com.lutem.mvp.event.GameChangedEvent.ChangeType;
+import com.lutem.mvp.repository.GameReadModelStore;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Hibernate listener for Game element collection writes (emotional goals,
+ * times of day, social preferences, genres). Game isn't versioned, so a
+ * collection changed in place doesn't make the entity dirty, and neither
+ * {@link GameReadModelListener} nor {@link GameChangeListener} hears about it.
+ *
+ * Games with collection writes are gathered per transaction and written to the
+ * read model in one batch just before it completes (after the final flush), so
+ * the rows still commit or roll back with the collection rows; a
+ * {@link GameChangedEvent} follows for each. A Game whose fields (or collection
+ * references) changed too was already written by GameReadModelListener; the
+ * write here is a redundant copy of the same data.
+ */
+public class GameCollectionChangeListener implements PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private final GameReadModelStore readModelStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<SharedSessionContractImplementor, Set<Game>> pendingBySession =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    public GameCollectionChangeListener(GameReadModelStore readModelStore, ApplicationEventPublisher eventPublisher) {
+        this.readModelStore = readModelStore;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        collect(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        collect(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        collect(event);
+    }
+
+    private void collect(AbstractCollectionEvent event) {
+        if (!(event.getAffectedOwnerOrNull() instanceof Game game)) {
+            return;
+        }
+        EventSource session = event.getSession();
+        Set<Game> pending = pendingBySession.get(session);
+        if (pending == null) {
+            Set<Game> games = Collections.newSetFromMap(new IdentityHashMap<>());
+            pendingBySession.put(session, games);
+            session.getActionQueue().registerProcess(
+                (BeforeTransactionCompletionProcess) completing -> write(completing, games));
+            session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, completed) -> pendingBySession.remove(completed));
+            pending = games;
+        }
+        pending.add(game);
+    }
+
+    private void write(SharedSessionContractImplementor session, Set<Game> pending) {
+        pendingBySession.remove(session);
+        // Deleted games (their collections are removed too) are tombstoned by GameReadModelListener
+        PersistenceContext context = session.getPersistenceContextInternal();
+        List<Game> games = pending.stream()
+            .filter(game -> {
+                EntityEntry entry = context.getEntry(game);
+                return entry != null && entry.getStatus() == Status.MANAGED;
+            })
+            .toList();
+        if (games.isEmpty()) {
+            return;
+        }
+        readModelStore.saveAll(games);
+        for (Game game : games) {
+            eventPublisher.publishEvent(new GameChangedEvent(game.getId(), ChangeType.SAVED));
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.lutem.mvp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized recommendation read model: one flat row per fully tagged game,
+ * with the emotional goal, time of day and social preference lists stored as
+ * bitmasks and genres as a single delimited column, so the catalog loads
+ * without touching the element-collection tables.
+ *
+ * Written by GameReadModelStore in the same transaction as the Game write.
+ * Deleted (or un-tagged) games leave a tombstone row with deleted = true, so
+ * "changes since version N" also reports removals to other app instances.
+ * Bits follow enum ordinals: add new enum constants at the end, or rebuild
+ * the table after reordering.
+ */
+@Entity
+@Table(name = "game_read_model", indexes = {
+    @Index(name = "idx_game_read_model_change_version", columnList = "change_version"),
+    @Index(name = "idx_game_read_model_name", columnList = "name, game_id")
+})
+public class GameReadModel {
+    
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+    
+    @Column(name = "name")
+    private String name;
+    
+    @Column(name = "min_minutes", nullable = false)
+    private int minMinutes;
+    
+    @Column(name = "max_minutes", nullable = false)
+    private int maxMinutes;
+    
+    // Bit (1 << ordinal) per EmotionalGoal
+    @Column(name = "emotional_goals", nullable = false)
+    private int emotionalGoals;
+    
+    // Bit (1 << ordinal) per TimeOfDay
+    @Column(name = "times_of_day", nullable = false)
+    private int timesOfDay;
+    
+    // Bit (1 << ordinal) per SocialPreference
+    @Column(name = "social_preferences", nullable = false)
+    private int socialPreferences;
+    
+    // Genres joined with '|'
+    @Column(name = "genres", length = 1000)
+    private String genres;
+    
+    @Column(name = "interruptibility", length = 32)
+    private String interruptibility;
+    
+    @Column(name = "energy_required", length = 32)
+    private String energyRequired;
+    
+    @Column(name = "audio_dependency", length = 32)
+    private String audioDependency;
+    
+    @Column(name = "content_rating", length = 32)
+    private String contentRating;
+    
+    @Column(name = "nsfw_level", length = 32)
+    private String nsfwLevel;
+    
+    @Column(name = "tagging_source", length = 32)
+    private String taggingSource;
+    
+    @Column(name = "tagging_confidence")
+    private Float taggingConfidence;
+    
+    @Column(name = "description", length = 1000)
+    private String description;
+    
+    @Column(name = "image_url")
+    private String imageUrl;
+    
+    @Column(name = "store_url")
+    private String storeUrl;
+    
+    @Column(name = "user_rating", nullable = false)
+    private double userRating;
+    
+    @Column(name = "average_satisfaction", nullable = false)
+    private double averageSatisfaction;
+    
+    @Column(name = "session_count", nullable = false)
+    private int sessionCount;
+    
+    @Column(name = "steam_app_id")
+    private Long steamAppId;
+    
+    @Column(name = "rawg_id")
+    private Integer rawgId;
+    
+    @Column(name = "steam_positive_reviews")
+    private Integer steamPositiveReviews;
+    
+    @Column(name = "steam_negative_reviews")
+    private Integer steamNegativeReviews;
+    
+    @Column(name = "metacritic_score")
+    private Integer metacriticScore;
+    
+    @Column(name = "popularity_score")
+    private Double popularityScore;
+    
+    @Column(name = "steam_playtime_forever")
+    private Integer steamPlaytimeForever;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Same value as games.change_version at the time of the write
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+    
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+    
+    public GameReadModel() {}
+    
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public int getMinMinutes() { return minMinutes; }
+    public void setMinMinutes(int minMinutes) { this.minMinutes = minMinutes; }
+    
+    public int getMaxMinutes() { return maxMinutes; }
+    public void setMaxMinutes(int maxMinutes) { this.maxMinutes = maxMinutes; }
+    
+    public int getEmotionalGoals() { return emotionalGoals; }
+    public void setEmotionalGoals(int emotionalGoals) { this.emotionalGoals = emotionalGoals; }
+    
+    public int getTimesOfDay() { return timesOfDay; }
+    public void setTimesOfDay(int timesOfDay) { this.timesOfDay = timesOfDay; }
+    
+    public int getSocialPreferences() { return socialPreferences; }
+    public void setSocialPreferences(int socialPreferences) { this.socialPreferences = socialPreferences; }
+    
+    public String getGenres() { return genres; }
+    public void setGenres(String genres) { this.genres = genres; }
+    
+    public String getInterruptibility() { return interruptibility; }
+    public void setInterruptibility(String interruptibility) { this.interruptibility = interruptibility; }
+    
+    public String getEnergyRequired() { return energyRequired; }
+    public void setEnergyRequired(String energyRequired) { this.energyRequired = energyRequired; }
+    
+    public String getAudioDependency() { return audioDependency; }
+    public void setAudioDependency(String audioDependency) { this.audioDependency = audioDependency; }
+    
+    public String getContentRating() { return contentRating; }
+    public void setContentRating(String contentRating) { this.contentRating = contentRating; }
+    
+    public String getNsfwLevel() { return nsfwLevel; }
+    public void setNsfwLevel(String nsfwLevel) { this.nsfwLevel = nsfwLevel; }
+    
+    public String getTaggingSource() { return taggingSource; }
+    public void setTaggingSource(String taggingSource) { this.taggingSource = taggingSource; }
+    
+    public Float getTaggingConfidence() { return taggingConfidence; }
+    public void setTaggingConfidence(Float taggingConfidence) { this.taggingConfidence = taggingConfidence; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    
+    public String getStoreUrl() { return storeUrl; }
+    public void setStoreUrl(String storeUrl) { this.storeUrl = storeUrl; }
+    
+    public double getUserRating() { return userRating; }
+    public void setUserRating(double userRating) { this.userRating = userRating; }
+    
+    public double getAverageSatisfaction() { return averageSatisfaction; }
+    public void setAverageSatisfaction(double averageSatisfaction) { this.averageSatisfaction = averageSatisfaction; }
+    
+    public int getSessionCount() { return sessionCount; }
+    public void setSessionCount(int sessionCount) { this.sessionCount = sessionCount; }
+    
+    public Long getSteamAppId() { return steamAppId; }
+    public void setSteamAppId(Long steamAppId) { this.steamAppId = steamAppId; }
+    
+    public Integer getRawgId() { return rawgId; }
+    public void setRawgId(Integer rawgId) { this.rawgId = rawgId; }
+    
+    public Integer getSteamPositiveReviews() { return steamPositiveReviews; }
+    public void setSteamPositiveReviews(Integer steamPositiveReviews) { this.steamPositiveReviews = steamPositiveReviews; }
+    
+    public Integer getSteamNegativeReviews() { return steamNegativeReviews; }
+    public void setSteamNegativeReviews(Integer steamNegativeReviews) { this.steamNegativeReviews = steamNegativeReviews; }
+    
+    public Integer getMetacriticScore() { return metacriticScore; }
+    public void setMetacriticScore(Integer metacriticScore) { this.metacriticScore = metacriticScore; }
+    
+    public Double getPopularityScore() { return popularityScore; }
+    public void setPopularityScore(Double popularityScore) { this.popularityScore = popularityScore; }
+    
+    public Integer getSteamPlaytimeForever() { return steamPlaytimeForever; }
+    public void setSteamPlaytimeForever(Integer steamPlaytimeForever) { this.steamPlaytimeForever = steamPlaytimeForever; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public long getChangeVersion() { return changeVersion; }
+    public void setChangeVersion(long changeVersion) { this.changeVersion = changeVersion; }
+    
+    public boolean isDeleted() { return deleted; }
+    public void setDeleted(boolean deleted) { this.deleted = deleted; }
+}
@@ -0,0 +1,33 @@
+package com.lutem.mvp.model;
+
+import com.lutem.mvp.repository.GameReadModelStore;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that keeps {@link GameReadModel} in step with Game.
+ * The callbacks run inside the flush of the transaction that wrote the Game,
+ * so the read model row commits (or rolls back) together with it.
+ */
+public class GameReadModelListener {
+
+    @Autowired
+    private GameReadModelStore readModelStore;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Game game) {
+        if (readModelStore != null) {
+            readModelStore.save(game);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Game game) {
+        if (readModelStore != null) {
+            readModelStore.delete(game.getId());
+        }
+    }
+}
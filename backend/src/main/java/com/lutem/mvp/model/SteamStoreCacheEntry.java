@@ -0,0 +1,50 @@
+package com.lutem.mvp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted Steam Store appdetails + review summary for one app (second tier of
+ * SteamStoreService's cache), so enrichment data survives restarts.
+ */
+@Entity
+@Table(name = "steam_store_cache", indexes = {
+    @Index(name = "idx_steam_store_cache_fetched_at", columnList = "fetched_at")
+})
+public class SteamStoreCacheEntry {
+    
+    @Id
+    @Column(name = "steam_app_id")
+    private Long steamAppId;
+    
+    // SteamAppDetails as JSON
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public SteamStoreCacheEntry() {}
+    
+    public SteamStoreCacheEntry(Long steamAppId, String payload, LocalDateTime fetchedAt, LocalDateTime expiresAt) {
+        this.steamAppId = steamAppId;
+        this.payload = payload;
+        this.fetchedAt = fetchedAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    public Long getSteamAppId() { return steamAppId; }
+    public void setSteamAppId(Long steamAppId) { this.steamAppId = steamAppId; }
+    
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    
+    public LocalDateTime getFetchedAt() { return fetchedAt; }
+    public void setFetchedAt(LocalDateTime fetchedAt) { this.fetchedAt = fetchedAt; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
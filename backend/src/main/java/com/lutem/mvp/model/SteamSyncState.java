@@ -0,0 +1,61 @@
+package com.lutem.mvp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Last known state of a user's Steam library: a hash of the owned-games list
+ * as of the last import, so unchanged libraries can be skipped on resync.
+ */
+@Entity
+@Table(name = "steam_sync_state", indexes = {
+    @Index(name = "idx_steam_sync_checked_at", columnList = "last_checked_at")
+})
+public class SteamSyncState {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "steam_id", nullable = false, length = 20)
+    private String steamId;
+    
+    // SHA-256 (hex) of the owned games (appId, playtimes), sorted by appId
+    @Column(name = "payload_hash", nullable = false, length = 64)
+    private String payloadHash;
+    
+    @Column(name = "game_count", nullable = false)
+    private int gameCount;
+    
+    // Last time Steam was asked, whether or not anything changed
+    @Column(name = "last_checked_at", nullable = false)
+    private LocalDateTime lastCheckedAt;
+    
+    // Last time the library was actually written
+    @Column(name = "last_changed_at", nullable = false)
+    private LocalDateTime lastChangedAt;
+    
+    public SteamSyncState() {}
+    
+    public SteamSyncState(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public String getSteamId() { return steamId; }
+    public void setSteamId(String steamId) { this.steamId = steamId; }
+    
+    public String getPayloadHash() { return payloadHash; }
+    public void setPayloadHash(String payloadHash) { this.payloadHash = payloadHash; }
+    
+    public int getGameCount() { return gameCount; }
+    public void setGameCount(int gameCount) { this.gameCount = gameCount; }
+    
+    public LocalDateTime getLastCheckedAt() { return lastCheckedAt; }
+    public void setLastCheckedAt(LocalDateTime lastCheckedAt) { this.lastCheckedAt = lastCheckedAt; }
+    
+    public LocalDateTime getLastChangedAt() { return lastChangedAt; }
+    public void setLastChangedAt(LocalDateTime lastChangedAt) { this.lastChangedAt = lastChangedAt; }
+}
@@ -0,0 +1,98 @@
+package com.lutem.mvp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A background AI tagging run over a fixed set of games (one
+ * {@link TaggingJobItem} per game). Counters are refreshed after every chunk.
+ */
+@Entity
+@Table(name = "tagging_jobs", indexes = {
+    @Index(name = "idx_tagging_job_status", columnList = "status")
+})
+public class TaggingJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private TaggingJobStatus status = TaggingJobStatus.QUEUED;
+    
+    // Where the job came from: "admin" or "ai-import"
+    @Column(name = "source", length = 30)
+    private String source;
+    
+    // User who started the job (null for admin jobs started without a user context)
+    @Column(name = "created_by_user_id")
+    private Long createdByUserId;
+    
+    @Column(name = "total", nullable = false)
+    private int total;
+    
+    @Column(name = "succeeded", nullable = false)
+    private int succeeded;
+    
+    @Column(name = "failed", nullable = false)
+    private int failed;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    public TaggingJob() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public TaggingJob(String source, Long createdByUserId, int total) {
+        this();
+        this.source = source;
+        this.createdByUserId = createdByUserId;
+        this.total = total;
+    }
+    
+    public boolean isFinished() {
+        return status == TaggingJobStatus.COMPLETED;
+    }
+    
+    public int getProcessed() {
+        return succeeded + failed;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public TaggingJobStatus getStatus() { return status; }
+    public void setStatus(TaggingJobStatus status) { this.status = status; }
+    
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    
+    public Long getCreatedByUserId() { return createdByUserId; }
+    public void setCreatedByUserId(Long createdByUserId) { this.createdByUserId = createdByUserId; }
+    
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+    
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
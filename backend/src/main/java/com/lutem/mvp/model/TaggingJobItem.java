@@ -0,0 +1,88 @@
+package com.lutem.mvp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One game to tag within a {@link TaggingJob}. Items are claimed in chunks
+ * (status CLAIMED + claim token + the claiming instance), and failed items go back to PENDING with an
+ * exponential-backoff nextAttemptAt until they run out of attempts.
+ */
+@Entity
+@Table(name = "tagging_job_items", indexes = {
+    @Index(name = "idx_tagging_item_claim", columnList = "job_id, status, next_attempt_at"),
+    @Index(name = "idx_tagging_item_token", columnList = "claim_token")
+})
+public class TaggingJobItem {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+    
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private TaggingJobItemStatus status = TaggingJobItemStatus.PENDING;
+    
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+    
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+    
+    // lutem.tagging-jobs.instance-id of the runner holding the claim
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    public TaggingJobItem() {}
+    
+    public TaggingJobItem(Long jobId, Long gameId, LocalDateTime nextAttemptAt) {
+        this.jobId = jobId;
+        this.gameId = gameId;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+    
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+    
+    public TaggingJobItemStatus getStatus() { return status; }
+    public void setStatus(TaggingJobItemStatus status) { this.status = status; }
+    
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    
+    public String getClaimToken() { return claimToken; }
+    public void setClaimToken(String claimToken) { this.claimToken = claimToken; }
+    
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+    public void setClaimedAt(LocalDateTime claimedAt) { this.claimedAt = claimedAt; }
+    
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
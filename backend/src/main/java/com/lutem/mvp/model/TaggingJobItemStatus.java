@@ -0,0 +1,23 @@
+package com.lutem.mvp.model;
+
+/**
+ * State of one game within a tagging job.
+ */
+public enum TaggingJobItemStatus {
+    /**
+     * Waiting to be claimed (possibly until nextAttemptAt after a failure)
+     */
+    PENDING,
+    
+    /**
+     * Claimed by the job runner; released back to PENDING if the lease expires
+     */
+    CLAIMED,
+    
+    SUCCEEDED,
+    
+    /**
+     * Failed on every allowed attempt
+     */
+    FAILED
+}
@@ -0,0 +1,21 @@
+package com.lutem.mvp.model;
+
+/**
+ * Lifecycle of a background AI tagging job.
+ */
+public enum TaggingJobStatus {
+    /**
+     * Created, no chunk claimed yet
+     */
+    QUEUED,
+    
+    /**
+     * At least one chunk claimed; survives restarts and is resumed
+     */
+    RUNNING,
+    
+    /**
+     * Every game was either tagged or ran out of retries
+     */
+    COMPLETED
+}
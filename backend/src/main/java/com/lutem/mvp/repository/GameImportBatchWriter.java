@@ -0,0 +1,240 @@
+package com.lutem.mvp.repository;
+
+import com.lutem.mvp.model.Game;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * JDBC batch writes for the admin game import: catalog inserts with their
+ * collections, and tag updates on matched games. Table and column names come
+ * from the Hibernate mapping, as in {@link SteamLibraryBatchWriter}.
+ *
+ * These writes bypass the Game entity listeners, so callers are responsible
+ * for the read model and for publishing GameChangedEvents. Must run inside
+ * the caller's transaction; batch sizing is the caller's too.
+ */
+@Repository
+public class GameImportBatchWriter {
+
+    private static final String[] GAME_PROPERTIES = {
+        "name", "minMinutes", "maxMinutes", "interruptibility", "energyRequired", "audioDependency",
+        "contentRating", "nsfwLevel", "description", "imageUrl", "storeUrl", "userRating",
+        "averageSatisfaction", "sessionCount", "steamAppId", "taggingSource", "taggingConfidence", "rawgId",
+        "steamPositiveReviews", "steamNegativeReviews", "metacriticScore", "popularityScore",
+        "steamPlaytimeForever"
+    };
+    private static final int[] GAME_TYPES = {
+        Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+        Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DOUBLE,
+        Types.DOUBLE, Types.INTEGER, Types.BIGINT, Types.VARCHAR, Types.REAL, Types.INTEGER,
+        Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.DOUBLE, Types.INTEGER
+    };
+    private static final String[] TAG_PROPERTIES = {
+        "interruptibility", "audioDependency", "contentRating", "nsfwLevel", "energyRequired",
+        "taggingSource", "taggingConfidence"
+    };
+    private static final int[] TAG_TYPES = {
+        Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.REAL,
+        Types.BIGINT
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String idColumn;
+    private final String insertGameSql;
+    private final String updateTagsSql;
+    private final ElementTable emotionalGoals;
+    private final ElementTable timesOfDay;
+    private final ElementTable socialPreferences;
+    private final ElementTable genres;
+
+    public GameImportBatchWriter(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        AbstractEntityPersister games = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+            .getEntityDescriptor(Game.class);
+        this.idColumn = games.getIdentifierColumnNames()[0];
+
+        List<String> columns = new ArrayList<>();
+        for (String property : GAME_PROPERTIES) {
+            columns.add(column(games, property));
+        }
+        this.insertGameSql = "INSERT INTO " + games.getTableName() + " (" + String.join(", ", columns)
+            + ") VALUES (" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+
+        List<String> assignments = new ArrayList<>();
+        for (String property : TAG_PROPERTIES) {
+            assignments.add(column(games, property) + " = ?");
+        }
+        this.updateTagsSql = "UPDATE " + games.getTableName() + " SET " + String.join(", ", assignments)
+            + " WHERE " + idColumn + " = ?";
+
+        this.emotionalGoals = new ElementTable(sessionFactory, "emotionalGoals");
+        this.timesOfDay = new ElementTable(sessionFactory, "bestTimeOfDay");
+        this.socialPreferences = new ElementTable(sessionFactory, "socialPreferences");
+        this.genres = new ElementTable(sessionFactory, "genres");
+    }
+
+    /**
+     * Inserts new games and their collections, setting the generated id on
+     * each one. Returns how many games were inserted.
+     */
+    public int insertGames(List<Game> newGames) {
+        if (newGames.isEmpty()) {
+            return 0;
+        }
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(insertGameSql, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Object[] values = gameValues(newGames.get(i));
+                    for (int column = 0; column < values.length; column++) {
+                        StatementCreatorUtils.setParameterValue(ps, column + 1, GAME_TYPES[column], values[column]);
+                    }
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return newGames.size();
+                }
+            },
+            keys);
+
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        if (keyList.size() != newGames.size()) {
+            throw new IllegalStateException("Expected " + newGames.size() + " generated ids, got " + keyList.size());
+        }
+        for (int i = 0; i < newGames.size(); i++) {
+            newGames.get(i).setId(generatedId(keyList.get(i)));
+        }
+
+        emotionalGoals.insert(newGames, Game::getEmotionalGoals);
+        timesOfDay.insert(newGames, Game::getBestTimeOfDay);
+        socialPreferences.insert(newGames, Game::getSocialPreferences);
+        genres.insert(newGames, Game::getGenres);
+        return newGames.size();
+    }
+
+    /**
+     * Writes the tag columns of already-persisted games and replaces their
+     * emotional goals. Returns how many game rows were updated.
+     */
+    public int updateTags(List<Game> tagged) {
+        if (tagged.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> args = new ArrayList<>(tagged.size());
+        for (Game game : tagged) {
+            args.add(new Object[] {
+                name(game.getInterruptibility()), name(game.getAudioDependency()), name(game.getContentRating()),
+                name(game.getNsfwLevel()), name(game.getEnergyRequired()), name(game.getTaggingSource()),
+                game.getTaggingConfidence(), game.getId()
+            });
+        }
+        int affected = 0;
+        for (int count : jdbcTemplate.batchUpdate(updateTagsSql, args, TAG_TYPES)) {
+            // Some drivers only report "succeeded" for batched statements
+            affected += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+        }
+        emotionalGoals.replace(tagged, Game::getEmotionalGoals);
+        return affected;
+    }
+
+    private Long generatedId(Map<String, Object> key) {
+        Object id = key.size() == 1 ? key.values().iterator().next() : null;
+        // Some drivers return every column of the inserted row
+        for (Map.Entry<String, Object> entry : key.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(idColumn)) {
+                id = entry.getValue();
+            }
+        }
+        if (!(id instanceof Number)) {
+            throw new IllegalStateException("No generated id in " + key.keySet());
+        }
+        return ((Number) id).longValue();
+    }
+
+    private static Object[] gameValues(Game game) {
+        return new Object[] {
+            game.getName(), game.getMinMinutes(), game.getMaxMinutes(), name(game.getInterruptibility()),
+            name(game.getEnergyRequired()), name(game.getAudioDependency()), name(game.getContentRating()),
+            name(game.getNsfwLevel()), game.getDescription(), game.getImageUrl(), game.getStoreUrl(),
+            game.getUserRating(), game.getAverageSatisfaction(), game.getSessionCount(), game.getSteamAppId(),
+            name(game.getTaggingSource()), game.getTaggingConfidence(), game.getRawgId(),
+            game.getSteamPositiveReviews(), game.getSteamNegativeReviews(), game.getMetacriticScore(),
+            game.getPopularityScore(), game.getSteamPlaytimeForever()
+        };
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static String column(AbstractEntityPersister persister, String property) {
+        return persister.getPropertyColumnNames(property)[0];
+    }
+
+    /**
+     * One @ElementCollection table of Game (game_id, value).
+     */
+    private final class ElementTable {
+        private final String insertSql;
+        private final String deleteSql;
+
+        ElementTable(SessionFactoryImplementor sessionFactory, String property) {
+            AbstractCollectionPersister persister = (AbstractCollectionPersister) sessionFactory
+                .getMappingMetamodel().getCollectionDescriptor(Game.class.getName() + "." + property);
+            String key = persister.getKeyColumnNames()[0];
+            this.insertSql = "INSERT INTO " + persister.getTableName() + " (" + key + ", "
+                + persister.getElementColumnNames()[0] + ") VALUES (?, ?)";
+            this.deleteSql = "DELETE FROM " + persister.getTableName() + " WHERE " + key + " = ?";
+        }
+
+        void insert(List<Game> games, Function<Game, Collection<?>> values) {
+            List<Object[]> args = new ArrayList<>();
+            for (Game game : games) {
+                Collection<?> elements = values.apply(game);
+                if (elements == null) {
+                    continue;
+                }
+                for (Object element : elements) {
+                    if (element != null) {
+                        args.add(new Object[] {
+                            game.getId(), element instanceof Enum ? ((Enum<?>) element).name() : element
+                        });
+                    }
+                }
+            }
+            jdbcTemplate.batchUpdate(insertSql, args);
+        }
+
+        void replace(List<Game> games, Function<Game, Collection<?>> values) {
+            List<Object[]> ids = new ArrayList<>(games.size());
+            for (Game game : games) {
+                ids.add(new Object[] { game.getId() });
+            }
+            jdbcTemplate.batchUpdate(deleteSql, ids);
+            insert(games, values);
+        }
+    }
+}
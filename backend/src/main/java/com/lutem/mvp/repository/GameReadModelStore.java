@@ -0,0 +1,500 @@
+package com.lutem.mvp.repository;
+
+import com.lutem.mvp.model.*;
+import org.hibernate.Hibernate;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC access to the {@link GameReadModel} table.
+ *
+ * Writes run on the caller's connection, so they commit or roll back with the
+ * Game write that triggered them. They are called from a JPA entity callback
+ * in the middle of a flush, which is why this class only uses plain JDBC and
+ * never touches the persistence context: collections Hibernate hasn't loaded
+ * are unchanged by definition and are read straight from their tables.
+ *
+ * Every write takes a fresh value from game_change_seq and stamps it on both
+ * games.change_version and the read model row, which is what lets
+ * GameCatalogService pull only what changed since its last refresh.
+ */
+@Repository
+public class GameReadModelStore {
+
+    static final String GENRE_SEPARATOR = "|";
+    private static final int IN_CHUNK = 1000;
+
+    private static final String COLUMNS = "name, min_minutes, max_minutes, emotional_goals, times_of_day, "
+        + "social_preferences, genres, interruptibility, energy_required, audio_dependency, content_rating, "
+        + "nsfw_level, tagging_source, tagging_confidence, description, image_url, store_url, user_rating, "
+        + "average_satisfaction, session_count, steam_app_id, rawg_id, steam_positive_reviews, "
+        + "steam_negative_reviews, metacritic_score, popularity_score, steam_playtime_forever, updated_at, "
+        + "change_version, deleted";
+
+    private static final String UPDATE_SQL = "UPDATE game_read_model SET "
+        + Arrays.stream(COLUMNS.split(", ")).map(c -> c + " = ?").collect(Collectors.joining(", "))
+        + " WHERE game_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO game_read_model (" + COLUMNS + ", game_id) VALUES ("
+        + String.join(", ", Collections.nCopies(COLUMNS.split(", ").length + 1, "?")) + ")";
+    private static final String SELECT_SQL = "SELECT game_id, " + COLUMNS + " FROM game_read_model";
+    private static final String TOMBSTONE_SQL = "UPDATE game_read_model SET deleted = TRUE, change_version = ?, "
+        + "updated_at = ? WHERE game_id = ? AND deleted = FALSE";
+
+    /**
+     * Sort orders supported by {@link #findPage}: the request parameter name,
+     * the SQL sort expression and the same key read off a Game. Nullable
+     * columns are coalesced so every row has a comparable key.
+     */
+    public enum SortKey {
+        NAME("name", "name", String.class, Game::getName),
+        MIN_MINUTES("minMinutes", "min_minutes", Integer.class, Game::getMinMinutes),
+        MAX_MINUTES("maxMinutes", "max_minutes", Integer.class, Game::getMaxMinutes),
+        USER_RATING("userRating", "user_rating", Double.class, Game::getUserRating),
+        AVERAGE_SATISFACTION("averageSatisfaction", "average_satisfaction", Double.class,
+            Game::getAverageSatisfaction),
+        SESSION_COUNT("sessionCount", "session_count", Integer.class, Game::getSessionCount),
+        METACRITIC_SCORE("metacriticScore", "COALESCE(metacritic_score, -1)", Integer.class,
+            g -> g.getMetacriticScore() != null ? g.getMetacriticScore() : -1),
+        POPULARITY_SCORE("popularityScore", "COALESCE(popularity_score, -1)", Double.class,
+            g -> g.getPopularityScore() != null ? g.getPopularityScore() : -1.0),
+        ID("id", "game_id", Long.class, Game::getId);
+
+        private final String param;
+        private final String expression;
+        private final Class<?> type;
+        private final Function<Game, Object> extractor;
+
+        SortKey(String param, String expression, Class<?> type, Function<Game, Object> extractor) {
+            this.param = param;
+            this.expression = expression;
+            this.type = type;
+            this.extractor = extractor;
+        }
+
+        public String getParam() { return param; }
+
+        public Object keyOf(Game game) {
+            return extractor.apply(game);
+        }
+
+        /**
+         * Parses a key written with String.valueOf back to this key's type.
+         */
+        public Object parseKey(String value) {
+            if (type == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Double.class) {
+                return Double.valueOf(value);
+            }
+            return value;
+        }
+
+        public static SortKey fromParam(String param) {
+            for (SortKey key : values()) {
+                if (key.param.equals(param)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort field: " + param + " (supported: "
+                + Arrays.stream(values()).map(SortKey::getParam).collect(Collectors.joining(", ")) + ")");
+        }
+    }
+
+    /**
+     * One entry of a changes-since query: the game as it now is, or a removal.
+     */
+    public static final class Change {
+        private final Long gameId;
+        private final long version;
+        private final LocalDateTime changedAt;
+        private final Game game;
+
+        Change(Long gameId, long version, LocalDateTime changedAt, Game game) {
+            this.gameId = gameId;
+            this.version = version;
+            this.changedAt = changedAt;
+            this.game = game;
+        }
+
+        public Long getGameId() { return gameId; }
+        public long getVersion() { return version; }
+        public LocalDateTime getChangedAt() { return changedAt; }
+        public boolean isRemoved() { return game == null; }
+        // Null for removals
+        public Game getGame() { return game; }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    private final String nextVersionSql;
+
+    // Only JdbcTemplate: Game's entity listeners get this injected while the EntityManagerFactory is being built
+    public GameReadModelStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Not tied to an id generator, so Hibernate's schema update won't create it
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS game_change_seq START WITH 1 INCREMENT BY 1");
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+        this.nextVersionSql = postgres
+            ? "SELECT nextval('game_change_seq')"
+            : "SELECT NEXT VALUE FOR game_change_seq";
+    }
+
+    /**
+     * Bumps the game's change version and writes its row, or leaves a
+     * tombstone if the game is no longer fully tagged.
+     */
+    public void save(Game game) {
+        if (game.getId() != null) {
+            saveAll(List.of(game));
+        }
+    }
+
+    /**
+     * {@link #save(Game)} for many games at once: one change version for the
+     * whole set, collections not yet loaded fetched with one query per table,
+     * and every write sent as a JDBC batch.
+     */
+    public void saveAll(List<Game> games) {
+        if (games.isEmpty()) {
+            return;
+        }
+        long version = nextVersion();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = games.stream().map(Game::getId).collect(Collectors.toList());
+
+        Map<Long, List<String>> goals = unloaded(games, Game::getEmotionalGoals)
+            ? valuesByGame("game_emotional_goals", "emotional_goal", ids) : Map.of();
+        Map<Long, List<String>> times = unloaded(games, Game::getBestTimeOfDay)
+            ? valuesByGame("game_time_of_day", "time_of_day", ids) : Map.of();
+        Map<Long, List<String>> social = unloaded(games, Game::getSocialPreferences)
+            ? valuesByGame("game_social_preferences", "social_preference", ids) : Map.of();
+        Map<Long, List<String>> genres = unloaded(games, Game::getGenres)
+            ? valuesByGame("game_genres", "genre", ids) : Map.of();
+
+        List<Object[]> versions = new ArrayList<>(games.size());
+        List<Object[]> rows = new ArrayList<>(games.size());
+        List<Object[]> tombstones = new ArrayList<>();
+        for (Game game : games) {
+            versions.add(new Object[] { version, game.getId() });
+            game.setChangeVersion(version);
+            if (!game.isFullyTagged()) {
+                tombstones.add(new Object[] { version, now, game.getId() });
+                continue;
+            }
+            Long id = game.getId();
+            rows.add(rowArgs(game,
+                loadedOr(game.getEmotionalGoals(), goals.get(id), EmotionalGoal::valueOf),
+                loadedOr(game.getBestTimeOfDay(), times.get(id), TimeOfDay::valueOf),
+                loadedOr(game.getSocialPreferences(), social.get(id), SocialPreference::valueOf),
+                loadedOr(game.getGenres(), genres.get(id), Function.identity()),
+                version));
+        }
+
+        jdbcTemplate.batchUpdate("UPDATE games SET change_version = ? WHERE id = ?", versions);
+        jdbcTemplate.batchUpdate(TOMBSTONE_SQL, tombstones);
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(rows.get(i));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+    }
+
+    /**
+     * Turns the game's row into a tombstone (no-op if it was never tagged).
+     */
+    public void delete(Long gameId) {
+        jdbcTemplate.update(TOMBSTONE_SQL, nextVersion(), Timestamp.valueOf(LocalDateTime.now()), gameId);
+    }
+
+    /**
+     * Rewrites the table from the given (fully loaded) games under one new
+     * version; rows for games not in the list become tombstones.
+     */
+    public int replaceAll(List<Game> games) {
+        long version = nextVersion();
+        jdbcTemplate.update("UPDATE game_read_model SET deleted = TRUE, change_version = ?, updated_at = ? "
+            + "WHERE deleted = FALSE", version, Timestamp.valueOf(LocalDateTime.now()));
+        List<Object[]> rows = new ArrayList<>(games.size());
+        for (Game game : games) {
+            if (game.isFullyTagged()) {
+                rows.add(rowArgs(game, game.getEmotionalGoals(), game.getBestTimeOfDay(),
+                    game.getSocialPreferences(), game.getGenres(), version));
+            }
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(rows.get(i));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        return rows.size();
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM game_read_model WHERE deleted = FALSE",
+            Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Every live row as a detached, read-only Game with its lists filled in; one flat query.
+     */
+    public List<Game> findAll() {
+        return jdbcTemplate.query(SELECT_SQL + " WHERE deleted = FALSE ORDER BY game_id", ROW_MAPPER);
+    }
+
+    /**
+     * Keyset page of live rows ordered by (sort key, game_id): the first
+     * {@code limit} rows after the given position, or from the start when
+     * {@code afterId} is null. Costs the same however deep the page is; one
+     * flat query with the lists filled in.
+     */
+    public List<Game> findPage(SortKey sortKey, boolean descending, Object afterKey, Long afterId, int limit) {
+        String direction = descending ? " DESC" : " ASC";
+        StringBuilder sql = new StringBuilder(SELECT_SQL).append(" WHERE deleted = FALSE");
+        List<Object> args = new ArrayList<>(3);
+        if (afterId != null) {
+            sql.append(" AND (").append(sortKey.expression).append(", game_id) ")
+                .append(descending ? "<" : ">").append(" (?, ?)");
+            args.add(afterKey);
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY ").append(sortKey.expression).append(direction)
+            .append(", game_id").append(direction).append(" LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Creates the pg_trgm extension and GIN trigram indexes on the lower-cased
+     * name and genres that {@link #findByTrigram} relies on. Postgres only.
+     */
+    public void createTrigramIndexes() {
+        if (!postgres) {
+            throw new IllegalStateException("Trigram game search needs PostgreSQL (pg_trgm)");
+        }
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_game_read_model_name_trgm "
+            + "ON game_read_model USING gin (lower(name) gin_trgm_ops)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_game_read_model_genres_trgm "
+            + "ON game_read_model USING gin (lower(COALESCE(genres, '')) gin_trgm_ops)");
+    }
+
+    /**
+     * Live rows whose name or genres contain the query, or whose name is
+     * within {@code minSimilarity} of it (pg_trgm word similarity). Ranked
+     * name prefix, name substring, genre substring, similar name; then by
+     * popularity. Must run inside a transaction: the threshold is set with
+     * SET LOCAL semantics.
+     */
+    public List<Game> findByTrigram(String query, int limit, double minSimilarity) {
+        String lower = query.toLowerCase(Locale.ROOT);
+        String escaped = lower.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+            String.class, String.valueOf(minSimilarity));
+        return jdbcTemplate.query(SELECT_SQL + " WHERE deleted = FALSE AND ("
+                + "lower(name) LIKE ? ESCAPE '\\' "
+                + "OR lower(COALESCE(genres, '')) LIKE ? ESCAPE '\\' "
+                + "OR ? <% lower(name)) "
+                + "ORDER BY CASE WHEN lower(name) LIKE ? ESCAPE '\\' THEN 0 "
+                + "WHEN lower(name) LIKE ? ESCAPE '\\' THEN 1 "
+                + "WHEN lower(COALESCE(genres, '')) LIKE ? ESCAPE '\\' THEN 2 ELSE 3 END, "
+                + "COALESCE(popularity_score, -1) DESC, game_id LIMIT ?",
+            ROW_MAPPER,
+            "%" + escaped + "%", "%" + escaped + "%", lower,
+            escaped + "%", "%" + escaped + "%", "%" + escaped + "%", limit);
+    }
+
+    /**
+     * Highest change version written before the given time (0 if none).
+     */
+    public long maxVersionBefore(LocalDateTime before) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(change_version) FROM game_read_model WHERE updated_at < ?",
+            Long.class, Timestamp.valueOf(before));
+        return max != null ? max : 0;
+    }
+
+    /**
+     * Rows (including tombstones) written after the given version, oldest first.
+     */
+    public List<Change> findChangesSince(long version, int limit) {
+        return jdbcTemplate.query(SELECT_SQL + " WHERE change_version > ? ORDER BY change_version LIMIT ?",
+            (rs, rowNum) -> new Change(rs.getLong("game_id"), rs.getLong("change_version"),
+                rs.getTimestamp("updated_at").toLocalDateTime(),
+                rs.getBoolean("deleted") ? null : ROW_MAPPER.mapRow(rs, rowNum)),
+            version, limit);
+    }
+
+    /**
+     * Drops tombstones older than the cutoff; every instance should have seen them by then.
+     */
+    public int purgeTombstones(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM game_read_model WHERE deleted = TRUE AND updated_at < ?",
+            Timestamp.valueOf(before));
+    }
+
+    private long nextVersion() {
+        Long version = jdbcTemplate.queryForObject(nextVersionSql, Long.class);
+        if (version == null) {
+            throw new IllegalStateException("game_change_seq returned no value");
+        }
+        return version;
+    }
+
+    private static Object[] rowArgs(Game game, Collection<EmotionalGoal> emotionalGoals,
+                                    Collection<TimeOfDay> timesOfDay,
+                                    Collection<SocialPreference> socialPreferences,
+                                    Collection<String> genres, long version) {
+        return new Object[] {
+            // Never null: name is the default keyset sort key, and a NULL would drop out of row comparisons
+            game.getName() != null ? game.getName() : "", game.getMinMinutes(), game.getMaxMinutes(),
+            bits(emotionalGoals), bits(timesOfDay), bits(socialPreferences), joinGenres(genres),
+            name(game.getInterruptibility()), name(game.getEnergyRequired()), name(game.getAudioDependency()),
+            name(game.getContentRating()), name(game.getNsfwLevel()), name(game.getTaggingSource()),
+            game.getTaggingConfidence(), game.getDescription(), game.getImageUrl(), game.getStoreUrl(),
+            game.getUserRating(), game.getAverageSatisfaction(), game.getSessionCount(), game.getSteamAppId(),
+            game.getRawgId(), game.getSteamPositiveReviews(), game.getSteamNegativeReviews(),
+            game.getMetacriticScore(), game.getPopularityScore(), game.getSteamPlaytimeForever(),
+            Timestamp.valueOf(LocalDateTime.now()), version, false, game.getId()
+        };
+    }
+
+    private static final RowMapper<Game> ROW_MAPPER = (ResultSet rs, int rowNum) -> {
+        Game game = new Game();
+        game.setId(rs.getLong("game_id"));
+        game.setName(rs.getString("name"));
+        game.setMinMinutes(rs.getInt("min_minutes"));
+        game.setMaxMinutes(rs.getInt("max_minutes"));
+        game.setEmotionalGoals(fromBits(rs.getInt("emotional_goals"), EmotionalGoal.values()));
+        game.setBestTimeOfDay(fromBits(rs.getInt("times_of_day"), TimeOfDay.values()));
+        game.setSocialPreferences(fromBits(rs.getInt("social_preferences"), SocialPreference.values()));
+        game.setGenres(splitGenres(rs.getString("genres")));
+        game.setInterruptibility(valueOf(Interruptibility.class, rs.getString("interruptibility")));
+        game.setEnergyRequired(valueOf(EnergyLevel.class, rs.getString("energy_required")));
+        game.setAudioDependency(valueOf(AudioDependency.class, rs.getString("audio_dependency")));
+        game.setContentRating(valueOf(ContentRating.class, rs.getString("content_rating")));
+        game.setNsfwLevel(valueOf(NsfwLevel.class, rs.getString("nsfw_level")));
+        game.setTaggingSource(valueOf(TaggingSource.class, rs.getString("tagging_source")));
+        game.setTaggingConfidence(nullable(rs, rs.getFloat("tagging_confidence")));
+        game.setDescription(rs.getString("description"));
+        game.setImageUrl(rs.getString("image_url"));
+        game.setStoreUrl(rs.getString("store_url"));
+        game.setUserRating(rs.getDouble("user_rating"));
+        game.setAverageSatisfaction(rs.getDouble("average_satisfaction"));
+        game.setSessionCount(rs.getInt("session_count"));
+        game.setSteamAppId(nullable(rs, rs.getLong("steam_app_id")));
+        game.setRawgId(nullable(rs, rs.getInt("rawg_id")));
+        game.setSteamPositiveReviews(nullable(rs, rs.getInt("steam_positive_reviews")));
+        game.setSteamNegativeReviews(nullable(rs, rs.getInt("steam_negative_reviews")));
+        game.setMetacriticScore(nullable(rs, rs.getInt("metacritic_score")));
+        game.setPopularityScore(nullable(rs, rs.getDouble("popularity_score")));
+        game.setSteamPlaytimeForever(nullable(rs, rs.getInt("steam_playtime_forever")));
+        game.setChangeVersion(rs.getLong("change_version"));
+        return game;
+    };
+
+    // Lists Hibernate hasn't loaded haven't changed, so the table is current for them
+
+    private static boolean unloaded(List<Game> games, Function<Game, List<?>> collection) {
+        return games.stream().anyMatch(game -> !Hibernate.isInitialized(collection.apply(game)));
+    }
+
+    private static <T> List<T> loadedOr(List<T> collection, List<String> stored, Function<String, T> parse) {
+        if (Hibernate.isInitialized(collection)) {
+            return collection;
+        }
+        return stored == null ? List.of() : stored.stream().map(parse).collect(Collectors.toList());
+    }
+
+    private Map<Long, List<String>> valuesByGame(String table, String column, List<Long> gameIds) {
+        Map<Long, List<String>> values = new HashMap<>();
+        for (int from = 0; from < gameIds.size(); from += IN_CHUNK) {
+            List<Long> chunk = gameIds.subList(from, Math.min(from + IN_CHUNK, gameIds.size()));
+            String sql = "SELECT game_id, " + column + " FROM " + table + " WHERE game_id IN ("
+                + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            jdbcTemplate.query(sql, rs -> {
+                values.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>()).add(rs.getString(2));
+            }, chunk.toArray());
+        }
+        return values;
+    }
+
+    static int bits(Collection<? extends Enum<?>> values) {
+        int mask = 0;
+        if (values != null) {
+            for (Enum<?> value : values) {
+                if (value != null) {
+                    mask |= 1 << value.ordinal();
+                }
+            }
+        }
+        return mask;
+    }
+
+    static <E extends Enum<E>> List<E> fromBits(int mask, E[] values) {
+        List<E> result = new ArrayList<>(Integer.bitCount(mask));
+        for (E value : values) {
+            if ((mask & (1 << value.ordinal())) != 0) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    static String joinGenres(Collection<String> genres) {
+        if (genres == null || genres.isEmpty()) {
+            return null;
+        }
+        return genres.stream()
+            .filter(g -> g != null && !g.isBlank())
+            .map(g -> g.replace(GENRE_SEPARATOR, "/"))
+            .collect(Collectors.joining(GENRE_SEPARATOR));
+    }
+
+    static List<String> splitGenres(String genres) {
+        if (genres == null || genres.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(genres.split("\\" + GENRE_SEPARATOR)));
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static <E extends Enum<E>> E valueOf(Class<E> type, String name) {
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    private static <T> T nullable(ResultSet rs, T value) throws SQLException {
+        return rs.wasNull() ? null : value;
+    }
+}
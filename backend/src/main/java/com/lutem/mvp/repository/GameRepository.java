@@ -2,15 +2,20 @@ package com.lutem.mvp.repository;
 
 import com.lutem.mvp.model.Game;
 import com.lutem.mvp.model.TaggingSource;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
@@ -38,6 +43,48 @@ public interface GameRepository extends JpaRepository<Game, Long> {
     @Query("SELECT g FROM Game g WHERE g.steamAppId IN :steamAppIds")
     List<Game> findBySteamAppIdIn(@Param("steamAppIds") List<Long> steamAppIds);
     
+    /**
+     * [steamAppId, id, imageUrl] for games matching the given Steam App IDs.
+     * Used by library import, which doesn't need managed entities.
+     */
+    @Query("SELECT g.steamAppId, g.id, g.imageUrl FROM Game g WHERE g.steamAppId IN :steamAppIds")
+    List<Object[]> findSteamRefsBySteamAppIdIn(@Param("steamAppIds") Collection<Long> steamAppIds);
+    
+    /**
+     * [id, steamAppId, name, interruptibility, audioDependency, contentRating, nsfwLevel,
+     * energyRequired, taggingSource, taggingConfidence] for games matching the given Steam App IDs.
+     * Used by the admin import to match a whole payload in a few queries.
+     */
+    @Query("SELECT g.id, g.steamAppId, g.name, g.interruptibility, g.audioDependency, g.contentRating, "
+        + "g.nsfwLevel, g.energyRequired, g.taggingSource, g.taggingConfidence "
+        + "FROM Game g WHERE g.steamAppId IN :steamAppIds")
+    List<Object[]> findImportRowsBySteamAppIdIn(@Param("steamAppIds") Collection<Long> steamAppIds);
+    
+    /**
+     * Same projection as {@link #findImportRowsBySteamAppIdIn}, matched on lower-cased name.
+     */
+    @Query("SELECT g.id, g.steamAppId, g.name, g.interruptibility, g.audioDependency, g.contentRating, "
+        + "g.nsfwLevel, g.energyRequired, g.taggingSource, g.taggingConfidence "
+        + "FROM Game g WHERE LOWER(g.name) IN :names")
+    List<Object[]> findImportRowsByLowerNameIn(@Param("names") Collection<String> names);
+    
+    /**
+     * [gameId, emotionalGoal] pairs for the given games.
+     */
+    @Query("SELECT g.id, e FROM Game g JOIN g.emotionalGoals e WHERE g.id IN :ids")
+    List<Object[]> findEmotionalGoalsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Every game in id order as a database cursor (read-only, fetched in
+     * batches of 256 rows). Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT g FROM Game g ORDER BY g.id")
+    Stream<Game> streamAllOrderById();
+    
     /**
      * Find all games by tagging source.
      */
@@ -64,6 +111,12 @@ public interface GameRepository extends JpaRepository<Game, Long> {
     @Query("SELECT g FROM Game g WHERE g.taggingSource = 'PENDING' OR g.taggingSource IS NULL")
     List<Game> findAllPendingTagging();
     
+    /**
+     * IDs of untagged/pending games, for callers that load them in batches.
+     */
+    @Query("SELECT g.id FROM Game g WHERE g.taggingSource = 'PENDING' OR g.taggingSource IS NULL ORDER BY g.id")
+    List<Long> findPendingTaggingIds();
+    
     /**
      * Check if a Steam App ID already exists in the database.
      */
@@ -83,7 +136,8 @@ public interface GameRepository extends JpaRepository<Game, Long> {
     Page<Game> findAllFullyTaggedPaged(Pageable pageable);
 
     /**
-     * Search games by name with pagination.
+     * Search games by name with pagination. LOWER(name) LIKE '%x%' can't use
+     * an index and scans the table; user-facing search goes through GameSearch.
      */
     Page<Game> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
@@ -35,6 +35,11 @@ public interface GameSessionRepository extends JpaRepository<GameSession, Long>
     @Query("SELECT AVG(s.satisfactionScore) FROM GameSession s " +
            "WHERE s.game.id = :gameId AND s.satisfactionScore IS NOT NULL")
     Double getAverageSatisfactionForGame(@Param("gameId") Long gameId);
+
+    // Get average satisfaction for every rated game in one pass: [gameId, average]
+    @Query("SELECT s.game.id, AVG(s.satisfactionScore) FROM GameSession s " +
+           "WHERE s.satisfactionScore IS NOT NULL GROUP BY s.game.id")
+    List<Object[]> getAverageSatisfactionByGame();
     
     // Get recent sessions by legacy user id (for weekly recap)
     @Query("SELECT s FROM GameSession s " +
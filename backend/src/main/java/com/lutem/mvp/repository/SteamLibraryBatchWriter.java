@@ -0,0 +1,191 @@
+package com.lutem.mvp.repository;
+
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.model.TaggingSource;
+import com.lutem.mvp.model.UserLibrary;
+import com.lutem.mvp.model.UserLibrary.LibrarySource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writes for Steam library imports. Replaces one save() per game
+ * (IDENTITY ids keep Hibernate from batching inserts) with multi-row batches.
+ *
+ * Inserts use ON CONFLICT DO NOTHING, so a game created concurrently by
+ * another import (unique steamAppId) or a library row that already exists
+ * (unique user_id + game_id) is skipped instead of failing the batch; callers
+ * re-read the rows afterwards. Table and column names come from the Hibernate
+ * mapping so they always match the physical naming strategy.
+ *
+ * Must run inside the caller's transaction.
+ */
+@Repository
+public class SteamLibraryBatchWriter {
+
+    private static final int[] GAME_TYPES = {
+        Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.DOUBLE,
+        Types.DOUBLE, Types.INTEGER, Types.BIGINT, Types.VARCHAR, Types.INTEGER
+    };
+    private static final int[] LIBRARY_INSERT_TYPES = {
+        Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.INTEGER, Types.INTEGER,
+        Types.TIMESTAMP, Types.TIMESTAMP
+    };
+    private static final int[] LIBRARY_UPDATE_TYPES = {
+        Types.INTEGER, Types.INTEGER, Types.TIMESTAMP, Types.BIGINT
+    };
+
+    /**
+     * A Steam game missing from the catalog, to be inserted as PENDING.
+     */
+    public static final class NewGame {
+        private final Long steamAppId;
+        private final String name;
+        private final Integer playtimeForever;
+
+        public NewGame(Long steamAppId, String name, Integer playtimeForever) {
+            this.steamAppId = steamAppId;
+            this.name = name;
+            this.playtimeForever = playtimeForever;
+        }
+
+        public Long getSteamAppId() { return steamAppId; }
+        public String getName() { return name; }
+        public Integer getPlaytimeForever() { return playtimeForever; }
+    }
+
+    /**
+     * A library row to insert or a playtime update for an existing row (libraryId set).
+     */
+    public static final class LibraryRow {
+        private final Long libraryId;
+        private final Long gameId;
+        private final Long steamAppId;
+        private final Integer playtimeForever;
+        private final Integer playtime2Weeks;
+
+        public LibraryRow(Long libraryId, Long gameId, Long steamAppId,
+                          Integer playtimeForever, Integer playtime2Weeks) {
+            this.libraryId = libraryId;
+            this.gameId = gameId;
+            this.steamAppId = steamAppId;
+            this.playtimeForever = playtimeForever;
+            this.playtime2Weeks = playtime2Weeks;
+        }
+
+        public Long getLibraryId() { return libraryId; }
+        public Long getGameId() { return gameId; }
+        public Long getSteamAppId() { return steamAppId; }
+        public Integer getPlaytimeForever() { return playtimeForever; }
+        public Integer getPlaytime2Weeks() { return playtime2Weeks; }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final String insertGameSql;
+    private final String insertLibrarySql;
+    private final String updateLibrarySql;
+
+    public SteamLibraryBatchWriter(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                   @Value("${lutem.steam.import-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        AbstractEntityPersister games = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+            .getEntityDescriptor(Game.class);
+        AbstractEntityPersister library = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+            .getEntityDescriptor(UserLibrary.class);
+
+        this.insertGameSql = insertSql(games, "name", "minMinutes", "maxMinutes", "imageUrl", "storeUrl",
+            "userRating", "averageSatisfaction", "sessionCount", "steamAppId", "taggingSource", "steamPlaytimeForever");
+        this.insertLibrarySql = insertSql(library, "user", "game", "source", "steamAppId",
+            "steamPlaytimeForever", "steamPlaytime2Weeks", "addedAt", "lastSyncedAt");
+        this.updateLibrarySql = "UPDATE " + library.getTableName() + " SET "
+            + column(library, "steamPlaytimeForever") + " = ?, "
+            + column(library, "steamPlaytime2Weeks") + " = ?, "
+            + column(library, "lastSyncedAt") + " = ? WHERE "
+            + library.getIdentifierColumnNames()[0] + " = ?";
+    }
+
+    /**
+     * Inserts PENDING catalog entries; returns how many rows were actually created.
+     */
+    public int insertPendingGames(List<NewGame> newGames) {
+        List<Object[]> args = new ArrayList<>(newGames.size());
+        for (NewGame game : newGames) {
+            args.add(new Object[] {
+                game.getName(), 0, 0,
+                "https://cdn.cloudflare.steamstatic.com/steam/apps/" + game.getSteamAppId() + "/header.jpg",
+                "https://store.steampowered.com/app/" + game.getSteamAppId(),
+                0.0, 0.0, 0, game.getSteamAppId(), TaggingSource.PENDING.name(), game.getPlaytimeForever()
+            });
+        }
+        return batch(insertGameSql, args, GAME_TYPES);
+    }
+
+    /**
+     * Inserts Steam library rows for a user; returns how many rows were actually created.
+     */
+    public int insertLibraryEntries(Long userId, List<LibraryRow> rows, LocalDateTime now) {
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (LibraryRow row : rows) {
+            args.add(new Object[] {
+                userId, row.getGameId(), LibrarySource.STEAM.name(), row.getSteamAppId(),
+                row.getPlaytimeForever(), row.getPlaytime2Weeks(), now, now
+            });
+        }
+        return batch(insertLibrarySql, args, LIBRARY_INSERT_TYPES);
+    }
+
+    /**
+     * Refreshes playtime and lastSyncedAt on existing library rows.
+     */
+    public int updatePlaytimes(List<LibraryRow> rows, LocalDateTime now) {
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (LibraryRow row : rows) {
+            args.add(new Object[] { row.getPlaytimeForever(), row.getPlaytime2Weeks(), now, row.getLibraryId() });
+        }
+        return batch(updateLibrarySql, args, LIBRARY_UPDATE_TYPES);
+    }
+
+    private int batch(String sql, List<Object[]> args, int[] types) {
+        int affected = 0;
+        for (int from = 0; from < args.size(); from += batchSize) {
+            List<Object[]> chunk = args.subList(from, Math.min(from + batchSize, args.size()));
+            for (int count : jdbcTemplate.batchUpdate(sql, chunk, types)) {
+                // Some drivers only report "succeeded" for batched statements
+                affected += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+        }
+        return affected;
+    }
+
+    private static String insertSql(AbstractEntityPersister persister, String... properties) {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        for (String property : properties) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+                values.append(", ");
+            }
+            columns.append(column(persister, property));
+            values.append('?');
+        }
+        return "INSERT INTO " + persister.getTableName() + " (" + columns + ") VALUES (" + values
+            + ") ON CONFLICT DO NOTHING";
+    }
+
+    private static String column(AbstractEntityPersister persister, String property) {
+        return persister.getPropertyColumnNames(property)[0];
+    }
+}
@@ -0,0 +1,21 @@
+package com.lutem.mvp.repository;
+
+import com.lutem.mvp.model.SteamStoreCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SteamStoreCacheRepository extends JpaRepository<SteamStoreCacheEntry, Long> {
+    
+    // Drop entries that have been expired for longer than the retention window
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SteamStoreCacheEntry e WHERE e.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
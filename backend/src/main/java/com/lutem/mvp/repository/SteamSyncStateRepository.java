@@ -0,0 +1,31 @@
+package com.lutem.mvp.repository;
+
+import com.lutem.mvp.model.SteamSyncState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SteamSyncStateRepository extends JpaRepository<SteamSyncState, Long> {
+    
+    // Libraries of recently active users that haven't been checked since the cutoff, stalest first
+    @Query("SELECT s FROM SteamSyncState s, User u WHERE u.id = s.userId " +
+           "AND u.lastLoginAt >= :activeSince AND s.lastCheckedAt < :checkedBefore " +
+           "ORDER BY s.lastCheckedAt")
+    List<SteamSyncState> findDueForResync(@Param("activeSince") LocalDateTime activeSince,
+                                          @Param("checkedBefore") LocalDateTime checkedBefore,
+                                          Pageable pageable);
+    
+    // Record an unchanged check without rewriting the row
+    @Modifying
+    @Transactional
+    @Query("UPDATE SteamSyncState s SET s.lastCheckedAt = :checkedAt WHERE s.userId = :userId")
+    int markChecked(@Param("userId") Long userId, @Param("checkedAt") LocalDateTime checkedAt);
+}
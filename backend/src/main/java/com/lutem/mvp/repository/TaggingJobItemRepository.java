@@ -0,0 +1,62 @@
+package com.lutem.mvp.repository;
+
+import com.lutem.mvp.model.TaggingJobItem;
+import com.lutem.mvp.model.TaggingJobItemStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaggingJobItemRepository extends JpaRepository<TaggingJobItem, Long> {
+    
+    // Items of a job that are due for an attempt, in insertion order
+    @Query("SELECT i.id FROM TaggingJobItem i WHERE i.jobId = :jobId AND i.status = :status " +
+           "AND i.nextAttemptAt <= :now ORDER BY i.id")
+    List<Long> findDueIds(@Param("jobId") Long jobId,
+                          @Param("status") TaggingJobItemStatus status,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+    
+    // Claim items only if still in the expected status, so two runners never tag the same item
+    @Modifying
+    @Query("UPDATE TaggingJobItem i SET i.status = :claimed, i.claimToken = :token, i.claimedAt = :now, " +
+           "i.claimedBy = :owner WHERE i.id IN :ids AND i.status = :expected")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("expected") TaggingJobItemStatus expected,
+              @Param("claimed") TaggingJobItemStatus claimed,
+              @Param("token") String token,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now);
+    
+    List<TaggingJobItem> findByClaimToken(String claimToken);
+    
+    // Hand claims of a crashed or stuck runner back to the queue
+    @Modifying
+    @Query("UPDATE TaggingJobItem i SET i.status = :pending, i.claimToken = NULL, i.claimedBy = NULL " +
+           "WHERE i.status = :claimed AND i.claimedAt < :cutoff")
+    int releaseClaimsBefore(@Param("cutoff") LocalDateTime cutoff,
+                            @Param("claimed") TaggingJobItemStatus claimed,
+                            @Param("pending") TaggingJobItemStatus pending);
+    
+    // Same, limited to one instance's claims (its own previous run, on restart)
+    @Modifying
+    @Query("UPDATE TaggingJobItem i SET i.status = :pending, i.claimToken = NULL, i.claimedBy = NULL " +
+           "WHERE i.status = :claimed AND i.claimedBy = :owner AND i.claimedAt < :cutoff")
+    int releaseClaimsOfBefore(@Param("owner") String owner,
+                              @Param("cutoff") LocalDateTime cutoff,
+                              @Param("claimed") TaggingJobItemStatus claimed,
+                              @Param("pending") TaggingJobItemStatus pending);
+    
+    long countByJobIdAndStatus(Long jobId, TaggingJobItemStatus status);
+    
+    long countByJobIdAndStatusIn(Long jobId, Collection<TaggingJobItemStatus> statuses);
+    
+    List<TaggingJobItem> findByJobIdAndStatus(Long jobId, TaggingJobItemStatus status);
+}
@@ -0,0 +1,16 @@
+package com.lutem.mvp.repository;
+
+import com.lutem.mvp.model.TaggingJob;
+import com.lutem.mvp.model.TaggingJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaggingJobRepository extends JpaRepository<TaggingJob, Long> {
+    
+    // Jobs the runner should work on, oldest first
+    List<TaggingJob> findByStatusInOrderByIdAsc(Collection<TaggingJobStatus> statuses);
+}
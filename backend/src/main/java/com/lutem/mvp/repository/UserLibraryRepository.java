@@ -28,6 +28,14 @@ public interface UserLibraryRepository extends JpaRepository<UserLibrary, Long>
      */
     Optional<UserLibrary> findByUserIdAndGameId(Long userId, Long gameId);
     
+    /**
+     * [gameId, libraryId, steamPlaytimeForever, steamPlaytime2Weeks] for every
+     * entry in a user's library (Steam import/resync diffing).
+     */
+    @Query("SELECT ul.game.id, ul.id, ul.steamPlaytimeForever, ul.steamPlaytime2Weeks " +
+           "FROM UserLibrary ul WHERE ul.user.id = :userId")
+    List<Object[]> findSyncRowsByUserId(@Param("userId") Long userId);
+    
     /**
      * Find by user ID and Steam App ID.
      */
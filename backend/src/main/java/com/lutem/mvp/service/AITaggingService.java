@@ -2,28 +2,53 @@ package com.lutem.mvp.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lutem.mvp.config.OutboundHttpClient;
 import com.lutem.mvp.model.*;
 import com.lutem.mvp.repository.GameRepository;
 import com.lutem.mvp.service.SteamStoreService.SteamAppDetails;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for AI-powered game tagging using Claude API.
  * Analyzes game information and determines Lutem attributes.
+ *
+ * Games are tagged in batches of {@code lutem.ai-tagging.batch-size}, at most
+ * {@code lutem.ai-tagging.workers} at a time (on virtual threads in the
+ * virtual-threads profile). Each batch reads its games in a short transaction,
+ * fetches Steam Store details and calls Claude outside any transaction (one
+ * prompt covers the whole batch), then writes the results in a second short
+ * transaction.
  */
 @Service
 public class AITaggingService {
     
     private static final Logger logger = LoggerFactory.getLogger(AITaggingService.class);
-    private static final String ANTHROPIC_API_URL = "https://api.anthropic.com/v1/messages";
+    private static final int MAX_TOKENS_PER_GAME = 500;
+    
+    @Value("${anthropic.api.url:https://api.anthropic.com/v1/messages}")
+    private String anthropicApiUrl;
     
     @Value("${anthropic.api.key:}")
     private String anthropicApiKey;
@@ -33,14 +58,52 @@ public class AITaggingService {
     
     private final GameRepository gameRepository;
     private final SteamStoreService steamStoreService;
+    private final TransactionTemplate transactionTemplate;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Executor taggingExecutor;
+    // Caps concurrent batches (and so Claude calls); tagGames blocks for a permit before submitting
+    private final Semaphore workerPermits;
     
-    public AITaggingService(GameRepository gameRepository, SteamStoreService steamStoreService) {
+    public AITaggingService(GameRepository gameRepository, SteamStoreService steamStoreService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${lutem.ai-tagging.workers:4}") int workers,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                            @Value("${lutem.ai-tagging.batch-size:5}") int batchSize,
+                            @Value("${lutem.ai-tagging.read-timeout-ms:120000}") long readTimeoutMs,
+                            OutboundHttpClient outboundHttpClient) {
         this.gameRepository = gameRepository;
         this.steamStoreService = steamStoreService;
-        this.restTemplate = new RestTemplate();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Claude can take well over the default read timeout for a full batch
+        this.restTemplate = outboundHttpClient.restTemplate(Duration.ofMillis(readTimeoutMs));
         this.objectMapper = new ObjectMapper();
+        this.batchSize = Math.max(1, batchSize);
+        
+        int poolSize = Math.max(1, workers);
+        this.workerPermits = new Semaphore(poolSize);
+        if (virtualThreads) {
+            this.taggingExecutor = new VirtualThreadTaskExecutor("ai-tagging-");
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            // The permits keep at most poolSize batches submitted, so this queue never fills
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(poolSize), r -> {
+                    Thread t = new Thread(r, "ai-tagging-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+            pool.allowCoreThreadTimeOut(true);
+            this.taggingExecutor = pool;
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (taggingExecutor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
     }
     
     /**
@@ -54,85 +117,208 @@ public class AITaggingService {
      * Tag a batch of pending games.
      * 
      * @param gameIds List of game IDs to tag, or null to tag all pending
-     * @return TaggingResult with success/failure counts
+     * @return TaggingResult with success/failure counts and throughput
      */
-    @Transactional
     public TaggingResult tagGames(List<Long> gameIds) {
         if (!isConfigured()) {
             throw new IllegalStateException("Anthropic API key not configured");
         }
+        long start = System.nanoTime();
         
-        List<Game> gamesToTag;
+        List<Long> idsToTag;
         if (gameIds != null && !gameIds.isEmpty()) {
-            gamesToTag = gameRepository.findAllById(gameIds);
+            idsToTag = new ArrayList<>(new LinkedHashSet<>(gameIds));
         } else {
-            gamesToTag = gameRepository.findAllPendingTagging();
+            idsToTag = gameRepository.findPendingTaggingIds();
         }
         
-        TaggingResult result = new TaggingResult();
-        result.setTotal(gamesToTag.size());
+        List<CompletableFuture<TaggingResult>> batches = new ArrayList<>();
+        for (int from = 0; from < idsToTag.size(); from += batchSize) {
+            List<Long> batchIds = idsToTag.subList(from, Math.min(from + batchSize, idsToTag.size()));
+            try {
+                workerPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                batches.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return tagBatch(batchIds);
+                    } finally {
+                        workerPermits.release();
+                    }
+                }, taggingExecutor));
+            } catch (RejectedExecutionException e) {
+                workerPermits.release();
+                throw e;
+            }
+        }
         
-        for (Game game : gamesToTag) {
+        TaggingResult result = new TaggingResult();
+        for (CompletableFuture<TaggingResult> batch : batches) {
             try {
-                boolean success = tagSingleGame(game);
-                if (success) {
-                    result.incrementSuccess();
-                    result.addTaggedGame(game);
-                } else {
-                    result.incrementFailed();
-                    result.addFailedGame(game.getId(), "AI tagging returned no results");
-                }
-            } catch (Exception e) {
-                logger.error("Failed to tag game {}: {}", game.getName(), e.getMessage());
-                result.incrementFailed();
-                result.addFailedGame(game.getId(), e.getMessage());
+                result.merge(batch.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batches.forEach(b -> b.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                // tagBatch handles its own failures; this is a bug, not a bad game
+                logger.error("Tagging batch failed", e.getCause());
             }
         }
+        result.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         
-        logger.info("AI Tagging complete: {} success, {} failed out of {} total",
-            result.getSuccessCount(), result.getFailedCount(), result.getTotal());
+        logger.info("AI Tagging complete: {} success, {} failed out of {} total ({} games/min)",
+            result.getSuccessCount(), result.getFailedCount(), result.getTotal(),
+            String.format("%.1f", result.getGamesPerMinute()));
         
         return result;
     }
-
     
     /**
-     * Tag a single game using AI.
+     * Tag one batch: short read transaction, Steam + Claude calls with no
+     * transaction open, short write transaction.
      */
-    private boolean tagSingleGame(Game game) {
-        logger.debug("Tagging game: {} (Steam App ID: {})", game.getName(), game.getSteamAppId());
+    private TaggingResult tagBatch(List<Long> ids) {
+        TaggingResult partial = new TaggingResult();
+        List<Game> games = transactionTemplate.execute(status -> gameRepository.findAllById(ids));
+        if (games == null || games.isEmpty()) {
+            return partial;
+        }
+        partial.setTotal(games.size());
         
-        // Get enrichment data from Steam Store API
-        SteamAppDetails storeDetails = null;
-        if (game.getSteamAppId() != null) {
-            storeDetails = steamStoreService.getAppDetails(game.getSteamAppId());
+        // Enrichment data from Steam Store API (fetched concurrently, rate limited by SteamStoreService)
+        List<CompletableFuture<SteamAppDetails>> pending = new ArrayList<>(games.size());
+        for (Game game : games) {
+            pending.add(fetchStoreDetails(game));
+        }
+        Map<Long, SteamAppDetails> storeDetails = new HashMap<>();
+        for (int i = 0; i < games.size(); i++) {
+            SteamAppDetails details = pending.get(i).join();
+            if (details != null) {
+                storeDetails.put(games.get(i).getId(), details);
+            }
         }
         
-        // Build prompt
-        String prompt = buildPrompt(game, storeDetails);
+        Map<Long, GameAttributes> attributes;
+        try {
+            attributes = requestAttributes(games, storeDetails);
+        } catch (Exception e) {
+            logger.error("Failed to tag batch of {} games: {}", games.size(), e.getMessage());
+            for (Game game : games) {
+                partial.incrementFailed();
+                partial.addFailedGame(game.getId(), e.getMessage());
+            }
+            return partial;
+        }
         
-        // Call Claude API
-        GameAttributes attributes = callClaudeAPI(prompt);
+        List<Long> taggedIds = new ArrayList<>();
+        for (Game game : games) {
+            if (attributes.containsKey(game.getId())) {
+                taggedIds.add(game.getId());
+            } else {
+                partial.incrementFailed();
+                partial.addFailedGame(game.getId(), "AI tagging returned no results");
+            }
+        }
+        if (taggedIds.isEmpty()) {
+            return partial;
+        }
         
-        if (attributes == null) {
-            return false;
+        // Update games with AI-generated attributes
+        try {
+            List<Game> saved = transactionTemplate.execute(status -> {
+                List<Game> managed = gameRepository.findAllById(taggedIds);
+                for (Game game : managed) {
+                    applyAttributes(game, attributes.get(game.getId()), storeDetails.get(game.getId()));
+                }
+                return gameRepository.saveAll(managed);
+            });
+            for (Game game : saved) {
+                GameAttributes attrs = attributes.get(game.getId());
+                partial.incrementSuccess();
+                partial.addTaggedGame(game);
+                logger.info("✅ Tagged game: {} - Goals: {}, Energy: {}, Interruptibility: {}",
+                    game.getName(), attrs.getEmotionalGoals(),
+                    attrs.getEnergyRequired(), attrs.getInterruptibility());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to save tagged games {}: {}", taggedIds, e.getMessage());
+            for (Long id : taggedIds) {
+                partial.incrementFailed();
+                partial.addFailedGame(id, e.getMessage());
+            }
+        }
+        return partial;
+    }
+    
+    // Enrichment data from Steam Store API (completed null for games without a Steam App ID)
+    private CompletableFuture<SteamAppDetails> fetchStoreDetails(Game game) {
+        if (game.getSteamAppId() == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return steamStoreService.getAppDetailsAsync(game.getSteamAppId());
+    }
+    
+    /**
+     * Ask Claude for the attributes of every game in a batch, keyed by game ID.
+     * A single game uses the one-object prompt; larger batches use one prompt
+     * and expect a JSON array back.
+     */
+    private Map<Long, GameAttributes> requestAttributes(List<Game> games, Map<Long, SteamAppDetails> storeDetails) {
+        if (games.size() == 1) {
+            Game game = games.get(0);
+            logger.debug("Tagging game: {} (Steam App ID: {})", game.getName(), game.getSteamAppId());
+            String text = callClaudeAPI(buildPrompt(game, storeDetails.get(game.getId())), MAX_TOKENS_PER_GAME);
+            GameAttributes attributes = text != null ? parseGameAttributes(text) : null;
+            return attributes != null ? Map.of(game.getId(), attributes) : Map.of();
         }
         
-        // Update game with AI-generated attributes
-        applyAttributes(game, attributes, storeDetails);
-        gameRepository.save(game);
+        logger.debug("Tagging {} games in one prompt", games.size());
+        String text = callClaudeAPI(buildBatchPrompt(games, storeDetails), MAX_TOKENS_PER_GAME * games.size());
+        return text != null ? parseGameAttributesArray(text, games) : Map.of();
+    }
+    
+    private String buildPrompt(Game game, SteamAppDetails storeDetails) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are a gaming expert for Lutem, matching games to players' moods and time.\n\n");
         
-        logger.info("✅ Tagged game: {} - Goals: {}, Energy: {}, Interruptibility: {}",
-            game.getName(), attributes.getEmotionalGoals(), 
-            attributes.getEnergyRequired(), attributes.getInterruptibility());
+        appendGameInfo(prompt, game, storeDetails);
+        appendAttributeGuide(prompt);
+        
+        prompt.append("═══ RESPOND WITH JSON ONLY ═══\n");
+        prompt.append(RESPONSE_TEMPLATE);
         
-        return true;
+        return prompt.toString();
     }
     
-    private String buildPrompt(Game game, SteamAppDetails storeDetails) {
+    private String buildBatchPrompt(List<Game> games, Map<Long, SteamAppDetails> storeDetails) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("You are a gaming expert for Lutem, matching games to players' moods and time.\n\n");
+        prompt.append("Tag each of these ").append(games.size()).append(" games independently.\n\n");
         
+        for (Game game : games) {
+            prompt.append("ID: ").append(game.getId()).append("\n");
+            appendGameInfo(prompt, game, storeDetails.get(game.getId()));
+            prompt.append("\n");
+        }
+        appendAttributeGuide(prompt);
+        
+        prompt.append("═══ RESPOND WITH A JSON ARRAY ONLY ═══\n");
+        prompt.append("One object per game, in the order above, each including its \"id\":\n");
+        prompt.append("[{\"id\":0,").append(RESPONSE_TEMPLATE.substring(1)).append(", ...]");
+        
+        return prompt.toString();
+    }
+    
+    private static final String RESPONSE_TEMPLATE =
+        "{\"emotionalGoals\":[],\"interruptibility\":\"\",\"energyRequired\":\"\","
+        + "\"bestTimeOfDay\":[],\"socialPreferences\":[],\"minMinutes\":0,\"maxMinutes\":0,"
+        + "\"audioDependency\":\"\",\"contentRating\":\"\",\"nsfwLevel\":\"\",\"confidence\":0.0}";
+    
+    private void appendGameInfo(StringBuilder prompt, Game game, SteamAppDetails storeDetails) {
         prompt.append("GAME: ").append(game.getName()).append("\n");
         if (storeDetails != null) {
             if (storeDetails.getShortDescription() != null) {
@@ -145,7 +331,9 @@ public class AITaggingService {
                 prompt.append("CATEGORIES: ").append(String.join(", ", storeDetails.getCategories())).append("\n");
             }
         }
-        
+    }
+    
+    private void appendAttributeGuide(StringBuilder prompt) {
         prompt.append("\n═══ ATTRIBUTES TO DETERMINE ═══\n\n");
         
         // 1. Emotional Goals with examples
@@ -198,22 +386,16 @@ public class AITaggingService {
         prompt.append("   NONE - No sexual content\n");
         prompt.append("   SUGGESTIVE - Fanservice, revealing outfits, innuendo\n");
         prompt.append("   EXPLICIT - Sexual content, nudity, adult scenes\n\n");
-        
-        prompt.append("═══ RESPOND WITH JSON ONLY ═══\n");
-        prompt.append("{\"emotionalGoals\":[],\"interruptibility\":\"\",\"energyRequired\":\"\",");
-        prompt.append("\"bestTimeOfDay\":[],\"socialPreferences\":[],\"minMinutes\":0,\"maxMinutes\":0,");
-        prompt.append("\"audioDependency\":\"\",\"contentRating\":\"\",\"nsfwLevel\":\"\",\"confidence\":0.0}");
-        
-        return prompt.toString();
     }
 
     
-    private GameAttributes callClaudeAPI(String prompt) {
+    // Returns the text of Claude's reply, or null on error
+    private String callClaudeAPI(String prompt, int maxTokens) {
         try {
             // Build request body
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("model", anthropicModel);
-            requestBody.put("max_tokens", 500);
+            requestBody.put("max_tokens", maxTokens);
             requestBody.put("messages", List.of(
                 Map.of("role", "user", "content", prompt)
             ));
@@ -228,7 +410,7 @@ public class AITaggingService {
             
             // Make request
             ResponseEntity<String> response = restTemplate.exchange(
-                ANTHROPIC_API_URL, HttpMethod.POST, entity, String.class
+                anthropicApiUrl, HttpMethod.POST, entity, String.class
             );
             
             if (!response.getStatusCode().is2xxSuccessful()) {
@@ -241,8 +423,7 @@ public class AITaggingService {
             JsonNode contentArray = root.path("content");
             
             if (contentArray.isArray() && contentArray.size() > 0) {
-                String text = contentArray.get(0).path("text").asText();
-                return parseGameAttributes(text);
+                return contentArray.get(0).path("text").asText();
             }
             
             return null;
@@ -255,70 +436,113 @@ public class AITaggingService {
     
     private GameAttributes parseGameAttributes(String jsonText) {
         try {
-            // Clean up potential markdown formatting
-            jsonText = jsonText.trim();
-            if (jsonText.startsWith("```json")) {
-                jsonText = jsonText.substring(7);
-            }
-            if (jsonText.startsWith("```")) {
-                jsonText = jsonText.substring(3);
-            }
-            if (jsonText.endsWith("```")) {
-                jsonText = jsonText.substring(0, jsonText.length() - 3);
-            }
-            jsonText = jsonText.trim();
-            
-            JsonNode json = objectMapper.readTree(jsonText);
-            GameAttributes attrs = new GameAttributes();
-            
-            // Parse emotional goals
-            JsonNode goalsNode = json.path("emotionalGoals");
-            if (goalsNode.isArray()) {
-                List<String> goals = new ArrayList<>();
-                for (JsonNode goal : goalsNode) {
-                    goals.add(goal.asText());
-                }
-                attrs.setEmotionalGoals(goals);
+            return parseGameAttributes(objectMapper.readTree(stripCodeFence(jsonText)));
+        } catch (Exception e) {
+            logger.error("Failed to parse AI response: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Parse a batch reply (JSON array of attribute objects) keyed by game ID.
+     * Entries are matched by their "id"; only if none of them carries a
+     * requested id but there is one object per game are they matched by
+     * position. The first entry for a game wins.
+     */
+    private Map<Long, GameAttributes> parseGameAttributesArray(String jsonText, List<Game> games) {
+        Map<Long, GameAttributes> byId = new HashMap<>();
+        try {
+            JsonNode json = objectMapper.readTree(stripCodeFence(jsonText));
+            if (!json.isArray()) {
+                logger.error("Expected a JSON array for {} games, got {}", games.size(), json.getNodeType());
+                return byId;
             }
-            
-            attrs.setInterruptibility(json.path("interruptibility").asText(null));
-            attrs.setEnergyRequired(json.path("energyRequired").asText(null));
-            
-            // Parse time of day
-            JsonNode todNode = json.path("bestTimeOfDay");
-            if (todNode.isArray()) {
-                List<String> times = new ArrayList<>();
-                for (JsonNode time : todNode) {
-                    times.add(time.asText());
+            Set<Long> requested = new HashSet<>();
+            games.forEach(g -> requested.add(g.getId()));
+            List<Long> ids = new ArrayList<>();
+            boolean anyValidId = false;
+            for (JsonNode node : json) {
+                Long id = node.hasNonNull("id") ? node.path("id").asLong() : null;
+                if (id != null && !requested.contains(id)) {
+                    id = null;
                 }
-                attrs.setBestTimeOfDay(times);
+                anyValidId |= id != null;
+                ids.add(id);
             }
-            
-            // Parse social preferences
-            JsonNode socialNode = json.path("socialPreferences");
-            if (socialNode.isArray()) {
-                List<String> social = new ArrayList<>();
-                for (JsonNode pref : socialNode) {
-                    social.add(pref.asText());
+            boolean positional = !anyValidId && json.size() == games.size();
+            for (int i = 0; i < json.size(); i++) {
+                Long id = positional ? games.get(i).getId() : ids.get(i);
+                if (id != null && !byId.containsKey(id)) {
+                    byId.put(id, parseGameAttributes(json.get(i)));
                 }
-                attrs.setSocialPreferences(social);
             }
-            
-            attrs.setMinMinutes(json.path("minMinutes").asInt(15));
-            attrs.setMaxMinutes(json.path("maxMinutes").asInt(60));
-            attrs.setConfidence((float) json.path("confidence").asDouble(0.7));
-            
-            // New attributes
-            attrs.setAudioDependency(json.path("audioDependency").asText(null));
-            attrs.setContentRating(json.path("contentRating").asText(null));
-            attrs.setNsfwLevel(json.path("nsfwLevel").asText(null));
-            
-            return attrs;
-            
         } catch (Exception e) {
-            logger.error("Failed to parse AI response: {}", e.getMessage());
-            return null;
+            logger.error("Failed to parse AI batch response: {}", e.getMessage());
+        }
+        return byId;
+    }
+    
+    // Clean up potential markdown formatting
+    private static String stripCodeFence(String jsonText) {
+        jsonText = jsonText.trim();
+        if (jsonText.startsWith("```json")) {
+            jsonText = jsonText.substring(7);
+        }
+        if (jsonText.startsWith("```")) {
+            jsonText = jsonText.substring(3);
         }
+        if (jsonText.endsWith("```")) {
+            jsonText = jsonText.substring(0, jsonText.length() - 3);
+        }
+        return jsonText.trim();
+    }
+    
+    private GameAttributes parseGameAttributes(JsonNode json) {
+        GameAttributes attrs = new GameAttributes();
+        
+        // Parse emotional goals
+        JsonNode goalsNode = json.path("emotionalGoals");
+        if (goalsNode.isArray()) {
+            List<String> goals = new ArrayList<>();
+            for (JsonNode goal : goalsNode) {
+                goals.add(goal.asText());
+            }
+            attrs.setEmotionalGoals(goals);
+        }
+        
+        attrs.setInterruptibility(json.path("interruptibility").asText(null));
+        attrs.setEnergyRequired(json.path("energyRequired").asText(null));
+        
+        // Parse time of day
+        JsonNode todNode = json.path("bestTimeOfDay");
+        if (todNode.isArray()) {
+            List<String> times = new ArrayList<>();
+            for (JsonNode time : todNode) {
+                times.add(time.asText());
+            }
+            attrs.setBestTimeOfDay(times);
+        }
+        
+        // Parse social preferences
+        JsonNode socialNode = json.path("socialPreferences");
+        if (socialNode.isArray()) {
+            List<String> social = new ArrayList<>();
+            for (JsonNode pref : socialNode) {
+                social.add(pref.asText());
+            }
+            attrs.setSocialPreferences(social);
+        }
+        
+        attrs.setMinMinutes(json.path("minMinutes").asInt(15));
+        attrs.setMaxMinutes(json.path("maxMinutes").asInt(60));
+        attrs.setConfidence((float) json.path("confidence").asDouble(0.7));
+        
+        // New attributes
+        attrs.setAudioDependency(json.path("audioDependency").asText(null));
+        attrs.setContentRating(json.path("contentRating").asText(null));
+        attrs.setNsfwLevel(json.path("nsfwLevel").asText(null));
+        
+        return attrs;
     }
 
     
@@ -456,6 +680,7 @@ public class AITaggingService {
         private int total;
         private int successCount;
         private int failedCount;
+        private long durationMs;
         private List<TaggedGameInfo> taggedGames = new ArrayList<>();
         private Map<Long, String> failedGames = new HashMap<>();
         
@@ -480,6 +705,27 @@ public class AITaggingService {
         public void addFailedGame(Long gameId, String reason) {
             this.failedGames.put(gameId, reason);
         }
+        
+        public long getDurationMs() { return durationMs; }
+        public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+        
+        /**
+         * Throughput: games successfully tagged per minute of wall-clock time.
+         */
+        public double getGamesPerMinute() {
+            return successCount > 0 ? successCount * 60_000.0 / Math.max(1, durationMs) : 0.0;
+        }
+        
+        /**
+         * Adds the counts and games of another (per-batch) result.
+         */
+        public void merge(TaggingResult other) {
+            this.total += other.total;
+            this.successCount += other.successCount;
+            this.failedCount += other.failedCount;
+            this.taggedGames.addAll(other.taggedGames);
+            this.failedGames.putAll(other.failedGames);
+        }
     }
     
     /**
@@ -0,0 +1,314 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact binary snapshot of the game catalog, used to seed fresh instances.
+ *
+ * Layout (gzip-compressed DataOutput, big-endian):
+ * <pre>
+ *   int magic "LCAT", short version
+ *   per enum type, in ENUM_TYPES order: count, then each constant's name
+ *   per game: byte 1, record
+ *   byte 0 (end)
+ * </pre>
+ * Enum values are stored as indexes into the header tables (and enum lists
+ * as bitmasks over them), so reordering or adding constants later doesn't
+ * break old snapshots; only a removed constant does. Nullable numbers share
+ * a presence bitmask. A snapshot is written and read one game at a time, so
+ * neither side holds the catalog in memory.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x4C434154; // "LCAT"
+    static final short VERSION = 1;
+
+    @SuppressWarnings("unchecked")
+    private static final Class<? extends Enum<?>>[] ENUM_TYPES = new Class[] {
+        EmotionalGoal.class, TimeOfDay.class, SocialPreference.class, Interruptibility.class,
+        EnergyLevel.class, AudioDependency.class, ContentRating.class, NsfwLevel.class, TaggingSource.class
+    };
+
+    // Presence bits for the nullable numeric fields
+    private static final int HAS_STEAM_APP_ID = 1;
+    private static final int HAS_TAGGING_CONFIDENCE = 1 << 1;
+    private static final int HAS_RAWG_ID = 1 << 2;
+    private static final int HAS_POSITIVE_REVIEWS = 1 << 3;
+    private static final int HAS_NEGATIVE_REVIEWS = 1 << 4;
+    private static final int HAS_METACRITIC = 1 << 5;
+    private static final int HAS_POPULARITY = 1 << 6;
+    private static final int HAS_PLAYTIME = 1 << 7;
+
+    private CatalogSnapshot() {
+    }
+
+    public static Writer writer(OutputStream out) throws IOException {
+        return new Writer(out);
+    }
+
+    public static Reader reader(InputStream in) throws IOException {
+        return new Reader(in);
+    }
+
+    /**
+     * Appends games to a snapshot. {@link #close()} writes the end marker and
+     * finishes the gzip stream; the underlying stream is closed too.
+     */
+    public static final class Writer implements Closeable {
+
+        private final DataOutputStream out;
+        private int written;
+
+        private Writer(OutputStream target) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(target, 1 << 16)));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            for (Class<? extends Enum<?>> type : ENUM_TYPES) {
+                Enum<?>[] constants = type.getEnumConstants();
+                out.writeShort(constants.length);
+                for (Enum<?> constant : constants) {
+                    out.writeUTF(constant.name());
+                }
+            }
+        }
+
+        public void write(Game game) throws IOException {
+            out.writeByte(1);
+            writeString(game.getName());
+            out.writeInt(game.getMinMinutes());
+            out.writeInt(game.getMaxMinutes());
+            out.writeInt(bits(game.getEmotionalGoals()));
+            out.writeInt(bits(game.getBestTimeOfDay()));
+            out.writeInt(bits(game.getSocialPreferences()));
+            out.writeByte(index(game.getInterruptibility()));
+            out.writeByte(index(game.getEnergyRequired()));
+            out.writeByte(index(game.getAudioDependency()));
+            out.writeByte(index(game.getContentRating()));
+            out.writeByte(index(game.getNsfwLevel()));
+            out.writeByte(index(game.getTaggingSource()));
+            List<String> genres = game.getGenres() != null ? game.getGenres() : List.of();
+            out.writeShort(genres.size());
+            for (String genre : genres) {
+                writeString(genre);
+            }
+            writeString(game.getDescription());
+            writeString(game.getImageUrl());
+            writeString(game.getStoreUrl());
+            out.writeDouble(game.getUserRating());
+            out.writeDouble(game.getAverageSatisfaction());
+            out.writeInt(game.getSessionCount());
+
+            int present = (game.getSteamAppId() != null ? HAS_STEAM_APP_ID : 0)
+                | (game.getTaggingConfidence() != null ? HAS_TAGGING_CONFIDENCE : 0)
+                | (game.getRawgId() != null ? HAS_RAWG_ID : 0)
+                | (game.getSteamPositiveReviews() != null ? HAS_POSITIVE_REVIEWS : 0)
+                | (game.getSteamNegativeReviews() != null ? HAS_NEGATIVE_REVIEWS : 0)
+                | (game.getMetacriticScore() != null ? HAS_METACRITIC : 0)
+                | (game.getPopularityScore() != null ? HAS_POPULARITY : 0)
+                | (game.getSteamPlaytimeForever() != null ? HAS_PLAYTIME : 0);
+            out.writeByte(present);
+            if (game.getSteamAppId() != null) {
+                out.writeLong(game.getSteamAppId());
+            }
+            if (game.getTaggingConfidence() != null) {
+                out.writeFloat(game.getTaggingConfidence());
+            }
+            if (game.getRawgId() != null) {
+                out.writeInt(game.getRawgId());
+            }
+            if (game.getSteamPositiveReviews() != null) {
+                out.writeInt(game.getSteamPositiveReviews());
+            }
+            if (game.getSteamNegativeReviews() != null) {
+                out.writeInt(game.getSteamNegativeReviews());
+            }
+            if (game.getMetacriticScore() != null) {
+                out.writeInt(game.getMetacriticScore());
+            }
+            if (game.getPopularityScore() != null) {
+                out.writeDouble(game.getPopularityScore());
+            }
+            if (game.getSteamPlaytimeForever() != null) {
+                out.writeInt(game.getSteamPlaytimeForever());
+            }
+            written++;
+        }
+
+        public int getWritten() {
+            return written;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.writeByte(0);
+            out.close();
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static int bits(Collection<? extends Enum<?>> values) {
+            int mask = 0;
+            if (values != null) {
+                for (Enum<?> value : values) {
+                    if (value != null) {
+                        mask |= 1 << value.ordinal();
+                    }
+                }
+            }
+            return mask;
+        }
+
+        private static int index(Enum<?> value) {
+            return value != null ? value.ordinal() : -1;
+        }
+    }
+
+    /**
+     * Reads games back one at a time; {@link #next()} returns null at the end.
+     */
+    public static final class Reader implements Closeable {
+
+        private final DataInputStream in;
+        // Per ENUM_TYPES entry: snapshot index -> current constant
+        private final Enum<?>[][] constants = new Enum<?>[ENUM_TYPES.length][];
+        private boolean finished;
+
+        private Reader(InputStream source) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(source, 1 << 16)));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot");
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported catalog snapshot version " + version);
+            }
+            for (int t = 0; t < ENUM_TYPES.length; t++) {
+                int count = in.readUnsignedShort();
+                constants[t] = new Enum<?>[count];
+                for (int i = 0; i < count; i++) {
+                    constants[t][i] = constant(ENUM_TYPES[t], in.readUTF());
+                }
+            }
+        }
+
+        public Game next() throws IOException {
+            if (finished || in.readByte() == 0) {
+                finished = true;
+                return null;
+            }
+            Game game = new Game();
+            game.setName(readString());
+            game.setMinMinutes(in.readInt());
+            game.setMaxMinutes(in.readInt());
+            game.setEmotionalGoals(fromBits(0, in.readInt()));
+            game.setBestTimeOfDay(fromBits(1, in.readInt()));
+            game.setSocialPreferences(fromBits(2, in.readInt()));
+            game.setInterruptibility(fromIndex(3, in.readByte()));
+            game.setEnergyRequired(fromIndex(4, in.readByte()));
+            game.setAudioDependency(fromIndex(5, in.readByte()));
+            game.setContentRating(fromIndex(6, in.readByte()));
+            game.setNsfwLevel(fromIndex(7, in.readByte()));
+            game.setTaggingSource(fromIndex(8, in.readByte()));
+            int genreCount = in.readUnsignedShort();
+            List<String> genres = new ArrayList<>(genreCount);
+            for (int i = 0; i < genreCount; i++) {
+                genres.add(readString());
+            }
+            game.setGenres(genres);
+            game.setDescription(readString());
+            game.setImageUrl(readString());
+            game.setStoreUrl(readString());
+            game.setUserRating(in.readDouble());
+            game.setAverageSatisfaction(in.readDouble());
+            game.setSessionCount(in.readInt());
+
+            int present = in.readUnsignedByte();
+            if ((present & HAS_STEAM_APP_ID) != 0) {
+                game.setSteamAppId(in.readLong());
+            }
+            if ((present & HAS_TAGGING_CONFIDENCE) != 0) {
+                game.setTaggingConfidence(in.readFloat());
+            }
+            if ((present & HAS_RAWG_ID) != 0) {
+                game.setRawgId(in.readInt());
+            }
+            if ((present & HAS_POSITIVE_REVIEWS) != 0) {
+                game.setSteamPositiveReviews(in.readInt());
+            }
+            if ((present & HAS_NEGATIVE_REVIEWS) != 0) {
+                game.setSteamNegativeReviews(in.readInt());
+            }
+            if ((present & HAS_METACRITIC) != 0) {
+                game.setMetacriticScore(in.readInt());
+            }
+            if ((present & HAS_POPULARITY) != 0) {
+                game.setPopularityScore(in.readDouble());
+            }
+            if ((present & HAS_PLAYTIME) != 0) {
+                game.setSteamPlaytimeForever(in.readInt());
+            }
+            return game;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private String readString() throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <E extends Enum<E>> E fromIndex(int type, int index) throws IOException {
+            if (index < 0) {
+                return null;
+            }
+            if (index >= constants[type].length) {
+                throw new IOException("Bad " + ENUM_TYPES[type].getSimpleName() + " index " + index);
+            }
+            return (E) constants[type][index];
+        }
+
+        private <E extends Enum<E>> List<E> fromBits(int type, int mask) throws IOException {
+            List<E> values = new ArrayList<>(Integer.bitCount(mask));
+            for (int index = 0; mask != 0; index++, mask >>>= 1) {
+                if ((mask & 1) != 0) {
+                    values.add(fromIndex(type, index));
+                }
+            }
+            return values;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Enum<?> constant(Class<? extends Enum<?>> type, String name) throws IOException {
+            try {
+                return Enum.valueOf((Class) type, name);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Snapshot has unknown " + type.getSimpleName() + " " + name);
+            }
+        }
+    }
+}
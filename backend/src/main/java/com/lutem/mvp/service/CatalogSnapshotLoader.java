@@ -0,0 +1,87 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.repository.GameImportBatchWriter;
+import com.lutem.mvp.repository.GameReadModelStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk-inserts games into the catalog, for seeding an empty database.
+ *
+ * Games are inserted with their collections and read model rows as JDBC
+ * batches, {@code lutem.seed.batch-size} per transaction, with no lookups:
+ * callers must make sure the games aren't in the database yet. A snapshot is
+ * read one chunk at a time, so its size doesn't matter.
+ */
+@Service
+public class CatalogSnapshotLoader {
+
+    private final GameImportBatchWriter batchWriter;
+    private final GameReadModelStore readModelStore;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public CatalogSnapshotLoader(GameImportBatchWriter batchWriter,
+                                 GameReadModelStore readModelStore,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${lutem.seed.batch-size:1000}") int batchSize) {
+        this.batchWriter = batchWriter;
+        this.readModelStore = readModelStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Inserts every game in a {@link CatalogSnapshot}; returns how many were inserted.
+     */
+    public int load(InputStream snapshot) throws IOException {
+        int inserted = 0;
+        try (CatalogSnapshot.Reader reader = CatalogSnapshot.reader(snapshot)) {
+            List<Game> chunk = new ArrayList<>(batchSize);
+            Game game;
+            while ((game = reader.next()) != null) {
+                chunk.add(game);
+                if (chunk.size() == batchSize) {
+                    inserted += insertChunk(chunk);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            inserted += insertChunk(chunk);
+        }
+        return inserted;
+    }
+
+    /**
+     * Inserts already-loaded games (e.g. parsed from JSON); returns how many were inserted.
+     */
+    public int insertAll(List<Game> games) {
+        int inserted = 0;
+        for (int from = 0; from < games.size(); from += batchSize) {
+            inserted += insertChunk(new ArrayList<>(games.subList(from, Math.min(from + batchSize, games.size()))));
+        }
+        return inserted;
+    }
+
+    private int insertChunk(List<Game> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        for (Game game : chunk) {
+            game.setId(null);
+        }
+        Integer inserted = transactionTemplate.execute(status -> {
+            int count = batchWriter.insertGames(chunk);
+            readModelStore.saveAll(chunk);
+            return count;
+        });
+        return inserted != null ? inserted : 0;
+    }
+}
@@ -0,0 +1,329 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.RecommendationRequest;
+import com.lutem.mvp.model.AudioDependency;
+import com.lutem.mvp.model.ContentRating;
+import com.lutem.mvp.model.EmotionalGoal;
+import com.lutem.mvp.model.EnergyLevel;
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.model.Interruptibility;
+import com.lutem.mvp.model.NsfwLevel;
+import com.lutem.mvp.model.SocialPreference;
+import com.lutem.mvp.model.TimeOfDay;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar bitset index over a {@link GameCatalog}.
+ *
+ * Bit {@code i} of every bitset refers to {@code catalog.getGames().get(i)}.
+ * There is one {@code long[]} per enum value of each attribute; single-valued
+ * attributes get an extra slot (at index {@code values().length}) for games
+ * where the attribute is not set. Session length is indexed as game positions
+ * sorted by minMinutes / maxMinutes, so "fits in N minutes" is a binary search.
+ * Genres are interned to int ids (exact spelling, plus a lower-cased id for
+ * case-insensitive matching) so scoring can compare them without strings.
+ *
+ * Bitsets returned by the package-private accessors are shared; never modify them.
+ */
+public final class GameAttributeIndex {
+
+    private final int size;
+    private final int words;
+
+    private final long[][] emotionalGoals;
+    private final long[][] interruptibility;
+    private final long[][] energyRequired;
+    private final long[][] audioDependency;
+    private final long[][] contentRating;
+    private final long[][] nsfwLevel;
+
+    // Precomputed with the same "ANY"/"BOTH" wildcard rules as Game's helper methods
+    private final long[][] suitableForTimeOfDay;
+    private final long[][] matchesSocialPreference;
+
+    private final int[] sortedMinMinutes;
+    private final int[] gamesByMinMinutes;
+    private final int[] sortedMaxMinutes;
+    private final int[] gamesByMaxMinutes;
+
+    private final Map<String, Integer> genreIds = new HashMap<>();
+    private final Map<String, Integer> lowerCaseGenreIds = new HashMap<>();
+    private final int[] lowerCaseIdOfGenre;
+    private final int[][] genresByGame;
+
+    public GameAttributeIndex(List<Game> games) {
+        this.size = games.size();
+        this.words = (size + 63) >>> 6;
+
+        this.emotionalGoals = new long[EmotionalGoal.values().length][words];
+        this.interruptibility = new long[Interruptibility.values().length + 1][words];
+        this.energyRequired = new long[EnergyLevel.values().length + 1][words];
+        this.audioDependency = new long[AudioDependency.values().length + 1][words];
+        this.contentRating = new long[ContentRating.values().length + 1][words];
+        this.nsfwLevel = new long[NsfwLevel.values().length + 1][words];
+        long[][] timeOfDay = new long[TimeOfDay.values().length][words];
+        long[][] socialPreferences = new long[SocialPreference.values().length][words];
+
+        for (int i = 0; i < size; i++) {
+            Game game = games.get(i);
+            for (EmotionalGoal goal : game.getEmotionalGoals()) {
+                set(emotionalGoals[goal.ordinal()], i);
+            }
+            for (TimeOfDay time : game.getBestTimeOfDay()) {
+                set(timeOfDay[time.ordinal()], i);
+            }
+            for (SocialPreference preference : game.getSocialPreferences()) {
+                set(socialPreferences[preference.ordinal()], i);
+            }
+            set(interruptibility[slot(game.getInterruptibility(), Interruptibility.values().length)], i);
+            set(energyRequired[slot(game.getEnergyRequired(), EnergyLevel.values().length)], i);
+            set(audioDependency[slot(game.getAudioDependency(), AudioDependency.values().length)], i);
+            set(contentRating[slot(game.getContentRating(), ContentRating.values().length)], i);
+            set(nsfwLevel[slot(game.getNsfwLevel(), NsfwLevel.values().length)], i);
+        }
+
+        this.suitableForTimeOfDay = new long[TimeOfDay.values().length][];
+        for (TimeOfDay time : TimeOfDay.values()) {
+            suitableForTimeOfDay[time.ordinal()] = or(timeOfDay[time.ordinal()], timeOfDay[TimeOfDay.ANY.ordinal()]);
+        }
+        this.matchesSocialPreference = new long[SocialPreference.values().length][];
+        for (SocialPreference preference : SocialPreference.values()) {
+            matchesSocialPreference[preference.ordinal()] =
+                or(socialPreferences[preference.ordinal()], socialPreferences[SocialPreference.BOTH.ordinal()]);
+        }
+
+        this.genresByGame = new int[size][];
+        int[] lowerCaseIds = new int[16];
+        for (int i = 0; i < size; i++) {
+            List<String> genres = games.get(i).getGenres() != null ? games.get(i).getGenres() : List.of();
+            int[] ids = new int[genres.size()];
+            for (int g = 0; g < ids.length; g++) {
+                String genre = genres.get(g);
+                if (genre == null) {
+                    ids[g] = -1;
+                    continue;
+                }
+                Integer id = genreIds.get(genre);
+                if (id == null) {
+                    id = genreIds.size();
+                    genreIds.put(genre, id);
+                    if (id == lowerCaseIds.length) {
+                        lowerCaseIds = Arrays.copyOf(lowerCaseIds, id * 2);
+                    }
+                    lowerCaseIds[id] = lowerCaseGenreIds.computeIfAbsent(
+                        genre.toLowerCase(Locale.ROOT), key -> lowerCaseGenreIds.size());
+                }
+                ids[g] = id;
+            }
+            genresByGame[i] = ids;
+        }
+        this.lowerCaseIdOfGenre = Arrays.copyOf(lowerCaseIds, genreIds.size());
+
+        this.gamesByMinMinutes = sortedPositions(games, true);
+        this.sortedMinMinutes = new int[size];
+        this.gamesByMaxMinutes = sortedPositions(games, false);
+        this.sortedMaxMinutes = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedMinMinutes[i] = games.get(gamesByMinMinutes[i]).getMinMinutes();
+            sortedMaxMinutes[i] = games.get(gamesByMaxMinutes[i]).getMaxMinutes();
+        }
+    }
+
+    /**
+     * Games that pass the hard filters of a request: session can start within
+     * the available time, audio availability, max content rating and NSFW preference.
+     * Returns a fresh bitset owned by the caller.
+     */
+    public long[] candidates(RecommendationRequest request) {
+        long[] result = minMinutesAtMost(request.getAvailableMinutes());
+
+        // Audio: 'muted' keeps only OPTIONAL, 'low' drops REQUIRED; untagged games pass through
+        String audio = request.getAudioAvailability();
+        if ("muted".equalsIgnoreCase(audio)) {
+            long[] allowed = or(audioDependency[AudioDependency.OPTIONAL.ordinal()],
+                audioDependency[AudioDependency.values().length]);
+            and(result, allowed);
+        } else if ("low".equalsIgnoreCase(audio)) {
+            andNot(result, audioDependency[AudioDependency.REQUIRED.ordinal()]);
+        }
+
+        // Content rating: drop games rated above the user's max
+        ContentRating maxRating = request.getMaxContentRating();
+        if (maxRating != null) {
+            for (int r = maxRating.ordinal() + 1; r < ContentRating.values().length; r++) {
+                andNot(result, contentRating[r]);
+            }
+        }
+
+        // NSFW: anything other than NONE is excluded when the user opted out
+        if (Boolean.FALSE.equals(request.getAllowNsfw())) {
+            for (NsfwLevel level : NsfwLevel.values()) {
+                if (level != NsfwLevel.NONE) {
+                    andNot(result, nsfwLevel[level.ordinal()]);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Games whose minimum session length fits in the given minutes.
+     */
+    public long[] minMinutesAtMost(int minutes) {
+        return prefixBits(gamesByMinMinutes, upperBound(sortedMinMinutes, minutes));
+    }
+
+    /**
+     * Games whose whole session (maxMinutes) fits in the given minutes.
+     */
+    public long[] maxMinutesAtMost(int minutes) {
+        return prefixBits(gamesByMaxMinutes, upperBound(sortedMaxMinutes, minutes));
+    }
+
+    public int size() { return size; }
+
+    // ========== Genre dictionary ==========
+
+    /**
+     * Genre ids of the game at a position, in the game's own order; -1 for null entries.
+     */
+    int[] genreIdsAt(int position) { return genresByGame[position]; }
+
+    int genreCount() { return lowerCaseIdOfGenre.length; }
+    int lowerCaseGenreCount() { return lowerCaseGenreIds.size(); }
+
+    /**
+     * Exact-spelling genre id, or -1 if no game in the catalog has this genre.
+     */
+    int genreId(String genre) {
+        Integer id = genre != null ? genreIds.get(genre) : null;
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Case-insensitive genre id, or -1 if no game in the catalog has this genre.
+     */
+    int lowerCaseGenreId(String genre) {
+        Integer id = genre != null ? lowerCaseGenreIds.get(genre.toLowerCase(Locale.ROOT)) : null;
+        return id != null ? id : -1;
+    }
+
+    int lowerCaseIdOf(int genreId) { return lowerCaseIdOfGenre[genreId]; }
+
+    // ========== Shared bitsets (read-only) ==========
+
+    long[] withEmotionalGoal(EmotionalGoal goal) { return emotionalGoals[goal.ordinal()]; }
+    long[] withInterruptibility(Interruptibility level) { return interruptibility[level.ordinal()]; }
+    long[] withEnergyRequired(EnergyLevel level) { return energyRequired[level.ordinal()]; }
+    long[] withAudioDependency(AudioDependency level) { return audioDependency[level.ordinal()]; }
+    long[] withContentRating(ContentRating rating) { return contentRating[rating.ordinal()]; }
+    long[] withNsfwLevel(NsfwLevel level) { return nsfwLevel[level.ordinal()]; }
+    long[] suitableForTimeOfDay(TimeOfDay time) { return suitableForTimeOfDay[time.ordinal()]; }
+    long[] matchesSocialPreference(SocialPreference preference) { return matchesSocialPreference[preference.ordinal()]; }
+
+    // ========== Word-wise bitset operations ==========
+
+    public static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    static void and(long[] target, long[] mask) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] &= mask[w];
+        }
+    }
+
+    static void andNot(long[] target, long[] mask) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] &= ~mask[w];
+        }
+    }
+
+    static long[] or(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, a.length);
+        for (int w = 0; w < result.length; w++) {
+            result[w] |= b[w];
+        }
+        return result;
+    }
+
+    /**
+     * Index of the next set bit at or after {@code from}, or -1 if none.
+     */
+    public static int nextSetBit(long[] bits, int from) {
+        int w = from >>> 6;
+        if (w >= bits.length) {
+            return -1;
+        }
+        long word = bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == bits.length) {
+                return -1;
+            }
+            word = bits[w];
+        }
+    }
+
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // ========== Build helpers ==========
+
+    private static int slot(Enum<?> value, int unsetSlot) {
+        return value != null ? value.ordinal() : unsetSlot;
+    }
+
+    private static int[] sortedPositions(List<Game> games, boolean byMin) {
+        return IntStream.range(0, games.size())
+            .boxed()
+            .sorted((a, b) -> byMin
+                ? Integer.compare(games.get(a).getMinMinutes(), games.get(b).getMinMinutes())
+                : Integer.compare(games.get(a).getMaxMinutes(), games.get(b).getMaxMinutes()))
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    /**
+     * Number of entries in a sorted array that are {@code <= value}.
+     */
+    private static int upperBound(int[] sorted, int value) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private long[] prefixBits(int[] positions, int count) {
+        long[] bits = new long[words];
+        for (int i = 0; i < count; i++) {
+            set(bits, positions[i]);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,148 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.Game;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, versioned snapshot of the fully tagged game catalog.
+ * Built by {@link GameCatalogService} and swapped atomically, so the
+ * recommendation read path never has to touch the database.
+ *
+ * The Game instances are built from the read model, not managed entities;
+ * treat them as read-only.
+ */
+public final class GameCatalog {
+
+    private final long version;
+    private final LocalDateTime builtAt;
+    private final List<Game> games;
+    private final Map<Long, Double> averageSatisfactionByGame;
+    private final Map<Long, Integer> positionsById;
+    private final GameAttributeIndex index;
+
+    // averageSatisfactionByGame laid out by catalog position for the scoring pass
+    private final double[] averageSatisfaction;
+
+    GameCatalog(long version, List<Game> games, Map<Long, Double> averageSatisfactionByGame) {
+        this(version, List.copyOf(games), Map.copyOf(averageSatisfactionByGame), null, null);
+    }
+
+    private GameCatalog(long version, List<Game> games, Map<Long, Double> averageSatisfactionByGame,
+                        Map<Long, Integer> positionsById, GameAttributeIndex index) {
+        this.version = version;
+        this.builtAt = LocalDateTime.now();
+        this.games = games;
+        this.averageSatisfactionByGame = averageSatisfactionByGame;
+        this.positionsById = positionsById != null ? positionsById : positions(games);
+        this.index = index != null ? index : new GameAttributeIndex(games);
+        this.averageSatisfaction = new double[games.size()];
+        for (int i = 0; i < games.size(); i++) {
+            averageSatisfaction[i] = getAverageSatisfaction(games.get(i).getId());
+        }
+    }
+
+    static GameCatalog empty() {
+        return new GameCatalog(0, List.of(), Map.of());
+    }
+
+    /**
+     * Copy of this snapshot with one game's database satisfaction average replaced.
+     * Used after feedback so we don't reload the whole catalog for a single rating.
+     */
+    GameCatalog withAverageSatisfaction(long newVersion, Long gameId, Double average) {
+        Map<Long, Double> averages = new HashMap<>(averageSatisfactionByGame);
+        if (average != null) {
+            averages.put(gameId, average);
+        } else {
+            averages.remove(gameId);
+        }
+        // Games are unchanged, so positions and the attribute index can be shared
+        return new GameCatalog(newVersion, games, Map.copyOf(averages), positionsById, index);
+    }
+
+    /**
+     * Copy of this snapshot with changed games replaced (or appended) and
+     * removed games dropped. Positions and the attribute index are rebuilt in
+     * memory; nothing is reloaded from the database.
+     */
+    GameCatalog withChanges(long newVersion, List<Game> changed, Set<Long> removed,
+                            Map<Long, Double> changedAverages) {
+        Map<Long, Game> replacements = new HashMap<>();
+        for (Game game : changed) {
+            replacements.put(game.getId(), game);
+        }
+        List<Game> merged = new ArrayList<>(games.size() + changed.size());
+        for (Game game : games) {
+            if (removed.contains(game.getId())) {
+                continue;
+            }
+            Game replacement = replacements.remove(game.getId());
+            merged.add(replacement != null ? replacement : game);
+        }
+        // Whatever is left is new to this snapshot
+        for (Game game : changed) {
+            if (replacements.containsKey(game.getId())) {
+                merged.add(game);
+            }
+        }
+
+        Map<Long, Double> averages = new HashMap<>(averageSatisfactionByGame);
+        averages.keySet().removeAll(removed);
+        for (Game game : changed) {
+            Double average = changedAverages.get(game.getId());
+            if (average != null) {
+                averages.put(game.getId(), average);
+            } else {
+                averages.remove(game.getId());
+            }
+        }
+        return new GameCatalog(newVersion, List.copyOf(merged), Map.copyOf(averages), null, null);
+    }
+
+    public long getVersion() { return version; }
+    public LocalDateTime getBuiltAt() { return builtAt; }
+    public List<Game> getGames() { return games; }
+    public int size() { return games.size(); }
+
+    /**
+     * Bitset index whose bit positions match {@link #getGames()}.
+     */
+    public GameAttributeIndex getIndex() { return index; }
+
+    /**
+     * Position of a game in {@link #getGames()}, or -1 if it is not in this snapshot.
+     */
+    public int positionOf(Long gameId) {
+        Integer position = positionsById.get(gameId);
+        return position != null ? position : -1;
+    }
+
+    /**
+     * Same as {@link #getAverageSatisfaction(Long)}, looked up by catalog position.
+     */
+    public double getAverageSatisfactionAt(int position) {
+        return averageSatisfaction[position];
+    }
+
+    /**
+     * Average satisfaction from recorded GameSessions, or 0.0 if the game has no ratings.
+     */
+    public double getAverageSatisfaction(Long gameId) {
+        Double average = averageSatisfactionByGame.get(gameId);
+        return (average != null && average > 0) ? average : 0.0;
+    }
+
+    private static Map<Long, Integer> positions(List<Game> games) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < games.size(); i++) {
+            positions.put(games.get(i).getId(), i);
+        }
+        return Map.copyOf(positions);
+    }
+}
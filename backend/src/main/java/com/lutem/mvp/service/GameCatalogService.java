@@ -0,0 +1,333 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.event.GameCatalogPublishedEvent;
+import com.lutem.mvp.event.GameChangedEvent;
+import com.lutem.mvp.event.SessionFeedbackEvent;
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.repository.GameReadModelStore;
+import com.lutem.mvp.repository.GameReadModelStore.Change;
+import com.lutem.mvp.repository.GameRepository;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the in-memory {@link GameCatalog} used by the recommendation engine.
+ *
+ * The catalog is loaded once at startup from the denormalized game_read_model
+ * table (one flat query instead of Game plus its four element collections).
+ * After that only deltas are applied: every read model write carries a
+ * change version from a database sequence, and a poller asks for rows above
+ * the last applied version (tombstones included), so games changed by any
+ * app instance show up without reloading the table. Local writes trigger the
+ * same refresh right after commit; bursts are coalesced, and readers keep
+ * using the previous snapshot until the new one is swapped in.
+ *
+ * Versions are taken when a row is written, not when it commits, so changes
+ * younger than the settle window are re-read on the next poll in case a
+ * lower version commits late.
+ */
+@Service
+public class GameCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameCatalogService.class);
+
+    private final GameRepository gameRepository;
+    private final GameReadModelStore readModelStore;
+    private final GameSessionService sessionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate writeTx;
+    private final Duration settleWindow;
+    private final int maxDelta;
+    private final Duration tombstoneRetention;
+
+    private final AtomicReference<GameCatalog> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+    // Every read model change at or below this version is in the current snapshot
+    private volatile long appliedChangeVersion;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "game-catalog-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public GameCatalogService(GameRepository gameRepository,
+                              GameReadModelStore readModelStore,
+                              GameSessionService sessionService,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${lutem.catalog.delta.settle-seconds:30}") long settleSeconds,
+                              @Value("${lutem.catalog.delta.max-changes:2000}") int maxDelta,
+                              @Value("${lutem.catalog.tombstone-retention-hours:24}") long tombstoneRetentionHours) {
+        this.gameRepository = gameRepository;
+        this.readModelStore = readModelStore;
+        this.sessionService = sessionService;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.settleWindow = Duration.ofSeconds(settleSeconds);
+        this.maxDelta = Math.max(1, maxDelta);
+        this.tombstoneRetention = Duration.ofHours(tombstoneRetentionHours);
+    }
+
+    /**
+     * Current catalog snapshot. Builds it synchronously on first access if the
+     * startup load hasn't happened yet.
+     */
+    public GameCatalog getCatalog() {
+        GameCatalog catalog = current.get();
+        if (catalog == null) {
+            synchronized (this) {
+                catalog = current.get();
+                if (catalog == null) {
+                    catalog = rebuild();
+                }
+            }
+        }
+        return catalog;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            // Backfill after the table is first created, or if rows went missing
+            long tagged = gameRepository.countFullyTagged();
+            if (readModelStore.count() != tagged) {
+                rebuildReadModel();
+            }
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Initial game catalog load failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Any Game write marks the catalog stale. Runs after commit so the refresh
+     * sees the new rows; falls back to immediate execution outside transactions.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameChanged(GameChangedEvent event) {
+        requestRefresh();
+    }
+
+    /**
+     * Feedback only moves one game's average, so patch it instead of reloading everything.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionFeedback(SessionFeedbackEvent event) {
+        if (current.get() == null || event.getGameId() == null) {
+            return;
+        }
+        // Read after commit, so this is at least as fresh as any snapshot being built right now
+        Double average = sessionService.getAverageSatisfaction(event.getGameId());
+        patchAverageSatisfaction(event.getGameId(), average);
+    }
+
+    // Serialized with rebuild/applyChanges: a swap that loaded averages before the
+    // feedback committed finishes first, then gets patched, so the score isn't lost
+    private synchronized void patchAverageSatisfaction(Long gameId, Double average) {
+        GameCatalog catalog = current.get();
+        current.set(catalog.withAverageSatisfaction(versions.incrementAndGet(), gameId, average));
+    }
+
+    /**
+     * Schedule a background delta refresh unless one is already queued.
+     */
+    public void requestRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                refreshPending.set(false);
+                try {
+                    applyChanges();
+                } catch (Exception e) {
+                    logger.error("Game catalog refresh failed, keeping previous snapshot: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Picks up changes written by other instances (and anything a local refresh missed).
+     */
+    @Scheduled(fixedDelayString = "${lutem.catalog.delta.poll-interval-ms:5000}",
+               initialDelayString = "${lutem.catalog.delta.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            applyChanges();
+        } catch (Exception e) {
+            logger.error("Game catalog delta poll failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply read model changes above the last applied version to the current
+     * snapshot. Falls back to a full rebuild when the delta is too large to be
+     * worth patching. Unsettled changes the snapshot already holds are skipped;
+     * if nothing else is left, the current snapshot is returned as is.
+     */
+    public synchronized GameCatalog applyChanges() {
+        GameCatalog catalog = current.get();
+        if (catalog == null) {
+            return rebuild();
+        }
+        long since = appliedChangeVersion;
+        List<Change> changes = readOnlyTx.execute(status -> readModelStore.findChangesSince(since, maxDelta));
+        if (changes == null || changes.isEmpty()) {
+            return catalog;
+        }
+        if (changes.size() >= maxDelta) {
+            return rebuild();
+        }
+
+        // Latest change per game wins
+        Map<Long, Change> latest = new LinkedHashMap<>();
+        for (Change change : changes) {
+            latest.put(change.getGameId(), change);
+        }
+        List<Game> changed = new ArrayList<>();
+        Set<Long> removed = new HashSet<>();
+        Map<Long, Double> averages = new HashMap<>();
+        for (Change change : latest.values()) {
+            if (isApplied(catalog, change)) {
+                continue;
+            }
+            if (change.isRemoved()) {
+                removed.add(change.getGameId());
+            } else {
+                changed.add(change.getGame());
+                averages.put(change.getGameId(), sessionService.getAverageSatisfaction(change.getGameId()));
+            }
+        }
+
+        if (changed.isEmpty() && removed.isEmpty()) {
+            // Only unsettled changes this snapshot already has
+            appliedChangeVersion = settledVersion(since, changes);
+            return catalog;
+        }
+
+        GameCatalog updated = catalog.withChanges(versions.incrementAndGet(), changed, removed, averages);
+        current.set(updated);
+        appliedChangeVersion = settledVersion(since, changes);
+        eventPublisher.publishEvent(new GameCatalogPublishedEvent(updated));
+        logger.info("Game catalog v{} patched: {} changed, {} removed, {} games",
+            updated.getVersion(), changed.size(), removed.size(), updated.size());
+        return updated;
+    }
+
+    // Unsettled changes are re-read on every poll; skip the ones the snapshot already holds
+    private static boolean isApplied(GameCatalog catalog, Change change) {
+        int position = catalog.positionOf(change.getGameId());
+        if (change.isRemoved()) {
+            return position < 0;
+        }
+        if (position < 0) {
+            return false;
+        }
+        Long applied = catalog.getGames().get(position).getChangeVersion();
+        return applied != null && applied >= change.getVersion();
+    }
+
+    // Advance past changes that are old enough that nothing below them can still commit
+    private long settledVersion(long since, List<Change> changes) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(settleWindow);
+        long settled = since;
+        for (Change change : changes) {
+            if (change.getChangedAt().isAfter(cutoff)) {
+                break;
+            }
+            settled = change.getVersion();
+        }
+        return settled;
+    }
+
+    /**
+     * Tombstones only need to live long enough for every instance to poll them.
+     */
+    @Scheduled(fixedDelayString = "${lutem.catalog.tombstone-purge-interval-ms:3600000}",
+               initialDelayString = "${lutem.catalog.tombstone-purge-interval-ms:3600000}")
+    public void purgeTombstones() {
+        Integer purged = writeTx.execute(status ->
+            readModelStore.purgeTombstones(LocalDateTime.now().minus(tombstoneRetention)));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} game read model tombstones", purged);
+        }
+    }
+
+    /**
+     * Repopulate game_read_model from the games tables. Only needed to backfill;
+     * Game writes keep it current through GameReadModelListener.
+     */
+    public int rebuildReadModel() {
+        long start = System.currentTimeMillis();
+        Integer rows = writeTx.execute(status -> {
+            List<Game> games = gameRepository.findAllFullyTagged();
+            // Initialize lazy collections while the session is open (batch-fetched)
+            for (Game game : games) {
+                Hibernate.initialize(game.getEmotionalGoals());
+                Hibernate.initialize(game.getBestTimeOfDay());
+                Hibernate.initialize(game.getSocialPreferences());
+                Hibernate.initialize(game.getGenres());
+            }
+            return readModelStore.replaceAll(games);
+        });
+        logger.info("Game read model rebuilt: {} rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Load all fully tagged games from the read model and atomically publish
+     * a new snapshot.
+     */
+    public synchronized GameCatalog rebuild() {
+        long start = System.currentTimeMillis();
+        long nextVersion = versions.incrementAndGet();
+
+        long settled = readOnlyTx.execute(status ->
+            readModelStore.maxVersionBefore(LocalDateTime.now().minus(settleWindow)));
+        GameCatalog catalog = readOnlyTx.execute(status -> {
+            List<Game> games = readModelStore.findAll();
+            Map<Long, Double> averages = sessionService.getAverageSatisfactionByGame();
+            return new GameCatalog(nextVersion, games, averages);
+        });
+
+        current.set(catalog);
+        appliedChangeVersion = settled;
+        eventPublisher.publishEvent(new GameCatalogPublishedEvent(catalog));
+        logger.info("Game catalog v{} built: {} games in {} ms",
+            catalog.getVersion(), catalog.size(), System.currentTimeMillis() - start);
+        return catalog;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,132 @@
+package com.lutem.mvp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.repository.GameRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole game catalog as NDJSON (one game per line, the format
+ * {@link GameImportService#importNdjson} reads back) or as a binary
+ * {@link CatalogSnapshot} for {@link CatalogSnapshotLoader}.
+ *
+ * Games come off a database cursor and are written straight to the response
+ * stream, {@link #FLUSH_EVERY} at a time. After each page the persistence
+ * context is cleared, so memory stays flat whatever the size of the catalog.
+ * Holding a page before writing it lets Hibernate's batch fetching load its
+ * collections in a few queries.
+ */
+@Service
+public class GameExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameExportService.class);
+
+    // Matches the cursor fetch size in GameRepository.streamAllOrderById
+    static final int FLUSH_EVERY = 256;
+
+    private final GameRepository gameRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public GameExportService(GameRepository gameRepository,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.gameRepository = gameRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Writes every game to the stream; returns how many were written. The
+     * stream itself is left open.
+     */
+    public int writeNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // One value per line instead of Jackson's space between root values
+            generator.setRootValueSeparator(null);
+            int written = forEachPage(page -> {
+                for (Game game : page) {
+                    generator.writeObject(game);
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+            });
+            logger.info("Exported {} games as NDJSON", written);
+            return written;
+        }
+    }
+
+    /**
+     * Writes every game as a {@link CatalogSnapshot}; returns how many were
+     * written. Closes the stream, which finishes the snapshot.
+     */
+    public int writeSnapshot(OutputStream out) throws IOException {
+        try (CatalogSnapshot.Writer writer = CatalogSnapshot.writer(out)) {
+            forEachPage(page -> {
+                for (Game game : page) {
+                    writer.write(game);
+                }
+            });
+            logger.info("Exported {} games as a catalog snapshot", writer.getWritten());
+            return writer.getWritten();
+        }
+    }
+
+    private interface PageWriter {
+        void write(List<Game> page) throws IOException;
+    }
+
+    // Hands the cursor's games over a page at a time, so the first lazy
+    // collection in a page batch-loads the rest, then clears the page
+    private int forEachPage(PageWriter pageWriter) throws IOException {
+        try {
+            Integer written = readOnlyTx.execute(status -> {
+                try (Stream<Game> games = gameRepository.streamAllOrderById()) {
+                    int count = 0;
+                    List<Game> page = new ArrayList<>(FLUSH_EVERY);
+                    Iterator<Game> iterator = games.iterator();
+                    while (iterator.hasNext()) {
+                        page.add(iterator.next());
+                        // Before advancing the cursor again: clearing then would detach the next game
+                        if (page.size() == FLUSH_EVERY) {
+                            count += writePage(pageWriter, page);
+                        }
+                    }
+                    return count + writePage(pageWriter, page);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return written != null ? written : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int writePage(PageWriter pageWriter, List<Game> page) throws IOException {
+        pageWriter.write(page);
+        int written = page.size();
+        page.clear();
+        entityManager.clear();
+        return written;
+    }
+}
@@ -0,0 +1,357 @@
+package com.lutem.mvp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.lutem.mvp.event.GameChangedEvent;
+import com.lutem.mvp.event.GameChangedEvent.ChangeType;
+import com.lutem.mvp.model.*;
+import com.lutem.mvp.repository.GameImportBatchWriter;
+import com.lutem.mvp.repository.GameReadModelStore;
+import com.lutem.mvp.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import/sync of games from another environment (POST /admin/games/import).
+ *
+ * Runs in three phases instead of two lookups and a save per game:
+ * <ol>
+ *   <li>prefetch: every existing game matching the payload by steamAppId or
+ *       lower-cased name, as flat projections, in a few IN queries;</li>
+ *   <li>diff: tag fields compared in memory, so games whose tags already match
+ *       are skipped without a write;</li>
+ *   <li>write: tag updates and new games sent as JDBC batches, one transaction
+ *       per {@code import-batch-size} games, followed by the read model rows
+ *       and GameChangedEvents the entity listeners would have produced.</li>
+ * </ol>
+ * A chunk that fails is retried game by game so errors are still reported per game.
+ * {@link #importNdjson} applies the same phases to each chunk of a streamed body.
+ */
+@Service
+public class GameImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameImportService.class);
+
+    // Keeps IN lists well under driver parameter limits
+    private static final int PREFETCH_CHUNK = 1000;
+
+    private final GameRepository gameRepository;
+    private final GameImportBatchWriter batchWriter;
+    private final GameReadModelStore readModelStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public GameImportService(GameRepository gameRepository,
+                             GameImportBatchWriter batchWriter,
+                             GameReadModelStore readModelStore,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${lutem.admin.import-batch-size:500}") int batchSize) {
+        this.gameRepository = gameRepository;
+        this.batchWriter = batchWriter;
+        this.readModelStore = readModelStore;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Matches by steamAppId (preferred) or name and updates tag-related fields;
+     * unmatched games are created. Returns the updated/created/skipped/errors/total
+     * counters plus per-phase timings in ms.
+     */
+    public Map<String, Object> importGames(List<Game> games) {
+        ImportTotals totals = new ImportTotals();
+        totals.total = games.size();
+        importBatch(games, totals);
+        return totals.finish();
+    }
+
+    /**
+     * {@link #importGames} for an NDJSON body (one game per line), read and
+     * committed {@code import-batch-size} records at a time so memory stays flat
+     * whatever the size of the export. Malformed lines are reported as errors.
+     */
+    public Map<String, Object> importNdjson(InputStream body) throws IOException {
+        ImportTotals totals = new ImportTotals();
+        ObjectReader reader = objectMapper.readerFor(Game.class);
+        List<Game> chunk = new ArrayList<>(batchSize);
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                totals.total++;
+                try {
+                    chunk.add(reader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    totals.errors.add("line " + lineNumber + ": " + e.getOriginalMessage());
+                    continue;
+                }
+                if (chunk.size() == batchSize) {
+                    importBatch(chunk, totals);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        importBatch(chunk, totals);
+        return totals.finish();
+    }
+
+    private void importBatch(List<Game> games, ImportTotals totals) {
+        if (games.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<String> errors = totals.errors;
+
+        // --- Prefetch ---
+        Map<Long, Game> byAppId = new HashMap<>();
+        Set<Long> appIds = games.stream().map(Game::getSteamAppId).filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        for (Object[] row : inChunks(appIds, gameRepository::findImportRowsBySteamAppIdIn)) {
+            Game existing = importRow(row);
+            byAppId.put(existing.getSteamAppId(), existing);
+        }
+
+        Map<String, List<Game>> byName = new HashMap<>();
+        Set<String> names = games.stream()
+            .filter(g -> g.getSteamAppId() == null || !byAppId.containsKey(g.getSteamAppId()))
+            .map(Game::getName).filter(Objects::nonNull).map(GameImportService::nameKey)
+            .collect(Collectors.toSet());
+        Map<Long, Game> matched = new HashMap<>();
+        byAppId.values().forEach(g -> matched.put(g.getId(), g));
+        for (Object[] row : inChunks(names, gameRepository::findImportRowsByLowerNameIn)) {
+            // The same game may match by id and name; keep one instance so edits accumulate
+            Game existing = matched.computeIfAbsent((Long) row[0], id -> importRow(row));
+            byName.computeIfAbsent(nameKey(existing.getName()), k -> new ArrayList<>()).add(existing);
+        }
+        for (Object[] row : inChunks(matched.keySet(), gameRepository::findEmotionalGoalsByIdIn)) {
+            matched.get((Long) row[0]).getEmotionalGoals().add((EmotionalGoal) row[1]);
+        }
+        long prefetched = System.nanoTime();
+
+        // --- Diff ---
+        int updated = 0;
+        int created = 0;
+        Map<Long, Game> toUpdate = new LinkedHashMap<>();
+        List<Game> toCreate = new ArrayList<>();
+        for (Game incoming : games) {
+            try {
+                Game existing = match(incoming, byAppId, byName);
+                if (existing == null) {
+                    // Game doesn't exist locally - create it; later duplicates in the payload match it
+                    incoming.setId(null);
+                    toCreate.add(incoming);
+                    if (incoming.getSteamAppId() != null) {
+                        byAppId.put(incoming.getSteamAppId(), incoming);
+                    }
+                    if (incoming.getName() != null) {
+                        byName.computeIfAbsent(nameKey(incoming.getName()), k -> new ArrayList<>()).add(incoming);
+                    }
+                    created++;
+                } else if (applyTags(incoming, existing)) {
+                    if (existing.getId() != null) {
+                        toUpdate.put(existing.getId(), existing);
+                    }
+                    updated++;
+                } else {
+                    totals.skipped++;
+                }
+            } catch (RuntimeException e) {
+                errors.add(incoming.getName() + ": " + e.getMessage());
+            }
+        }
+        long diffed = System.nanoTime();
+
+        // --- Write ---
+        updated -= write(new ArrayList<>(toUpdate.values()), false, errors);
+        created -= write(toCreate, true, errors);
+        long written = System.nanoTime();
+
+        totals.updated += updated;
+        totals.created += created;
+        totals.prefetchNanos += prefetched - start;
+        totals.diffNanos += diffed - prefetched;
+        totals.writeNanos += written - diffed;
+    }
+
+    /**
+     * Writes the games in chunks; returns how many of them could not be written.
+     */
+    private int write(List<Game> games, boolean create, List<String> errors) {
+        int failed = 0;
+        for (int from = 0; from < games.size(); from += batchSize) {
+            List<Game> chunk = games.subList(from, Math.min(from + batchSize, games.size()));
+            try {
+                writeChunk(chunk, create);
+            } catch (RuntimeException e) {
+                logger.warn("Import chunk of {} games failed, retrying one by one: {}", chunk.size(), e.getMessage());
+                for (Game game : chunk) {
+                    if (create) {
+                        // The rolled-back batch may already have handed out ids
+                        game.setId(null);
+                    }
+                    try {
+                        writeChunk(List.of(game), create);
+                    } catch (RuntimeException single) {
+                        errors.add(game.getName() + ": " + single.getMessage());
+                        failed++;
+                    }
+                }
+            }
+        }
+        return failed;
+    }
+
+    private void writeChunk(List<Game> chunk, boolean create) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (create) {
+                batchWriter.insertGames(chunk);
+                readModelStore.saveAll(chunk);
+            } else {
+                batchWriter.updateTags(chunk);
+                // Full rows for the read model; their collections are bulk-loaded by the store
+                readModelStore.saveAll(gameRepository.findAllById(
+                    chunk.stream().map(Game::getId).collect(Collectors.toList())));
+            }
+        });
+        // JDBC writes bypass GameChangeListener
+        for (Game game : chunk) {
+            eventPublisher.publishEvent(new GameChangedEvent(game.getId(), ChangeType.SAVED));
+        }
+    }
+
+    /**
+     * Counters and phase timings, accumulated over the chunks of one import.
+     */
+    private static final class ImportTotals {
+        private final long startNanos = System.nanoTime();
+        private final List<String> errors = new ArrayList<>();
+        private int total;
+        private int updated;
+        private int created;
+        private int skipped;
+        private long prefetchNanos;
+        private long diffNanos;
+        private long writeNanos;
+
+        Map<String, Object> finish() {
+            Map<String, Object> timings = new LinkedHashMap<>();
+            timings.put("prefetch", TimeUnit.NANOSECONDS.toMillis(prefetchNanos));
+            timings.put("diff", TimeUnit.NANOSECONDS.toMillis(diffNanos));
+            timings.put("write", TimeUnit.NANOSECONDS.toMillis(writeNanos));
+            timings.put("total", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            logger.info("Game import of {}: {} updated, {} created, {} skipped, {} errors; timings (ms) {}",
+                total, updated, created, skipped, errors.size(), timings);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("updated", updated);
+            result.put("created", created);
+            result.put("skipped", skipped);
+            result.put("errors", errors);
+            result.put("total", total);
+            result.put("timingsMs", timings);
+            return result;
+        }
+    }
+
+    // Matches by steamAppId first (most reliable), then by name
+    private static Game match(Game incoming, Map<Long, Game> byAppId, Map<String, List<Game>> byName) {
+        if (incoming.getSteamAppId() != null && byAppId.containsKey(incoming.getSteamAppId())) {
+            return byAppId.get(incoming.getSteamAppId());
+        }
+        if (incoming.getName() == null) {
+            return null;
+        }
+        List<Game> candidates = byName.getOrDefault(nameKey(incoming.getName()), List.of());
+        if (candidates.size() > 1) {
+            throw new IllegalStateException(candidates.size() + " games match this name");
+        }
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    /**
+     * Copies the incoming non-null tag fields onto the existing game; returns
+     * whether any of them actually changed.
+     */
+    static boolean applyTags(Game incoming, Game existing) {
+        boolean changed = false;
+        List<EmotionalGoal> goals = incoming.getEmotionalGoals();
+        if (goals != null && !goals.isEmpty()
+                && !new HashSet<>(goals).equals(new HashSet<>(existing.getEmotionalGoals()))) {
+            existing.setEmotionalGoals(new ArrayList<>(goals));
+            changed = true;
+        }
+        changed |= copy(incoming.getInterruptibility(), existing::getInterruptibility, existing::setInterruptibility);
+        changed |= copy(incoming.getAudioDependency(), existing::getAudioDependency, existing::setAudioDependency);
+        changed |= copy(incoming.getContentRating(), existing::getContentRating, existing::setContentRating);
+        changed |= copy(incoming.getNsfwLevel(), existing::getNsfwLevel, existing::setNsfwLevel);
+        changed |= copy(incoming.getEnergyRequired(), existing::getEnergyRequired, existing::setEnergyRequired);
+        changed |= copy(incoming.getTaggingSource(), existing::getTaggingSource, existing::setTaggingSource);
+        changed |= copy(incoming.getTaggingConfidence(), existing::getTaggingConfidence,
+            existing::setTaggingConfidence);
+        return changed;
+    }
+
+    private static <T> boolean copy(T value, Supplier<T> current, Consumer<T> setter) {
+        if (value == null || value.equals(current.get())) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+
+    private static Game importRow(Object[] row) {
+        Game game = new Game();
+        game.setId((Long) row[0]);
+        game.setSteamAppId((Long) row[1]);
+        game.setName((String) row[2]);
+        game.setInterruptibility((Interruptibility) row[3]);
+        game.setAudioDependency((AudioDependency) row[4]);
+        game.setContentRating((ContentRating) row[5]);
+        game.setNsfwLevel((NsfwLevel) row[6]);
+        game.setEnergyRequired((EnergyLevel) row[7]);
+        game.setTaggingSource((TaggingSource) row[8]);
+        game.setTaggingConfidence((Float) row[9]);
+        return game;
+    }
+
+    private static <T> List<Object[]> inChunks(Collection<T> values, Function<List<T>, List<Object[]>> query) {
+        List<T> all = new ArrayList<>(values);
+        List<Object[]> rows = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += PREFETCH_CHUNK) {
+            rows.addAll(query.apply(all.subList(from, Math.min(from + PREFETCH_CHUNK, all.size()))));
+        }
+        return rows;
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
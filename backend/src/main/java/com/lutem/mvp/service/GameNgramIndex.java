@@ -0,0 +1,180 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.Game;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable trigram index over game names and genres, for {@link InMemoryGameSearch}.
+ *
+ * Text is lower-cased, stripped of accents and split into words; each word
+ * is padded the way pg_trgm does it (two spaces before, one after) and cut
+ * into trigrams. Every trigram maps to the ascending positions of the games
+ * containing it. The last word of a query gets no trailing pad, so a word
+ * still being typed matches as a prefix.
+ *
+ * Games are laid out by popularityScore, highest first, so position order is
+ * ranking order: a query counts shared trigrams per game, sorts the hits
+ * into match tiers and then by position. Queries shorter than a trigram
+ * only match at word starts.
+ */
+public final class GameNgramIndex {
+
+    // Match tiers, best first
+    static final int NAME_PREFIX = 0;
+    static final int NAME_CONTAINS = 1;
+    static final int GENRE_CONTAINS = 2;
+    static final int FUZZY_NAME = 3;
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int[] NONE = new int[0];
+
+    private final List<Game> source;
+    private final Game[] games;
+    private final String[] names;
+    private final String[] genres;
+    private final Map<String, int[]> nameGrams;
+    private final Map<String, int[]> genreGrams;
+
+    public GameNgramIndex(List<Game> games) {
+        this.source = games;
+        this.games = games.toArray(new Game[0]);
+        Arrays.sort(this.games, Comparator
+            .comparingDouble((Game g) -> g.getPopularityScore() != null ? g.getPopularityScore() : -1.0)
+            .reversed()
+            .thenComparing(g -> g.getName() != null ? g.getName() : "")
+            .thenComparing(Game::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        this.names = new String[this.games.length];
+        this.genres = new String[this.games.length];
+
+        Map<String, List<Integer>> nameLists = new HashMap<>();
+        Map<String, List<Integer>> genreLists = new HashMap<>();
+        for (int i = 0; i < this.games.length; i++) {
+            Game game = this.games[i];
+            names[i] = normalize(game.getName());
+            genres[i] = game.getGenres() != null ? normalize(String.join(" ", game.getGenres())) : "";
+            for (String gram : trigrams(names[i], false)) {
+                nameLists.computeIfAbsent(gram, k -> new ArrayList<>()).add(i);
+            }
+            for (String gram : trigrams(genres[i], false)) {
+                genreLists.computeIfAbsent(gram, k -> new ArrayList<>()).add(i);
+            }
+        }
+        this.nameGrams = toArrays(nameLists);
+        this.genreGrams = toArrays(genreLists);
+    }
+
+    /**
+     * True if this index was built from exactly this list (same instance).
+     */
+    boolean isFor(List<Game> games) {
+        return source == games;
+    }
+
+    public int size() {
+        return games.length;
+    }
+
+    /**
+     * Games matching the query, best tier first and by popularity within a
+     * tier. A game matches if its name starts with or contains the query,
+     * its genres contain it, or it shares at least {@code minSimilarity} of
+     * the query's trigrams (typo tolerance).
+     */
+    public List<Game> search(String query, int limit, double minSimilarity) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<String> queryGrams = trigrams(normalized, true);
+        int[] shared = new int[games.length];
+        boolean[] seen = new boolean[games.length];
+        List<Integer> candidates = new ArrayList<>();
+        for (String gram : queryGrams) {
+            for (int position : nameGrams.getOrDefault(gram, NONE)) {
+                shared[position]++;
+                if (!seen[position]) {
+                    seen[position] = true;
+                    candidates.add(position);
+                }
+            }
+            for (int position : genreGrams.getOrDefault(gram, NONE)) {
+                if (!seen[position]) {
+                    seen[position] = true;
+                    candidates.add(position);
+                }
+            }
+        }
+
+        // Tier in the high bits, position (= popularity rank) in the low bits
+        List<Long> hits = new ArrayList<>();
+        for (int position : candidates) {
+            int tier = tier(position, normalized, (double) shared[position] / queryGrams.size(), minSimilarity);
+            if (tier >= 0) {
+                hits.add(((long) tier << 32) | position);
+            }
+        }
+        hits.sort(null);
+        List<Game> results = new ArrayList<>(Math.min(limit, hits.size()));
+        for (int i = 0; i < hits.size() && results.size() < limit; i++) {
+            results.add(games[(int) (long) hits.get(i)]);
+        }
+        return results;
+    }
+
+    private int tier(int position, String query, double similarity, double minSimilarity) {
+        if (names[position].startsWith(query)) {
+            return NAME_PREFIX;
+        }
+        if (names[position].contains(query)) {
+            return NAME_CONTAINS;
+        }
+        if (genres[position].contains(query)) {
+            return GENRE_CONTAINS;
+        }
+        return similarity >= minSimilarity ? FUZZY_NAME : -1;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_WORD.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // pg_trgm-style padded trigrams of every word; openEnded leaves the last word unpadded on the right
+    static Set<String> trigrams(String normalized, boolean openEnded) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return grams;
+        }
+        String[] words = normalized.split(" ");
+        for (int w = 0; w < words.length; w++) {
+            String padded = "  " + words[w] + (openEnded && w == words.length - 1 ? "" : " ");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> lists) {
+        Map<String, int[]> arrays = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : lists.entrySet()) {
+            arrays.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return arrays;
+    }
+}
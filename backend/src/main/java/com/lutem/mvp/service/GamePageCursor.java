@@ -0,0 +1,74 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.repository.GameReadModelStore.SortKey;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset paging over the game list: the sort it was
+ * issued for and the (sort key, id) of the last game on the page.
+ *
+ * Clients treat it as opaque; it's URL-safe Base64 of
+ * {@code sortBy|a-or-d|id|key}. The key goes last so a name containing the
+ * separator still parses.
+ */
+public final class GamePageCursor {
+
+    private final SortKey sortKey;
+    private final boolean descending;
+    private final long gameId;
+    private final Object key;
+
+    private GamePageCursor(SortKey sortKey, boolean descending, long gameId, Object key) {
+        this.sortKey = sortKey;
+        this.descending = descending;
+        this.gameId = gameId;
+        this.key = key;
+    }
+
+    /**
+     * Cursor positioned just after the given game.
+     */
+    public static GamePageCursor after(SortKey sortKey, boolean descending, Game last) {
+        return new GamePageCursor(sortKey, descending, last.getId(), sortKey.keyOf(last));
+    }
+
+    /**
+     * Parses a token from {@link #encode()}; throws IllegalArgumentException
+     * if it's malformed or was issued for a different sort.
+     */
+    public static GamePageCursor decode(String token, SortKey sortKey, boolean descending) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        if (!parts[0].equals(sortKey.getParam()) || !parts[1].equals(descending ? "d" : "a")) {
+            throw new IllegalArgumentException("Page cursor was issued for a different sort order");
+        }
+        try {
+            return new GamePageCursor(sortKey, descending, Long.parseLong(parts[2]), sortKey.parseKey(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = sortKey.getParam() + "|" + (descending ? "d" : "a") + "|" + gameId + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long getGameId() {
+        return gameId;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+}
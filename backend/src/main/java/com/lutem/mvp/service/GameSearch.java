@@ -0,0 +1,24 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.Game;
+
+import java.util.List;
+
+/**
+ * Name and genre search over the fully tagged games.
+ *
+ * Results are ranked in tiers: name starts with the query, name contains it,
+ * genres contain it, then names that only resemble it (typos). Within a tier
+ * the most popular games (popularityScore) come first. The implementation is
+ * picked with {@code lutem.search.engine}: {@code memory} (default,
+ * {@link InMemoryGameSearch}) or {@code trigram} (Postgres pg_trgm,
+ * {@link TrigramGameSearch}).
+ */
+public interface GameSearch {
+
+    /**
+     * Up to {@code limit} matching games, best first; empty for a blank query.
+     * Returned games are read-only snapshots, not managed entities.
+     */
+    List<Game> search(String query, int limit);
+}
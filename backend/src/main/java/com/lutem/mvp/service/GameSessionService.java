@@ -1,23 +1,30 @@
 package com.lutem.mvp.service;
 
+import com.lutem.mvp.event.SessionFeedbackEvent;
 import com.lutem.mvp.model.Game;
 import com.lutem.mvp.model.GameSession;
 import com.lutem.mvp.model.User;
 import com.lutem.mvp.repository.GameSessionRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class GameSessionService {
     
     private final GameSessionRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public GameSessionService(GameSessionRepository repository) {
+    public GameSessionService(GameSessionRepository repository,
+                              ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
@@ -44,7 +51,11 @@ public class GameSessionService {
             .map(session -> {
                 session.setSatisfactionScore(satisfactionScore);
                 session.setFeedbackAt(LocalDateTime.now());
-                return repository.save(session);
+                GameSession saved = repository.save(session);
+                eventPublisher.publishEvent(new SessionFeedbackEvent(
+                    saved.getId(), saved.getGame().getId(), satisfactionScore,
+                    saved.getUser() != null ? saved.getUser().getGoogleId() : null));
+                return saved;
             });
     }
     
@@ -79,6 +90,19 @@ public class GameSessionService {
         return repository.getAverageSatisfactionForGame(gameId);
     }
     
+    /**
+     * Get average satisfaction for all rated games (gameId -> average), in a single query
+     */
+    public Map<Long, Double> getAverageSatisfactionByGame() {
+        Map<Long, Double> averages = new HashMap<>();
+        for (Object[] row : repository.getAverageSatisfactionByGame()) {
+            if (row[0] != null && row[1] != null) {
+                averages.put(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue());
+            }
+        }
+        return averages;
+    }
+    
     /**
      * Get recent sessions for a user by legacy userId (for weekly recap)
      */
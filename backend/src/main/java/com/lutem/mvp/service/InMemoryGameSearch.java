@@ -0,0 +1,118 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.event.GameCatalogPublishedEvent;
+import com.lutem.mvp.model.Game;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link GameSearch} over a {@link GameNgramIndex} of the in-memory
+ * {@link GameCatalog}, so searching never touches the database.
+ *
+ * The index follows the catalog: when GameCatalogService publishes a snapshot
+ * with a different game list (startup load, delta refresh), the index is
+ * rebuilt from it in the background while searches keep using the previous
+ * one. Bursts are coalesced so only the latest snapshot gets indexed.
+ * Snapshots that only patch satisfaction averages share their game list and
+ * keep the current index. Only the very first search, if it comes before any
+ * index exists, builds one inline.
+ */
+@Service
+@ConditionalOnProperty(name = "lutem.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryGameSearch implements GameSearch {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryGameSearch.class);
+
+    private final GameCatalogService catalogService;
+    private final double minSimilarity;
+
+    private volatile GameNgramIndex index;
+    // Latest snapshot waiting to be indexed; non-null while a build is queued
+    private final AtomicReference<GameCatalog> pending = new AtomicReference<>();
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "game-search-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public InMemoryGameSearch(GameCatalogService catalogService,
+                              @Value("${lutem.search.min-similarity:0.5}") double minSimilarity) {
+        this.catalogService = catalogService;
+        this.minSimilarity = minSimilarity;
+    }
+
+    @Override
+    public List<Game> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        GameCatalog catalog = catalogService.getCatalog();
+        GameNgramIndex current = index;
+        if (current == null) {
+            current = initialIndex(catalog);
+        } else if (!current.isFor(catalog.getGames())) {
+            // Build already queued by the publish event (or missed); serve the previous index meanwhile
+            requestIndex(catalog);
+        }
+        return current.search(query, limit, minSimilarity);
+    }
+
+    @EventListener
+    public void onCatalogPublished(GameCatalogPublishedEvent event) {
+        requestIndex(event.getCatalog());
+    }
+
+    /**
+     * Index the current catalog now instead of waiting for the background build.
+     */
+    public GameNgramIndex refreshIndex() {
+        return build(catalogService.getCatalog());
+    }
+
+    // Schedule a background build unless one is queued; a queued build picks up the newest catalog
+    private void requestIndex(GameCatalog catalog) {
+        if (pending.getAndSet(catalog) == null) {
+            indexExecutor.execute(() -> {
+                try {
+                    build(pending.getAndSet(null));
+                } catch (Exception e) {
+                    logger.error("Game search index build failed, keeping previous index: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Only before anything has been indexed; afterwards requests never wait on a build
+    private synchronized GameNgramIndex initialIndex(GameCatalog catalog) {
+        GameNgramIndex current = index;
+        return current != null ? current : build(catalog);
+    }
+
+    private synchronized GameNgramIndex build(GameCatalog catalog) {
+        GameNgramIndex current = index;
+        if (current != null && current.isFor(catalog.getGames())) {
+            return current;
+        }
+        long start = System.currentTimeMillis();
+        current = new GameNgramIndex(catalog.getGames());
+        index = current;
+        logger.info("Game search index built for catalog v{}: {} games in {} ms",
+            catalog.getVersion(), current.size(), System.currentTimeMillis() - start);
+        return current;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,562 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.RecommendationRequest;
+import com.lutem.mvp.dto.SatisfactionStats;
+import com.lutem.mvp.model.EmotionalGoal;
+import com.lutem.mvp.model.EnergyLevel;
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.model.Interruptibility;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Multi-dimensional recommendation scoring, split into two phases:
+ *
+ * 1. {@link #score}: numeric pass over every candidate. Works on primitives and
+ *    the catalog's bitsets/arrays only - no strings, lists or boxing per game.
+ * 2. {@link #explain}: builds the "why this game" text, only for the top-K.
+ *
+ * Per-request lookups (which goals, genres and ratings apply) are resolved once
+ * in {@link #prepare}. Weights, in order of application:
+ * time 30/20, emotional goals 25 split across requested goals, interruptibility
+ * 20/15/-3, energy 15/12/-2, time of day 5, social 5/-2, personal rating 15
+ * (or DB satisfaction 10 as fallback), preferred genres 15, highly rated genre 5,
+ * time-of-day satisfaction pattern 3, popularity 10. Final score is floored at 0.
+ *
+ * Catalogs at or above {@code lutem.recommendations.parallel-threshold} games are
+ * scored on a dedicated ForkJoinPool: the candidate bitset is split into word
+ * ranges, each leaf fills its own {@link TopKRanker}, and rankers are merged on
+ * the way up. Ties break by game id, so the result is the same as sequential.
+ * {@link #rankAll} scores several requests in the same pass over the games.
+ */
+@Service
+public class RecommendationScorer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationScorer.class);
+
+    private static final String FALLBACK_REASON = "Available game for your time slot";
+    private static final int MAX_REASONS = 3;
+
+    // Leaf size for parallel scoring, in 64-game bitset words (16 words = 1024 games)
+    private static final int WORDS_PER_TASK = 16;
+
+    private final int parallelThreshold;
+    private final ForkJoinPool scoringPool;
+
+    public RecommendationScorer(
+            @Value("${lutem.recommendations.parallel-threshold:20000}") int parallelThreshold,
+            @Value("${lutem.recommendations.parallelism:0}") int parallelism) {
+        this.parallelThreshold = parallelThreshold;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.scoringPool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("recommendation-scoring-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+        logger.info("Recommendation scoring: parallel above {} games on {} threads", parallelThreshold, threads);
+    }
+
+    /**
+     * Resolves everything a request needs from the catalog so {@link #score} is a
+     * handful of bit tests and array reads per game.
+     */
+    public ScoringContext prepare(RecommendationRequest request, SatisfactionStats userStats, GameCatalog catalog) {
+        return new ScoringContext(request, userStats, catalog);
+    }
+
+    /**
+     * Scores every candidate and keeps the best {@code k} (score > 0), ties broken by game id.
+     * Runs on the scoring pool when the catalog is at or above the parallel threshold.
+     */
+    public TopKRanker rank(ScoringContext context, long[] candidates, int k) {
+        return rankAll(List.of(context), List.of(candidates), k).get(0);
+    }
+
+    /**
+     * Ranks several requests against the same catalog in one pass over the games:
+     * each game in the union of the candidate sets is visited once and scored for
+     * every request that has it as a candidate. Results are in request order.
+     */
+    public List<TopKRanker> rankAll(List<ScoringContext> contexts, List<long[]> candidates, int k) {
+        if (contexts.size() != candidates.size()) {
+            throw new IllegalArgumentException("Need one candidate bitset per scoring context");
+        }
+        ScoringContext[] contextArray = contexts.toArray(new ScoringContext[0]);
+        long[][] candidateArray = candidates.toArray(new long[0][]);
+        for (ScoringContext context : contextArray) {
+            if (context.catalog != contextArray[0].catalog) {
+                throw new IllegalArgumentException("All scoring contexts must use the same catalog snapshot");
+            }
+        }
+        int words = contextArray.length > 0 ? contextArray[0].canStart.length : 0;
+        TopKRanker[] rankers;
+        if (contextArray.length > 0 && contextArray[0].games.size() >= parallelThreshold && words > WORDS_PER_TASK) {
+            rankers = scoringPool.invoke(new RankTask(this, contextArray, candidateArray, 0, words, k));
+        } else {
+            rankers = rankRange(contextArray, candidateArray, 0, words, k);
+        }
+        return List.of(rankers);
+    }
+
+    /**
+     * Sequential scoring of the candidates in bitset words [fromWord, toWord).
+     */
+    private TopKRanker[] rankRange(ScoringContext[] contexts, long[][] candidates, int fromWord, int toWord, int k) {
+        TopKRanker[] rankers = new TopKRanker[contexts.length];
+        for (int r = 0; r < rankers.length; r++) {
+            rankers[r] = new TopKRanker(k);
+        }
+        if (contexts.length == 0) {
+            return rankers;
+        }
+        List<Game> games = contexts[0].games;
+        for (int w = fromWord; w < toWord; w++) {
+            long union = 0;
+            for (long[] requestCandidates : candidates) {
+                union |= requestCandidates[w];
+            }
+            while (union != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(union);
+                union &= union - 1;
+                long gameId = games.get(i).getId();
+                for (int r = 0; r < contexts.length; r++) {
+                    if (GameAttributeIndex.get(candidates[r], i)) {
+                        double score = score(contexts[r], i);
+                        if (score > 0) {
+                            rankers[r].offer(i, score, gameId);
+                        }
+                    }
+                }
+            }
+        }
+        return rankers;
+    }
+
+    /**
+     * Phase 1: numeric score of the game at a catalog position.
+     * Additions happen in the same order as {@link #explain} checks them.
+     */
+    public double score(ScoringContext c, int position) {
+        // 1. TIME MATCH (30%)
+        if (!GameAttributeIndex.get(c.canStart, position)) {
+            return 0.0;
+        }
+        double score = GameAttributeIndex.get(c.fitsCompletely, position) ? 30.0 : 20.0;
+
+        // 2. EMOTIONAL GOAL MATCH (25%)
+        for (long[] goal : c.goalBits) {
+            if (GameAttributeIndex.get(goal, position)) {
+                score += c.goalWeight;
+            }
+        }
+
+        // 3. INTERRUPTIBILITY MATCH (20%)
+        if (c.interruptExact != null) {
+            if (GameAttributeIndex.get(c.interruptExact, position)) {
+                score += 20.0;
+            } else if (GameAttributeIndex.get(c.interruptAtLeast, position)) {
+                score += 15.0;
+            } else {
+                score -= 3.0;
+            }
+        }
+
+        // 4. ENERGY LEVEL MATCH (15%)
+        if (c.energyExact != null) {
+            if (GameAttributeIndex.get(c.energyExact, position)) {
+                score += 15.0;
+            } else if (GameAttributeIndex.get(c.energyBelow, position)) {
+                score += 12.0;
+            } else {
+                score -= 2.0;
+            }
+        }
+
+        // 5. TIME OF DAY MATCH (5%)
+        if (c.timeOfDay != null && GameAttributeIndex.get(c.timeOfDay, position)) {
+            score += 5.0;
+        }
+
+        // 6. SOCIAL PREFERENCE MATCH (5%)
+        if (c.social != null) {
+            score += GameAttributeIndex.get(c.social, position) ? 5.0 : -2.0;
+        }
+
+        Game game = c.games.get(position);
+
+        // 7. SATISFACTION BONUS - personal rating, else DB satisfaction fallback
+        if (c.userRatings != null) {
+            double userRating = c.userRatings[position];
+            if (userRating > 0) {
+                score += (userRating / 5.0) * 15.0;
+            }
+        } else if (game.getSessionCount() > 0) {
+            score += (c.catalog.getAverageSatisfactionAt(position) / 5.0) * 10.0;
+        }
+
+        int[] genres = c.index.genreIdsAt(position);
+
+        // 8. GENRE PREFERENCE BOOST (max 15%)
+        if (c.preferredGenres != null) {
+            int genreMatches = 0;
+            for (int genre : genres) {
+                if (genre >= 0 && c.preferredGenres[c.index.lowerCaseIdOf(genre)]) {
+                    genreMatches++;
+                }
+            }
+            if (genreMatches > 0) {
+                score += (genreMatches / c.preferredGenreCount) * 15.0;
+            }
+        }
+
+        // 9. GENRE SATISFACTION BOOST (once per game)
+        if (c.highlyRatedGenres != null) {
+            for (int genre : genres) {
+                if (genre >= 0 && c.highlyRatedGenres[genre]) {
+                    score += 5.0;
+                    break;
+                }
+            }
+        }
+
+        // 10. TIME-OF-DAY SATISFACTION PATTERN (same for every game in the request)
+        score += c.timeOfDaySatisfactionBonus;
+
+        // 11. POPULARITY BONUS (max 10%), popularityScore normalized against ~125
+        Double popularity = game.getPopularityScore();
+        if (popularity != null && popularity > 0) {
+            score += Math.min(popularity / 125.0, 1.0) * 10.0;
+        }
+
+        return Math.max(0, score);
+    }
+
+    /**
+     * Phase 2: up to three match reasons for the game at a catalog position,
+     * joined with " • ". Only called for games that made the top-K.
+     */
+    public String explain(ScoringContext c, int position) {
+        RecommendationRequest request = c.request;
+        Game game = c.games.get(position);
+        List<String> matchReasons = new ArrayList<>();
+
+        if (!GameAttributeIndex.get(c.canStart, position)) {
+            return "Too long for available time";
+        }
+        if (GameAttributeIndex.get(c.fitsCompletely, position)) {
+            matchReasons.add("Fits your " + request.getAvailableMinutes() + "-minute window");
+        } else {
+            matchReasons.add("Can start in " + request.getAvailableMinutes() + " minutes");
+        }
+
+        if (request.getDesiredEmotionalGoals() != null) {
+            for (EmotionalGoal goal : request.getDesiredEmotionalGoals()) {
+                if (game.hasEmotionalGoal(goal)) {
+                    matchReasons.add("Great for " + goal.getDisplayName().toLowerCase());
+                }
+            }
+        }
+
+        if (c.interruptExact != null) {
+            if (GameAttributeIndex.get(c.interruptExact, position)) {
+                matchReasons.add(game.getInterruptibility().getDisplayName() + " - "
+                    + getInterruptibilityDescription(game.getInterruptibility()));
+            } else if (GameAttributeIndex.get(c.interruptAtLeast, position)) {
+                matchReasons.add("Easy to pause when needed");
+            }
+        }
+
+        if (c.energyExact != null) {
+            if (GameAttributeIndex.get(c.energyExact, position)) {
+                matchReasons.add("Perfect match for your "
+                    + game.getEnergyRequired().getDisplayName().toLowerCase() + " energy level");
+            } else if (GameAttributeIndex.get(c.energyBelow, position)) {
+                matchReasons.add("Won't drain your energy");
+            }
+        }
+
+        if (c.timeOfDay != null && GameAttributeIndex.get(c.timeOfDay, position)) {
+            matchReasons.add("Ideal for " + request.getTimeOfDay().getDisplayName().toLowerCase());
+        }
+
+        if (c.social != null && GameAttributeIndex.get(c.social, position)) {
+            matchReasons.add("Perfect for " + request.getSocialPreference().getDisplayName().toLowerCase() + " play");
+        }
+
+        if (c.userRatings != null) {
+            double userRating = c.userRatings[position];
+            if (userRating >= 4.0) {
+                matchReasons.add("You rated this " + String.format("%.1f", userRating) + "/5 ⭐");
+            } else if (userRating >= 3.0) {
+                matchReasons.add("Previously enjoyed by you");
+            }
+        } else if (game.getSessionCount() > 0) {
+            double avg = c.catalog.getAverageSatisfactionAt(position);
+            if (avg >= 4.0) {
+                matchReasons.add("You've loved this before (" + String.format("%.1f", avg) + "/5 ⭐)");
+            } else if (avg >= 3.5) {
+                matchReasons.add("Previously enjoyed by you");
+            }
+        }
+
+        if (c.preferredGenres != null) {
+            List<String> matchedGenres = game.getGenres().stream()
+                .filter(genre -> request.getPreferredGenres().stream()
+                    .anyMatch(prefGenre -> prefGenre.equalsIgnoreCase(genre)))
+                .collect(Collectors.toList());
+            if (!matchedGenres.isEmpty()) {
+                matchReasons.add("Matches your taste: " + String.join(", ", matchedGenres));
+            }
+        }
+
+        if (c.highlyRatedGenres != null) {
+            for (String gameGenre : game.getGenres()) {
+                int genre = c.index.genreId(gameGenre);
+                if (genre >= 0 && c.highlyRatedGenres[genre]) {
+                    matchReasons.add("Based on your history with " + gameGenre.toLowerCase() + " games");
+                    break;
+                }
+            }
+        }
+
+        if (c.timeOfDaySatisfactionBonus > 0) {
+            matchReasons.add("You're typically satisfied gaming at this time");
+        }
+
+        // Popular games only get a reason when reviews are overwhelmingly good
+        if (game.getPopularityScore() != null && game.getPopularityScore() > 0
+                && game.getSteamPositiveReviews() != null && game.getSteamNegativeReviews() != null) {
+            int total = game.getSteamPositiveReviews() + game.getSteamNegativeReviews();
+            if (total > 100) {
+                double ratio = (double) game.getSteamPositiveReviews() / total;
+                if (ratio >= 0.95) {
+                    matchReasons.add("Overwhelmingly positive reviews");
+                } else if (ratio >= 0.90) {
+                    matchReasons.add("Very positive community reviews");
+                }
+            }
+        }
+
+        if (matchReasons.isEmpty()) {
+            return FALLBACK_REASON;
+        }
+        return String.join(" • ", matchReasons.subList(0, Math.min(MAX_REASONS, matchReasons.size())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scoringPool.shutdownNow();
+    }
+
+    /**
+     * Fork-join split over bitset words. Each leaf ranks its range into private
+     * TopKRankers (one per request); parents merge the children's rankers.
+     */
+    private static final class RankTask extends RecursiveTask<TopKRanker[]> {
+        private final RecommendationScorer scorer;
+        private final ScoringContext[] contexts;
+        private final long[][] candidates;
+        private final int fromWord;
+        private final int toWord;
+        private final int k;
+
+        RankTask(RecommendationScorer scorer, ScoringContext[] contexts, long[][] candidates,
+                 int fromWord, int toWord, int k) {
+            this.scorer = scorer;
+            this.contexts = contexts;
+            this.candidates = candidates;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+            this.k = k;
+        }
+
+        @Override
+        protected TopKRanker[] compute() {
+            if (toWord - fromWord <= WORDS_PER_TASK) {
+                return scorer.rankRange(contexts, candidates, fromWord, toWord, k);
+            }
+            int mid = (fromWord + toWord) >>> 1;
+            RankTask left = new RankTask(scorer, contexts, candidates, fromWord, mid, k);
+            RankTask right = new RankTask(scorer, contexts, candidates, mid, toWord, k);
+            left.fork();
+            TopKRanker[] rankers = right.compute();
+            TopKRanker[] leftRankers = left.join();
+            for (int r = 0; r < rankers.length; r++) {
+                rankers[r].merge(leftRankers[r]);
+            }
+            return rankers;
+        }
+    }
+
+    private String getInterruptibilityDescription(Interruptibility level) {
+        switch (level) {
+            case HIGH:
+                return "Pause anytime";
+            case MEDIUM:
+                return "Can pause between rounds";
+            case LOW:
+                return "Complete sessions preferred";
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Per-request scoring inputs resolved against one catalog snapshot.
+     * A null bitset/array means the corresponding dimension is not scored.
+     */
+    public static final class ScoringContext {
+        private final RecommendationRequest request;
+        private final SatisfactionStats userStats;
+        private final GameCatalog catalog;
+        private final GameAttributeIndex index;
+        private final List<Game> games;
+
+        private final long[] canStart;
+        private final long[] fitsCompletely;
+        private final long[][] goalBits;
+        private final double goalWeight;
+        private final long[] interruptExact;
+        private final long[] interruptAtLeast;
+        private final long[] energyExact;
+        private final long[] energyBelow;
+        private final long[] timeOfDay;
+        private final long[] social;
+
+        // Personal Firestore ratings by catalog position (0 = not rated)
+        private final double[] userRatings;
+        // Indexed by case-insensitive genre id
+        private final boolean[] preferredGenres;
+        private final double preferredGenreCount;
+        // Indexed by exact genre id
+        private final boolean[] highlyRatedGenres;
+        private final double timeOfDaySatisfactionBonus;
+
+        private ScoringContext(RecommendationRequest request, SatisfactionStats userStats, GameCatalog catalog) {
+            this.request = request;
+            this.userStats = userStats;
+            this.catalog = catalog;
+            this.index = catalog.getIndex();
+            this.games = catalog.getGames();
+
+            int minutes = request.getAvailableMinutes();
+            this.canStart = index.minMinutesAtMost(minutes);
+            this.fitsCompletely = index.maxMinutesAtMost(minutes);
+
+            List<EmotionalGoal> goals = request.getDesiredEmotionalGoals();
+            if (goals != null && !goals.isEmpty()) {
+                // One entry per requested goal, duplicates included, as each one adds its share
+                this.goalBits = new long[goals.size()][];
+                for (int g = 0; g < goals.size(); g++) {
+                    goalBits[g] = goals.get(g) != null
+                        ? index.withEmotionalGoal(goals.get(g)) : new long[canStart.length];
+                }
+                this.goalWeight = 25.0 / goals.size();
+            } else {
+                this.goalBits = new long[0][];
+                this.goalWeight = 0.0;
+            }
+
+            Interruptibility interruptibility = request.getRequiredInterruptibility();
+            if (interruptibility != null) {
+                this.interruptExact = index.withInterruptibility(interruptibility);
+                long[] atLeast = new long[interruptExact.length];
+                for (Interruptibility level : Interruptibility.values()) {
+                    if (level.ordinal() >= interruptibility.ordinal()) {
+                        atLeast = GameAttributeIndex.or(atLeast, index.withInterruptibility(level));
+                    }
+                }
+                this.interruptAtLeast = atLeast;
+            } else {
+                this.interruptExact = null;
+                this.interruptAtLeast = null;
+            }
+
+            EnergyLevel energy = request.getCurrentEnergyLevel();
+            if (energy != null) {
+                this.energyExact = index.withEnergyRequired(energy);
+                long[] below = new long[energyExact.length];
+                for (EnergyLevel level : EnergyLevel.values()) {
+                    if (level.ordinal() < energy.ordinal()) {
+                        below = GameAttributeIndex.or(below, index.withEnergyRequired(level));
+                    }
+                }
+                this.energyBelow = below;
+            } else {
+                this.energyExact = null;
+                this.energyBelow = null;
+            }
+
+            this.timeOfDay = request.getTimeOfDay() != null
+                ? index.suitableForTimeOfDay(request.getTimeOfDay()) : null;
+            this.social = request.getSocialPreference() != null
+                ? index.matchesSocialPreference(request.getSocialPreference()) : null;
+
+            if (userStats != null && userStats.getRatingsByGame() != null) {
+                this.userRatings = new double[games.size()];
+                for (Map.Entry<Long, Double> rating : userStats.getRatingsByGame().entrySet()) {
+                    int position = catalog.positionOf(rating.getKey());
+                    if (position >= 0 && rating.getValue() != null) {
+                        userRatings[position] = rating.getValue();
+                    }
+                }
+            } else {
+                this.userRatings = null;
+            }
+
+            List<String> preferred = request.getPreferredGenres();
+            if (preferred != null && !preferred.isEmpty()) {
+                this.preferredGenres = new boolean[index.lowerCaseGenreCount()];
+                for (String genre : preferred) {
+                    int id = index.lowerCaseGenreId(genre);
+                    if (id >= 0) {
+                        preferredGenres[id] = true;
+                    }
+                }
+                this.preferredGenreCount = preferred.size();
+            } else {
+                this.preferredGenres = null;
+                this.preferredGenreCount = 0;
+            }
+
+            if (userStats != null && userStats.getRatingsByGenre() != null) {
+                this.highlyRatedGenres = new boolean[index.genreCount()];
+                for (Map.Entry<String, Double> rating : userStats.getRatingsByGenre().entrySet()) {
+                    int id = index.genreId(rating.getKey());
+                    if (id >= 0 && rating.getValue() != null && rating.getValue() >= 4.0) {
+                        highlyRatedGenres[id] = true;
+                    }
+                }
+            } else {
+                this.highlyRatedGenres = null;
+            }
+
+            double todBonus = 0.0;
+            if (userStats != null && userStats.getBestTimeOfDay() != null && request.getTimeOfDay() != null
+                    && userStats.getRatingsByTimeOfDay() != null) {
+                String currentTime = request.getTimeOfDay().name();
+                if (currentTime.equals(userStats.getBestTimeOfDay())) {
+                    Double todRating = userStats.getRatingsByTimeOfDay().get(currentTime);
+                    if (todRating != null && todRating >= 4.0) {
+                        todBonus = 3.0;
+                    }
+                }
+            }
+            this.timeOfDaySatisfactionBonus = todBonus;
+        }
+
+        public GameCatalog getCatalog() { return catalog; }
+    }
+}
@@ -0,0 +1,318 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.SatisfactionStats;
+import com.lutem.mvp.dto.SatisfactionStats.GameRatingSummary;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Running per-user satisfaction aggregate, built from Firestore session documents.
+ *
+ * Ratings are kept as count / sum / sum of squares per game, genre, time of day
+ * and day of week, so folding in one finalized session is O(1) (plus its tags)
+ * and {@link #toStats} never has to revisit old sessions. Persisted as a single
+ * Firestore document via {@link #toMap} / {@link #fromMap}.
+ *
+ * Not thread-safe.
+ */
+public final class SatisfactionAggregate {
+
+    // Bump when the stored layout or apply() semantics change; older documents are rebuilt.
+    // 2: the document also lists the sessions applied at the watermark timestamp
+    public static final int SCHEMA_VERSION = 2;
+
+    private long completedSessions;
+    private long skippedSessions;
+    private long totalPlaytimeMinutes;
+    private final RunningStat ratings = new RunningStat();
+
+    private final Map<Long, RunningStat> byGame = new HashMap<>();
+    private final Map<String, RunningStat> byGenre = new HashMap<>();
+    private final Map<String, RunningStat> byTimeOfDay = new HashMap<>();
+    private final Map<String, RunningStat> byDayOfWeek = new HashMap<>();
+
+    private final Map<Long, String> gameNames = new HashMap<>();
+    private final Map<String, Long> sessionsByDayOfWeek = new HashMap<>();
+    private final Map<String, Long> emotionalTagCounts = new HashMap<>();
+    private final Map<String, Long> sessionLengthDistribution = new HashMap<>();
+
+    /**
+     * Folds one session document into the aggregate. Only finalized sessions
+     * (COMPLETED / SKIPPED) count; anything else is ignored.
+     */
+    @SuppressWarnings("unchecked")
+    public void apply(Map<String, Object> data) {
+        String status = (String) data.get("status");
+        if ("SKIPPED".equals(status)) {
+            skippedSessions++;
+            return;
+        }
+        if (!"COMPLETED".equals(status)) {
+            return;
+        }
+        completedSessions++;
+
+        Number gameIdNum = (Number) data.get("gameId");
+        Long gameId = gameIdNum != null ? gameIdNum.longValue() : null;
+        String gameName = (String) data.get("gameName");
+        String genre = (String) data.get("gameGenre");
+        Number rating = (Number) data.get("rating");
+        Number duration = (Number) data.get("actualDuration");
+        List<String> tags = (List<String>) data.get("emotionalTags");
+        String timeOfDay = (String) data.get("timeOfDay");
+        String dayOfWeek = (String) data.get("dayOfWeek");
+
+        if (gameId != null && gameName != null) {
+            gameNames.put(gameId, gameName);
+        }
+
+        if (rating != null) {
+            double value = rating.doubleValue();
+            ratings.add(value);
+            if (gameId != null) {
+                byGame.computeIfAbsent(gameId, k -> new RunningStat()).add(value);
+            }
+            if (genre != null) {
+                byGenre.computeIfAbsent(genre, k -> new RunningStat()).add(value);
+            }
+            if (timeOfDay != null) {
+                byTimeOfDay.computeIfAbsent(timeOfDay, k -> new RunningStat()).add(value);
+            }
+            if (dayOfWeek != null) {
+                byDayOfWeek.computeIfAbsent(dayOfWeek, k -> new RunningStat()).add(value);
+            }
+        }
+
+        if (tags != null) {
+            for (String tag : tags) {
+                emotionalTagCounts.merge(tag, 1L, Long::sum);
+            }
+        }
+
+        if (duration != null) {
+            int mins = duration.intValue();
+            totalPlaytimeMinutes += mins;
+            String category;
+            if (mins < 30) category = "short";
+            else if (mins < 60) category = "medium";
+            else category = "long";
+            sessionLengthDistribution.merge(category, 1L, Long::sum);
+        }
+
+        if (dayOfWeek != null) {
+            sessionsByDayOfWeek.merge(dayOfWeek, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Derives the API view. {@code totalSessions} includes sessions that are
+     * not finalized yet, which the aggregate doesn't track.
+     */
+    public SatisfactionStats toStats(int totalSessions) {
+        SatisfactionStats stats = new SatisfactionStats();
+        stats.setTotalSessions(totalSessions);
+        stats.setCompletedSessions((int) completedSessions);
+        stats.setSkippedSessions((int) skippedSessions);
+        stats.setTotalPlaytimeMinutes((int) totalPlaytimeMinutes);
+        stats.setAverageRating(ratings.mean());
+
+        stats.setRatingsByGame(means(byGame));
+        stats.setRatingsByGenre(means(byGenre));
+
+        Map<String, Integer> tagCounts = toIntCounts(emotionalTagCounts);
+        stats.setEmotionalTagCounts(tagCounts);
+        stats.setTopEmotionalTags(tagCounts.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .limit(3)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList()));
+
+        Map<String, Integer> lengthDist = toIntCounts(sessionLengthDistribution);
+        stats.setSessionLengthDistribution(lengthDist);
+        stats.setPreferredSessionLength(findMaxKey(lengthDist));
+
+        Map<String, Double> avgByTimeOfDay = means(byTimeOfDay);
+        stats.setRatingsByTimeOfDay(avgByTimeOfDay);
+        stats.setBestTimeOfDay(findMaxKey(avgByTimeOfDay));
+
+        stats.setSessionsByDayOfWeek(toIntCounts(sessionsByDayOfWeek));
+
+        stats.setTopRatedGames(byGame.entrySet().stream()
+            .map(e -> new GameRatingSummary(
+                e.getKey(),
+                gameNames.getOrDefault(e.getKey(), "Unknown"),
+                e.getValue().mean(),
+                (int) e.getValue().getCount()))
+            .sorted((a, b) -> Double.compare(b.getAverageRating(), a.getAverageRating()))
+            .limit(5)
+            .collect(Collectors.toList()));
+        return stats;
+    }
+
+    public long getFinalizedSessions() { return completedSessions + skippedSessions; }
+
+    RunningStat getRatings() { return ratings; }
+    RunningStat getGameStat(Long gameId) { return byGame.get(gameId); }
+    RunningStat getGenreStat(String genre) { return byGenre.get(genre); }
+    RunningStat getTimeOfDayStat(String timeOfDay) { return byTimeOfDay.get(timeOfDay); }
+    RunningStat getDayOfWeekStat(String dayOfWeek) { return byDayOfWeek.get(dayOfWeek); }
+
+    // ========== Firestore persistence ==========
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("schemaVersion", SCHEMA_VERSION);
+        map.put("completedSessions", completedSessions);
+        map.put("skippedSessions", skippedSessions);
+        map.put("totalPlaytimeMinutes", totalPlaytimeMinutes);
+        map.put("ratings", ratings.toMap());
+        map.put("byGame", statsToMap(byGame.entrySet().stream()
+            .collect(Collectors.toMap(e -> String.valueOf(e.getKey()), Map.Entry::getValue))));
+        map.put("byGenre", statsToMap(byGenre));
+        map.put("byTimeOfDay", statsToMap(byTimeOfDay));
+        map.put("byDayOfWeek", statsToMap(byDayOfWeek));
+        map.put("gameNames", gameNames.entrySet().stream()
+            .collect(Collectors.toMap(e -> String.valueOf(e.getKey()), Map.Entry::getValue)));
+        map.put("sessionsByDayOfWeek", new HashMap<>(sessionsByDayOfWeek));
+        map.put("emotionalTagCounts", new HashMap<>(emotionalTagCounts));
+        map.put("sessionLengthDistribution", new HashMap<>(sessionLengthDistribution));
+        return map;
+    }
+
+    /**
+     * Restores an aggregate written by {@link #toMap}, or returns null if the
+     * document was written with a different schema version.
+     */
+    @SuppressWarnings("unchecked")
+    public static SatisfactionAggregate fromMap(Map<String, Object> map) {
+        Number version = (Number) map.get("schemaVersion");
+        if (version == null || version.intValue() != SCHEMA_VERSION) {
+            return null;
+        }
+        SatisfactionAggregate aggregate = new SatisfactionAggregate();
+        aggregate.completedSessions = longValue(map.get("completedSessions"));
+        aggregate.skippedSessions = longValue(map.get("skippedSessions"));
+        aggregate.totalPlaytimeMinutes = longValue(map.get("totalPlaytimeMinutes"));
+        aggregate.ratings.load((Map<String, Object>) map.get("ratings"));
+        statsFromMap((Map<String, Object>) map.get("byGame"))
+            .forEach((key, stat) -> aggregate.byGame.put(Long.valueOf(key), stat));
+        aggregate.byGenre.putAll(statsFromMap((Map<String, Object>) map.get("byGenre")));
+        aggregate.byTimeOfDay.putAll(statsFromMap((Map<String, Object>) map.get("byTimeOfDay")));
+        aggregate.byDayOfWeek.putAll(statsFromMap((Map<String, Object>) map.get("byDayOfWeek")));
+        Map<String, Object> names = (Map<String, Object>) map.get("gameNames");
+        if (names != null) {
+            names.forEach((key, name) -> aggregate.gameNames.put(Long.valueOf(key), (String) name));
+        }
+        countsFromMap((Map<String, Object>) map.get("sessionsByDayOfWeek"), aggregate.sessionsByDayOfWeek);
+        countsFromMap((Map<String, Object>) map.get("emotionalTagCounts"), aggregate.emotionalTagCounts);
+        countsFromMap((Map<String, Object>) map.get("sessionLengthDistribution"), aggregate.sessionLengthDistribution);
+        return aggregate;
+    }
+
+    // ========== Helpers ==========
+
+    private static <K> Map<K, Double> means(Map<K, RunningStat> stats) {
+        Map<K, Double> means = new HashMap<>();
+        stats.forEach((key, stat) -> means.put(key, stat.mean()));
+        return means;
+    }
+
+    private static Map<String, Integer> toIntCounts(Map<String, Long> counts) {
+        Map<String, Integer> result = new HashMap<>();
+        counts.forEach((key, count) -> result.put(key, count.intValue()));
+        return result;
+    }
+
+    private static <V extends Comparable<V>> String findMaxKey(Map<String, V> map) {
+        return map.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey)
+            .orElse(null);
+    }
+
+    private static Map<String, Object> statsToMap(Map<String, RunningStat> stats) {
+        Map<String, Object> result = new HashMap<>();
+        stats.forEach((key, stat) -> result.put(key, stat.toMap()));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, RunningStat> statsFromMap(Map<String, Object> map) {
+        Map<String, RunningStat> result = new HashMap<>();
+        if (map != null) {
+            map.forEach((key, value) -> {
+                RunningStat stat = new RunningStat();
+                stat.load((Map<String, Object>) value);
+                result.put(key, stat);
+            });
+        }
+        return result;
+    }
+
+    private static void countsFromMap(Map<String, Object> map, Map<String, Long> target) {
+        if (map != null) {
+            map.forEach((key, value) -> target.put(key, longValue(value)));
+        }
+    }
+
+    private static long longValue(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private static double doubleValue(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    /**
+     * Count, sum and sum of squares of a rating series.
+     */
+    public static final class RunningStat {
+        private long count;
+        private double sum;
+        private double sumOfSquares;
+
+        void add(double value) {
+            count++;
+            sum += value;
+            sumOfSquares += value * value;
+        }
+
+        public long getCount() { return count; }
+        public double getSum() { return sum; }
+        public double getSumOfSquares() { return sumOfSquares; }
+
+        public double mean() {
+            return count > 0 ? sum / count : 0.0;
+        }
+
+        /**
+         * Population variance; 0 for fewer than two values.
+         */
+        public double variance() {
+            if (count < 2) {
+                return 0.0;
+            }
+            double mean = mean();
+            return Math.max(0.0, sumOfSquares / count - mean * mean);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("count", count);
+            map.put("sum", sum);
+            map.put("sumOfSquares", sumOfSquares);
+            return map;
+        }
+
+        void load(Map<String, Object> map) {
+            if (map != null) {
+                count = longValue(map.get("count"));
+                sum = doubleValue(map.get("sum"));
+                sumOfSquares = doubleValue(map.get("sumOfSquares"));
+            }
+        }
+    }
+}
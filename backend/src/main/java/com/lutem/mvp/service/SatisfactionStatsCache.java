@@ -0,0 +1,163 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.SatisfactionStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU + TTL cache of computed {@link SatisfactionStats} per Firebase uid.
+ *
+ * Computing stats reads the user's whole Firestore sessions collection, so
+ * repeated /recommendations calls reuse the last result until it expires or the
+ * user submits feedback. Loads run outside the lock; a load that overlaps an
+ * invalidation is returned to its caller but not cached, so stale stats can't
+ * be re-inserted after feedback.
+ *
+ * Metrics: lutem.satisfaction.cache.requests{result=hit|miss},
+ * lutem.satisfaction.cache.evictions{cause=size|expired|invalidated},
+ * lutem.satisfaction.cache.hit.ratio, lutem.satisfaction.cache.size and the
+ * lutem.satisfaction.stats.load timer (Firestore read + aggregation).
+ */
+public final class SatisfactionStatsCache {
+
+    @FunctionalInterface
+    public interface Loader {
+        SatisfactionStats load(String uid) throws ExecutionException, InterruptedException;
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidatedEvictions;
+    private final Timer loadTimer;
+
+    public SatisfactionStatsCache(int maxSize, long ttlSeconds, MeterRegistry registry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > SatisfactionStatsCache.this.maxSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("lutem.satisfaction.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("lutem.satisfaction.cache.requests").tag("result", "miss").register(registry);
+        this.sizeEvictions = Counter.builder("lutem.satisfaction.cache.evictions").tag("cause", "size").register(registry);
+        this.expiredEvictions = Counter.builder("lutem.satisfaction.cache.evictions").tag("cause", "expired").register(registry);
+        this.invalidatedEvictions = Counter.builder("lutem.satisfaction.cache.evictions").tag("cause", "invalidated").register(registry);
+        this.loadTimer = Timer.builder("lutem.satisfaction.stats.load")
+            .description("Time to read and aggregate a user's Firestore sessions")
+            .register(registry);
+        Gauge.builder("lutem.satisfaction.cache.hit.ratio", this, SatisfactionStatsCache::hitRatio).register(registry);
+        Gauge.builder("lutem.satisfaction.cache.size", this, SatisfactionStatsCache::size).register(registry);
+    }
+
+    /**
+     * Cached, unexpired stats for a uid (counted as a hit), or null without loading.
+     */
+    public SatisfactionStats getIfPresent(String uid) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(uid);
+            if (entry != null && now - entry.loadedAt < ttlNanos) {
+                hits.increment();
+                return entry.stats;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cached stats for a uid, loading (and caching) them on a miss or after expiry.
+     */
+    public SatisfactionStats get(String uid, Loader loader) throws ExecutionException, InterruptedException {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(uid);
+            if (entry != null) {
+                if (now - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return entry.stats;
+                }
+                entries.remove(uid);
+                expiredEvictions.increment();
+            }
+        }
+        misses.increment();
+
+        long invalidationsBefore = invalidations.get();
+        long start = System.nanoTime();
+        SatisfactionStats stats;
+        try {
+            stats = loader.load(uid);
+        } finally {
+            loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        synchronized (entries) {
+            if (invalidations.get() == invalidationsBefore) {
+                entries.put(uid, new Entry(stats, start));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Drops a user's cached stats, e.g. after they submitted feedback.
+     */
+    public void invalidate(String uid) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            if (entries.remove(uid) != null) {
+                invalidatedEvictions.increment();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total > 0 ? hits.count() / total : 0.0;
+    }
+
+    private static final class Entry {
+        final SatisfactionStats stats;
+        final long loadedAt;
+
+        Entry(SatisfactionStats stats, long loadedAt) {
+            this.stats = stats;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.lutem.mvp.service;
+
+import com.google.cloud.Timestamp;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * How far a {@link SatisfactionAggregate} has caught up: the latest
+ * {@code feedbackAt} applied, plus the ids of the sessions applied at exactly
+ * that timestamp. Catch-up reads sessions with {@code feedbackAt >= timestamp}
+ * and skips those ids, so a session that finalizes later with the same
+ * timestamp is still picked up, and none is applied twice.
+ *
+ * Not thread-safe.
+ */
+final class SatisfactionWatermark {
+
+    private Timestamp timestamp;
+    private final Set<String> sessionIds;
+
+    SatisfactionWatermark(Timestamp timestamp, List<String> sessionIds) {
+        this.timestamp = timestamp;
+        this.sessionIds = sessionIds != null ? new HashSet<>(sessionIds) : new HashSet<>();
+    }
+
+    /**
+     * Records a session as applied. Returns false if it was already applied
+     * at the watermark, in which case the caller must not fold it in again.
+     */
+    boolean admit(Timestamp feedbackAt, String sessionId) {
+        if (feedbackAt == null) {
+            return true;
+        }
+        int cmp = feedbackAt.compareTo(timestamp);
+        if (cmp > 0) {
+            timestamp = feedbackAt;
+            sessionIds.clear();
+            sessionIds.add(sessionId);
+            return true;
+        }
+        return cmp < 0 || sessionIds.add(sessionId);
+    }
+
+    Timestamp getTimestamp() { return timestamp; }
+
+    List<String> getSessionIds() { return new ArrayList<>(sessionIds); }
+}
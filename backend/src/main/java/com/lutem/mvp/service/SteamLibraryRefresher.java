@@ -0,0 +1,154 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.SteamSyncState;
+import com.lutem.mvp.repository.SteamSyncStateRepository;
+import com.lutem.mvp.service.SteamService.SyncResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically resyncs the Steam libraries of recently active users.
+ *
+ * Each run takes a bounded batch of the stalest libraries (not checked for
+ * min-interval-hours) and resyncs them one at a time with a short pause in
+ * between, so neither the Steam API nor the database sees a burst. Unchanged
+ * libraries cost a single timestamp update.
+ *
+ * A run can take minutes (batch-size Steam calls plus pauses), so it runs on
+ * its own thread: Spring's scheduler has a single thread by default, and the
+ * catalog delta poll and tagging job poll would otherwise wait behind it.
+ */
+@Service
+public class SteamLibraryRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SteamLibraryRefresher.class);
+
+    private final SteamService steamService;
+    private final SteamSyncStateRepository syncStateRepository;
+    private final boolean enabled;
+    private final Duration activeWindow;
+    private final Duration minInterval;
+    private final int batchSize;
+    private final long pauseMs;
+    private final Counter unchanged;
+    private final Counter changed;
+    private final Counter failed;
+
+    private final ExecutorService runner;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SteamLibraryRefresher(SteamService steamService,
+                                 SteamSyncStateRepository syncStateRepository,
+                                 @Value("${lutem.steam.resync.enabled:true}") boolean enabled,
+                                 @Value("${lutem.steam.resync.active-days:7}") long activeDays,
+                                 @Value("${lutem.steam.resync.min-interval-hours:6}") long minIntervalHours,
+                                 @Value("${lutem.steam.resync.batch-size:50}") int batchSize,
+                                 @Value("${lutem.steam.resync.pause-ms:250}") long pauseMs,
+                                 MeterRegistry meterRegistry) {
+        this.steamService = steamService;
+        this.syncStateRepository = syncStateRepository;
+        this.enabled = enabled;
+        this.activeWindow = Duration.ofDays(activeDays);
+        this.minInterval = Duration.ofHours(minIntervalHours);
+        this.batchSize = Math.max(1, batchSize);
+        this.pauseMs = Math.max(0, pauseMs);
+        this.unchanged = meterRegistry.counter("lutem.steam.resync", "outcome", "unchanged");
+        this.changed = meterRegistry.counter("lutem.steam.resync", "outcome", "changed");
+        this.failed = meterRegistry.counter("lutem.steam.resync", "outcome", "failed");
+
+        this.runner = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "steam-resync");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Hands a run to the resync thread and returns; skipped while the previous run is going.
+     */
+    @Scheduled(fixedDelayString = "${lutem.steam.resync.interval-ms:900000}",
+               initialDelayString = "${lutem.steam.resync.interval-ms:900000}")
+    public void scheduleRefresh() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            runner.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    public void refresh() {
+        if (!enabled || !steamService.isConfigured()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<SteamSyncState> due = syncStateRepository.findDueForResync(
+            now.minus(activeWindow), now.minus(minInterval), PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        int changedCount = 0;
+        for (SteamSyncState state : due) {
+            try {
+                SyncResult result = steamService.resyncSteamLibrary(state.getUserId(), state.getSteamId());
+                if (result.isUnchanged()) {
+                    unchanged.increment();
+                } else {
+                    changed.increment();
+                    changedCount++;
+                }
+            } catch (RuntimeException e) {
+                // Move it to the back of the queue instead of retrying it every run
+                failed.increment();
+                logger.warn("Steam resync failed for user {}: {}", state.getUserId(), e.getMessage());
+                syncStateRepository.markChecked(state.getUserId(), LocalDateTime.now());
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        logger.info("Steam resync checked {} libraries, {} changed", due.size(), changedCount);
+    }
+
+    private boolean pause() {
+        if (pauseMs == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.lutem.mvp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.lutem.mvp.service.SteamService.SteamGame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for IPlayerService/GetOwnedGames responses.
+ *
+ * Walks the token stream and hands each entry of response.games to the sink
+ * as soon as it is read, so the payload is never held as a String or a
+ * JsonNode tree. Memory per import is bounded by the SteamGame objects the
+ * caller keeps plus Jackson's fixed-size read buffers. Unknown fields (and
+ * any nested values in them) are skipped.
+ */
+public class SteamOwnedGamesParser {
+
+    private final JsonFactory jsonFactory;
+
+    public SteamOwnedGamesParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Parses the response body and returns how many games were emitted.
+     * A body without response.games (private profile) emits nothing.
+     */
+    public int parse(InputStream body, Consumer<SteamGame> sink) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return 0;
+            }
+            int emitted = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("response".equals(field) && value == JsonToken.START_OBJECT) {
+                    emitted += readResponse(parser, sink);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return emitted;
+        }
+    }
+
+    private int readResponse(JsonParser parser, Consumer<SteamGame> sink) throws IOException {
+        int emitted = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("games".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken() == JsonToken.START_OBJECT) {
+                        sink.accept(readGame(parser));
+                        emitted++;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return emitted;
+    }
+
+    private SteamGame readGame(JsonParser parser) throws IOException {
+        SteamGame game = new SteamGame();
+        game.setAppId(0L);
+        game.setName("");
+        game.setPlaytimeForever(0);
+        String iconHash = "";
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "appid":
+                    game.setAppId(parser.getValueAsLong(0));
+                    break;
+                case "name":
+                    game.setName(textOrEmpty(parser));
+                    break;
+                case "playtime_forever":
+                    game.setPlaytimeForever(parser.getValueAsInt(0));
+                    break;
+                case "playtime_2weeks":
+                    game.setPlaytime2Weeks(parser.getValueAsInt(0));
+                    break;
+                case "img_icon_url":
+                    iconHash = textOrEmpty(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (!iconHash.isEmpty()) {
+            game.setIconUrl(String.format(
+                "https://media.steampowered.com/steamcommunity/public/images/apps/%d/%s.jpg",
+                game.getAppId(), iconHash
+            ));
+        }
+        return game;
+    }
+
+    private static String textOrEmpty(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return "";
+        }
+        String text = parser.getValueAsString();
+        return text != null ? text : "";
+    }
+}
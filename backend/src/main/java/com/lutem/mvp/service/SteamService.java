@@ -2,27 +2,37 @@ package com.lutem.mvp.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lutem.mvp.config.OutboundHttpClient;
 import com.lutem.mvp.dto.SteamImportResponse;
 import com.lutem.mvp.dto.SteamImportResponse.*;
-import com.lutem.mvp.model.Game;
-import com.lutem.mvp.model.TaggingSource;
+import com.lutem.mvp.event.GameChangedEvent;
+import com.lutem.mvp.event.GameChangedEvent.ChangeType;
+import com.lutem.mvp.model.SteamSyncState;
 import com.lutem.mvp.model.User;
-import com.lutem.mvp.model.UserLibrary;
-import com.lutem.mvp.model.UserLibrary.LibrarySource;
 import com.lutem.mvp.repository.GameRepository;
+import com.lutem.mvp.repository.SteamLibraryBatchWriter;
+import com.lutem.mvp.repository.SteamLibraryBatchWriter.LibraryRow;
+import com.lutem.mvp.repository.SteamLibraryBatchWriter.NewGame;
+import com.lutem.mvp.repository.SteamSyncStateRepository;
 import com.lutem.mvp.repository.UserLibraryRepository;
 import com.lutem.mvp.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
-import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -41,17 +51,32 @@ public class SteamService {
     private final GameRepository gameRepository;
     private final UserRepository userRepository;
     private final UserLibraryRepository userLibraryRepository;
+    private final SteamLibraryBatchWriter batchWriter;
+    private final SteamSyncStateRepository syncStateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final SteamOwnedGamesParser ownedGamesParser;
     
     public SteamService(GameRepository gameRepository, 
                         UserRepository userRepository,
-                        UserLibraryRepository userLibraryRepository) {
+                        UserLibraryRepository userLibraryRepository,
+                        SteamLibraryBatchWriter batchWriter,
+                        SteamSyncStateRepository syncStateRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        PlatformTransactionManager transactionManager,
+                        OutboundHttpClient outboundHttpClient) {
         this.gameRepository = gameRepository;
         this.userRepository = userRepository;
         this.userLibraryRepository = userLibraryRepository;
-        this.restTemplate = new RestTemplate();
+        this.batchWriter = batchWriter;
+        this.syncStateRepository = syncStateRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.restTemplate = outboundHttpClient.restTemplate();
         this.objectMapper = new ObjectMapper();
+        this.ownedGamesParser = new SteamOwnedGamesParser(objectMapper.getFactory());
     }
     
     /**
@@ -196,12 +221,12 @@ public class SteamService {
     
     /**
      * Fetch and import user's Steam library by user ID.
+     * The Steam API call runs before the transaction is opened.
      * 
      * @param steamId64 User's Steam ID (64-bit format)
      * @param userId Database ID of the authenticated user
      * @return Import results with matched and unmatched games
      */
-    @Transactional
     public SteamImportResponse importSteamLibraryByUserId(String steamId64, Long userId) {
         if (!isConfigured()) {
             throw new IllegalStateException("Steam API key not configured");
@@ -211,15 +236,6 @@ public class SteamService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
-        return doImportSteamLibrary(steamId64, user);
-    }
-    
-    /**
-     * Internal method to import Steam library for a user.
-     * Phase S-Import: Now creates Game entities for ALL Steam games (matched and unmatched).
-     */
-    private SteamImportResponse doImportSteamLibrary(String steamId64, User user) {
-        
         // Fetch games from Steam API
         List<SteamGame> steamGames = fetchOwnedGames(steamId64);
         
@@ -228,130 +244,140 @@ public class SteamService {
             return createEmptyResponse(steamId64, "No games found. Make sure your Steam profile and game details are public.");
         }
         
-        // Get all Steam App IDs from user's library
-        List<Long> steamAppIds = steamGames.stream()
-            .map(SteamGame::getAppId)
-            .collect(Collectors.toList());
+        return importOwnedGames(steamId64, user.getId(), steamGames);
+    }
+    
+    /**
+     * Import already-fetched Steam games into a user's library.
+     * Phase S-Import: Creates Game entities for ALL Steam games (matched and unmatched).
+     * 
+     * Set-based: one query for the matching catalog games, one for the user's
+     * existing library rows, then JDBC batches for new games, new library rows
+     * and playtime updates, all in one short transaction. Every existing row
+     * gets its playtime and lastSyncedAt refreshed.
+     */
+    public SteamImportResponse importOwnedGames(String steamId64, Long userId, List<SteamGame> steamGames) {
+        long start = System.nanoTime();
+        LibraryWrite write = transactionTemplate.execute(status -> writeLibrary(steamId64, userId, steamGames, false));
+        logger.debug("Steam library write for user {} took {} ms ({} games)",
+            userId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), steamGames.size());
+        return write.response;
+    }
+    
+    /**
+     * Incremental resync of a previously imported library.
+     * 
+     * Skips all writes (apart from the check timestamp) when the owned-games
+     * hash matches the last sync; otherwise writes only new games and library
+     * rows whose playtime actually changed.
+     */
+    public SyncResult resyncSteamLibrary(Long userId, String steamId64) {
+        if (!isConfigured()) {
+            throw new IllegalStateException("Steam API key not configured");
+        }
+        List<SteamGame> steamGames = fetchOwnedGames(steamId64);
+        return resyncOwnedGames(userId, steamId64, steamGames);
+    }
+    
+    SyncResult resyncOwnedGames(Long userId, String steamId64, List<SteamGame> steamGames) {
+        LocalDateTime now = LocalDateTime.now();
+        if (steamGames.isEmpty()) {
+            // Private profile or Steam hiccup: keep what we have
+            syncStateRepository.markChecked(userId, now);
+            return SyncResult.unchanged();
+        }
+        
+        String hash = libraryHash(steamGames);
+        Optional<SteamSyncState> state = syncStateRepository.findById(userId);
+        if (state.isPresent() && hash.equals(state.get().getPayloadHash())
+                && steamId64.equals(state.get().getSteamId())) {
+            syncStateRepository.markChecked(userId, now);
+            return SyncResult.unchanged();
+        }
+        
+        LibraryWrite write = transactionTemplate.execute(status -> writeLibrary(steamId64, userId, steamGames, true));
+        logger.info("Steam resync for user {}: {} new games, {} library rows added, {} updated",
+            userId, write.response.getStats().getNewlyCreated(), write.inserted, write.updated);
+        return new SyncResult(false, write.response.getStats().getNewlyCreated(), write.inserted, write.updated);
+    }
+    
+    private LibraryWrite writeLibrary(String steamId64, Long userId, List<SteamGame> steamGames,
+                                      boolean changedRowsOnly) {
+        LocalDateTime now = LocalDateTime.now();
+        
+        // Steam occasionally lists an app twice; keep the first entry
+        Map<Long, SteamGame> steamGamesByAppId = new LinkedHashMap<>();
+        for (SteamGame steamGame : steamGames) {
+            steamGamesByAppId.putIfAbsent(steamGame.getAppId(), steamGame);
+        }
         
         // Find matching games in Lutem database (both curated and previously imported)
-        List<Game> existingLutemGames = gameRepository.findBySteamAppIdIn(steamAppIds);
+        Map<Long, GameRef> lutemGamesByAppId = findGameRefs(steamGamesByAppId.keySet());
+        
+        // Create PENDING games for everything Lutem doesn't know yet
+        List<NewGame> newGames = new ArrayList<>();
+        for (SteamGame steamGame : steamGamesByAppId.values()) {
+            if (!lutemGamesByAppId.containsKey(steamGame.getAppId())) {
+                newGames.add(new NewGame(steamGame.getAppId(), steamGame.getName(), steamGame.getPlaytimeForever()));
+            }
+        }
+        int newlyCreated = 0;
+        Map<Long, GameRef> createdByAppId = Collections.emptyMap();
+        if (!newGames.isEmpty()) {
+            newlyCreated = batchWriter.insertPendingGames(newGames);
+            // Re-read: also picks up rows a concurrent import inserted first (skipped by ON CONFLICT)
+            createdByAppId = findGameRefs(newGames.stream().map(NewGame::getSteamAppId).collect(Collectors.toList()));
+            for (GameRef created : createdByAppId.values()) {
+                // JDBC inserts bypass GameChangeListener
+                eventPublisher.publishEvent(new GameChangedEvent(created.id, ChangeType.SAVED));
+            }
+        }
         
-        // Create lookup map for quick matching
-        Map<Long, Game> lutemGamesByAppId = existingLutemGames.stream()
-            .collect(Collectors.toMap(Game::getSteamAppId, g -> g));
+        // Existing library rows for this user by gameId
+        Map<Long, Object[]> libraryRowsByGameId = new HashMap<>();
+        for (Object[] row : userLibraryRepository.findSyncRowsByUserId(userId)) {
+            libraryRowsByGameId.put((Long) row[0], row);
+        }
+        int alreadyInLibrary = 0;
         
-        // Separate matched and unmatched, track newly created
+        List<LibraryRow> inserts = new ArrayList<>();
+        List<LibraryRow> updates = new ArrayList<>();
         List<MatchedGame> matched = new ArrayList<>();
         List<UnmatchedGame> unmatched = new ArrayList<>();
-        int alreadyInLibrary = 0;
-        int newlyCreated = 0;
         
-        for (SteamGame steamGame : steamGames) {
-            Game lutemGame = lutemGamesByAppId.get(steamGame.getAppId());
+        for (SteamGame steamGame : steamGamesByAppId.values()) {
+            GameRef lutemGame = lutemGamesByAppId.get(steamGame.getAppId());
+            boolean wasInCatalog = lutemGame != null;
+            if (lutemGame == null) {
+                lutemGame = createdByAppId.get(steamGame.getAppId());
+            }
             
             if (lutemGame != null) {
-                // Game already exists in Lutem database (curated or previously imported)
-                Optional<UserLibrary> existingEntry = userLibraryRepository
-                    .findByUserIdAndGameId(user.getId(), lutemGame.getId());
-
-                if (existingEntry.isEmpty()) {
-                    // Add to user's library
-                    UserLibrary libraryEntry = new UserLibrary(
-                        user, lutemGame, steamGame.getAppId(),
-                        steamGame.getPlaytimeForever(), steamGame.getPlaytime2Weeks()
-                    );
-                    userLibraryRepository.save(libraryEntry);
+                Object[] existing = libraryRowsByGameId.get(lutemGame.id);
+                if (existing == null) {
+                    inserts.add(new LibraryRow(null, lutemGame.id, steamGame.getAppId(),
+                        steamGame.getPlaytimeForever(), steamGame.getPlaytime2Weeks()));
                 } else {
-                    // Update playtime from Steam
-                    UserLibrary entry = existingEntry.get();
-                    entry.setSteamPlaytimeForever(steamGame.getPlaytimeForever());
-                    entry.setSteamPlaytime2Weeks(steamGame.getPlaytime2Weeks());
-                    entry.setLastSyncedAt(LocalDateTime.now());
-                    userLibraryRepository.save(entry);
                     alreadyInLibrary++;
+                    boolean changed = !Objects.equals(existing[2], steamGame.getPlaytimeForever())
+                        || !Objects.equals(existing[3], steamGame.getPlaytime2Weeks());
+                    if (changed || !changedRowsOnly) {
+                        updates.add(new LibraryRow((Long) existing[1], lutemGame.id, steamGame.getAppId(),
+                            steamGame.getPlaytimeForever(), steamGame.getPlaytime2Weeks()));
+                    }
                 }
                 
                 matched.add(new MatchedGame(
                     steamGame.getAppId(),
                     steamGame.getName(),
-                    lutemGame.getId(),
-                    lutemGame.getImageUrl(),
+                    lutemGame.id,
+                    lutemGame.imageUrl,
                     steamGame.getPlaytimeForever(),
                     steamGame.getPlaytime2Weeks()
                 ));
-            } else {
-                // Phase S-Import: Create new Game entity for unmatched Steam games
-                // Use findBySteamAppId + catch constraint violation for race safety
-                Game existingCheck = gameRepository.findBySteamAppId(steamGame.getAppId()).orElse(null);
-                if (existingCheck == null) {
-                    Game newGame = new Game();
-                    newGame.setName(steamGame.getName());
-                    newGame.setSteamAppId(steamGame.getAppId());
-                    newGame.setImageUrl("https://cdn.cloudflare.steamstatic.com/steam/apps/"
-                        + steamGame.getAppId() + "/header.jpg");
-                    newGame.setStoreUrl("https://store.steampowered.com/app/"
-                        + steamGame.getAppId());
-                    newGame.setTaggingSource(TaggingSource.PENDING);
-                    newGame.setSteamPlaytimeForever(steamGame.getPlaytimeForever());
-
-                    try {
-                        newGame = gameRepository.save(newGame);
-                    } catch (DataIntegrityViolationException e) {
-                        // Concurrent insert won the race — fall through to existing game path
-                        newGame = gameRepository.findBySteamAppId(steamGame.getAppId()).orElse(null);
-                        if (newGame == null) continue;
-                    }
-                    newlyCreated++;
-                    
-                    // Create UserLibrary entry linking user to the new game
-                    UserLibrary libraryEntry = new UserLibrary(
-                        user, newGame, steamGame.getAppId(),
-                        steamGame.getPlaytimeForever(), steamGame.getPlaytime2Weeks()
-                    );
-                    userLibraryRepository.save(libraryEntry);
-                    
-                    // Add to matched list since it's now in the database
-                    matched.add(new MatchedGame(
-                        steamGame.getAppId(),
-                        steamGame.getName(),
-                        newGame.getId(),
-                        newGame.getImageUrl(),
-                        steamGame.getPlaytimeForever(),
-                        steamGame.getPlaytime2Weeks()
-                    ));
-                    
-                    logger.debug("Created new PENDING game: {} (Steam App ID: {})", 
-                        steamGame.getName(), steamGame.getAppId());
-                } else {
-                    // Game was created by another concurrent request, fetch and link
-                    Game existingGame = gameRepository.findBySteamAppId(steamGame.getAppId()).orElse(null);
-                    if (existingGame != null) {
-                        Optional<UserLibrary> existingEntry = userLibraryRepository
-                            .findByUserIdAndGameId(user.getId(), existingGame.getId());
-                        if (existingEntry.isEmpty()) {
-                            UserLibrary libraryEntry = new UserLibrary(
-                                user, existingGame, steamGame.getAppId(),
-                                steamGame.getPlaytimeForever(), steamGame.getPlaytime2Weeks()
-                            );
-                            userLibraryRepository.save(libraryEntry);
-                        } else {
-                            UserLibrary entry = existingEntry.get();
-                            entry.setSteamPlaytimeForever(steamGame.getPlaytimeForever());
-                            entry.setSteamPlaytime2Weeks(steamGame.getPlaytime2Weeks());
-                            entry.setLastSyncedAt(LocalDateTime.now());
-                            userLibraryRepository.save(entry);
-                        }
-                        matched.add(new MatchedGame(
-                            steamGame.getAppId(),
-                            steamGame.getName(),
-                            existingGame.getId(),
-                            existingGame.getImageUrl(),
-                            steamGame.getPlaytimeForever(),
-                            steamGame.getPlaytime2Weeks()
-                        ));
-                    }
-                }
-                
+            }
+            
+            if (!wasInCatalog) {
                 // Still track in unmatched for response (shows which games need AI tagging)
                 unmatched.add(new UnmatchedGame(
                     steamGame.getAppId(),
@@ -363,6 +389,10 @@ public class SteamService {
             }
         }
         
+        int inserted = batchWriter.insertLibraryEntries(userId, inserts, now);
+        int updated = batchWriter.updatePlaytimes(updates, now);
+        recordSyncState(userId, steamId64, steamGames, now);
+        
         // Sort unmatched by playtime (most played first)
         unmatched.sort((a, b) -> {
             int playtimeA = a.getPlaytimeForever() != null ? a.getPlaytimeForever() : 0;
@@ -379,7 +409,7 @@ public class SteamService {
         );
         
         logger.info("Steam import for user {}: {} total, {} matched, {} unmatched, {} already in library, {} newly created",
-            user.getId(), stats.getTotal(), stats.getMatched(), stats.getUnmatched(), 
+            userId, stats.getTotal(), stats.getMatched(), stats.getUnmatched(), 
             stats.getAlreadyInLibrary(), stats.getNewlyCreated());
         
         SteamImportResponse response = new SteamImportResponse(matched, unmatched, stats, steamId64);
@@ -391,11 +421,49 @@ public class SteamService {
                 stats.getTotal(), stats.getMatched() - newlyCreated, newlyCreated));
         }
         
-        return response;
+        return new LibraryWrite(response, inserted, updated);
+    }
+    
+    private void recordSyncState(Long userId, String steamId64, List<SteamGame> steamGames, LocalDateTime now) {
+        SteamSyncState state = syncStateRepository.findById(userId).orElseGet(() -> new SteamSyncState(userId));
+        state.setSteamId(steamId64);
+        state.setPayloadHash(libraryHash(steamGames));
+        state.setGameCount(steamGames.size());
+        state.setLastCheckedAt(now);
+        state.setLastChangedAt(now);
+        syncStateRepository.save(state);
+    }
+    
+    /**
+     * SHA-256 over (appId, playtimeForever, playtime2Weeks) of each owned game,
+     * sorted by appId, so Steam's ordering and unused fields don't matter.
+     */
+    static String libraryHash(List<SteamGame> steamGames) {
+        List<SteamGame> sorted = new ArrayList<>(steamGames);
+        sorted.sort(Comparator.comparing(SteamGame::getAppId));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (SteamGame game : sorted) {
+                String line = game.getAppId() + ":" + game.getPlaytimeForever() + ":" + game.getPlaytime2Weeks() + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private Map<Long, GameRef> findGameRefs(Collection<Long> steamAppIds) {
+        Map<Long, GameRef> refs = new HashMap<>();
+        for (Object[] row : gameRepository.findSteamRefsBySteamAppIdIn(steamAppIds)) {
+            refs.put((Long) row[0], new GameRef((Long) row[1], (String) row[2]));
+        }
+        return refs;
     }
     
     /**
      * Fetch owned games from Steam API.
+     * The body is parsed as a stream; games go straight into the result list.
      */
     private List<SteamGame> fetchOwnedGames(String steamId64) {
         String url = String.format(
@@ -404,34 +472,9 @@ public class SteamService {
         );
         
         try {
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode gamesNode = root.path("response").path("games");
-            
-            if (gamesNode.isMissingNode() || !gamesNode.isArray()) {
-                return Collections.emptyList();
-            }
-            
             List<SteamGame> games = new ArrayList<>();
-            for (JsonNode gameNode : gamesNode) {
-                SteamGame game = new SteamGame();
-                game.setAppId(gameNode.path("appid").asLong());
-                game.setName(gameNode.path("name").asText());
-                game.setPlaytimeForever(gameNode.path("playtime_forever").asInt(0));
-                game.setPlaytime2Weeks(gameNode.has("playtime_2weeks") ? 
-                    gameNode.path("playtime_2weeks").asInt() : null);
-                
-                // Build icon URL if available
-                String iconHash = gameNode.path("img_icon_url").asText();
-                if (!iconHash.isEmpty()) {
-                    game.setIconUrl(String.format(
-                        "https://media.steampowered.com/steamcommunity/public/images/apps/%d/%s.jpg",
-                        game.getAppId(), iconHash
-                    ));
-                }
-                
-                games.add(game);
-            }
+            restTemplate.execute(url, HttpMethod.GET, null,
+                response -> ownedGamesParser.parse(response.getBody(), games::add));
             
             logger.debug("Fetched {} games from Steam for ID: {}", games.size(), steamId64);
             return games;
@@ -459,10 +502,61 @@ public class SteamService {
         return response;
     }
     
+    /**
+     * Outcome of an incremental resync.
+     */
+    public static class SyncResult {
+        private final boolean unchanged;
+        private final int newGames;
+        private final int addedRows;
+        private final int updatedRows;
+        
+        public SyncResult(boolean unchanged, int newGames, int addedRows, int updatedRows) {
+            this.unchanged = unchanged;
+            this.newGames = newGames;
+            this.addedRows = addedRows;
+            this.updatedRows = updatedRows;
+        }
+        
+        static SyncResult unchanged() {
+            return new SyncResult(true, 0, 0, 0);
+        }
+        
+        public boolean isUnchanged() { return unchanged; }
+        public int getNewGames() { return newGames; }
+        public int getAddedRows() { return addedRows; }
+        public int getUpdatedRows() { return updatedRows; }
+    }
+    
+    private static final class LibraryWrite {
+        final SteamImportResponse response;
+        final int inserted;
+        final int updated;
+        
+        LibraryWrite(SteamImportResponse response, int inserted, int updated) {
+            this.response = response;
+            this.inserted = inserted;
+            this.updated = updated;
+        }
+    }
+    
+    /**
+     * Catalog game id and image, without loading the entity.
+     */
+    private static final class GameRef {
+        final Long id;
+        final String imageUrl;
+        
+        GameRef(Long id, String imageUrl) {
+            this.id = id;
+            this.imageUrl = imageUrl;
+        }
+    }
+    
     /**
      * Internal DTO for Steam API response parsing.
      */
-    private static class SteamGame {
+    public static class SteamGame {
         private Long appId;
         private String name;
         private Integer playtimeForever;
@@ -0,0 +1,243 @@
+package com.lutem.mvp.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lutem.mvp.model.SteamStoreCacheEntry;
+import com.lutem.mvp.repository.SteamStoreCacheRepository;
+import com.lutem.mvp.service.SteamStoreService.SteamAppDetails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Two-tier cache of Steam Store details: a bounded in-heap LRU in front of the
+ * steam_store_cache table.
+ *
+ * Every entry carries its own expiry: released games with review data keep for
+ * {@code ttl}, coming-soon games and entries without reviews for the shorter
+ * {@code shortTtl} since their store data is still changing. Expired entries are
+ * still returned (flagged stale) so the caller can refresh them and fall back to
+ * the stale copy if Steam doesn't answer.
+ *
+ * Metrics: lutem.steam-store.cache.requests{tier=memory|database,result=hit|stale|miss},
+ * lutem.steam-store.cache.evictions{cause=size},
+ * lutem.steam-store.cache.refreshes{result=updated|kept-stale},
+ * lutem.steam-store.cache.hit.ratio and lutem.steam-store.cache.size.
+ */
+public final class SteamStoreDetailsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SteamStoreDetailsCache.class);
+
+    /**
+     * Cached details and whether they are past their TTL.
+     */
+    public static final class Lookup {
+        private final SteamAppDetails details;
+        private final boolean stale;
+
+        Lookup(SteamAppDetails details, boolean stale) {
+            this.details = details;
+            this.stale = stale;
+        }
+
+        public SteamAppDetails getDetails() { return details; }
+        public boolean isStale() { return stale; }
+    }
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Duration shortTtl;
+    private final SteamStoreCacheRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Entry> entries;
+
+    private final Counter memoryHits;
+    private final Counter memoryStale;
+    private final Counter memoryMisses;
+    private final Counter databaseHits;
+    private final Counter databaseStale;
+    private final Counter databaseMisses;
+    private final Counter sizeEvictions;
+    private final Counter refreshesUpdated;
+    private final Counter refreshesKeptStale;
+
+    /**
+     * @param repository persistent tier, or null for a memory-only cache
+     */
+    public SteamStoreDetailsCache(int maxSize, Duration ttl, Duration shortTtl,
+                                  SteamStoreCacheRepository repository, MeterRegistry registry) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.shortTtl = shortTtl;
+        this.repository = repository;
+        this.objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > SteamStoreDetailsCache.this.maxSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.memoryHits = requests(registry, "memory", "hit");
+        this.memoryStale = requests(registry, "memory", "stale");
+        this.memoryMisses = requests(registry, "memory", "miss");
+        this.databaseHits = requests(registry, "database", "hit");
+        this.databaseStale = requests(registry, "database", "stale");
+        this.databaseMisses = requests(registry, "database", "miss");
+        this.sizeEvictions = Counter.builder("lutem.steam-store.cache.evictions").tag("cause", "size").register(registry);
+        this.refreshesUpdated = Counter.builder("lutem.steam-store.cache.refreshes").tag("result", "updated").register(registry);
+        this.refreshesKeptStale = Counter.builder("lutem.steam-store.cache.refreshes").tag("result", "kept-stale").register(registry);
+        Gauge.builder("lutem.steam-store.cache.hit.ratio", this, SteamStoreDetailsCache::hitRatio).register(registry);
+        Gauge.builder("lutem.steam-store.cache.size", this, SteamStoreDetailsCache::size).register(registry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("lutem.steam-store.cache.requests")
+            .tag("tier", tier)
+            .tag("result", result)
+            .register(registry);
+    }
+
+    /**
+     * Cached details for an app from memory, then the database; null if neither has it.
+     */
+    public Lookup get(Long steamAppId) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(steamAppId);
+            if (entry != null) {
+                boolean stale = now >= entry.expiresAtMillis;
+                (stale ? memoryStale : memoryHits).increment();
+                return new Lookup(entry.details, stale);
+            }
+        }
+        memoryMisses.increment();
+
+        Entry loaded = loadFromDatabase(steamAppId);
+        if (loaded == null) {
+            if (repository != null) {
+                databaseMisses.increment();
+            }
+            return null;
+        }
+        boolean stale = now >= loaded.expiresAtMillis;
+        (stale ? databaseStale : databaseHits).increment();
+        synchronized (entries) {
+            entries.putIfAbsent(steamAppId, loaded);
+        }
+        return new Lookup(loaded.details, stale);
+    }
+
+    /**
+     * Stores freshly fetched details in both tiers.
+     */
+    public void put(Long steamAppId, SteamAppDetails details) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlFor(details).toMillis();
+        synchronized (entries) {
+            entries.put(steamAppId, new Entry(details, expiresAt));
+        }
+        if (repository == null) {
+            return;
+        }
+        try {
+            repository.save(new SteamStoreCacheEntry(steamAppId, objectMapper.writeValueAsString(details),
+                toLocalDateTime(now), toLocalDateTime(expiresAt)));
+        } catch (Exception e) {
+            logger.warn("Could not persist Steam Store cache entry for app {}: {}", steamAppId, e.getMessage());
+        }
+    }
+
+    /**
+     * Records the outcome of refreshing a stale entry.
+     */
+    public void recordRefresh(boolean updated) {
+        (updated ? refreshesUpdated : refreshesKeptStale).increment();
+    }
+
+    /**
+     * Deletes persisted entries that expired more than {@code retention} ago.
+     */
+    public int pruneExpired(Duration retention) {
+        if (repository == null) {
+            return 0;
+        }
+        return repository.deleteExpiredBefore(LocalDateTime.now().minus(retention));
+    }
+
+    /**
+     * Clears both tiers.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        if (repository != null) {
+            repository.deleteAllInBatch();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double hitRatio() {
+        double hits = memoryHits.count() + memoryStale.count() + databaseHits.count() + databaseStale.count();
+        double total = memoryHits.count() + memoryStale.count() + memoryMisses.count();
+        return total > 0 ? hits / total : 0.0;
+    }
+
+    Duration ttlFor(SteamAppDetails details) {
+        boolean settled = !details.isComingSoon() && details.getTotalPositiveReviews() != null;
+        return settled ? ttl : shortTtl;
+    }
+
+    private Entry loadFromDatabase(Long steamAppId) {
+        if (repository == null) {
+            return null;
+        }
+        try {
+            Optional<SteamStoreCacheEntry> row = repository.findById(steamAppId);
+            if (row.isEmpty()) {
+                return null;
+            }
+            SteamAppDetails details = objectMapper.readValue(row.get().getPayload(), SteamAppDetails.class);
+            long expiresAt = row.get().getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return new Entry(details, expiresAt);
+        } catch (Exception e) {
+            logger.warn("Could not read Steam Store cache entry for app {}: {}", steamAppId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class Entry {
+        final SteamAppDetails details;
+        final long expiresAtMillis;
+
+        Entry(SteamAppDetails details, long expiresAtMillis) {
+            this.details = details;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -2,60 +2,192 @@ package com.lutem.mvp.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lutem.mvp.config.OutboundHttpClient;
+import com.lutem.mvp.repository.SteamStoreCacheRepository;
+import com.lutem.mvp.util.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for fetching game details from Steam Store API.
  * Provides enrichment data for AI tagging.
+ *
+ * Requests are paced by a shared token bucket rather than a per-call sleep, and
+ * up to {@code lutem.steam-store.max-in-flight} apps are fetched at once. Each
+ * app's appdetails and appreviews requests run concurrently. When every slot is
+ * busy, {@link #getAppDetailsAsync} blocks the caller (backpressure) instead of
+ * queueing more work.
  */
 @Service
 public class SteamStoreService {
     
     private static final Logger logger = LoggerFactory.getLogger(SteamStoreService.class);
-    private static final String STEAM_STORE_API = "https://store.steampowered.com/api/appdetails";
-    private static final String STEAM_REVIEWS_API = "https://store.steampowered.com/appreviews";
     
-    // Simple in-memory cache to avoid hammering Steam API
-    private final Map<Long, SteamAppDetails> cache = new ConcurrentHashMap<>();
+    // Bounded in-heap LRU backed by the steam_store_cache table, so restarts don't refetch everything
+    private final SteamStoreDetailsCache cache;
+    private final Duration cacheRetention;
+    // Fetches in progress, so concurrent callers for the same app share one request pair
+    private final Map<Long, CompletableFuture<SteamAppDetails>> inFlight = new ConcurrentHashMap<>();
     
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final String appDetailsUrl;
+    private final String appReviewsUrl;
     
-    // Rate limiting: track last request time
-    private long lastRequestTime = 0;
-    private static final long MIN_REQUEST_INTERVAL_MS = 1500; // 1.5 seconds between requests
+    // Rate limiting: shared token bucket (Steam allows roughly 200 requests per 5 minutes)
+    private final TokenBucket rateLimiter;
+    private final Semaphore inFlightPermits;
+    private final Executor fetchExecutor;
     
-    public SteamStoreService() {
-        this.restTemplate = new RestTemplate();
+    public SteamStoreService(
+            @Value("${lutem.steam-store.base-url:https://store.steampowered.com}") String baseUrl,
+            @Value("${lutem.steam-store.requests-per-second:0.66}") double requestsPerSecond,
+            @Value("${lutem.steam-store.burst:2}") int burst,
+            @Value("${lutem.steam-store.max-in-flight:4}") int maxInFlight,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${lutem.steam-store.cache.max-size:5000}") int cacheMaxSize,
+            @Value("${lutem.steam-store.cache.ttl-hours:168}") long cacheTtlHours,
+            @Value("${lutem.steam-store.cache.short-ttl-hours:24}") long cacheShortTtlHours,
+            @Value("${lutem.steam-store.cache.retention-days:30}") long cacheRetentionDays,
+            SteamStoreCacheRepository cacheRepository,
+            OutboundHttpClient outboundHttpClient,
+            MeterRegistry meterRegistry) {
+        this.restTemplate = outboundHttpClient.restTemplate();
         this.objectMapper = new ObjectMapper();
+        this.appDetailsUrl = baseUrl + "/api/appdetails";
+        this.appReviewsUrl = baseUrl + "/appreviews";
+        this.rateLimiter = new TokenBucket(requestsPerSecond, burst);
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.cache = new SteamStoreDetailsCache(cacheMaxSize, Duration.ofHours(cacheTtlHours),
+            Duration.ofHours(cacheShortTtlHours), cacheRepository, meterRegistry);
+        this.cacheRetention = Duration.ofDays(cacheRetentionDays);
+        
+        // Two requests per app, so the semaphore caps work at maxInFlight * 2 tasks. In the
+        // virtual-threads profile each request gets its own virtual thread; otherwise a pool
+        // that size serves them, and the queue is bounded in case the two ever drift apart.
+        if (virtualThreads) {
+            this.fetchExecutor = new VirtualThreadTaskExecutor("steam-store-");
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxInFlight * 2, maxInFlight * 2, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxInFlight * 2), r -> {
+                    Thread t = new Thread(r, "steam-store-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+            pool.allowCoreThreadTimeOut(true);
+            this.fetchExecutor = pool;
+        }
     }
     
     /**
      * Get Steam Store details for a game.
-     * Returns cached data if available.
+     * Returns cached data if available and not expired.
      * 
      * @param steamAppId Steam application ID
      * @return SteamAppDetails or null if not found/error
      */
     public SteamAppDetails getAppDetails(Long steamAppId) {
+        return getAppDetailsAsync(steamAppId).join();
+    }
+    
+    /**
+     * Start fetching Steam Store details for a game. The future completes with
+     * null if the app isn't found or a request fails; it never completes
+     * exceptionally. Blocks while max-in-flight fetches are running.
+     * Expired cache entries are refreshed, and kept if the refresh fails.
+     */
+    public CompletableFuture<SteamAppDetails> getAppDetailsAsync(Long steamAppId) {
         // Check cache first
-        if (cache.containsKey(steamAppId)) {
+        SteamStoreDetailsCache.Lookup cached = cache.get(steamAppId);
+        if (cached != null && !cached.isStale()) {
             logger.debug("Cache hit for Steam App ID: {}", steamAppId);
-            return cache.get(steamAppId);
+            return CompletableFuture.completedFuture(cached.getDetails());
+        }
+        SteamAppDetails staleDetails = cached != null ? cached.getDetails() : null;
+        CompletableFuture<SteamAppDetails> pending = inFlight.get(steamAppId);
+        if (pending != null) {
+            return pending;
         }
         
-        // Rate limiting
-        enforceRateLimit();
+        // Backpressure: wait for a free slot
+        try {
+            inFlightPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        CompletableFuture<SteamAppDetails> result = new CompletableFuture<>();
+        pending = inFlight.putIfAbsent(steamAppId, result);
+        if (pending != null) {
+            inFlightPermits.release();
+            return pending;
+        }
         
+        // appdetails and appreviews are independent requests, so fetch them side by side.
+        // The review request is wasted for unknown apps, which is rare for owned games.
         try {
-            String url = String.format("%s?appids=%d", STEAM_STORE_API, steamAppId);
+            CompletableFuture<SteamAppDetails> details =
+                CompletableFuture.supplyAsync(() -> fetchAppDetails(steamAppId), fetchExecutor);
+            CompletableFuture<ReviewSummary> reviews =
+                CompletableFuture.supplyAsync(() -> fetchReviewData(steamAppId), fetchExecutor);
+            details.thenCombine(reviews, (appDetails, reviewSummary) -> {
+                if (appDetails == null) {
+                    if (staleDetails != null) {
+                        cache.recordRefresh(false);
+                    }
+                    return staleDetails;
+                }
+                if (reviewSummary != null) {
+                    reviewSummary.applyTo(appDetails);
+                }
+                cache.put(steamAppId, appDetails);
+                if (staleDetails != null) {
+                    cache.recordRefresh(true);
+                }
+                return appDetails;
+            }).whenComplete((appDetails, error) -> {
+                inFlight.remove(steamAppId);
+                inFlightPermits.release();
+                if (error != null) {
+                    logger.error("Error fetching Steam Store data for app {}", steamAppId, error);
+                }
+                result.complete(error == null ? appDetails : null);
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(steamAppId);
+            inFlightPermits.release();
+            result.complete(staleDetails);
+        }
+        return result;
+    }
+    
+    private SteamAppDetails fetchAppDetails(Long steamAppId) {
+        try {
+            rateLimiter.acquire();
+            String url = String.format("%s?appids=%d", appDetailsUrl, steamAppId);
             logger.debug("Fetching Steam Store data for app: {}", steamAppId);
             
             String response = restTemplate.getForObject(url, String.class);
@@ -68,16 +200,11 @@ public class SteamStoreService {
             }
             
             JsonNode data = appNode.path("data");
-            SteamAppDetails details = parseAppDetails(steamAppId, data);
-            
-            // Fetch review data separately
-            if (details != null) {
-                fetchReviewData(details);
-                cache.put(steamAppId, details);
-            }
-            
-            return details;
+            return parseAppDetails(steamAppId, data);
             
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
         } catch (HttpClientErrorException e) {
             logger.error("Steam Store API error for app {}: {}", steamAppId, e.getMessage());
             return null;
@@ -87,68 +214,68 @@ public class SteamStoreService {
         }
     }
     
-    private void enforceRateLimit() {
-        long now = System.currentTimeMillis();
-        long elapsed = now - lastRequestTime;
-        
-        if (elapsed < MIN_REQUEST_INTERVAL_MS) {
-            try {
-                Thread.sleep(MIN_REQUEST_INTERVAL_MS - elapsed);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-        
-        lastRequestTime = System.currentTimeMillis();
-    }
-    
     /**
      * Fetch review statistics from Steam Reviews API.
-     * Updates the details object with positive/negative review counts.
+     * Returns positive/negative review counts, or null on failure.
      */
-    private void fetchReviewData(SteamAppDetails details) {
-        enforceRateLimit();
-        
+    private ReviewSummary fetchReviewData(Long steamAppId) {
         try {
+            rateLimiter.acquire();
             // Steam Reviews API - get summary only (json=1), all languages, all purchase types
             String url = String.format("%s/%d?json=1&language=all&purchase_type=all&num_per_page=0",
-                STEAM_REVIEWS_API, details.getSteamAppId());
+                appReviewsUrl, steamAppId);
             
-            logger.debug("Fetching Steam Reviews for app: {}", details.getSteamAppId());
+            logger.debug("Fetching Steam Reviews for app: {}", steamAppId);
             
             String response = restTemplate.getForObject(url, String.class);
             JsonNode root = objectMapper.readTree(response);
             
             if (root.path("success").asInt(0) != 1) {
-                logger.warn("Steam Reviews API unsuccessful for app: {}", details.getSteamAppId());
-                return;
+                logger.warn("Steam Reviews API unsuccessful for app: {}", steamAppId);
+                return null;
             }
             
             JsonNode summary = root.path("query_summary");
-            if (!summary.isMissingNode()) {
-                int totalPositive = summary.path("total_positive").asInt(0);
-                int totalNegative = summary.path("total_negative").asInt(0);
-                
-                details.setTotalPositiveReviews(totalPositive);
-                details.setTotalNegativeReviews(totalNegative);
-                
-                // Calculate popularity score
-                int totalReviews = totalPositive + totalNegative;
-                if (totalReviews > 0) {
-                    double positiveRatio = (double) totalPositive / totalReviews;
-                    double qualityScore = positiveRatio * 100;
-                    double visibilityBonus = Math.min(Math.log10(Math.max(totalReviews, 1)), 5) * 5;
-                    details.setPopularityScore(qualityScore + visibilityBonus);
-                    
-                    logger.debug("Game {} - Reviews: {}+ / {}- ({}%), Popularity: {}", 
-                        details.getName(), totalPositive, totalNegative, 
-                        Math.round(positiveRatio * 100), Math.round(details.getPopularityScore()));
-                }
+            if (summary.isMissingNode()) {
+                return null;
             }
+            return new ReviewSummary(summary.path("total_positive").asInt(0), summary.path("total_negative").asInt(0));
             
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
         } catch (Exception e) {
-            logger.warn("Failed to fetch reviews for app {}: {}", details.getSteamAppId(), e.getMessage());
+            logger.warn("Failed to fetch reviews for app {}: {}", steamAppId, e.getMessage());
             // Non-fatal - continue without review data
+            return null;
+        }
+    }
+    
+    private static final class ReviewSummary {
+        final int totalPositive;
+        final int totalNegative;
+        
+        ReviewSummary(int totalPositive, int totalNegative) {
+            this.totalPositive = totalPositive;
+            this.totalNegative = totalNegative;
+        }
+        
+        void applyTo(SteamAppDetails details) {
+            details.setTotalPositiveReviews(totalPositive);
+            details.setTotalNegativeReviews(totalNegative);
+            
+            // Calculate popularity score
+            int totalReviews = totalPositive + totalNegative;
+            if (totalReviews > 0) {
+                double positiveRatio = (double) totalPositive / totalReviews;
+                double qualityScore = positiveRatio * 100;
+                double visibilityBonus = Math.min(Math.log10(Math.max(totalReviews, 1)), 5) * 5;
+                details.setPopularityScore(qualityScore + visibilityBonus);
+                
+                logger.debug("Game {} - Reviews: {}+ / {}- ({}%), Popularity: {}", 
+                    details.getName(), totalPositive, totalNegative, 
+                    Math.round(positiveRatio * 100), Math.round(details.getPopularityScore()));
+            }
         }
     }
     
@@ -206,17 +333,29 @@ public class SteamStoreService {
     }
     
     /**
-     * Clear the cache (for testing or memory management).
+     * Clear the cache, both in memory and persisted (for testing or memory management).
+     * Cache size and hit ratio are exported as lutem.steam-store.cache.* metrics.
      */
     public void clearCache() {
         cache.clear();
     }
     
     /**
-     * Get cache size.
+     * Daily cleanup of persisted entries that expired long ago.
      */
-    public int getCacheSize() {
-        return cache.size();
+    @Scheduled(cron = "${lutem.steam-store.cache.prune-cron:0 30 4 * * *}")
+    public void pruneExpiredCache() {
+        int removed = cache.pruneExpired(cacheRetention);
+        if (removed > 0) {
+            logger.info("Pruned {} expired Steam Store cache entries", removed);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (fetchExecutor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
     }
 
     
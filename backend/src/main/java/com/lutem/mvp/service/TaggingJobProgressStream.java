@@ -0,0 +1,84 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.TaggingJobResponse;
+import com.lutem.mvp.event.TaggingJobProgressEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Server-Sent Events feed of tagging job progress. Each subscriber gets the
+ * current state immediately, a "progress" event whenever the job's counters
+ * change, and the stream is closed once the job completes.
+ */
+@Component
+public class TaggingJobProgressStream {
+
+    private final TaggingJobService taggingJobService;
+    private final long timeoutMs;
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public TaggingJobProgressStream(TaggingJobService taggingJobService,
+                                    @Value("${lutem.tagging-jobs.sse-timeout-ms:600000}") long timeoutMs) {
+        this.taggingJobService = taggingJobService;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public SseEmitter subscribe(TaggingJobResponse current) {
+        Long jobId = current.getJobId();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(jobId, k -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> unsubscribe(jobId, emitter));
+        emitter.onTimeout(() -> unsubscribe(jobId, emitter));
+        emitter.onError(e -> unsubscribe(jobId, emitter));
+
+        send(jobId, emitter, current);
+        return emitter;
+    }
+
+    @EventListener
+    public void onProgress(TaggingJobProgressEvent event) {
+        List<SseEmitter> emitters = subscribers.get(event.getJobId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        taggingJobService.getJobResponse(event.getJobId()).ifPresent(view -> {
+            for (SseEmitter emitter : emitters) {
+                send(event.getJobId(), emitter, view);
+            }
+        });
+    }
+
+    int subscriberCount(Long jobId) {
+        List<SseEmitter> emitters = subscribers.get(jobId);
+        return emitters != null ? emitters.size() : 0;
+    }
+
+    private void send(Long jobId, SseEmitter emitter, TaggingJobResponse view) {
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(view));
+            if (view.isFinished()) {
+                emitter.complete();
+                unsubscribe(jobId, emitter);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            unsubscribe(jobId, emitter);
+        }
+    }
+
+    private void unsubscribe(Long jobId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
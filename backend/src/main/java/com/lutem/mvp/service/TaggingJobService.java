@@ -0,0 +1,389 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.TaggingJobResponse;
+import com.lutem.mvp.event.TaggingJobProgressEvent;
+import com.lutem.mvp.model.TaggingJob;
+import com.lutem.mvp.model.TaggingJobItem;
+import com.lutem.mvp.model.TaggingJobItemStatus;
+import com.lutem.mvp.model.TaggingJobStatus;
+import com.lutem.mvp.repository.GameRepository;
+import com.lutem.mvp.repository.TaggingJobItemRepository;
+import com.lutem.mvp.repository.TaggingJobRepository;
+import com.lutem.mvp.service.AITaggingService.TaggedGameInfo;
+import com.lutem.mvp.service.AITaggingService.TaggingResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable background queue for AI tagging.
+ *
+ * {@link #enqueue} persists a job with one item per game and returns right
+ * away; a single runner thread then claims due items in chunks (conditional
+ * UPDATE with a claim token), tags them through {@link AITaggingService} and
+ * records the outcome. Failed items are retried with exponential backoff up to
+ * {@code max-attempts}. Everything lives in the tagging_jobs and
+ * tagging_job_items tables, so a restart carries on where it stopped.
+ *
+ * Claims record {@code lutem.tagging-jobs.instance-id}. On restart an instance
+ * releases only the claims its own previous run left behind; other instances'
+ * claims (possibly still being worked on) are only released once their
+ * {@code claim-lease-minutes} lease runs out.
+ *
+ * Metrics: lutem.tagging-jobs.items{outcome=succeeded|retried|failed}.
+ */
+@Service
+public class TaggingJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaggingJobService.class);
+
+    private static final List<TaggingJobStatus> RUNNABLE_JOBS =
+        List.of(TaggingJobStatus.QUEUED, TaggingJobStatus.RUNNING);
+    private static final List<TaggingJobItemStatus> OPEN_ITEMS =
+        List.of(TaggingJobItemStatus.PENDING, TaggingJobItemStatus.CLAIMED);
+    static final String GAME_NOT_FOUND = "Game not found";
+
+    private final TaggingJobRepository jobRepository;
+    private final TaggingJobItemRepository itemRepository;
+    private final GameRepository gameRepository;
+    private final AITaggingService aiTaggingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration claimLease;
+    // Unique per running instance, stable across its restarts
+    private final String instanceId;
+    // Claims by this instance older than this were made by its previous run
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private final ExecutorService runner;
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+
+    private final Counter itemsSucceeded;
+    private final Counter itemsRetried;
+    private final Counter itemsFailed;
+
+    public TaggingJobService(TaggingJobRepository jobRepository,
+                             TaggingJobItemRepository itemRepository,
+                             GameRepository gameRepository,
+                             AITaggingService aiTaggingService,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${lutem.tagging-jobs.chunk-size:20}") int chunkSize,
+                             @Value("${lutem.tagging-jobs.max-attempts:3}") int maxAttempts,
+                             @Value("${lutem.tagging-jobs.backoff-seconds:30}") long backoffSeconds,
+                             @Value("${lutem.tagging-jobs.claim-lease-minutes:15}") long claimLeaseMinutes,
+                             @Value("${lutem.tagging-jobs.instance-id:${HOSTNAME:local}}") String instanceId,
+                             MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.itemRepository = itemRepository;
+        this.gameRepository = gameRepository;
+        this.aiTaggingService = aiTaggingService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = Duration.ofSeconds(Math.max(0, backoffSeconds));
+        this.claimLease = Duration.ofMinutes(Math.max(1, claimLeaseMinutes));
+        this.instanceId = instanceId;
+
+        this.runner = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "tagging-jobs");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.itemsSucceeded = items(meterRegistry, "succeeded");
+        this.itemsRetried = items(meterRegistry, "retried");
+        this.itemsFailed = items(meterRegistry, "failed");
+    }
+
+    private static Counter items(MeterRegistry registry, String outcome) {
+        return Counter.builder("lutem.tagging-jobs.items")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Queue a tagging job and return it without waiting for any tagging.
+     *
+     * @param gameIds games to tag, or null/empty for every pending game
+     * @param source where the job came from ("admin", "ai-import")
+     * @param userId user who started the job, if known
+     */
+    public TaggingJob enqueue(List<Long> gameIds, String source, Long userId) {
+        List<Long> ids = gameIds != null && !gameIds.isEmpty()
+            ? new ArrayList<>(new LinkedHashSet<>(gameIds))
+            : gameRepository.findPendingTaggingIds();
+
+        TaggingJob job = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            TaggingJob saved = jobRepository.save(new TaggingJob(source, userId, ids.size()));
+            List<TaggingJobItem> items = new ArrayList<>(ids.size());
+            for (Long gameId : ids) {
+                items.add(new TaggingJobItem(saved.getId(), gameId, now));
+            }
+            itemRepository.saveAll(items);
+            if (ids.isEmpty()) {
+                saved.setStatus(TaggingJobStatus.COMPLETED);
+                saved.setFinishedAt(now);
+                saved = jobRepository.save(saved);
+            }
+            return saved;
+        });
+
+        logger.info("Queued tagging job {} ({}) with {} games", job.getId(), source, ids.size());
+        kick();
+        return job;
+    }
+
+    public Optional<TaggingJob> getJob(Long jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    public Optional<TaggingJobResponse> getJobResponse(Long jobId) {
+        return getJob(jobId).map(this::toResponse);
+    }
+
+    public TaggingJobResponse toResponse(TaggingJob job) {
+        Map<Long, String> failedGames = new HashMap<>();
+        if (job.getFailed() > 0) {
+            for (TaggingJobItem item : itemRepository.findByJobIdAndStatus(job.getId(), TaggingJobItemStatus.FAILED)) {
+                failedGames.put(item.getGameId(), item.getLastError());
+            }
+        }
+        return TaggingJobResponse.from(job, failedGames);
+    }
+
+    /**
+     * Resume jobs interrupted by a shutdown or crash of this instance.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeAfterRestart() {
+        Integer released = transactionTemplate.execute(status -> itemRepository.releaseClaimsOfBefore(
+            instanceId, startedAt, TaggingJobItemStatus.CLAIMED, TaggingJobItemStatus.PENDING));
+        if (released != null && released > 0) {
+            logger.info("Released {} tagging items claimed by {} before restart", released, instanceId);
+        }
+        kick();
+    }
+
+    /**
+     * Picks up retries whose backoff has elapsed and claims whose lease ran out.
+     */
+    @Scheduled(fixedDelayString = "${lutem.tagging-jobs.poll-interval-ms:5000}",
+               initialDelayString = "${lutem.tagging-jobs.poll-interval-ms:5000}")
+    public void poll() {
+        Integer released = transactionTemplate.execute(status -> itemRepository.releaseClaimsBefore(
+            LocalDateTime.now().minus(claimLease), TaggingJobItemStatus.CLAIMED, TaggingJobItemStatus.PENDING));
+        if (released != null && released > 0) {
+            logger.warn("Released {} tagging items whose claim lease expired", released);
+        }
+        kick();
+    }
+
+    // At most one drain queued behind the running one; enqueues during a drain are seen by the next
+    void kick() {
+        if (!drainQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            runner.execute(() -> {
+                drainQueued.set(false);
+                drain();
+            });
+        } catch (RejectedExecutionException e) {
+            drainQueued.set(false);
+        }
+    }
+
+    void drain() {
+        if (!aiTaggingService.isConfigured()) {
+            // Jobs stay queued until an API key is configured
+            return;
+        }
+        for (TaggingJob job : jobRepository.findByStatusInOrderByIdAsc(RUNNABLE_JOBS)) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                drainJob(job.getId());
+            } catch (Exception e) {
+                logger.error("Tagging job {} failed: {}", job.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void drainJob(Long jobId) {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<TaggingJobItem> chunk = claimChunk(jobId);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            runChunk(jobId, chunk);
+        }
+        updateProgress(jobId);
+    }
+
+    private List<TaggingJobItem> claimChunk(Long jobId) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = itemRepository.findDueIds(jobId, TaggingJobItemStatus.PENDING, now,
+                PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return List.<TaggingJobItem>of();
+            }
+            String token = UUID.randomUUID().toString();
+            itemRepository.claim(ids, TaggingJobItemStatus.PENDING, TaggingJobItemStatus.CLAIMED, token,
+                instanceId, now);
+
+            jobRepository.findById(jobId)
+                .filter(job -> job.getStatus() == TaggingJobStatus.QUEUED)
+                .ifPresent(job -> {
+                    job.setStatus(TaggingJobStatus.RUNNING);
+                    job.setStartedAt(now);
+                    jobRepository.save(job);
+                });
+            return itemRepository.findByClaimToken(token);
+        });
+    }
+
+    private void runChunk(Long jobId, List<TaggingJobItem> chunk) {
+        String token = chunk.get(0).getClaimToken();
+        List<Long> gameIds = chunk.stream().map(TaggingJobItem::getGameId).toList();
+
+        TaggingResult result = null;
+        String chunkError = null;
+        try {
+            result = aiTaggingService.tagGames(gameIds);
+        } catch (Exception e) {
+            chunkError = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            logger.warn("Tagging job {} chunk of {} games failed: {}", jobId, gameIds.size(), chunkError);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            // Shutting down mid-chunk: leave the claims for the next start to release
+            return;
+        }
+
+        Set<Long> tagged = new HashSet<>();
+        Map<Long, String> failed = new HashMap<>();
+        if (result != null) {
+            for (TaggedGameInfo info : result.getTaggedGames()) {
+                tagged.add(info.getId());
+            }
+            failed.putAll(result.getFailedGames());
+        }
+        String error = chunkError;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            // Re-read by token: items whose lease expired and were reclaimed elsewhere are skipped
+            List<TaggingJobItem> items = itemRepository.findByClaimToken(token);
+            for (TaggingJobItem item : items) {
+                recordOutcome(item, tagged, failed, error, now);
+            }
+            itemRepository.saveAll(items);
+        });
+        updateProgress(jobId);
+    }
+
+    private void recordOutcome(TaggingJobItem item, Set<Long> tagged, Map<Long, String> failed,
+                               String chunkError, LocalDateTime now) {
+        item.setAttempts(item.getAttempts() + 1);
+        item.setClaimToken(null);
+        item.setClaimedBy(null);
+
+        if (tagged.contains(item.getGameId())) {
+            item.setStatus(TaggingJobItemStatus.SUCCEEDED);
+            item.setLastError(null);
+            itemsSucceeded.increment();
+            return;
+        }
+
+        String reason = chunkError != null ? chunkError : failed.get(item.getGameId());
+        if (reason == null) {
+            // Neither tagged nor failed: the game no longer exists, retrying won't help
+            item.setStatus(TaggingJobItemStatus.FAILED);
+            item.setLastError(GAME_NOT_FOUND);
+            itemsFailed.increment();
+            return;
+        }
+
+        item.setLastError(truncate(reason));
+        if (item.getAttempts() >= maxAttempts) {
+            item.setStatus(TaggingJobItemStatus.FAILED);
+            itemsFailed.increment();
+        } else {
+            item.setStatus(TaggingJobItemStatus.PENDING);
+            item.setNextAttemptAt(now.plus(backoffFor(item.getAttempts())));
+            itemsRetried.increment();
+        }
+    }
+
+    /**
+     * Delay before the next attempt: backoff, 2x backoff, 4x backoff, ...
+     */
+    Duration backoffFor(int attempts) {
+        return backoff.multipliedBy(1L << Math.min(Math.max(0, attempts - 1), 10));
+    }
+
+    private void updateProgress(Long jobId) {
+        Boolean changed = transactionTemplate.execute(status -> {
+            TaggingJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null) {
+                return false;
+            }
+            int succeeded = (int) itemRepository.countByJobIdAndStatus(jobId, TaggingJobItemStatus.SUCCEEDED);
+            int failed = (int) itemRepository.countByJobIdAndStatus(jobId, TaggingJobItemStatus.FAILED);
+            boolean done = itemRepository.countByJobIdAndStatusIn(jobId, OPEN_ITEMS) == 0;
+
+            if (succeeded == job.getSucceeded() && failed == job.getFailed() && done == job.isFinished()) {
+                return false;
+            }
+            job.setSucceeded(succeeded);
+            job.setFailed(failed);
+            if (done && !job.isFinished()) {
+                job.setStatus(TaggingJobStatus.COMPLETED);
+                job.setFinishedAt(LocalDateTime.now());
+                logger.info("Tagging job {} complete: {} tagged, {} failed out of {}",
+                    jobId, succeeded, failed, job.getTotal());
+            }
+            jobRepository.save(job);
+            return true;
+        });
+        if (Boolean.TRUE.equals(changed)) {
+            eventPublisher.publishEvent(new TaggingJobProgressEvent(jobId));
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
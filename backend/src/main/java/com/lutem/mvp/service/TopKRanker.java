@@ -0,0 +1,157 @@
+package com.lutem.mvp.service;
+
+/**
+ * Bounded min-heap that keeps the K best-scoring entries of a scoring pass.
+ *
+ * Entries are primitive (position, score, tie-break key) triples, so offering a
+ * candidate allocates nothing. Higher scores rank first; equal scores rank by
+ * ascending tie-break key (the game id), which makes the result independent of
+ * the order candidates are offered in. The root of the heap is always the
+ * worst entry kept, so a candidate that can't make the cut costs one comparison.
+ *
+ * Not thread-safe; use one ranker per thread and {@link #merge} them.
+ */
+public final class TopKRanker {
+
+    private final int k;
+    private final int[] positions;
+    private final double[] scores;
+    private final long[] keys;
+    private int size;
+
+    public TopKRanker(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+        this.positions = new int[k];
+        this.scores = new double[k];
+        this.keys = new long[k];
+    }
+
+    /**
+     * Offers a candidate. Returns true if it was kept.
+     */
+    public boolean offer(int position, double score, long tieBreakKey) {
+        if (size < k) {
+            positions[size] = position;
+            scores[size] = score;
+            keys[size] = tieBreakKey;
+            siftUp(size++);
+            return true;
+        }
+        if (!ranksBefore(score, tieBreakKey, scores[0], keys[0])) {
+            return false;
+        }
+        positions[0] = position;
+        scores[0] = score;
+        keys[0] = tieBreakKey;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Offers every entry kept by another ranker.
+     */
+    public void merge(TopKRanker other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.positions[i], other.scores[i], other.keys[i]);
+        }
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Positions of the kept entries, best first.
+     */
+    public int[] rankedPositions() {
+        int[] order = rankedSlots();
+        int[] result = new int[size];
+        for (int r = 0; r < size; r++) {
+            result[r] = positions[order[r]];
+        }
+        return result;
+    }
+
+    /**
+     * Scores of the kept entries, best first (same order as {@link #rankedPositions}).
+     */
+    public double[] rankedScores() {
+        int[] order = rankedSlots();
+        double[] result = new double[size];
+        for (int r = 0; r < size; r++) {
+            result[r] = scores[order[r]];
+        }
+        return result;
+    }
+
+    // ========== Heap internals ==========
+
+    private static boolean ranksBefore(double score, long key, double otherScore, long otherKey) {
+        int cmp = Double.compare(score, otherScore);
+        return cmp > 0 || (cmp == 0 && key < otherKey);
+    }
+
+    // Heap order: parent ranks after (is worse than) its children
+    private boolean worse(int a, int b) {
+        return ranksBefore(scores[b], keys[b], scores[a], keys[a]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(i, parent)) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && worse(right, left)) {
+                worst = right;
+            }
+            if (!worse(worst, i)) {
+                return;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int p = positions[a];
+        positions[a] = positions[b];
+        positions[b] = p;
+        double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+        long t = keys[a];
+        keys[a] = keys[b];
+        keys[b] = t;
+    }
+
+    // Insertion sort over heap slots; K is small (5 for /recommendations)
+    private int[] rankedSlots() {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            int j = i;
+            while (j > 0 && ranksBefore(scores[i], keys[i], scores[order[j - 1]], keys[order[j - 1]])) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        return order;
+    }
+}
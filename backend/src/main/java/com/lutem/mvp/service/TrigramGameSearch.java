@@ -0,0 +1,59 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.repository.GameReadModelStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * {@link GameSearch} backed by Postgres pg_trgm over game_read_model, for
+ * deployments that would rather not hold the search index in every instance.
+ *
+ * Substring and fuzzy matches are served by GIN trigram indexes on the
+ * lower-cased name and genres, created (with the extension) at startup.
+ * Results are always as current as the read model. Postgres only.
+ */
+@Service
+@ConditionalOnProperty(name = "lutem.search.engine", havingValue = "trigram")
+public class TrigramGameSearch implements GameSearch {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrigramGameSearch.class);
+
+    private final GameReadModelStore readModelStore;
+    private final TransactionTemplate readOnlyTx;
+    private final double minSimilarity;
+
+    public TrigramGameSearch(GameReadModelStore readModelStore,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${lutem.search.min-similarity:0.5}") double minSimilarity) {
+        this.readModelStore = readModelStore;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.minSimilarity = minSimilarity;
+    }
+
+    // After startup, when Hibernate has created game_read_model
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        readModelStore.createTrigramIndexes();
+        logger.info("pg_trgm game search indexes ready");
+    }
+
+    @Override
+    public List<Game> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        // The similarity threshold is set per transaction, so the search needs one
+        return readOnlyTx.execute(status -> readModelStore.findByTrigram(query.trim(), limit, minSimilarity));
+    }
+}
@@ -1,10 +1,16 @@
 package com.lutem.mvp.service;
 
 import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.*;
 import com.lutem.mvp.dto.SatisfactionStats;
-import com.lutem.mvp.dto.SatisfactionStats.GameRatingSummary;
 import com.lutem.mvp.dto.WeeklySummary;
+import com.lutem.mvp.event.SessionFeedbackEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -12,49 +18,301 @@ import java.util.Date;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for computing user satisfaction statistics from Firestore session data.
  * Queries the users/{uid}/sessions collection and aggregates feedback data.
+ * Stats come from a running aggregate persisted at users/{uid}/aggregates/satisfaction
+ * ({@link SatisfactionAggregate}) and are cached per uid ({@link SatisfactionStatsCache}).
  */
 @Service
 public class UserSatisfactionService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserSatisfactionService.class);
 
+    // Set by the frontend when a session is completed or skipped
+    private static final String WATERMARK_FIELD = "feedbackAt";
+    // Sessions already applied at exactly the watermark timestamp
+    private static final String WATERMARK_IDS_FIELD = "feedbackAtSessionIds";
+
     private Firestore firestore;
 
+    private final SatisfactionStatsCache statsCache;
+
+    // Async loads for the recommendation path, with a latency budget. In the
+    // virtual-threads profile each load gets its own virtual thread and a
+    // semaphore takes over the bounded queue's job.
+    private final Executor statsExecutor;
+    private final Semaphore virtualLoadPermits;
+    private final long statsTimeoutMs;
+    private final Timer statsWaitTimer;
+    private final Counter personalizedRequests;
+    private final Counter timeoutFallbacks;
+    private final Counter errorFallbacks;
+
+    public UserSatisfactionService(
+            @Value("${lutem.satisfaction-cache.max-size:10000}") int cacheMaxSize,
+            @Value("${lutem.satisfaction-cache.ttl-seconds:300}") long cacheTtlSeconds,
+            @Value("${lutem.recommendations.stats-timeout-ms:250}") long statsTimeoutMs,
+            @Value("${lutem.recommendations.stats-threads:8}") int statsThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${lutem.recommendations.stats-max-in-flight:256}") int statsMaxInFlight,
+            MeterRegistry meterRegistry) {
+        this.statsCache = new SatisfactionStatsCache(cacheMaxSize, cacheTtlSeconds, meterRegistry);
+        this.statsTimeoutMs = statsTimeoutMs;
+        if (virtualThreads) {
+            this.statsExecutor = new VirtualThreadTaskExecutor("satisfaction-stats-");
+            this.virtualLoadPermits = new Semaphore(statsMaxInFlight);
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            // Bounded queue: when Firestore is backed up, new requests fall back instead of piling up
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(statsThreads, statsThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(statsThreads * 16), r -> {
+                    Thread t = new Thread(r, "satisfaction-stats-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+            pool.allowCoreThreadTimeOut(true);
+            this.statsExecutor = pool;
+            this.virtualLoadPermits = null;
+        }
+
+        this.statsWaitTimer = Timer.builder("lutem.recommendations.stats.wait")
+            .description("Time a recommendation request waited for satisfaction stats")
+            .register(meterRegistry);
+        this.personalizedRequests = Counter.builder("lutem.recommendations.stats")
+            .tag("outcome", "personalized").register(meterRegistry);
+        this.timeoutFallbacks = Counter.builder("lutem.recommendations.stats")
+            .tag("outcome", "timeout").register(meterRegistry);
+        this.errorFallbacks = Counter.builder("lutem.recommendations.stats")
+            .tag("outcome", "error").register(meterRegistry);
+        Gauge.builder("lutem.recommendations.stats.fallback.ratio", this, UserSatisfactionService::fallbackRatio)
+            .register(meterRegistry);
+    }
+
     @Autowired(required = false)
     public void setFirestore(Firestore firestore) {
         this.firestore = firestore;
     }
 
     /**
-     * Get comprehensive satisfaction stats for a user
+     * Get comprehensive satisfaction stats for a user (cached; treat the result as read-only)
      */
     public SatisfactionStats getSatisfactionStats(String uid) throws ExecutionException, InterruptedException {
+        return statsCache.get(uid, this::loadSatisfactionStats);
+    }
+
+    /**
+     * Starts loading a user's stats without blocking the caller. Cache hits
+     * complete immediately; misses run on the bounded stats executor. A load
+     * that outlives the caller's deadline still fills the cache for next time.
+     */
+    public CompletableFuture<SatisfactionStats> getSatisfactionStatsAsync(String uid) {
+        SatisfactionStats cached = statsCache.getIfPresent(uid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<SatisfactionStats> future = new CompletableFuture<>();
+        if (virtualLoadPermits != null && !virtualLoadPermits.tryAcquire()) {
+            future.completeExceptionally(new RejectedExecutionException("Too many satisfaction stats loads in flight"));
+            return future;
+        }
+        try {
+            statsExecutor.execute(() -> {
+                try {
+                    future.complete(getSatisfactionStats(uid));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    if (virtualLoadPermits != null) {
+                        virtualLoadPermits.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (virtualLoadPermits != null) {
+                virtualLoadPermits.release();
+            }
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Waits for stats started by {@link #getSatisfactionStatsAsync} until
+     * {@code lutem.recommendations.stats-timeout-ms} after {@code startedAtNanos}.
+     * Returns null (non-personalized scoring) on timeout or failure.
+     */
+    public SatisfactionStats awaitForRecommendation(CompletableFuture<SatisfactionStats> pending, long startedAtNanos) {
+        long waitStart = System.nanoTime();
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(statsTimeoutMs) - (waitStart - startedAtNanos);
+        try {
+            SatisfactionStats stats = pending.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+            personalizedRequests.increment();
+            return stats;
+        } catch (TimeoutException e) {
+            timeoutFallbacks.increment();
+            logger.warn("Satisfaction stats not ready within {} ms, using non-personalized scoring", statsTimeoutMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errorFallbacks.increment();
+            return null;
+        } catch (ExecutionException e) {
+            errorFallbacks.increment();
+            logger.warn("Could not load satisfaction stats: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return null;
+        } finally {
+            statsWaitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private double fallbackRatio() {
+        double fallbacks = timeoutFallbacks.count() + errorFallbacks.count();
+        double total = fallbacks + personalizedRequests.count();
+        return total > 0 ? fallbacks / total : 0.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (statsExecutor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Feedback changes the user's ratings, so the next request recomputes their stats.
+     */
+    @EventListener
+    public void onSessionFeedback(SessionFeedbackEvent event) {
+        if (event.getUserUid() != null) {
+            statsCache.invalidate(event.getUserUid());
+            logger.debug("Invalidated cached satisfaction stats for {}", event.getUserUid());
+        }
+    }
+
+    /**
+     * Stats from the user's persisted running aggregate. Only sessions finalized
+     * since the aggregate's watermark are read and folded in; a missing or outdated
+     * aggregate is rebuilt from the full sessions collection.
+     */
+    private SatisfactionStats loadSatisfactionStats(String uid) throws ExecutionException, InterruptedException {
         if (firestore == null) {
             logger.warn("Firestore not available - returning empty stats");
             return createEmptyStats();
         }
-        
-        // Query all sessions for this user
-        CollectionReference sessionsRef = firestore.collection("users").document(uid).collection("sessions");
-        ApiFuture<QuerySnapshot> future = sessionsRef.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-        
-        if (documents.isEmpty()) {
-            return createEmptyStats();
+
+        CollectionReference sessionsRef = sessionsRef(uid);
+        DocumentSnapshot snapshot = aggregateRef(uid).get().get();
+        SatisfactionAggregate aggregate = snapshot.exists() ? SatisfactionAggregate.fromMap(snapshot.getData()) : null;
+        Timestamp watermarkAt = snapshot.exists() ? snapshot.getTimestamp(WATERMARK_FIELD) : null;
+        if (aggregate == null || watermarkAt == null) {
+            return rebuildAggregate(uid).toStats(countSessions(sessionsRef));
         }
-        
-        return computeStats(documents);
+        @SuppressWarnings("unchecked")
+        SatisfactionWatermark watermark = new SatisfactionWatermark(watermarkAt,
+            (List<String>) snapshot.get(WATERMARK_IDS_FIELD));
+
+        // Incremental catch-up: O(1) per newly finalized session. Inclusive, so a session
+        // finalized later with the watermark's exact timestamp isn't skipped.
+        List<QueryDocumentSnapshot> sessions = sessionsRef
+            .whereGreaterThanOrEqualTo(WATERMARK_FIELD, watermarkAt)
+            .orderBy(WATERMARK_FIELD)
+            .get().get().getDocuments();
+        int applied = 0;
+        for (QueryDocumentSnapshot doc : sessions) {
+            if (watermark.admit(doc.getTimestamp(WATERMARK_FIELD), doc.getId())) {
+                aggregate.apply(doc.getData());
+                applied++;
+            }
+        }
+        if (applied > 0) {
+            saveAggregate(uid, aggregate, watermark, snapshot);
+            logger.debug("Applied {} new sessions to satisfaction aggregate for {}", applied, uid);
+        }
+
+        return aggregate.toStats(countSessions(sessionsRef));
     }
-    
+
+    /**
+     * Rebuild/repair job: recomputes the user's aggregate from every session
+     * document and replaces the stored one. Runs automatically when the aggregate
+     * is missing or has an old schema; also exposed for manual repair.
+     */
+    public SatisfactionAggregate rebuildAggregate(String uid) throws ExecutionException, InterruptedException {
+        if (firestore == null) {
+            return new SatisfactionAggregate();
+        }
+        long start = System.currentTimeMillis();
+        List<QueryDocumentSnapshot> documents = sessionsRef(uid).get().get().getDocuments();
+
+        SatisfactionAggregate aggregate = new SatisfactionAggregate();
+        SatisfactionWatermark watermark = new SatisfactionWatermark(Timestamp.MIN_VALUE, null);
+        for (QueryDocumentSnapshot doc : documents) {
+            aggregate.apply(doc.getData());
+            watermark.admit(doc.getTimestamp(WATERMARK_FIELD), doc.getId());
+        }
+        saveAggregate(uid, aggregate, watermark, null);
+        statsCache.invalidate(uid);
+
+        logger.info("Rebuilt satisfaction aggregate for {} from {} sessions in {} ms",
+            uid, documents.size(), System.currentTimeMillis() - start);
+        return aggregate;
+    }
+
+    /**
+     * Incremental saves use the read snapshot's update time as a precondition, so
+     * two concurrent catch-ups can't both apply the same sessions; the loser just
+     * skips the write (its stats are still correct for this request).
+     */
+    private void saveAggregate(String uid, SatisfactionAggregate aggregate, SatisfactionWatermark watermark,
+            DocumentSnapshot readSnapshot) throws InterruptedException {
+        Map<String, Object> data = aggregate.toMap();
+        data.put(WATERMARK_FIELD, watermark.getTimestamp());
+        data.put(WATERMARK_IDS_FIELD, watermark.getSessionIds());
+        try {
+            if (readSnapshot != null && readSnapshot.getUpdateTime() != null) {
+                aggregateRef(uid).update(data, Precondition.updatedAt(readSnapshot.getUpdateTime())).get();
+            } else {
+                aggregateRef(uid).set(data).get();
+            }
+        } catch (ExecutionException e) {
+            logger.debug("Satisfaction aggregate for {} not saved: {}", uid, e.getMessage());
+        }
+    }
+
+    private int countSessions(CollectionReference sessionsRef) throws ExecutionException, InterruptedException {
+        return (int) sessionsRef.count().get().get().getCount();
+    }
+
+    private CollectionReference sessionsRef(String uid) {
+        return firestore.collection("users").document(uid).collection("sessions");
+    }
+
+    private DocumentReference aggregateRef(String uid) {
+        return firestore.collection("users").document(uid).collection("aggregates").document("satisfaction");
+    }
+
     /**
      * Get weekly summary for user dashboard
      */
@@ -177,203 +435,6 @@ public class UserSatisfactionService {
         return summary;
     }
 
-    /**
-     * Compute all statistics from session documents
-     */
-    private SatisfactionStats computeStats(List<QueryDocumentSnapshot> documents) {
-        SatisfactionStats stats = new SatisfactionStats();
-        
-        int completed = 0;
-        int skipped = 0;
-        int totalPlaytime = 0;
-        double ratingSum = 0;
-        int ratingCount = 0;
-        
-        // Maps for aggregation
-        Map<Long, List<Double>> gameRatings = new HashMap<>();
-        Map<String, List<Double>> genreRatings = new HashMap<>();
-        Map<String, Integer> tagCounts = new HashMap<>();
-        Map<String, Integer> lengthDist = new HashMap<>();
-        Map<String, List<Double>> timeOfDayRatings = new HashMap<>();
-        Map<String, Integer> dayOfWeekCounts = new HashMap<>();
-        Map<Long, String> gameNames = new HashMap<>();
-        
-        for (QueryDocumentSnapshot doc : documents) {
-            Map<String, Object> data = doc.getData();
-            String status = (String) data.get("status");
-            
-            if ("COMPLETED".equals(status)) {
-                completed++;
-                processCompletedSession(data, gameRatings, genreRatings, tagCounts, 
-                    lengthDist, timeOfDayRatings, dayOfWeekCounts, gameNames);
-                
-                // Rating
-                Number rating = (Number) data.get("rating");
-                if (rating != null) {
-                    ratingSum += rating.doubleValue();
-                    ratingCount++;
-                }
-                
-                // Duration
-                Number duration = (Number) data.get("actualDuration");
-                if (duration != null) {
-                    totalPlaytime += duration.intValue();
-                }
-            } else if ("SKIPPED".equals(status)) {
-                skipped++;
-            }
-        }
-        
-        stats.setTotalSessions(documents.size());
-        stats.setCompletedSessions(completed);
-        stats.setSkippedSessions(skipped);
-        stats.setTotalPlaytimeMinutes(totalPlaytime);
-        stats.setAverageRating(ratingCount > 0 ? ratingSum / ratingCount : 0);
-
-        // Aggregate game ratings
-        Map<Long, Double> avgRatingsByGame = new HashMap<>();
-        for (Map.Entry<Long, List<Double>> entry : gameRatings.entrySet()) {
-            double avg = entry.getValue().stream().mapToDouble(d -> d).average().orElse(0);
-            avgRatingsByGame.put(entry.getKey(), avg);
-        }
-        stats.setRatingsByGame(avgRatingsByGame);
-        
-        // Aggregate genre ratings
-        Map<String, Double> avgRatingsByGenre = new HashMap<>();
-        for (Map.Entry<String, List<Double>> entry : genreRatings.entrySet()) {
-            double avg = entry.getValue().stream().mapToDouble(d -> d).average().orElse(0);
-            avgRatingsByGenre.put(entry.getKey(), avg);
-        }
-        stats.setRatingsByGenre(avgRatingsByGenre);
-        
-        // Emotional tags
-        stats.setEmotionalTagCounts(tagCounts);
-        List<String> topTags = tagCounts.entrySet().stream()
-            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-            .limit(3)
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
-        stats.setTopEmotionalTags(topTags);
-        
-        // Session length distribution
-        stats.setSessionLengthDistribution(lengthDist);
-        stats.setPreferredSessionLength(findMaxKey(lengthDist));
-        
-        // Time of day patterns
-        Map<String, Double> avgByTimeOfDay = new HashMap<>();
-        for (Map.Entry<String, List<Double>> entry : timeOfDayRatings.entrySet()) {
-            double avg = entry.getValue().stream().mapToDouble(d -> d).average().orElse(0);
-            avgByTimeOfDay.put(entry.getKey(), avg);
-        }
-        stats.setRatingsByTimeOfDay(avgByTimeOfDay);
-        stats.setBestTimeOfDay(findMaxKeyByValue(avgByTimeOfDay));
-        
-        // Day of week
-        stats.setSessionsByDayOfWeek(dayOfWeekCounts);
-
-        // Top rated games
-        List<GameRatingSummary> topGames = gameRatings.entrySet().stream()
-            .filter(e -> e.getValue().size() >= 1) // At least 1 session
-            .map(e -> new GameRatingSummary(
-                e.getKey(),
-                gameNames.getOrDefault(e.getKey(), "Unknown"),
-                e.getValue().stream().mapToDouble(d -> d).average().orElse(0),
-                e.getValue().size()
-            ))
-            .sorted((a, b) -> Double.compare(b.getAverageRating(), a.getAverageRating()))
-            .limit(5)
-            .collect(Collectors.toList());
-        stats.setTopRatedGames(topGames);
-        
-        return stats;
-    }
-    
-    /**
-     * Process a completed session and update aggregation maps
-     */
-    @SuppressWarnings("unchecked")
-    private void processCompletedSession(Map<String, Object> data,
-            Map<Long, List<Double>> gameRatings,
-            Map<String, List<Double>> genreRatings,
-            Map<String, Integer> tagCounts,
-            Map<String, Integer> lengthDist,
-            Map<String, List<Double>> timeOfDayRatings,
-            Map<String, Integer> dayOfWeekCounts,
-            Map<Long, String> gameNames) {
-        
-        Number gameIdNum = (Number) data.get("gameId");
-        Long gameId = gameIdNum != null ? gameIdNum.longValue() : null;
-        String gameName = (String) data.get("gameName");
-        String genre = (String) data.get("gameGenre");
-        Number rating = (Number) data.get("rating");
-        Number duration = (Number) data.get("actualDuration");
-        List<String> tags = (List<String>) data.get("emotionalTags");
-        String timeOfDay = (String) data.get("timeOfDay");
-        String dayOfWeek = (String) data.get("dayOfWeek");
-
-        // Store game name
-        if (gameId != null && gameName != null) {
-            gameNames.put(gameId, gameName);
-        }
-        
-        // Game ratings
-        if (gameId != null && rating != null) {
-            gameRatings.computeIfAbsent(gameId, k -> new ArrayList<>()).add(rating.doubleValue());
-        }
-        
-        // Genre ratings
-        if (genre != null && rating != null) {
-            genreRatings.computeIfAbsent(genre, k -> new ArrayList<>()).add(rating.doubleValue());
-        }
-        
-        // Emotional tags
-        if (tags != null) {
-            for (String tag : tags) {
-                tagCounts.merge(tag, 1, Integer::sum);
-            }
-        }
-        
-        // Session length category
-        if (duration != null) {
-            int mins = duration.intValue();
-            String category;
-            if (mins < 30) category = "short";
-            else if (mins < 60) category = "medium";
-            else category = "long";
-            lengthDist.merge(category, 1, Integer::sum);
-        }
-        
-        // Time of day ratings
-        if (timeOfDay != null && rating != null) {
-            timeOfDayRatings.computeIfAbsent(timeOfDay, k -> new ArrayList<>()).add(rating.doubleValue());
-        }
-        
-        // Day of week counts
-        if (dayOfWeek != null) {
-            dayOfWeekCounts.merge(dayOfWeek, 1, Integer::sum);
-        }
-    }
-
-    /**
-     * Find the key with highest count
-     */
-    private String findMaxKey(Map<String, Integer> map) {
-        return map.entrySet().stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(null);
-    }
-    
-    /**
-     * Find the key with highest value (for double maps)
-     */
-    private String findMaxKeyByValue(Map<String, Double> map) {
-        return map.entrySet().stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(null);
-    }
-    
     /**
      * Create empty stats for users with no sessions
      */
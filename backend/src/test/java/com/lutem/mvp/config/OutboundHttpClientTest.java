@@ -0,0 +1,105 @@
+package com.lutem.mvp.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the shared outbound client against a local stub server.
+ */
+class OutboundHttpClientTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private OutboundHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            boolean gzip = "gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            byte[] bytes = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            if (gzip) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                    out.write(bytes);
+                }
+                bytes = compressed.toByteArray();
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            send(exchange, 200, bytes);
+        });
+        server.createContext("/fail", exchange -> send(exchange, 503, new byte[0]));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            send(exchange, 200, new byte[0]);
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        client = new OutboundHttpClient(2000, 5000, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] bytes) throws IOException {
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Timer timer(String outcome) {
+        return registry.find(OutboundHttpClient.METRIC).tag("host", "127.0.0.1").tag("outcome", outcome).timer();
+    }
+
+    @Test
+    void restTemplate_ShouldRequestAndDecompressGzip() {
+        String body = client.restTemplate().getForObject(baseUrl + "/gzip", String.class);
+
+        assertEquals("{\"ok\":true}", body);
+        assertEquals(1, timer("SUCCESS").count());
+    }
+
+    @Test
+    void restTemplate_ShouldRecordErrorsPerHost() {
+        RestTemplate restTemplate = client.restTemplate();
+
+        assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(baseUrl + "/fail", String.class));
+
+        assertEquals(1, timer("SERVER_ERROR").count());
+    }
+
+    @Test
+    void restTemplate_ShouldApplyReadTimeout() {
+        RestTemplate restTemplate = client.restTemplate(Duration.ofMillis(200));
+
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+
+        assertEquals(1, timer("IO_ERROR").count());
+    }
+}
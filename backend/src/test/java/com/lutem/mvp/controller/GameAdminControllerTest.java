@@ -5,6 +5,7 @@ import com.lutem.mvp.TestUtils;
 import com.lutem.mvp.model.*;
 import com.lutem.mvp.repository.GameRepository;
 import com.lutem.mvp.security.JwtService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,11 +16,15 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -45,6 +50,9 @@ class GameAdminControllerTest {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User adminUser;
     private User regularUser;
 
@@ -138,6 +146,114 @@ class GameAdminControllerTest {
             .andExpect(status().isForbidden());
     }
 
+    // --- Import ---
+
+    @Test
+    void importGames_MatchesBySteamAppIdThenName_AndCreatesTheRest() throws Exception {
+        Game bySteam = new Game();
+        bySteam.setName("Steam Match");
+        bySteam.setSteamAppId(100L);
+        bySteam.setInterruptibility(Interruptibility.LOW);
+        bySteam.setEmotionalGoals(new ArrayList<>(List.of(EmotionalGoal.UNWIND)));
+        bySteam.setTaggingSource(TaggingSource.MANUAL);
+        bySteam = gameRepository.save(bySteam);
+        Game byName = new Game();
+        byName.setName("Name Match");
+        byName.setEnergyRequired(EnergyLevel.LOW);
+        gameRepository.save(byName);
+
+        List<Map<String, Object>> payload = List.of(
+            Map.of("name", "Renamed In Prod", "steamAppId", 100, "interruptibility", "HIGH",
+                "emotionalGoals", List.of("CHALLENGE")),
+            Map.of("name", "name match", "energyRequired", "LOW"),
+            Map.of("name", "Brand New", "steamAppId", 200, "minMinutes", 10, "maxMinutes", 40,
+                "taggingSource", "MANUAL", "emotionalGoals", List.of("RECHARGE")));
+
+        mockMvc.perform(TestUtils.withAuth(
+                post("/admin/games/import")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(payload)),
+                jwtService, adminUser))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated").value(1))
+            .andExpect(jsonPath("$.skipped").value(1))
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.errors", hasSize(0)))
+            .andExpect(jsonPath("$.timingsMs.total").exists());
+
+        entityManager.clear();
+        Game updated = gameRepository.findById(bySteam.getId()).orElseThrow();
+        assertEquals(Interruptibility.HIGH, updated.getInterruptibility());
+        assertEquals(List.of(EmotionalGoal.CHALLENGE), updated.getEmotionalGoals());
+        assertEquals("Steam Match", updated.getName());
+        Game created = gameRepository.findBySteamAppId(200L).orElseThrow();
+        assertEquals("Brand New", created.getName());
+        assertEquals(List.of(EmotionalGoal.RECHARGE), created.getEmotionalGoals());
+    }
+
+    @Test
+    void importGames_DuplicateInPayload_UpdatesTheGameCreatedEarlier() throws Exception {
+        List<Map<String, Object>> payload = List.of(
+            Map.of("name", "Twice", "steamAppId", 300, "interruptibility", "LOW"),
+            Map.of("name", "Twice", "steamAppId", 300, "interruptibility", "MEDIUM"));
+
+        mockMvc.perform(TestUtils.withAuth(
+                post("/admin/games/import")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(payload)),
+                jwtService, adminUser))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.updated").value(1));
+
+        entityManager.clear();
+        assertEquals(Interruptibility.MEDIUM,
+            gameRepository.findBySteamAppId(300L).orElseThrow().getInterruptibility());
+    }
+
+    @Test
+    void exportGames_AsAdmin_StreamsOneGamePerLine() throws Exception {
+        for (String name : List.of("Export One", "Export Two")) {
+            Game game = new Game();
+            game.setName(name);
+            game.setEmotionalGoals(new ArrayList<>(List.of(EmotionalGoal.UNWIND)));
+            gameRepository.save(game);
+        }
+
+        String body = mockMvc.perform(TestUtils.withAuth(get("/admin/games/export"), jwtService, adminUser))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Export One", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("UNWIND", objectMapper.readTree(lines[0]).get("emotionalGoals").get(0).asText());
+        assertEquals("Export Two", objectMapper.readTree(lines[1]).get("name").asText());
+    }
+
+    @Test
+    void importGames_Ndjson_ImportsLineByLineAndReportsBadLines() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("name", "Line One", "steamAppId", 400)) + "\n"
+            + "\n"
+            + "{not json\n"
+            + objectMapper.writeValueAsString(Map.of("name", "Line Two", "interruptibility", "HIGH")) + "\n";
+
+        mockMvc.perform(TestUtils.withAuth(
+                post("/admin/games/import")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content(body),
+                jwtService, adminUser))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(2))
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.errors", hasSize(1)))
+            .andExpect(jsonPath("$.errors[0]", startsWith("line 3:")));
+
+        assertTrue(gameRepository.findBySteamAppId(400L).isPresent());
+    }
+
     // --- Stats ---
 
     @Test
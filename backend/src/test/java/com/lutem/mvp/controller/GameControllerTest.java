@@ -2,11 +2,15 @@ package com.lutem.mvp.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lutem.mvp.TestUtils;
+import com.lutem.mvp.dto.BatchRecommendationRequest;
 import com.lutem.mvp.dto.RecommendationRequest;
 import com.lutem.mvp.model.*;
 import com.lutem.mvp.repository.GameRepository;
+import com.lutem.mvp.repository.GameSessionRepository;
 import com.lutem.mvp.security.JwtService;
+import com.lutem.mvp.service.GameCatalogService;
 import com.lutem.mvp.service.GameSessionService;
+import com.lutem.mvp.service.InMemoryGameSearch;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +25,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -46,6 +51,15 @@ class GameControllerTest {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private GameCatalogService catalogService;
+
+    @Autowired
+    private GameSessionRepository sessionRepository;
+
+    @Autowired
+    private InMemoryGameSearch gameSearch;
+
     private User testUser;
 
     @BeforeEach
@@ -102,6 +116,83 @@ class GameControllerTest {
             .andExpect(jsonPath("$.hasNext").value(true));
     }
 
+    @Test
+    void getGamesPaged_WithCursor_ShouldWalkEveryPage() throws Exception {
+        String first = mockMvc.perform(get("/games/paged")
+                .param("size", "1")
+                .param("sortBy", "name")
+                .param("sortDir", "desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.games[0].name").value("Test Game 2"))
+            .andExpect(jsonPath("$.hasPrevious").value(false))
+            .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+            .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(first).get("nextCursor").asText();
+
+        mockMvc.perform(get("/games/paged")
+                .param("size", "1")
+                .param("sortBy", "name")
+                .param("sortDir", "desc")
+                .param("cursor", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.games", hasSize(1)))
+            .andExpect(jsonPath("$.games[0].name").value("Test Game 1"))
+            .andExpect(jsonPath("$.games[0].emotionalGoals", hasItem("UNWIND")))
+            .andExpect(jsonPath("$.hasNext").value(false))
+            .andExpect(jsonPath("$.hasPrevious").value(true))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getGamesPaged_WithoutTotal_ShouldSkipCount() throws Exception {
+        mockMvc.perform(get("/games/paged")
+                .param("size", "5")
+                .param("sortBy", "minMinutes")
+                .param("includeTotal", "false"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.games[*].name", contains("Test Game 1", "Test Game 2")))
+            .andExpect(jsonPath("$.hasNext").value(false))
+            .andExpect(jsonPath("$.totalItems").doesNotExist());
+    }
+
+    @Test
+    void getGamesPaged_WithCursorForOtherSort_ShouldReturnBadRequest() throws Exception {
+        String first = mockMvc.perform(get("/games/paged").param("size", "1"))
+            .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(first).get("nextCursor").asText();
+
+        mockMvc.perform(get("/games/paged")
+                .param("size", "1")
+                .param("sortBy", "popularityScore")
+                .param("cursor", cursor))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/games/paged").param("cursor", "not a cursor"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/games/paged").param("sortBy", "description"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchGames_ShouldRankPrefixAndTypoMatches() throws Exception {
+        // Seeded in this (uncommitted) transaction, so load them into the catalog directly
+        catalogService.rebuild();
+        // The index otherwise catches up in the background
+        gameSearch.refreshIndex();
+
+        mockMvc.perform(get("/games/search").param("q", "test"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].name", contains("Test Game 1", "Test Game 2")));
+        mockMvc.perform(get("/games/search").param("q", "game 2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].name").value("Test Game 2"));
+        mockMvc.perform(get("/games/search").param("q", "tset gaem"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].name", not(hasItem("Pending Game"))));
+        mockMvc.perform(get("/games/search").param("q", "pending"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
     @Test
     // Known issue: MultipleBagFetchException in H2 when fetching multiple List collections.
     // Works in PostgreSQL production. Fix: change Lists to Sets in Game entity.
@@ -134,6 +225,70 @@ class GameControllerTest {
             .andExpect(status().isBadRequest());
     }
 
+    private static RecommendationRequest unwindRequest(String userId) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setAvailableMinutes(30);
+        request.setDesiredEmotionalGoals(Arrays.asList(EmotionalGoal.UNWIND));
+        request.setRequiredInterruptibility(Interruptibility.HIGH);
+        request.setCurrentEnergyLevel(EnergyLevel.LOW);
+        request.setUserId(userId);
+        return request;
+    }
+
+    @Test
+    void getRecommendationBatch_ShouldKeepInvalidEntriesInTheirSlot() throws Exception {
+        // Seeded in this (uncommitted) transaction, so load them into the catalog directly
+        catalogService.rebuild();
+        RecommendationRequest invalid = unwindRequest(null);
+        invalid.setAvailableMinutes(0);
+        invalid.setDesiredEmotionalGoals(List.of());
+        BatchRecommendationRequest batch = new BatchRecommendationRequest(
+            Arrays.asList(unwindRequest(null), invalid, unwindRequest(null)), false);
+
+        mockMvc.perform(TestUtils.withCsrf(post("/recommendations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[0].topRecommendation.name").value("Test Game 1"))
+            .andExpect(jsonPath("$[1].topRecommendation.name").value("Validation Error"))
+            .andExpect(jsonPath("$[1].reason", containsString("availableMinutes must be positive")))
+            .andExpect(jsonPath("$[2].topRecommendation.name").value("Test Game 1"));
+    }
+
+    @Test
+    void getRecommendationBatch_WithMixedUsers_ShouldReturnBadRequest() throws Exception {
+        BatchRecommendationRequest batch = new BatchRecommendationRequest(
+            Arrays.asList(unwindRequest("user-a"), unwindRequest("user-b")), false);
+
+        mockMvc.perform(TestUtils.withCsrf(post("/recommendations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch))))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getRecommendationBatch_ShouldOnlyRecordSessionsWhenAsked() throws Exception {
+        catalogService.rebuild();
+        long before = sessionRepository.count();
+
+        mockMvc.perform(TestUtils.withCsrf(post("/recommendations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchRecommendationRequest(
+                    Arrays.asList(unwindRequest(null), unwindRequest(null)), false)))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].sessionId").doesNotExist());
+        assertEquals(before, sessionRepository.count());
+
+        mockMvc.perform(TestUtils.withCsrf(post("/recommendations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchRecommendationRequest(
+                    Arrays.asList(unwindRequest(null), unwindRequest(null)), true)))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].sessionId").isNumber());
+        assertEquals(before + 2, sessionRepository.count());
+    }
+
     @Test
     @org.junit.jupiter.api.Disabled("Depends on recommendation endpoint - see MultipleBagFetchException")
     void submitFeedback_WithValidSessionId_ShouldReturnSuccess() throws Exception {
@@ -0,0 +1,163 @@
+package com.lutem.mvp.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test for POST /recommendations: N concurrent users each
+ * send a request, wait for the response and immediately send the next one.
+ *
+ * Used to compare Tomcat's platform thread pool with the virtual-threads profile
+ * at 500+ users while the Hikari pool stays at HIKARI_MAX_POOL (default 10).
+ * Every /recommendations call records a GameSession, so requests contend for DB
+ * connections; pass --user-id to also exercise the Firestore stats fetch.
+ *
+ * Not a unit test (surefire skips it). Start the backend, then run from backend/:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.lutem.mvp.controller.RecommendationLoadBenchmark \
+ *     -Dexec.args="--url http://localhost:8080 --users 500 --duration 60"
+ *
+ * Platform threads:  mvn spring-boot:run -Dspring-boot.run.profiles=local
+ * Virtual threads:   mvn -Pjava21 spring-boot:run -Dspring-boot.run.profiles=local,virtual-threads
+ * Set RATE_LIMIT_ENABLED=false on the backend; results are kept in docs/ARCHITECTURE.md.
+ */
+public class RecommendationLoadBenchmark {
+
+    private static final String CSRF_TOKEN = "load-benchmark";
+
+    private static final String[] REQUEST_BODIES = {
+        "{\"availableMinutes\":30,\"desiredEmotionalGoals\":[\"UNWIND\"],\"currentEnergyLevel\":\"LOW\","
+            + "\"requiredInterruptibility\":\"HIGH\",\"socialPreference\":\"SOLO\"%s}",
+        "{\"availableMinutes\":90,\"desiredEmotionalGoals\":[\"CHALLENGE\",\"LOCKING_IN\"],\"currentEnergyLevel\":\"HIGH\","
+            + "\"requiredInterruptibility\":\"LOW\",\"socialPreference\":\"BOTH\"%s}",
+        "{\"availableMinutes\":60,\"desiredEmotionalGoals\":[\"ADVENTURE_TIME\"],\"currentEnergyLevel\":\"MEDIUM\","
+            + "\"requiredInterruptibility\":\"MEDIUM\",\"socialPreference\":\"SOLO\",\"preferredGenres\":[\"RPG\"]%s}",
+        "{\"availableMinutes\":15,\"desiredEmotionalGoals\":[\"RECHARGE\",\"PROGRESS_ORIENTED\"],\"currentEnergyLevel\":\"LOW\","
+            + "\"requiredInterruptibility\":\"HIGH\",\"socialPreference\":\"SOLO\",\"audioAvailability\":\"muted\"%s}"
+    };
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = option(args, "--url", "http://localhost:8080");
+        int users = Integer.parseInt(option(args, "--users", "500"));
+        int warmupSeconds = Integer.parseInt(option(args, "--warmup", "10"));
+        int durationSeconds = Integer.parseInt(option(args, "--duration", "60"));
+        String userId = option(args, "--user-id", null);
+
+        String userIdField = userId != null ? ",\"userId\":\"" + userId + "\"" : "";
+        HttpRequest[] requests = new HttpRequest[REQUEST_BODIES.length];
+        for (int i = 0; i < REQUEST_BODIES.length; i++) {
+            requests[i] = HttpRequest.newBuilder(URI.create(baseUrl + "/recommendations"))
+                .header("Content-Type", "application/json")
+                // CsrfFilter only checks that the double-submit cookie and header match
+                .header("Cookie", "XSRF-TOKEN=" + CSRF_TOKEN)
+                .header("X-XSRF-TOKEN", CSRF_TOKEN)
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(String.format(REQUEST_BODIES[i], userIdField)))
+                .build();
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+        System.out.printf("Load test: %d users against %s/recommendations (%ds warmup, %ds measured)%n",
+            users, baseUrl, warmupSeconds, durationSeconds);
+
+        long measureFrom = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long measureUntil = measureFrom + durationSeconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        AtomicLong non2xx = new AtomicLong();
+        List<long[]> latenciesPerUser = new ArrayList<>(users);
+        int[] completedPerUser = new int[users];
+        CountDownLatch done = new CountDownLatch(users);
+
+        for (int u = 0; u < users; u++) {
+            int user = u;
+            long[] latencies = new long[1 << 16];
+            latenciesPerUser.add(latencies);
+            Thread thread = new Thread(() -> {
+                long[] buffer = latencies;
+                int count = 0;
+                int next = user;
+                try {
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= measureUntil) {
+                            break;
+                        }
+                        HttpRequest request = requests[next++ % requests.length];
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            long end = System.nanoTime();
+                            if (start < measureFrom) {
+                                continue;
+                            }
+                            if (response.statusCode() / 100 != 2) {
+                                non2xx.incrementAndGet();
+                            }
+                            if (count == buffer.length) {
+                                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                                latenciesPerUser.set(user, buffer);
+                            }
+                            buffer[count++] = end - start;
+                        } catch (Exception e) {
+                            if (start >= measureFrom) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    }
+                } finally {
+                    completedPerUser[user] = count;
+                    done.countDown();
+                }
+            }, "load-user-" + u);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        int total = 0;
+        for (int c : completedPerUser) {
+            total += c;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (int u = 0; u < users; u++) {
+            System.arraycopy(latenciesPerUser.get(u), 0, all, offset, completedPerUser[u]);
+            offset += completedPerUser[u];
+        }
+        Arrays.sort(all);
+
+        System.out.printf("Completed: %d requests (%d non-2xx, %d errors)%n", total, non2xx.get(), errors.get());
+        System.out.printf("Throughput: %.1f req/s%n", total / (double) durationSeconds);
+        System.out.printf("Latency ms: p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+            percentileMillis(all, 0.50), percentileMillis(all, 0.95),
+            percentileMillis(all, 0.99), percentileMillis(all, 1.0));
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
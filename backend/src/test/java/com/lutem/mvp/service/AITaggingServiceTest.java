@@ -0,0 +1,222 @@
+package com.lutem.mvp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lutem.mvp.config.OutboundHttpClient;
+import com.lutem.mvp.model.EmotionalGoal;
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.model.TaggingSource;
+import com.lutem.mvp.repository.GameRepository;
+import com.lutem.mvp.service.AITaggingService.TaggingResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests AITaggingService's worker pool and batched prompts against a local
+ * stub of the Anthropic messages endpoint.
+ */
+class AITaggingServiceTest {
+
+    private static final Pattern GAME_ID = Pattern.compile("^ID: (\\d+)$", Pattern.MULTILINE);
+    private static final String ATTRIBUTES = "\"emotionalGoals\":[\"UNWIND\"],\"interruptibility\":\"HIGH\","
+        + "\"energyRequired\":\"LOW\",\"bestTimeOfDay\":[\"EVENING\"],\"socialPreferences\":[\"SOLO\"],"
+        + "\"minMinutes\":20,\"maxMinutes\":90,\"audioDependency\":\"OPTIONAL\",\"contentRating\":\"EVERYONE\","
+        + "\"nsfwLevel\":\"NONE\",\"confidence\":0.9";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Long, Game> games = new ConcurrentHashMap<>();
+    private final AtomicInteger modelCalls = new AtomicInteger();
+    private final Set<Long> omittedFromReplies = ConcurrentHashMap.newKeySet();
+    // When set, returned as the model's reply text instead of the generated one
+    private volatile String cannedReply;
+
+    private HttpServer server;
+    private AITaggingService service;
+    private GameRepository gameRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/messages", this::handleMessages);
+        server.start();
+
+        gameRepository = mock(GameRepository.class);
+        when(gameRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Game> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                Game game = games.get((Long) id);
+                if (game != null) {
+                    found.add(game);
+                }
+            }
+            return found;
+        });
+        when(gameRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Game> saved = new ArrayList<>();
+            ((Iterable<?>) invocation.getArgument(0)).forEach(g -> saved.add((Game) g));
+            return saved;
+        });
+    }
+
+    private AITaggingService newService(int workers, int batchSize) {
+        AITaggingService tagging = new AITaggingService(gameRepository, mockSteamStore(),
+            mock(PlatformTransactionManager.class), workers, false, batchSize, 10000,
+            new OutboundHttpClient(5000, 10000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(tagging, "anthropicApiKey", "test-key");
+        ReflectionTestUtils.setField(tagging, "anthropicModel", "test-model");
+        ReflectionTestUtils.setField(tagging, "anthropicApiUrl",
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/messages");
+        return tagging;
+    }
+
+    private static SteamStoreService mockSteamStore() {
+        SteamStoreService steamStoreService = mock(SteamStoreService.class);
+        when(steamStoreService.getAppDetailsAsync(anyLong())).thenReturn(CompletableFuture.completedFuture(null));
+        return steamStoreService;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+        server.stop(0);
+    }
+
+    // Replies with one attribute object per "ID: n" line (a JSON array), or a single object
+    private void handleMessages(HttpExchange exchange) throws IOException {
+        modelCalls.incrementAndGet();
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String prompt = request.path("messages").get(0).path("content").asText();
+
+        Matcher matcher = GAME_ID.matcher(prompt);
+        List<String> objects = new ArrayList<>();
+        while (matcher.find()) {
+            long id = Long.parseLong(matcher.group(1));
+            if (!omittedFromReplies.contains(id)) {
+                objects.add("{\"id\":" + id + "," + ATTRIBUTES + "}");
+            }
+        }
+        String text = objects.isEmpty() ? "{" + ATTRIBUTES + "}" : "```json\n[" + String.join(",", objects) + "]\n```";
+        if (cannedReply != null) {
+            text = cannedReply;
+        }
+
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("content", List.of(Map.of("type", "text", "text", text))));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private List<Long> addPendingGames(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Game game = new Game();
+            game.setId(id);
+            game.setName("Game " + id);
+            game.setSteamAppId(1000 + id);
+            game.setTaggingSource(TaggingSource.PENDING);
+            games.put(id, game);
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    @Test
+    void tagGames_ShouldSendOnePromptPerBatch() {
+        List<Long> ids = addPendingGames(6);
+        service = newService(2, 3);
+
+        TaggingResult result = service.tagGames(ids);
+
+        assertEquals(6, result.getTotal());
+        assertEquals(6, result.getSuccessCount());
+        assertEquals(0, result.getFailedCount());
+        assertEquals(2, modelCalls.get());
+        verify(gameRepository, times(2)).saveAll(anyIterable());
+        for (Game game : games.values()) {
+            assertEquals(TaggingSource.AI_GENERATED, game.getTaggingSource());
+            assertEquals(List.of(EmotionalGoal.UNWIND), game.getEmotionalGoals());
+            assertEquals(90, game.getMaxMinutes());
+        }
+        assertTrue(result.getGamesPerMinute() > 0);
+    }
+
+    @Test
+    void tagGames_ShouldFailOnlyGamesMissingFromBatchReply() {
+        List<Long> ids = addPendingGames(4);
+        omittedFromReplies.add(3L);
+        service = newService(1, 4);
+
+        TaggingResult result = service.tagGames(ids);
+
+        assertEquals(3, result.getSuccessCount());
+        assertEquals(1, result.getFailedCount());
+        assertEquals("AI tagging returned no results", result.getFailedGames().get(3L));
+        assertEquals(TaggingSource.PENDING, games.get(3L).getTaggingSource());
+    }
+
+    @Test
+    void tagGames_ShouldNotMatchByPositionWhenAnyIdMatches() {
+        List<Long> ids = addPendingGames(2);
+        // Game 2 answered first, then an entry with an unknown id in game 2's slot
+        cannedReply = "[{\"id\":2," + ATTRIBUTES + "},{\"id\":999,"
+            + ATTRIBUTES.replace("\"maxMinutes\":90", "\"maxMinutes\":45") + "}]";
+        service = newService(1, 2);
+
+        TaggingResult result = service.tagGames(ids);
+
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(90, games.get(2L).getMaxMinutes());
+        assertEquals(TaggingSource.PENDING, games.get(1L).getTaggingSource());
+        assertEquals("AI tagging returned no results", result.getFailedGames().get(1L));
+    }
+
+    @Test
+    void tagGames_ShouldUseSingleObjectPromptForSingleGame() {
+        List<Long> ids = addPendingGames(1);
+        service = newService(2, 5);
+
+        TaggingResult result = service.tagGames(ids);
+
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(1, modelCalls.get());
+    }
+
+    @Test
+    void tagGames_ShouldTagPendingGamesWhenNoIdsGiven() {
+        List<Long> ids = addPendingGames(5);
+        when(gameRepository.findPendingTaggingIds()).thenReturn(ids);
+        service = newService(3, 2);
+
+        TaggingResult result = service.tagGames(null);
+
+        assertEquals(5, result.getSuccessCount());
+        assertEquals(3, modelCalls.get());
+        verify(gameRepository, never()).save(any());
+    }
+}
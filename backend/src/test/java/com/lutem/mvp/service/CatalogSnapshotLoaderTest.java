@@ -0,0 +1,102 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.*;
+import com.lutem.mvp.repository.GameReadModelStore;
+import com.lutem.mvp.repository.GameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a catalog snapshot exported from one database seeds another
+ * with the same games, collections and read model rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogSnapshotLoaderTest {
+
+    @Autowired
+    private CatalogSnapshotLoader loader;
+
+    @Autowired
+    private GameExportService exportService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameReadModelStore readModelStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        gameRepository.deleteAll();
+    }
+
+    private Game game(String name, long steamAppId, TaggingSource source) {
+        Game game = new Game();
+        game.setName(name);
+        game.setMinMinutes(15);
+        game.setMaxMinutes(60);
+        game.setSteamAppId(steamAppId);
+        game.setTaggingSource(source);
+        game.setEmotionalGoals(new ArrayList<>(List.of(EmotionalGoal.UNWIND)));
+        game.setBestTimeOfDay(new ArrayList<>(List.of(TimeOfDay.ANY)));
+        game.setSocialPreferences(new ArrayList<>(List.of(SocialPreference.SOLO)));
+        game.setGenres(new ArrayList<>(List.of("Puzzle")));
+        return game;
+    }
+
+    @Test
+    void exportThenLoad_ShouldRestoreTheCatalog() throws IOException {
+        gameRepository.save(game("Tagged One", 1L, TaggingSource.MANUAL));
+        gameRepository.save(game("Tagged Two", 2L, TaggingSource.AI_GENERATED));
+        gameRepository.save(game("Pending", 3L, TaggingSource.PENDING));
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        assertEquals(3, exportService.writeSnapshot(snapshot));
+        gameRepository.deleteAll();
+
+        int loaded = loader.load(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        assertEquals(3, loaded);
+        assertEquals(3, gameRepository.count());
+        assertEquals(2, readModelStore.count());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Game restored = gameRepository.findBySteamAppId(2L).orElseThrow();
+            assertEquals("Tagged Two", restored.getName());
+            assertEquals(List.of(EmotionalGoal.UNWIND), restored.getEmotionalGoals());
+            assertEquals(List.of(TimeOfDay.ANY), restored.getBestTimeOfDay());
+            assertEquals(List.of(SocialPreference.SOLO), restored.getSocialPreferences());
+            assertEquals(List.of("Puzzle"), restored.getGenres());
+        });
+    }
+
+    @Test
+    void insertAll_ShouldChunkAndAssignIds() {
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            games.add(game("Bulk " + i, 100L + i, TaggingSource.MANUAL));
+        }
+
+        assertEquals(25, loader.insertAll(games));
+
+        assertTrue(games.stream().allMatch(g -> g.getId() != null));
+        assertEquals(25, gameRepository.count());
+        assertEquals(25, readModelStore.count());
+    }
+}
@@ -0,0 +1,150 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip tests for the CatalogSnapshot binary format.
+ */
+class CatalogSnapshotTest {
+
+    private static byte[] write(List<Game> games) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CatalogSnapshot.Writer writer = CatalogSnapshot.writer(bytes)) {
+            for (Game game : games) {
+                writer.write(game);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Game> read(byte[] snapshot) throws IOException {
+        List<Game> games = new ArrayList<>();
+        try (CatalogSnapshot.Reader reader = CatalogSnapshot.reader(new ByteArrayInputStream(snapshot))) {
+            Game game;
+            while ((game = reader.next()) != null) {
+                games.add(game);
+            }
+        }
+        return games;
+    }
+
+    private static Game fullGame() {
+        Game game = new Game();
+        game.setName("Hollow Knight ✦");
+        game.setMinMinutes(30);
+        game.setMaxMinutes(120);
+        game.setEmotionalGoals(new ArrayList<>(List.of(EmotionalGoal.CHALLENGE, EmotionalGoal.ADVENTURE_TIME)));
+        game.setBestTimeOfDay(new ArrayList<>(List.of(TimeOfDay.EVENING)));
+        game.setSocialPreferences(new ArrayList<>(List.of(SocialPreference.SOLO)));
+        game.setGenres(new ArrayList<>(List.of("Metroidvania", "Action")));
+        game.setInterruptibility(Interruptibility.LOW);
+        game.setEnergyRequired(EnergyLevel.HIGH);
+        game.setAudioDependency(AudioDependency.values()[0]);
+        game.setContentRating(ContentRating.values()[0]);
+        game.setNsfwLevel(NsfwLevel.values()[0]);
+        game.setTaggingSource(TaggingSource.MANUAL);
+        game.setTaggingConfidence(0.9f);
+        game.setDescription("Descend into Hallownest.");
+        game.setImageUrl("https://example.com/hk.jpg");
+        game.setStoreUrl("https://store.steampowered.com/app/367520");
+        game.setUserRating(4.5);
+        game.setAverageSatisfaction(3.25);
+        game.setSessionCount(12);
+        game.setSteamAppId(367520L);
+        game.setRawgId(9767);
+        game.setSteamPositiveReviews(250000);
+        game.setSteamNegativeReviews(5000);
+        game.setMetacriticScore(87);
+        game.setPopularityScore(98.2);
+        game.setSteamPlaytimeForever(4321);
+        return game;
+    }
+
+    @Test
+    void roundTrip_ShouldKeepEveryField() throws IOException {
+        Game original = fullGame();
+
+        List<Game> games = read(write(List.of(original)));
+
+        assertEquals(1, games.size());
+        Game copy = games.get(0);
+        assertNull(copy.getId());
+        assertEquals(original.getName(), copy.getName());
+        assertEquals(30, copy.getMinMinutes());
+        assertEquals(120, copy.getMaxMinutes());
+        assertEquals(List.of(EmotionalGoal.CHALLENGE, EmotionalGoal.ADVENTURE_TIME), copy.getEmotionalGoals());
+        assertEquals(List.of(TimeOfDay.EVENING), copy.getBestTimeOfDay());
+        assertEquals(List.of(SocialPreference.SOLO), copy.getSocialPreferences());
+        assertEquals(List.of("Metroidvania", "Action"), copy.getGenres());
+        assertEquals(Interruptibility.LOW, copy.getInterruptibility());
+        assertEquals(EnergyLevel.HIGH, copy.getEnergyRequired());
+        assertEquals(original.getAudioDependency(), copy.getAudioDependency());
+        assertEquals(original.getContentRating(), copy.getContentRating());
+        assertEquals(original.getNsfwLevel(), copy.getNsfwLevel());
+        assertEquals(TaggingSource.MANUAL, copy.getTaggingSource());
+        assertEquals(0.9f, copy.getTaggingConfidence());
+        assertEquals(original.getDescription(), copy.getDescription());
+        assertEquals(original.getImageUrl(), copy.getImageUrl());
+        assertEquals(original.getStoreUrl(), copy.getStoreUrl());
+        assertEquals(4.5, copy.getUserRating());
+        assertEquals(3.25, copy.getAverageSatisfaction());
+        assertEquals(12, copy.getSessionCount());
+        assertEquals(367520L, copy.getSteamAppId());
+        assertEquals(9767, copy.getRawgId());
+        assertEquals(250000, copy.getSteamPositiveReviews());
+        assertEquals(5000, copy.getSteamNegativeReviews());
+        assertEquals(87, copy.getMetacriticScore());
+        assertEquals(98.2, copy.getPopularityScore());
+        assertEquals(4321, copy.getSteamPlaytimeForever());
+    }
+
+    @Test
+    void roundTrip_ShouldKeepNulls() throws IOException {
+        Game pending = new Game();
+        pending.setName("Pending Game");
+        pending.setTaggingSource(TaggingSource.PENDING);
+
+        Game copy = read(write(List.of(pending))).get(0);
+
+        assertEquals("Pending Game", copy.getName());
+        assertTrue(copy.getEmotionalGoals().isEmpty());
+        assertTrue(copy.getGenres().isEmpty());
+        assertNull(copy.getInterruptibility());
+        assertNull(copy.getDescription());
+        assertNull(copy.getSteamAppId());
+        assertNull(copy.getTaggingConfidence());
+        assertNull(copy.getPopularityScore());
+        assertEquals(TaggingSource.PENDING, copy.getTaggingSource());
+    }
+
+    @Test
+    void roundTrip_ShouldStreamManyGames() throws IOException {
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Game game = fullGame();
+            game.setName("Game " + i);
+            game.setSteamAppId((long) i);
+            games.add(game);
+        }
+
+        List<Game> copies = read(write(games));
+
+        assertEquals(5_000, copies.size());
+        assertEquals("Game 4999", copies.get(4_999).getName());
+        assertEquals(4_999L, copies.get(4_999).getSteamAppId());
+    }
+
+    @Test
+    void reader_ShouldRejectOtherData() {
+        assertThrows(IOException.class, () -> read(new byte[] {1, 2, 3, 4}));
+    }
+}
@@ -0,0 +1,142 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.RecommendationRequest;
+import com.lutem.mvp.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GameAttributeIndex.
+ * Checks the bitset filters against the plain per-game rules they replace.
+ */
+class GameAttributeIndexTest {
+
+    private List<Game> games;
+    private GameAttributeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        games = new ArrayList<>();
+        // 150 games spans three 64-bit words, including a partial last word
+        for (int i = 0; i < 150; i++) {
+            games.add(randomGame((long) i, random));
+        }
+        index = new GameAttributeIndex(games);
+    }
+
+    @Test
+    void candidates_ShouldMatchPerGameFilters() {
+        Random random = new Random(7);
+        String[] audioOptions = {null, "full", "low", "muted"};
+        for (int run = 0; run < 200; run++) {
+            RecommendationRequest request = new RecommendationRequest();
+            request.setAvailableMinutes(5 + random.nextInt(240));
+            request.setAudioAvailability(audioOptions[random.nextInt(audioOptions.length)]);
+            request.setMaxContentRating(random.nextBoolean()
+                ? ContentRating.values()[random.nextInt(ContentRating.values().length)] : null);
+            request.setAllowNsfw(random.nextBoolean() ? random.nextBoolean() : null);
+
+            long[] candidates = index.candidates(request);
+            for (int i = 0; i < games.size(); i++) {
+                assertEquals(expectedCandidate(games.get(i), request),
+                    GameAttributeIndex.get(candidates, i), "game " + i + " in run " + run);
+            }
+        }
+    }
+
+    @Test
+    void maxMinutesAtMost_ShouldSelectGamesThatFitCompletely() {
+        long[] fits = index.maxMinutesAtMost(60);
+        for (int i = 0; i < games.size(); i++) {
+            assertEquals(games.get(i).getMaxMinutes() <= 60, GameAttributeIndex.get(fits, i));
+        }
+    }
+
+    @Test
+    void wildcardBitsets_ShouldMatchGameHelpers() {
+        for (int i = 0; i < games.size(); i++) {
+            Game game = games.get(i);
+            for (TimeOfDay time : TimeOfDay.values()) {
+                assertEquals(game.isSuitableForTimeOfDay(time),
+                    GameAttributeIndex.get(index.suitableForTimeOfDay(time), i));
+            }
+            for (SocialPreference preference : SocialPreference.values()) {
+                assertEquals(game.matchesSocialPreference(preference),
+                    GameAttributeIndex.get(index.matchesSocialPreference(preference), i));
+            }
+        }
+    }
+
+    @Test
+    void nextSetBit_ShouldIterateAllCandidatesInOrder() {
+        long[] bits = new long[3];
+        int[] expected = {0, 63, 64, 127, 149};
+        for (int i : expected) {
+            GameAttributeIndex.set(bits, i);
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        for (int i = GameAttributeIndex.nextSetBit(bits, 0); i >= 0; i = GameAttributeIndex.nextSetBit(bits, i + 1)) {
+            visited.add(i);
+        }
+
+        assertEquals(Arrays.asList(0, 63, 64, 127, 149), visited);
+        assertEquals(5, GameAttributeIndex.cardinality(bits));
+    }
+
+    // Same rules GameController applied with streams before the index existed
+    private boolean expectedCandidate(Game game, RecommendationRequest request) {
+        if (game.getMinMinutes() > request.getAvailableMinutes()) {
+            return false;
+        }
+        String audio = request.getAudioAvailability();
+        if (game.getAudioDependency() != null) {
+            if ("muted".equalsIgnoreCase(audio) && game.getAudioDependency() != AudioDependency.OPTIONAL) {
+                return false;
+            }
+            if ("low".equalsIgnoreCase(audio) && game.getAudioDependency() == AudioDependency.REQUIRED) {
+                return false;
+            }
+        }
+        if (request.getMaxContentRating() != null && game.getContentRating() != null
+                && game.getContentRating().ordinal() > request.getMaxContentRating().ordinal()) {
+            return false;
+        }
+        if (Boolean.FALSE.equals(request.getAllowNsfw()) && game.getNsfwLevel() != null
+                && game.getNsfwLevel() != NsfwLevel.NONE) {
+            return false;
+        }
+        return true;
+    }
+
+    private Game randomGame(Long id, Random random) {
+        Game game = new Game();
+        game.setId(id);
+        game.setName("Game " + id);
+        int min = 5 + random.nextInt(120);
+        game.setMinMinutes(min);
+        game.setMaxMinutes(min + random.nextInt(240));
+        game.setEmotionalGoals(new ArrayList<>(List.of(pick(EmotionalGoal.values(), random))));
+        game.setInterruptibility(pick(Interruptibility.values(), random));
+        game.setEnergyRequired(pick(EnergyLevel.values(), random));
+        game.setBestTimeOfDay(new ArrayList<>(List.of(pick(TimeOfDay.values(), random))));
+        game.setSocialPreferences(new ArrayList<>(List.of(pick(SocialPreference.values(), random))));
+        // Leave nullable attributes unset on some games
+        game.setAudioDependency(random.nextInt(4) == 0 ? null : pick(AudioDependency.values(), random));
+        game.setContentRating(random.nextInt(4) == 0 ? null : pick(ContentRating.values(), random));
+        game.setNsfwLevel(random.nextInt(4) == 0 ? null : pick(NsfwLevel.values(), random));
+        return game;
+    }
+
+    private static <T> T pick(T[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,139 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.event.GameCatalogPublishedEvent;
+import com.lutem.mvp.event.SessionFeedbackEvent;
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.repository.GameReadModelStore;
+import com.lutem.mvp.repository.GameReadModelStore.Change;
+import com.lutem.mvp.repository.GameRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests GameCatalogService's refresh coalescing and feedback patching, with
+ * the read model and session service mocked.
+ */
+class GameCatalogServiceTest {
+
+    private GameReadModelStore readModelStore;
+    private GameSessionService sessionService;
+    private ApplicationEventPublisher eventPublisher;
+    private GameCatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        readModelStore = mock(GameReadModelStore.class);
+        sessionService = mock(GameSessionService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        Game game = new Game();
+        game.setId(1L);
+        game.setName("Celeste");
+        game.setChangeVersion(5L);
+        when(readModelStore.findAll()).thenReturn(List.of(game));
+        when(readModelStore.findChangesSince(anyLong(), anyInt())).thenReturn(List.of());
+        when(sessionService.getAverageSatisfactionByGame()).thenReturn(Map.of(1L, 3.0));
+        catalogService = new GameCatalogService(mock(GameRepository.class), readModelStore, sessionService,
+            eventPublisher, mock(PlatformTransactionManager.class), 30, 2000, 24);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogService.shutdown();
+    }
+
+    @Test
+    void onSessionFeedback_ShouldPatchAverage() {
+        catalogService.rebuild();
+        when(sessionService.getAverageSatisfaction(1L)).thenReturn(4.5);
+
+        catalogService.onSessionFeedback(new SessionFeedbackEvent(10L, 1L, 5, null));
+
+        assertEquals(4.5, catalogService.getCatalog().getAverageSatisfaction(1L));
+    }
+
+    @Test
+    void onSessionFeedback_ShouldSurviveConcurrentRebuild() throws Exception {
+        catalogService.rebuild();
+        when(sessionService.getAverageSatisfaction(1L)).thenReturn(4.5);
+        AtomicBoolean feedbackStarted = new AtomicBoolean();
+        Thread[] feedback = new Thread[1];
+        // The rebuild loads averages from before the feedback committed; the feedback lands meanwhile
+        when(sessionService.getAverageSatisfactionByGame()).thenAnswer(invocation -> {
+            if (feedbackStarted.compareAndSet(false, true)) {
+                feedback[0] = new Thread(() ->
+                    catalogService.onSessionFeedback(new SessionFeedbackEvent(10L, 1L, 5, null)));
+                feedback[0].start();
+                Thread.sleep(200);
+            }
+            return Map.of(1L, 3.0);
+        });
+
+        catalogService.rebuild();
+        feedback[0].join(5000);
+
+        assertEquals(4.5, catalogService.getCatalog().getAverageSatisfaction(1L));
+    }
+
+    @Test
+    void requestRefresh_ShouldCoalesceBursts() throws Exception {
+        catalogService.rebuild();
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(readModelStore.findChangesSince(anyLong(), anyInt())).thenAnswer(invocation -> {
+            refreshing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        catalogService.requestRefresh();
+        assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+        // While the first refresh runs, a burst queues exactly one more
+        for (int i = 0; i < 10; i++) {
+            catalogService.requestRefresh();
+        }
+        release.countDown();
+
+        verify(readModelStore, timeout(5000).times(2)).findChangesSince(anyLong(), anyInt());
+        verify(readModelStore, after(300).times(2)).findChangesSince(anyLong(), anyInt());
+    }
+
+    @Test
+    void applyChanges_ShouldNotRepatchUnsettledChanges() {
+        catalogService.rebuild();
+        Game added = new Game();
+        added.setId(2L);
+        added.setName("Hades");
+        added.setChangeVersion(6L);
+        // Younger than the settle window, so every poll reads it again
+        Change change = mock(Change.class);
+        when(change.getGameId()).thenReturn(2L);
+        when(change.getVersion()).thenReturn(6L);
+        when(change.getChangedAt()).thenReturn(LocalDateTime.now());
+        when(change.getGame()).thenReturn(added);
+        when(readModelStore.findChangesSince(anyLong(), anyInt())).thenReturn(List.of(change));
+
+        GameCatalog patched = catalogService.applyChanges();
+        GameCatalog polled = catalogService.applyChanges();
+        GameCatalog polledAgain = catalogService.applyChanges();
+
+        assertEquals(2, patched.size());
+        assertSame(patched, polled);
+        assertSame(patched, polledAgain);
+        verify(readModelStore, times(3)).findChangesSince(eq(0L), anyInt());
+        verify(eventPublisher, times(2)).publishEvent(any(GameCatalogPublishedEvent.class));
+    }
+}
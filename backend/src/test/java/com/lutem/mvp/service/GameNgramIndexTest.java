@@ -0,0 +1,86 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GameNgramIndex matching and ranking.
+ */
+class GameNgramIndexTest {
+
+    private static long nextId = 1;
+
+    private static Game game(String name, Double popularity, String... genres) {
+        Game game = new Game();
+        game.setId(nextId++);
+        game.setName(name);
+        game.setPopularityScore(popularity);
+        game.setGenres(new ArrayList<>(List.of(genres)));
+        return game;
+    }
+
+    private static final GameNgramIndex INDEX = new GameNgramIndex(List.of(
+        game("Hollow Knight", 90.0, "Metroidvania", "Action"),
+        game("Hades", 95.0, "Roguelike", "Action"),
+        game("Holedown", 40.0, "Puzzle"),
+        game("The Witcher 3", 97.0, "RPG"),
+        game("Pokémon Legends", null, "RPG"),
+        game("Unpacking", 60.0, "Puzzle", "Cozy")
+    ));
+
+    private static List<String> names(List<Game> games) {
+        return games.stream().map(Game::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesByPopularity() {
+        assertEquals(List.of("Hades", "Hollow Knight", "Holedown"), names(INDEX.search("h", 10, 0.5)));
+        assertEquals(List.of("Hollow Knight", "Holedown"), names(INDEX.search("hol", 10, 0.5)));
+    }
+
+    @Test
+    void search_ShouldMatchWholeNamesAndSubstrings() {
+        assertEquals(List.of("Hollow Knight"), names(INDEX.search("hollow kn", 10, 0.5)));
+        assertEquals(List.of("The Witcher 3"), names(INDEX.search("witcher", 10, 0.5)));
+    }
+
+    @Test
+    void search_ShouldTolerateTypos() {
+        assertEquals(List.of("Hollow Knight"), names(INDEX.search("hollw knigt", 10, 0.5)));
+        assertTrue(INDEX.search("hollw knigt", 10, 0.95).isEmpty());
+    }
+
+    @Test
+    void search_ShouldMatchGenresAfterNames() {
+        assertEquals(List.of("Unpacking", "Holedown"), names(INDEX.search("puzzle", 10, 0.5)));
+        assertEquals(List.of("The Witcher 3", "Pokémon Legends"), names(INDEX.search("rpg", 10, 0.5)));
+    }
+
+    @Test
+    void search_ShouldIgnoreCaseAccentsAndPunctuation() {
+        assertEquals(List.of("Pokémon Legends"), names(INDEX.search("POKEMON", 10, 0.5)));
+        assertEquals(List.of("The Witcher 3"), names(INDEX.search("witcher-3", 10, 0.5)));
+    }
+
+    @Test
+    void search_ShouldHonourLimitAndBlankQueries() {
+        assertEquals(1, INDEX.search("h", 1, 0.5).size());
+        assertTrue(INDEX.search("  ", 10, 0.5).isEmpty());
+        assertTrue(INDEX.search("zzzz", 10, 0.5).isEmpty());
+    }
+
+    @Test
+    void isFor_ShouldTrackTheSourceList() {
+        List<Game> games = List.of(game("Celeste", 80.0, "Platformer"));
+        GameNgramIndex index = new GameNgramIndex(games);
+
+        assertTrue(index.isFor(games));
+        assertFalse(index.isFor(List.copyOf(new ArrayList<>(games))));
+    }
+}
@@ -0,0 +1,230 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.*;
+import com.lutem.mvp.repository.GameReadModelStore;
+import com.lutem.mvp.repository.GameReadModelStore.Change;
+import com.lutem.mvp.repository.GameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that game_read_model follows Game writes, feeds the catalog and
+ * reports changes (including removals) by change version.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GameReadModelTest {
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameReadModelStore readModelStore;
+
+    @Autowired
+    private GameCatalogService catalogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        gameRepository.deleteAll();
+    }
+
+    private Game taggedGame(String name) {
+        return taggedGame(name, 646570L);
+    }
+
+    // steam_app_id is unique: every game saved in one test needs its own
+    private Game taggedGame(String name, long steamAppId) {
+        Game game = new Game();
+        game.setName(name);
+        game.setMinMinutes(20);
+        game.setMaxMinutes(45);
+        game.setEmotionalGoals(new ArrayList<>(List.of(EmotionalGoal.UNWIND, EmotionalGoal.PROGRESS_ORIENTED)));
+        game.setBestTimeOfDay(new ArrayList<>(List.of(TimeOfDay.EVENING)));
+        game.setSocialPreferences(new ArrayList<>(List.of(SocialPreference.SOLO, SocialPreference.COOP)));
+        game.setGenres(new ArrayList<>(List.of("Roguelike", "Deckbuilder")));
+        game.setInterruptibility(Interruptibility.HIGH);
+        game.setEnergyRequired(EnergyLevel.LOW);
+        game.setTaggingSource(TaggingSource.AI_GENERATED);
+        game.setSteamAppId(steamAppId);
+        game.setPopularityScore(97.5);
+        return game;
+    }
+
+    private Optional<Game> readModelRow(Long gameId) {
+        return readModelStore.findAll().stream().filter(g -> g.getId().equals(gameId)).findFirst();
+    }
+
+    @Test
+    void save_ShouldWriteFlatRow() {
+        Game saved = gameRepository.save(taggedGame("Slay the Spire"));
+
+        Game row = readModelRow(saved.getId()).orElseThrow();
+        assertEquals("Slay the Spire", row.getName());
+        assertEquals(List.of(EmotionalGoal.UNWIND, EmotionalGoal.PROGRESS_ORIENTED), row.getEmotionalGoals());
+        assertEquals(List.of(TimeOfDay.EVENING), row.getBestTimeOfDay());
+        assertEquals(List.of(SocialPreference.SOLO, SocialPreference.COOP), row.getSocialPreferences());
+        assertEquals(List.of("Roguelike", "Deckbuilder"), row.getGenres());
+        assertEquals(Interruptibility.HIGH, row.getInterruptibility());
+        assertEquals(646570L, row.getSteamAppId());
+        assertEquals(97.5, row.getPopularityScore());
+        assertNull(row.getMetacriticScore());
+    }
+
+    @Test
+    void update_ShouldKeepUnloadedCollections() {
+        Long id = gameRepository.save(taggedGame("Slay the Spire")).getId();
+
+        // Collections stay lazy: the row must still carry them after a scalar update
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Game game = gameRepository.findById(id).orElseThrow();
+            game.setName("Slay the Spire (Renamed)");
+        });
+
+        Game row = readModelRow(id).orElseThrow();
+        assertEquals("Slay the Spire (Renamed)", row.getName());
+        assertEquals(List.of(EmotionalGoal.UNWIND, EmotionalGoal.PROGRESS_ORIENTED), row.getEmotionalGoals());
+        assertEquals(List.of("Roguelike", "Deckbuilder"), row.getGenres());
+    }
+
+    @Test
+    void collectionOnlyUpdate_ShouldRefreshRow() {
+        Long id = gameRepository.save(taggedGame("Slay the Spire")).getId();
+        long before = readModelRow(id).orElseThrow().getChangeVersion();
+
+        // Collections changed in place and no scalar changes, so Game itself isn't dirty
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Game game = gameRepository.findById(id).orElseThrow();
+            game.getGenres().clear();
+            game.getGenres().add("Puzzle");
+            game.getEmotionalGoals().add(EmotionalGoal.CHALLENGE);
+        });
+
+        Game row = readModelRow(id).orElseThrow();
+        assertEquals(List.of("Puzzle"), row.getGenres());
+        assertEquals(3, row.getEmotionalGoals().size());
+        assertTrue(row.getEmotionalGoals().contains(EmotionalGoal.CHALLENGE));
+        assertEquals(List.of(TimeOfDay.EVENING), row.getBestTimeOfDay());
+        assertTrue(row.getChangeVersion() > before);
+    }
+
+    @Test
+    void collectionOnlyUpdate_ShouldNotOutliveRollback() {
+        Long id = gameRepository.save(taggedGame("Slay the Spire")).getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Game game = gameRepository.findById(id).orElseThrow();
+            game.getGenres().add("Puzzle");
+            gameRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of("Roguelike", "Deckbuilder"), readModelRow(id).orElseThrow().getGenres());
+    }
+
+    @Test
+    void retagToPendingAndDelete_ShouldRemoveRow() {
+        Game pending = gameRepository.save(taggedGame("Hades"));
+        Game deleted = gameRepository.save(taggedGame("Celeste", 504230L));
+
+        pending.setTaggingSource(TaggingSource.PENDING);
+        gameRepository.save(pending);
+        gameRepository.delete(deleted);
+
+        assertTrue(readModelRow(pending.getId()).isEmpty());
+        assertTrue(readModelRow(deleted.getId()).isEmpty());
+    }
+
+    @Test
+    void rebuild_ShouldLoadCatalogFromReadModel() {
+        Game saved = gameRepository.save(taggedGame("Slay the Spire"));
+        Game pending = taggedGame("Pending", 1L);
+        pending.setTaggingSource(TaggingSource.PENDING);
+        gameRepository.save(pending);
+
+        GameCatalog catalog = catalogService.rebuild();
+
+        assertEquals(1, catalog.size());
+        assertEquals(saved.getId(), catalog.getGames().get(0).getId());
+        assertTrue(catalog.getGames().get(0).hasEmotionalGoal(EmotionalGoal.UNWIND));
+    }
+
+    @Test
+    void rebuildReadModel_ShouldBackfillFromGames() {
+        Long id = gameRepository.save(taggedGame("Slay the Spire")).getId();
+        readModelStore.delete(id);
+
+        assertEquals(1, catalogService.rebuildReadModel());
+        assertEquals(List.of(TimeOfDay.EVENING), readModelRow(id).orElseThrow().getBestTimeOfDay());
+    }
+
+    @Test
+    void save_ShouldBumpChangeVersion() {
+        Game saved = gameRepository.save(taggedGame("Slay the Spire"));
+        long first = saved.getChangeVersion();
+
+        saved.setUserRating(4.5);
+        saved = gameRepository.save(saved);
+
+        assertTrue(saved.getChangeVersion() > first);
+        Long id = saved.getId();
+        Long stored = new TransactionTemplate(transactionManager).execute(status ->
+            gameRepository.findById(id).orElseThrow().getChangeVersion());
+        assertEquals(saved.getChangeVersion(), stored);
+        assertEquals(stored, readModelRow(id).orElseThrow().getChangeVersion());
+    }
+
+    @Test
+    void findChangesSince_ShouldReportUpdatesAndRemovals() {
+        Game kept = gameRepository.save(taggedGame("Slay the Spire"));
+        Game deleted = gameRepository.save(taggedGame("Celeste", 504230L));
+        long since = kept.getChangeVersion() - 1;
+
+        gameRepository.delete(deleted);
+
+        List<Change> changes = readModelStore.findChangesSince(since, 100);
+        assertEquals(2, changes.size());
+        assertEquals(kept.getId(), changes.get(0).getGameId());
+        assertEquals("Slay the Spire", changes.get(0).getGame().getName());
+        assertEquals(deleted.getId(), changes.get(1).getGameId());
+        assertTrue(changes.get(1).isRemoved());
+        assertTrue(changes.get(1).getVersion() > deleted.getChangeVersion());
+    }
+
+    @Test
+    void applyChanges_ShouldPatchCatalogWithoutFullReload() {
+        Game first = gameRepository.save(taggedGame("Slay the Spire"));
+        GameCatalog before = catalogService.rebuild();
+        assertEquals(1, before.size());
+
+        Game added = gameRepository.save(taggedGame("Hades", 1145360L));
+        first.setName("Slay the Spire 2");
+        gameRepository.save(first);
+        GameCatalog patched = catalogService.applyChanges();
+
+        assertEquals(2, patched.size());
+        assertTrue(patched.positionOf(added.getId()) >= 0);
+        assertEquals("Slay the Spire 2", patched.getGames().get(patched.positionOf(first.getId())).getName());
+        assertTrue(patched.getIndex() != before.getIndex());
+
+        gameRepository.delete(added);
+        GameCatalog afterDelete = catalogService.applyChanges();
+
+        assertEquals(1, afterDelete.size());
+        assertEquals(-1, afterDelete.positionOf(added.getId()));
+    }
+}
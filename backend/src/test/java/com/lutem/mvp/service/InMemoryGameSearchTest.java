@@ -0,0 +1,82 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.event.GameCatalogPublishedEvent;
+import com.lutem.mvp.model.Game;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InMemoryGameSearch index maintenance.
+ */
+class InMemoryGameSearchTest {
+
+    private GameCatalogService catalogService;
+    private InMemoryGameSearch search;
+
+    private static GameCatalog catalog(long version, String... names) {
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            Game game = new Game();
+            game.setId(version * 100 + i);
+            game.setName(names[i]);
+            games.add(game);
+        }
+        return new GameCatalog(version, games, Map.of());
+    }
+
+    @BeforeEach
+    void setUp() {
+        catalogService = mock(GameCatalogService.class);
+        search = new InMemoryGameSearch(catalogService, 0.5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        search.shutdown();
+    }
+
+    @Test
+    void search_ShouldIndexFirstCatalogInline() {
+        when(catalogService.getCatalog()).thenReturn(catalog(1, "Celeste"));
+
+        assertEquals("Celeste", search.search("celeste", 10).get(0).getName());
+    }
+
+    @Test
+    void onCatalogPublished_ShouldSwapIndexInBackground() throws Exception {
+        GameCatalog first = catalog(1, "Celeste");
+        when(catalogService.getCatalog()).thenReturn(first);
+        GameNgramIndex initial = search.refreshIndex();
+
+        GameCatalog second = catalog(2, "Celeste", "Hades");
+        when(catalogService.getCatalog()).thenReturn(second);
+        search.onCatalogPublished(new GameCatalogPublishedEvent(second));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (search.search("hades", 10).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("Hades", search.search("hades", 10).get(0).getName());
+        assertNotSame(initial, search.refreshIndex());
+    }
+
+    @Test
+    void search_ShouldKeepIndexWhenOnlyAveragesChange() {
+        GameCatalog catalog = catalog(1, "Celeste");
+        when(catalogService.getCatalog()).thenReturn(catalog);
+        GameNgramIndex initial = search.refreshIndex();
+
+        when(catalogService.getCatalog()).thenReturn(catalog.withAverageSatisfaction(2, 100L, 4.0));
+        search.search("celeste", 10);
+
+        assertSame(initial, search.refreshIndex());
+    }
+}
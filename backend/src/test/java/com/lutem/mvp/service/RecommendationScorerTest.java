@@ -0,0 +1,417 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.RecommendationRequest;
+import com.lutem.mvp.dto.SatisfactionStats;
+import com.lutem.mvp.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RecommendationScorer.
+ * The two-phase scorer must reproduce the single-pass scoreGame it replaced
+ * (kept verbatim below as the reference): same score per game, same ranking,
+ * same reason text for the returned games.
+ */
+class RecommendationScorerTest {
+
+    private static final String[] GENRES = {"Puzzle", "puzzle", "RPG", "Strategy", "Casual", "Roguelike", "Indie"};
+
+    // Sequential only; the parallel path has its own test below
+    private final RecommendationScorer scorer = new RecommendationScorer(Integer.MAX_VALUE, 1);
+    private GameCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = randomCatalog(300, new Random(42));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scorer.shutdown();
+    }
+
+    @Test
+    void score_ShouldMatchLegacyScoreForEveryGame() {
+        Random random = new Random(7);
+        for (int run = 0; run < 100; run++) {
+            RecommendationRequest request = randomRequest(random);
+            SatisfactionStats stats = randomStats(random);
+            RecommendationScorer.ScoringContext context = scorer.prepare(request, stats, catalog);
+
+            for (int i = 0; i < catalog.size(); i++) {
+                LegacyResult expected = scoreGame(catalog.getGames().get(i), request, stats, catalog);
+                assertEquals(expected.score, scorer.score(context, i), "game " + i + " in run " + run);
+            }
+        }
+    }
+
+    @Test
+    void rank_ShouldMatchLegacyRankingAndReasons() {
+        Random random = new Random(11);
+        for (int run = 0; run < 100; run++) {
+            RecommendationRequest request = randomRequest(random);
+            SatisfactionStats stats = randomStats(random);
+            List<Game> games = catalog.getGames();
+
+            // Legacy: score everything, drop zero scores, full sort (ties by id), take 5
+            List<Integer> expected = IntStream.range(0, games.size()).boxed()
+                .filter(i -> scoreGame(games.get(i), request, stats, catalog).score > 0)
+                .sorted(Comparator.<Integer>comparingDouble(i -> -scoreGame(games.get(i), request, stats, catalog).score)
+                    .thenComparingLong(i -> games.get(i).getId()))
+                .limit(5)
+                .collect(Collectors.toList());
+
+            RecommendationScorer.ScoringContext context = scorer.prepare(request, stats, catalog);
+            TopKRanker ranker = scorer.rank(context, catalog.getIndex().candidates(request), 5);
+            int[] ranked = ranker.rankedPositions();
+
+            assertEquals(expected, IntStream.of(ranked).boxed().collect(Collectors.toList()), "run " + run);
+            for (int position : ranked) {
+                assertEquals(scoreGame(games.get(position), request, stats, catalog).reason,
+                    scorer.explain(context, position), "reason for game " + position + " in run " + run);
+            }
+        }
+    }
+
+    @Test
+    void parallelRank_ShouldMatchSequentialRank() {
+        GameCatalog large = randomCatalog(20_000, new Random(3));
+        RecommendationScorer parallel = new RecommendationScorer(0, 4);
+        try {
+            Random random = new Random(5);
+            for (int run = 0; run < 20; run++) {
+                RecommendationRequest request = randomRequest(random);
+                SatisfactionStats stats = randomStats(random);
+                long[] candidates = large.getIndex().candidates(request);
+
+                TopKRanker expected = scorer.rank(scorer.prepare(request, stats, large), candidates, 5);
+                TopKRanker actual = parallel.rank(parallel.prepare(request, stats, large), candidates, 5);
+
+                assertArrayEquals(expected.rankedPositions(), actual.rankedPositions(), "run " + run);
+                assertArrayEquals(expected.rankedScores(), actual.rankedScores(), "run " + run);
+            }
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void rankAll_ShouldMatchRankingEachRequestSeparately() {
+        Random random = new Random(13);
+        SatisfactionStats stats = randomStats(random);
+        List<RecommendationScorer.ScoringContext> contexts = new ArrayList<>();
+        List<long[]> candidates = new ArrayList<>();
+        for (int r = 0; r < 6; r++) {
+            RecommendationRequest request = randomRequest(random);
+            contexts.add(scorer.prepare(request, stats, catalog));
+            candidates.add(catalog.getIndex().candidates(request));
+        }
+
+        List<TopKRanker> batch = scorer.rankAll(contexts, candidates, 5);
+
+        assertEquals(contexts.size(), batch.size());
+        for (int r = 0; r < contexts.size(); r++) {
+            TopKRanker single = scorer.rank(contexts.get(r), candidates.get(r), 5);
+            assertArrayEquals(single.rankedPositions(), batch.get(r).rankedPositions(), "request " + r);
+        }
+    }
+
+    private GameCatalog randomCatalog(int size, Random random) {
+        List<Game> games = new ArrayList<>();
+        Map<Long, Double> averages = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Game game = randomGame(1000L + i, random);
+            games.add(game);
+            if (random.nextBoolean()) {
+                averages.put(game.getId(), 1 + random.nextInt(9) / 2.0);
+            }
+        }
+        return new GameCatalog(1, games, averages);
+    }
+
+    private RecommendationRequest randomRequest(Random random) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setAvailableMinutes(10 + random.nextInt(180));
+        List<EmotionalGoal> goals = new ArrayList<>();
+        for (int g = 0; g < 1 + random.nextInt(3); g++) {
+            goals.add(pick(EmotionalGoal.values(), random));
+        }
+        request.setDesiredEmotionalGoals(goals);
+        request.setRequiredInterruptibility(pick(Interruptibility.values(), random));
+        request.setCurrentEnergyLevel(random.nextInt(4) == 0 ? null : pick(EnergyLevel.values(), random));
+        request.setTimeOfDay(random.nextInt(4) == 0 ? null : pick(TimeOfDay.values(), random));
+        request.setSocialPreference(random.nextInt(4) == 0 ? null : pick(SocialPreference.values(), random));
+        if (random.nextBoolean()) {
+            request.setPreferredGenres(List.of(pick(GENRES, random).toUpperCase(), pick(GENRES, random)));
+        }
+        return request;
+    }
+
+    private SatisfactionStats randomStats(Random random) {
+        if (random.nextInt(3) == 0) {
+            return null;
+        }
+        SatisfactionStats stats = new SatisfactionStats();
+        Map<Long, Double> ratingsByGame = new HashMap<>();
+        for (int r = 0; r < 40; r++) {
+            ratingsByGame.put(1000L + random.nextInt(300), 1 + random.nextInt(9) / 2.0);
+        }
+        stats.setRatingsByGame(ratingsByGame);
+        Map<String, Double> ratingsByGenre = new HashMap<>();
+        for (String genre : GENRES) {
+            ratingsByGenre.put(genre, 1 + random.nextInt(9) / 2.0);
+        }
+        stats.setRatingsByGenre(ratingsByGenre);
+        TimeOfDay best = pick(TimeOfDay.values(), random);
+        stats.setBestTimeOfDay(best.name());
+        stats.setRatingsByTimeOfDay(Map.of(best.name(), 3.0 + random.nextInt(3)));
+        return stats;
+    }
+
+    private Game randomGame(Long id, Random random) {
+        Game game = new Game();
+        game.setId(id);
+        game.setName("Game " + id);
+        int min = 5 + random.nextInt(60);
+        game.setMinMinutes(min);
+        game.setMaxMinutes(min + random.nextInt(180));
+        List<EmotionalGoal> goals = new ArrayList<>();
+        for (int g = 0; g < 1 + random.nextInt(3); g++) {
+            goals.add(pick(EmotionalGoal.values(), random));
+        }
+        game.setEmotionalGoals(goals);
+        game.setInterruptibility(pick(Interruptibility.values(), random));
+        game.setEnergyRequired(pick(EnergyLevel.values(), random));
+        game.setBestTimeOfDay(new ArrayList<>(List.of(pick(TimeOfDay.values(), random))));
+        game.setSocialPreferences(new ArrayList<>(List.of(pick(SocialPreference.values(), random))));
+        game.setGenres(new ArrayList<>(List.of(pick(GENRES, random), pick(GENRES, random))));
+        game.setSessionCount(random.nextInt(3));
+        if (random.nextBoolean()) {
+            game.setPopularityScore(random.nextDouble() * 140);
+            game.setSteamPositiveReviews(random.nextInt(1000));
+            game.setSteamNegativeReviews(random.nextInt(60));
+        }
+        return game;
+    }
+
+    private static <T> T pick(T[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // ========== Reference: GameController.scoreGame before the two-phase split ==========
+
+    private static class LegacyResult {
+        final double score;
+        final String reason;
+
+        LegacyResult(double score, String reason) {
+            this.score = score;
+            this.reason = reason;
+        }
+    }
+
+    private static LegacyResult scoreGame(Game game, RecommendationRequest request,
+            SatisfactionStats userStats, GameCatalog catalog) {
+        double score = 0.0;
+        List<String> matchReasons = new ArrayList<>();
+
+        // 1. TIME MATCH (30%)
+        if (game.getMinMinutes() > request.getAvailableMinutes()) {
+            return new LegacyResult(0.0, "Too long for available time");
+        }
+        
+        if (game.getMaxMinutes() <= request.getAvailableMinutes()) {
+            score += 30.0;
+            matchReasons.add("Fits your " + request.getAvailableMinutes() + "-minute window");
+        } else if (game.getMinMinutes() <= request.getAvailableMinutes()) {
+            score += 20.0;
+            matchReasons.add("Can start in " + request.getAvailableMinutes() + " minutes");
+        }
+
+        // 2. EMOTIONAL GOAL MATCH (25%)
+        if (request.getDesiredEmotionalGoals() != null && !request.getDesiredEmotionalGoals().isEmpty()) {
+            for (EmotionalGoal goal : request.getDesiredEmotionalGoals()) {
+                if (game.hasEmotionalGoal(goal)) {
+                    score += 25.0 / request.getDesiredEmotionalGoals().size();
+                    matchReasons.add("Great for " + goal.getDisplayName().toLowerCase());
+                }
+            }
+        }
+
+        // 3. INTERRUPTIBILITY MATCH (20%)
+        if (request.getRequiredInterruptibility() != null) {
+            if (game.getInterruptibility() == request.getRequiredInterruptibility()) {
+                score += 20.0;
+                matchReasons.add(game.getInterruptibility().getDisplayName() + " - " + getInterruptibilityDescription(game.getInterruptibility()));
+            } else if (game.getInterruptibility().ordinal() >= request.getRequiredInterruptibility().ordinal()) {
+                score += 15.0;
+                matchReasons.add("Easy to pause when needed");
+            } else {
+                score -= 3.0;
+            }
+        }
+
+        // 4. ENERGY LEVEL MATCH (15%)
+        if (request.getCurrentEnergyLevel() != null) {
+            if (game.getEnergyRequired() == request.getCurrentEnergyLevel()) {
+                score += 15.0;
+                matchReasons.add("Perfect match for your " + game.getEnergyRequired().getDisplayName().toLowerCase() + " energy level");
+            } else if (game.getEnergyRequired().ordinal() < request.getCurrentEnergyLevel().ordinal()) {
+                score += 12.0;
+                matchReasons.add("Won't drain your energy");
+            } else {
+                score -= 2.0;
+            }
+        }
+
+        // 5. TIME OF DAY MATCH (5%)
+        if (request.getTimeOfDay() != null) {
+            if (game.isSuitableForTimeOfDay(request.getTimeOfDay())) {
+                score += 5.0;
+                matchReasons.add("Ideal for " + request.getTimeOfDay().getDisplayName().toLowerCase());
+            }
+        }
+
+        // 6. SOCIAL PREFERENCE MATCH (5%)
+        if (request.getSocialPreference() != null) {
+            if (game.matchesSocialPreference(request.getSocialPreference())) {
+                score += 5.0;
+                matchReasons.add("Perfect for " + request.getSocialPreference().getDisplayName().toLowerCase() + " play");
+            } else {
+                score -= 2.0;
+            }
+        }
+
+        // 7. SATISFACTION BONUS - FIRESTORE (max 15%) 
+        // Uses personalized Firestore data if available
+        if (userStats != null && userStats.getRatingsByGame() != null) {
+            Double userRating = userStats.getRatingsByGame().get(game.getId());
+            if (userRating != null && userRating > 0) {
+                score += (userRating / 5.0) * 15.0;
+                if (userRating >= 4.0) {
+                    matchReasons.add("You rated this " + String.format("%.1f", userRating) + "/5 ⭐");
+                } else if (userRating >= 3.0) {
+                    matchReasons.add("Previously enjoyed by you");
+                }
+            }
+        } else {
+            // Fallback: database satisfaction (precomputed in the catalog snapshot)
+            double avg = catalog.getAverageSatisfaction(game.getId());
+            if (game.getSessionCount() > 0) {
+                score += (avg / 5.0) * 10.0;
+                if (avg >= 4.0) {
+                    matchReasons.add("You've loved this before (" + String.format("%.1f", avg) + "/5 ⭐)");
+                } else if (avg >= 3.5) {
+                    matchReasons.add("Previously enjoyed by you");
+                }
+            }
+        }
+
+        // 8. GENRE PREFERENCE BOOST (max 15%)
+        if (request.getPreferredGenres() != null && !request.getPreferredGenres().isEmpty()) {
+            long genreMatches = game.getGenres().stream()
+                .filter(genre -> request.getPreferredGenres().stream()
+                    .anyMatch(prefGenre -> prefGenre.equalsIgnoreCase(genre)))
+                .count();
+            
+            if (genreMatches > 0) {
+                double genreBonus = (genreMatches / (double) request.getPreferredGenres().size()) * 15.0;
+                score += genreBonus;
+                String matchedGenres = game.getGenres().stream()
+                    .filter(genre -> request.getPreferredGenres().stream()
+                        .anyMatch(prefGenre -> prefGenre.equalsIgnoreCase(genre)))
+                    .collect(Collectors.joining(", "));
+                matchReasons.add("Matches your taste: " + matchedGenres);
+            }
+        }
+        
+        // 9. GENRE SATISFACTION BOOST - FIRESTORE (max 10%)
+        // If user rates certain genres highly, boost games in those genres
+        if (userStats != null && userStats.getRatingsByGenre() != null) {
+            for (String gameGenre : game.getGenres()) {
+                Double genreRating = userStats.getRatingsByGenre().get(gameGenre);
+                if (genreRating != null && genreRating >= 4.0) {
+                    score += 5.0; // Boost for highly-rated genres
+                    if (!matchReasons.stream().anyMatch(r -> r.contains("satisfying genre"))) {
+                        matchReasons.add("Based on your history with " + gameGenre.toLowerCase() + " games");
+                    }
+                    break; // Only add this reason once
+                }
+            }
+        }
+        
+        // 10. TIME-OF-DAY SATISFACTION PATTERN (max 5%)
+        // Boost games that match patterns where user is typically satisfied
+        if (userStats != null && userStats.getBestTimeOfDay() != null && request.getTimeOfDay() != null) {
+            String currentTime = request.getTimeOfDay().name();
+            if (currentTime.equals(userStats.getBestTimeOfDay())) {
+                Double todRating = userStats.getRatingsByTimeOfDay().get(currentTime);
+                if (todRating != null && todRating >= 4.0) {
+                    score += 3.0;
+                    matchReasons.add("You're typically satisfied gaming at this time");
+                }
+            }
+        }
+        
+        // 11. POPULARITY BONUS (max 10%)
+        // Boost highly-rated community games as tiebreaker
+        // PopularityScore formula: qualityScore (0-100) + visibilityBonus (0-25)
+        // Max possible ~125, so normalize to 10% max bonus
+        if (game.getPopularityScore() != null && game.getPopularityScore() > 0) {
+            double normalizedPopularity = Math.min(game.getPopularityScore() / 125.0, 1.0);
+            double popularityBonus = normalizedPopularity * 10.0;
+            score += popularityBonus;
+            
+            // Only mention if highly rated (>90% positive)
+            if (game.getSteamPositiveReviews() != null && game.getSteamNegativeReviews() != null) {
+                int total = game.getSteamPositiveReviews() + game.getSteamNegativeReviews();
+                if (total > 100) { // Only show for games with meaningful reviews
+                    double ratio = (double) game.getSteamPositiveReviews() / total;
+                    if (ratio >= 0.95) {
+                        matchReasons.add("Overwhelmingly positive reviews");
+                    } else if (ratio >= 0.90) {
+                        matchReasons.add("Very positive community reviews");
+                    }
+                }
+            }
+        }
+
+        // Build reason summary
+        String reason;
+        if (matchReasons.isEmpty()) {
+            reason = "Available game for your time slot";
+        } else if (matchReasons.size() <= 3) {
+            reason = String.join(" • ", matchReasons);
+        } else {
+            reason = matchReasons.subList(0, 3).stream()
+                .collect(Collectors.joining(" • "));
+        }
+        
+        return new LegacyResult(Math.max(0, score), reason);
+    }
+
+    private static String getInterruptibilityDescription(Interruptibility level) {
+        switch (level) {
+            case HIGH:
+                return "Pause anytime";
+            case MEDIUM:
+                return "Can pause between rounds";
+            case LOW:
+                return "Complete sessions preferred";
+            default:
+                return "";
+        }
+    }
+}
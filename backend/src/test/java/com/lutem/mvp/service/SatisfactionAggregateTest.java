@@ -0,0 +1,101 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.SatisfactionStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SatisfactionAggregate.
+ */
+class SatisfactionAggregateTest {
+
+    private Map<String, Object> session(String status, Long gameId, String genre, Integer rating,
+                                        Integer duration, String timeOfDay, String dayOfWeek, String... tags) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("status", status);
+        data.put("gameId", gameId);
+        data.put("gameName", gameId != null ? "Game " + gameId : null);
+        data.put("gameGenre", genre);
+        data.put("rating", rating);
+        data.put("actualDuration", duration);
+        data.put("timeOfDay", timeOfDay);
+        data.put("dayOfWeek", dayOfWeek);
+        data.put("emotionalTags", List.of(tags));
+        return data;
+    }
+
+    private SatisfactionAggregate sample() {
+        SatisfactionAggregate aggregate = new SatisfactionAggregate();
+        aggregate.apply(session("COMPLETED", 1L, "Puzzle", 5, 20, "EVENING", "MONDAY", "relaxed", "focused"));
+        aggregate.apply(session("COMPLETED", 1L, "Puzzle", 4, 45, "EVENING", "TUESDAY", "relaxed"));
+        aggregate.apply(session("COMPLETED", 2L, "RPG", 4, 90, "MORNING", "MONDAY"));
+        aggregate.apply(session("COMPLETED", 3L, "RPG", null, null, null, "FRIDAY"));
+        aggregate.apply(session("SKIPPED", 2L, "RPG", null, null, null, null));
+        aggregate.apply(session("PENDING", 2L, "RPG", null, null, null, null));
+        return aggregate;
+    }
+
+    @Test
+    void toStats_ShouldMatchPerSessionAggregation() {
+        SatisfactionStats stats = sample().toStats(6);
+
+        assertEquals(6, stats.getTotalSessions());
+        assertEquals(4, stats.getCompletedSessions());
+        assertEquals(1, stats.getSkippedSessions());
+        assertEquals(155, stats.getTotalPlaytimeMinutes());
+        assertEquals(13.0 / 3, stats.getAverageRating(), 1e-9);
+        assertEquals(4.5, stats.getRatingsByGame().get(1L), 1e-9);
+        assertEquals(4.0, stats.getRatingsByGame().get(2L), 1e-9);
+        assertFalse(stats.getRatingsByGame().containsKey(3L));
+        assertEquals(4.5, stats.getRatingsByGenre().get("Puzzle"), 1e-9);
+        assertEquals(Map.of("short", 1, "medium", 1, "long", 1), stats.getSessionLengthDistribution());
+        assertEquals("EVENING", stats.getBestTimeOfDay());
+        assertEquals(Map.of("MONDAY", 2, "TUESDAY", 1, "FRIDAY", 1), stats.getSessionsByDayOfWeek());
+        assertEquals("relaxed", stats.getTopEmotionalTags().get(0));
+        assertEquals(2, stats.getTopRatedGames().size());
+        assertEquals("Game 1", stats.getTopRatedGames().get(0).getGameName());
+        assertEquals(2, stats.getTopRatedGames().get(0).getSessionCount());
+    }
+
+    @Test
+    void runningStat_ShouldTrackSumOfSquares() {
+        SatisfactionAggregate.RunningStat puzzle = sample().getGenreStat("Puzzle");
+
+        assertEquals(2, puzzle.getCount());
+        assertEquals(9.0, puzzle.getSum(), 1e-9);
+        assertEquals(41.0, puzzle.getSumOfSquares(), 1e-9);
+        assertEquals(0.25, puzzle.variance(), 1e-9);
+    }
+
+    @Test
+    void toMapFromMap_ShouldRoundTrip() {
+        SatisfactionAggregate original = sample();
+        SatisfactionAggregate restored = SatisfactionAggregate.fromMap(original.toMap());
+
+        assertNotNull(restored);
+        SatisfactionStats expected = original.toStats(6);
+        SatisfactionStats actual = restored.toStats(6);
+        assertEquals(expected.getRatingsByGame(), actual.getRatingsByGame());
+        assertEquals(expected.getRatingsByTimeOfDay(), actual.getRatingsByTimeOfDay());
+        assertEquals(expected.getEmotionalTagCounts(), actual.getEmotionalTagCounts());
+        assertEquals(expected.getSessionsByDayOfWeek(), actual.getSessionsByDayOfWeek());
+        assertEquals(original.getFinalizedSessions(), restored.getFinalizedSessions());
+
+        // Applying more sessions after a restore keeps accumulating
+        restored.apply(session("COMPLETED", 1L, "Puzzle", 1, 10, "EVENING", "MONDAY"));
+        assertEquals(3, restored.getGameStat(1L).getCount());
+    }
+
+    @Test
+    void fromMap_ShouldRejectOtherSchemaVersions() {
+        Map<String, Object> data = sample().toMap();
+        data.put("schemaVersion", SatisfactionAggregate.SCHEMA_VERSION + 1);
+
+        assertNull(SatisfactionAggregate.fromMap(data));
+    }
+}
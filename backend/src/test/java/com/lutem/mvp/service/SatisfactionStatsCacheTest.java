@@ -0,0 +1,89 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.SatisfactionStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SatisfactionStatsCache.
+ */
+class SatisfactionStatsCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SatisfactionStats load(String uid) {
+        loads.incrementAndGet();
+        SatisfactionStats stats = new SatisfactionStats();
+        stats.setTotalSessions(uid.length());
+        return stats;
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndThenHit() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SatisfactionStatsCache cache = new SatisfactionStatsCache(10, 300, registry);
+
+        SatisfactionStats first = cache.get("uid-1", this::load);
+        SatisfactionStats second = cache.get("uid-1", this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(0.5, cache.hitRatio());
+        assertEquals(0.5, registry.get("lutem.satisfaction.cache.hit.ratio").gauge().value());
+        assertEquals(1, registry.get("lutem.satisfaction.stats.load").timer().count());
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() throws Exception {
+        SatisfactionStatsCache cache = new SatisfactionStatsCache(10, 300, new SimpleMeterRegistry());
+
+        SatisfactionStats before = cache.get("uid-1", this::load);
+        cache.invalidate("uid-1");
+        SatisfactionStats after = cache.get("uid-1", this::load);
+
+        assertNotSame(before, after);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void expiredEntries_ShouldReload() throws Exception {
+        SatisfactionStatsCache cache = new SatisfactionStatsCache(10, 0, new SimpleMeterRegistry());
+
+        cache.get("uid-1", this::load);
+        cache.get("uid-1", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void maxSize_ShouldEvictLeastRecentlyUsed() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SatisfactionStatsCache cache = new SatisfactionStatsCache(2, 300, registry);
+
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.get("a", this::load); // a is now most recently used
+        cache.get("c", this::load); // evicts b
+
+        assertEquals(2, cache.size());
+        assertEquals(1, registry.get("lutem.satisfaction.cache.evictions").tag("cause", "size").counter().count());
+        cache.get("a", this::load);
+        assertEquals(3, loads.get());
+        cache.get("b", this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void getIfPresent_ShouldNotLoad() throws Exception {
+        SatisfactionStatsCache cache = new SatisfactionStatsCache(10, 300, new SimpleMeterRegistry());
+
+        assertNull(cache.getIfPresent("uid-1"));
+        SatisfactionStats loaded = cache.get("uid-1", this::load);
+        assertSame(loaded, cache.getIfPresent("uid-1"));
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,56 @@
+package com.lutem.mvp.service;
+
+import com.google.cloud.Timestamp;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the (timestamp, session ids) catch-up watermark.
+ */
+class SatisfactionWatermarkTest {
+
+    private static final Timestamp T1 = Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 0);
+    private static final Timestamp T2 = Timestamp.ofTimeSecondsAndNanos(1_700_000_060L, 0);
+
+    @Test
+    void admit_ShouldSkipSessionsAlreadyAppliedAtTheWatermark() {
+        SatisfactionWatermark watermark = new SatisfactionWatermark(T1, List.of("a"));
+
+        assertFalse(watermark.admit(T1, "a"));
+        assertEquals(T1, watermark.getTimestamp());
+    }
+
+    @Test
+    void admit_ShouldApplyLateSessionWithTheSameTimestamp() {
+        SatisfactionWatermark watermark = new SatisfactionWatermark(T1, List.of("a"));
+
+        assertTrue(watermark.admit(T1, "b"));
+        assertFalse(watermark.admit(T1, "b"));
+        assertEquals(List.of("a", "b"), watermark.getSessionIds().stream().sorted().toList());
+    }
+
+    @Test
+    void admit_ShouldAdvanceAndResetIds() {
+        SatisfactionWatermark watermark = new SatisfactionWatermark(T1, List.of("a", "b"));
+
+        assertTrue(watermark.admit(T2, "c"));
+
+        assertEquals(T2, watermark.getTimestamp());
+        assertEquals(List.of("c"), watermark.getSessionIds());
+    }
+
+    @Test
+    void admit_ShouldTrackMaxRegardlessOfOrder() {
+        SatisfactionWatermark watermark = new SatisfactionWatermark(Timestamp.MIN_VALUE, null);
+
+        assertTrue(watermark.admit(T2, "b"));
+        assertTrue(watermark.admit(T1, "a"));
+        assertTrue(watermark.admit(null, "pending"));
+
+        assertEquals(T2, watermark.getTimestamp());
+        assertEquals(List.of("b"), watermark.getSessionIds());
+    }
+}
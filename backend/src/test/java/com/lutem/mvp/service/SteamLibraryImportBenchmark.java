@@ -0,0 +1,175 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.LutemMvpApplication;
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.model.TaggingSource;
+import com.lutem.mvp.model.User;
+import com.lutem.mvp.model.UserLibrary;
+import com.lutem.mvp.repository.GameRepository;
+import com.lutem.mvp.repository.UserLibraryRepository;
+import com.lutem.mvp.repository.UserRepository;
+import com.lutem.mvp.service.SteamService.SteamGame;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times a Steam library import of 100, 1,000 and 5,000 games: the set-based
+ * SteamService.importOwnedGames against the previous per-game path (one
+ * findByUserIdAndGameId + save per game, plus findBySteamAppId for new
+ * games), both as a first
+ * import and as a resync of the same library. Half of each library is
+ * already in the catalog, the other half becomes new PENDING games.
+ *
+ * Not a unit test (surefire skips it). Runs against the in-memory H2 "test"
+ * profile by default; pass --spring.profiles.active=... to use Postgres. From backend/:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.lutem.mvp.service.SteamLibraryImportBenchmark
+ */
+public class SteamLibraryImportBenchmark {
+
+    private static final int[] SIZES = {100, 1_000, 5_000};
+    private static final int ROUNDS = 3;
+
+    private final SteamService steamService;
+    private final GameRepository gameRepository;
+    private final UserRepository userRepository;
+    private final UserLibraryRepository userLibraryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private long nextAppId = 1_000_000;
+    private int nextUser = 1;
+
+    SteamLibraryImportBenchmark(ConfigurableApplicationContext context) {
+        this.steamService = context.getBean(SteamService.class);
+        this.gameRepository = context.getBean(GameRepository.class);
+        this.userRepository = context.getBean(UserRepository.class);
+        this.userLibraryRepository = context.getBean(UserLibraryRepository.class);
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    public static void main(String[] args) {
+        List<String> springArgs = new ArrayList<>(List.of(args));
+        if (springArgs.stream().noneMatch(a -> a.startsWith("--spring.profiles.active"))) {
+            springArgs.add("--spring.profiles.active=test");
+        }
+        springArgs.add("--logging.level.com.lutem=WARN");
+
+        try (ConfigurableApplicationContext context =
+                 SpringApplication.run(LutemMvpApplication.class, springArgs.toArray(new String[0]))) {
+            new SteamLibraryImportBenchmark(context).run();
+        }
+    }
+
+    void run() {
+        // Warm up JIT, connection pool and statement caches
+        measure(500, true);
+        measure(500, false);
+
+        System.out.printf("%n%-8s %-10s %14s %14s%n", "games", "path", "import (ms)", "resync (ms)");
+        for (int size : SIZES) {
+            for (boolean setBased : new boolean[] {false, true}) {
+                long importMs = 0;
+                long resyncMs = 0;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long[] times = measure(size, setBased);
+                    importMs += times[0];
+                    resyncMs += times[1];
+                }
+                System.out.printf("%-8d %-10s %14d %14d%n", size, setBased ? "set-based" : "per-game",
+                    importMs / ROUNDS, resyncMs / ROUNDS);
+            }
+        }
+    }
+
+    // Returns {first import ms, resync ms} for a fresh user and library
+    private long[] measure(int size, boolean setBased) {
+        User user = userRepository.save(new User("bench-" + nextUser, "bench-" + nextUser + "@example.com", "Bench"));
+        nextUser++;
+        List<SteamGame> owned = library(size);
+
+        long start = System.nanoTime();
+        importLibrary(user, owned, setBased);
+        long importMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (SteamGame game : owned) {
+            game.setPlaytimeForever(game.getPlaytimeForever() + 30);
+        }
+        start = System.nanoTime();
+        importLibrary(user, owned, setBased);
+        long resyncMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new long[] {importMs, resyncMs};
+    }
+
+    private List<SteamGame> library(int size) {
+        List<Game> curated = new ArrayList<>();
+        List<SteamGame> owned = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long appId = nextAppId++;
+            SteamGame game = new SteamGame();
+            game.setAppId(appId);
+            game.setName("Bench Game " + appId);
+            game.setPlaytimeForever(i * 7);
+            game.setPlaytime2Weeks(i % 5 == 0 ? i : null);
+            owned.add(game);
+            if (i % 2 == 0) {
+                Game existing = new Game();
+                existing.setName(game.getName());
+                existing.setSteamAppId(appId);
+                existing.setMinMinutes(15);
+                existing.setMaxMinutes(60);
+                curated.add(existing);
+            }
+        }
+        gameRepository.saveAll(curated);
+        return owned;
+    }
+
+    private void importLibrary(User user, List<SteamGame> owned, boolean setBased) {
+        if (setBased) {
+            steamService.importOwnedGames("bench", user.getId(), owned);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> perGameImport(user, owned));
+        }
+    }
+
+    // The import loop SteamService used before it went set-based
+    private void perGameImport(User user, List<SteamGame> owned) {
+        Map<Long, Game> catalog = new HashMap<>();
+        List<Long> appIds = owned.stream().map(SteamGame::getAppId).collect(Collectors.toList());
+        gameRepository.findBySteamAppIdIn(appIds).forEach(g -> catalog.put(g.getSteamAppId(), g));
+
+        for (SteamGame steamGame : owned) {
+            Game game = catalog.get(steamGame.getAppId());
+            if (game == null) {
+                game = gameRepository.findBySteamAppId(steamGame.getAppId()).orElse(null);
+            }
+            if (game == null) {
+                game = new Game();
+                game.setName(steamGame.getName());
+                game.setSteamAppId(steamGame.getAppId());
+                game.setTaggingSource(TaggingSource.PENDING);
+                game.setSteamPlaytimeForever(steamGame.getPlaytimeForever());
+                game = gameRepository.save(game);
+            }
+
+            Optional<UserLibrary> entry = userLibraryRepository.findByUserIdAndGameId(user.getId(), game.getId());
+            if (entry.isEmpty()) {
+                userLibraryRepository.save(new UserLibrary(user, game, steamGame.getAppId(),
+                    steamGame.getPlaytimeForever(), steamGame.getPlaytime2Weeks()));
+            } else {
+                entry.get().setSteamPlaytimeForever(steamGame.getPlaytimeForever());
+                entry.get().setSteamPlaytime2Weeks(steamGame.getPlaytime2Weeks());
+                userLibraryRepository.save(entry.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.lutem.mvp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lutem.mvp.service.SteamService.SteamGame;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares SteamOwnedGamesParser with the previous "read body as String,
+ * readTree, map JsonNodes" parsing of GetOwnedGames, on a generated
+ * 10,000-game response shaped like Steam's. The GC profiler reports
+ * gc.alloc.rate.norm (bytes allocated per parse) next to the timings.
+ *
+ * Not a unit test (surefire skips it). Run from backend/ after test-compile:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.lutem.mvp.service.SteamOwnedGamesParserBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SteamOwnedGamesParserBenchmark {
+
+    @Param({"10000"})
+    private int games;
+
+    private byte[] body;
+    private ObjectMapper objectMapper;
+    private SteamOwnedGamesParser parser;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        parser = new SteamOwnedGamesParser(objectMapper.getFactory());
+        body = fixture(games);
+    }
+
+    // GetOwnedGames with include_appinfo=true, including the fields we ignore
+    static byte[] fixture(int games) {
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder(games * 260);
+        json.append("{\"response\":{\"game_count\":").append(games).append(",\"games\":[");
+        for (int i = 0; i < games; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            long appId = 10 + i * 10L;
+            json.append("{\"appid\":").append(appId)
+                .append(",\"name\":\"Fixture Game ").append(appId).append(" - Definitive Edition\"")
+                .append(",\"playtime_forever\":").append(random.nextInt(50_000));
+            if (i % 7 == 0) {
+                json.append(",\"playtime_2weeks\":").append(random.nextInt(600));
+            }
+            json.append(",\"img_icon_url\":\"").append(Long.toHexString(random.nextLong()))
+                .append(Long.toHexString(random.nextLong())).append('"')
+                .append(",\"has_community_visible_stats\":true")
+                .append(",\"playtime_windows_forever\":").append(random.nextInt(50_000))
+                .append(",\"playtime_mac_forever\":0,\"playtime_linux_forever\":0")
+                .append(",\"rtime_last_played\":").append(1_700_000_000 + random.nextInt(30_000_000))
+                .append(",\"content_descriptorids\":[2,5]")
+                .append(",\"playtime_disconnected\":0}");
+        }
+        json.append("]}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void tree(Blackhole blackhole) throws IOException {
+        // What RestTemplate.getForObject(url, String.class) + readTree did
+        String response = new String(body, StandardCharsets.UTF_8);
+        JsonNode gamesNode = objectMapper.readTree(response).path("response").path("games");
+        List<SteamGame> result = new ArrayList<>();
+        for (JsonNode gameNode : gamesNode) {
+            SteamGame game = new SteamGame();
+            game.setAppId(gameNode.path("appid").asLong());
+            game.setName(gameNode.path("name").asText());
+            game.setPlaytimeForever(gameNode.path("playtime_forever").asInt(0));
+            game.setPlaytime2Weeks(gameNode.has("playtime_2weeks") ?
+                gameNode.path("playtime_2weeks").asInt() : null);
+            String iconHash = gameNode.path("img_icon_url").asText();
+            if (!iconHash.isEmpty()) {
+                game.setIconUrl(String.format(
+                    "https://media.steampowered.com/steamcommunity/public/images/apps/%d/%s.jpg",
+                    game.getAppId(), iconHash
+                ));
+            }
+            result.add(game);
+        }
+        blackhole.consume(result);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws IOException {
+        List<SteamGame> result = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(body), result::add);
+        blackhole.consume(result);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(SteamOwnedGamesParserBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.lutem.mvp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.lutem.mvp.service.SteamService.SteamGame;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests SteamOwnedGamesParser against hand-written GetOwnedGames bodies.
+ */
+class SteamOwnedGamesParserTest {
+
+    private final SteamOwnedGamesParser parser = new SteamOwnedGamesParser(new JsonFactory());
+
+    private List<SteamGame> parse(String json) throws IOException {
+        List<SteamGame> games = new ArrayList<>();
+        int emitted = parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), games::add);
+        assertEquals(games.size(), emitted);
+        return games;
+    }
+
+    @Test
+    void parse_ShouldMapOwnedGames() throws IOException {
+        List<SteamGame> games = parse("{\"response\":{\"game_count\":2,\"games\":["
+            + "{\"appid\":570,\"name\":\"Dota 2\",\"playtime_forever\":1234,\"playtime_2weeks\":56,"
+            + "\"img_icon_url\":\"abc\",\"has_community_visible_stats\":true},"
+            + "{\"appid\":620,\"name\":\"Portal 2\",\"playtime_forever\":0,\"img_icon_url\":\"\"}"
+            + "]}}");
+
+        assertEquals(2, games.size());
+        SteamGame dota = games.get(0);
+        assertEquals(570L, dota.getAppId());
+        assertEquals("Dota 2", dota.getName());
+        assertEquals(1234, dota.getPlaytimeForever());
+        assertEquals(56, dota.getPlaytime2Weeks());
+        assertEquals("https://media.steampowered.com/steamcommunity/public/images/apps/570/abc.jpg", dota.getIconUrl());
+
+        SteamGame portal = games.get(1);
+        assertEquals(620L, portal.getAppId());
+        assertNull(portal.getPlaytime2Weeks());
+        assertNull(portal.getIconUrl());
+    }
+
+    @Test
+    void parse_ShouldSkipUnknownNestedFields() throws IOException {
+        List<SteamGame> games = parse("{\"meta\":{\"games\":[{\"appid\":1}]},\"response\":{"
+            + "\"extra\":[1,[2,3],{\"games\":[]}],\"games\":[{\"appid\":10,"
+            + "\"content_descriptorids\":[1,5],\"stats\":{\"name\":\"nested\"},\"name\":\"Ten\"}]}}");
+
+        assertEquals(1, games.size());
+        assertEquals(10L, games.get(0).getAppId());
+        assertEquals("Ten", games.get(0).getName());
+        assertEquals(0, games.get(0).getPlaytimeForever());
+    }
+
+    @Test
+    void parse_ShouldEmitNothingForPrivateProfile() throws IOException {
+        assertTrue(parse("{\"response\":{}}").isEmpty());
+        assertTrue(parse("").isEmpty());
+    }
+}
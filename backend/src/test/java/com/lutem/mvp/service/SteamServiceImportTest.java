@@ -0,0 +1,192 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.SteamImportResponse;
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.model.TaggingSource;
+import com.lutem.mvp.model.User;
+import com.lutem.mvp.model.UserLibrary;
+import com.lutem.mvp.model.SteamSyncState;
+import com.lutem.mvp.repository.GameRepository;
+import com.lutem.mvp.repository.SteamSyncStateRepository;
+import com.lutem.mvp.repository.UserLibraryRepository;
+import com.lutem.mvp.repository.UserRepository;
+import com.lutem.mvp.service.SteamService.SteamGame;
+import com.lutem.mvp.service.SteamService.SyncResult;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests SteamService's set-based library import and incremental resync
+ * against the H2 test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class SteamServiceImportTest {
+
+    @Autowired
+    private SteamService steamService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserLibraryRepository userLibraryRepository;
+
+    @Autowired
+    private SteamSyncStateRepository syncStateRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userLibraryRepository.deleteAll();
+        syncStateRepository.deleteAll();
+        gameRepository.deleteAll();
+        user = userRepository.save(new User("google-uid-import", "import@example.com", "Importer"));
+
+        for (long appId : new long[] {10L, 20L}) {
+            Game game = new Game();
+            game.setName("Curated " + appId);
+            game.setSteamAppId(appId);
+            game.setMinMinutes(15);
+            game.setMaxMinutes(60);
+            game.setTaggingSource(TaggingSource.MANUAL);
+            gameRepository.save(game);
+        }
+    }
+
+    private static SteamGame steamGame(long appId, int playtime) {
+        SteamGame game = new SteamGame();
+        game.setAppId(appId);
+        game.setName("Steam " + appId);
+        game.setPlaytimeForever(playtime);
+        game.setPlaytime2Weeks(playtime / 10);
+        return game;
+    }
+
+    private Map<Long, UserLibrary> libraryByAppId() {
+        // Rows are written with JDBC; don't serve stale entities from the persistence context.
+        // Flush first so pending JPA writes (the SteamSyncState row) aren't thrown away.
+        entityManager.flush();
+        entityManager.clear();
+        return userLibraryRepository.findByUserId(user.getId()).stream()
+            .collect(Collectors.toMap(UserLibrary::getSteamAppId, entry -> entry));
+    }
+
+    @Test
+    void importOwnedGames_ShouldCreatePendingGamesAndLibraryRows() {
+        List<SteamGame> owned = List.of(steamGame(10, 100), steamGame(20, 200), steamGame(30, 300), steamGame(40, 400));
+
+        SteamImportResponse response = steamService.importOwnedGames("76561198000000000", user.getId(), owned);
+
+        assertEquals(4, response.getStats().getTotal());
+        assertEquals(4, response.getStats().getMatched());
+        assertEquals(2, response.getStats().getUnmatched());
+        assertEquals(2, response.getStats().getNewlyCreated());
+        assertEquals(0, response.getStats().getAlreadyInLibrary());
+        // Unmatched sorted by playtime, most played first
+        assertEquals(40L, response.getUnmatched().get(0).getSteamAppId());
+
+        Game created = gameRepository.findBySteamAppId(30L).orElseThrow();
+        assertEquals("Steam 30", created.getName());
+        assertEquals(TaggingSource.PENDING, created.getTaggingSource());
+        assertEquals("https://cdn.cloudflare.steamstatic.com/steam/apps/30/header.jpg", created.getImageUrl());
+
+        Map<Long, UserLibrary> library = libraryByAppId();
+        assertEquals(4, library.size());
+        assertEquals(300, library.get(30L).getSteamPlaytimeForever());
+        assertEquals(30, library.get(30L).getSteamPlaytime2Weeks());
+        assertNotNull(library.get(10L).getLastSyncedAt());
+    }
+
+    @Test
+    void importOwnedGames_ShouldUpdatePlaytimeOnResync() {
+        steamService.importOwnedGames("76561198000000000", user.getId(), List.of(steamGame(10, 100), steamGame(30, 300)));
+
+        SteamImportResponse response = steamService.importOwnedGames("76561198000000000", user.getId(),
+            List.of(steamGame(10, 150), steamGame(30, 350), steamGame(50, 500)));
+
+        assertEquals(2, response.getStats().getAlreadyInLibrary());
+        assertEquals(1, response.getStats().getNewlyCreated());
+        Map<Long, UserLibrary> library = libraryByAppId();
+        assertEquals(3, library.size());
+        assertEquals(150, library.get(10L).getSteamPlaytimeForever());
+        assertEquals(350, library.get(30L).getSteamPlaytimeForever());
+        assertEquals(1, gameRepository.findBySteamAppIdIn(List.of(30L)).size());
+    }
+
+    @Test
+    void importOwnedGames_ShouldIgnoreDuplicateAppIds() {
+        List<SteamGame> owned = new ArrayList<>(List.of(steamGame(60, 10), steamGame(60, 20), steamGame(10, 5)));
+
+        SteamImportResponse response = steamService.importOwnedGames("76561198000000000", user.getId(), owned);
+
+        assertEquals(1, response.getStats().getNewlyCreated());
+        assertEquals(2, response.getMatched().size());
+        assertEquals(2, libraryByAppId().size());
+        assertEquals(10, libraryByAppId().get(60L).getSteamPlaytimeForever());
+    }
+
+    @Test
+    void importOwnedGames_ShouldRecordSyncState() {
+        steamService.importOwnedGames("76561198000000000", user.getId(), List.of(steamGame(10, 100), steamGame(30, 300)));
+
+        SteamSyncState state = syncStateRepository.findById(user.getId()).orElseThrow();
+        assertEquals("76561198000000000", state.getSteamId());
+        assertEquals(2, state.getGameCount());
+        assertEquals(SteamService.libraryHash(List.of(steamGame(30, 300), steamGame(10, 100))), state.getPayloadHash());
+        assertNotNull(state.getLastCheckedAt());
+    }
+
+    @Test
+    void resyncOwnedGames_ShouldSkipUnchangedLibrary() {
+        steamService.importOwnedGames("76561198000000000", user.getId(), List.of(steamGame(10, 100), steamGame(30, 300)));
+        LocalDateTime syncedAt = libraryByAppId().get(10L).getLastSyncedAt();
+
+        SyncResult result = steamService.resyncOwnedGames(user.getId(), "76561198000000000",
+            List.of(steamGame(30, 300), steamGame(10, 100)));
+
+        assertTrue(result.isUnchanged());
+        assertEquals(syncedAt, libraryByAppId().get(10L).getLastSyncedAt());
+    }
+
+    @Test
+    void resyncOwnedGames_ShouldWriteOnlyChangedRows() {
+        steamService.importOwnedGames("76561198000000000", user.getId(),
+            List.of(steamGame(10, 100), steamGame(20, 200), steamGame(30, 300)));
+        LocalDateTime syncedAt = libraryByAppId().get(20L).getLastSyncedAt();
+
+        SyncResult result = steamService.resyncOwnedGames(user.getId(), "76561198000000000",
+            List.of(steamGame(10, 150), steamGame(20, 200), steamGame(30, 300), steamGame(50, 500)));
+
+        assertFalse(result.isUnchanged());
+        assertEquals(1, result.getUpdatedRows());
+        assertEquals(1, result.getAddedRows());
+        assertEquals(1, result.getNewGames());
+        Map<Long, UserLibrary> library = libraryByAppId();
+        assertEquals(4, library.size());
+        assertEquals(150, library.get(10L).getSteamPlaytimeForever());
+        assertEquals(syncedAt, library.get(20L).getLastSyncedAt());
+        assertEquals(4, syncStateRepository.findById(user.getId()).orElseThrow().getGameCount());
+    }
+}
@@ -0,0 +1,117 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.SteamStoreCacheEntry;
+import com.lutem.mvp.repository.SteamStoreCacheRepository;
+import com.lutem.mvp.service.SteamStoreService.SteamAppDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SteamStoreDetailsCache (persistent tier mocked).
+ */
+class SteamStoreDetailsCacheTest {
+
+    private static SteamAppDetails details(long appId, boolean withReviews) {
+        SteamAppDetails details = new SteamAppDetails();
+        details.setSteamAppId(appId);
+        details.setName("Game " + appId);
+        details.setType("game");
+        details.setGenres(List.of("RPG"));
+        if (withReviews) {
+            details.setTotalPositiveReviews(90);
+            details.setTotalNegativeReviews(10);
+        }
+        return details;
+    }
+
+    @Test
+    void get_ShouldReadPersistedEntryAfterRestart() {
+        SteamStoreCacheRepository repository = mock(SteamStoreCacheRepository.class);
+        SteamStoreDetailsCache before = new SteamStoreDetailsCache(10, Duration.ofHours(1), Duration.ofHours(1),
+            repository, new SimpleMeterRegistry());
+        before.put(42L, details(42L, true));
+
+        ArgumentCaptor<SteamStoreCacheEntry> saved = ArgumentCaptor.forClass(SteamStoreCacheEntry.class);
+        verify(repository).save(saved.capture());
+        when(repository.findById(42L)).thenReturn(Optional.of(saved.getValue()));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SteamStoreDetailsCache after = new SteamStoreDetailsCache(10, Duration.ofHours(1), Duration.ofHours(1),
+            repository, registry);
+        SteamStoreDetailsCache.Lookup lookup = after.get(42L);
+
+        assertNotNull(lookup);
+        assertFalse(lookup.isStale());
+        assertEquals("Game 42", lookup.getDetails().getName());
+        assertEquals(List.of("RPG"), lookup.getDetails().getGenres());
+        assertEquals(90, lookup.getDetails().getTotalPositiveReviews());
+        assertEquals(1.0, registry.get("lutem.steam-store.cache.requests")
+            .tag("tier", "database").tag("result", "hit").counter().count());
+
+        // Second read is served from memory
+        after.get(42L);
+        verify(repository, times(1)).findById(42L);
+    }
+
+    @Test
+    void get_ShouldFlagExpiredEntriesAsStale() {
+        SteamStoreDetailsCache cache = new SteamStoreDetailsCache(10, Duration.ZERO, Duration.ZERO,
+            null, new SimpleMeterRegistry());
+        cache.put(1L, details(1L, true));
+
+        SteamStoreDetailsCache.Lookup lookup = cache.get(1L);
+
+        assertNotNull(lookup);
+        assertTrue(lookup.isStale());
+    }
+
+    @Test
+    void ttlFor_ShouldUseShortTtlForUnsettledGames() {
+        SteamStoreDetailsCache cache = new SteamStoreDetailsCache(10, Duration.ofDays(7), Duration.ofDays(1),
+            null, new SimpleMeterRegistry());
+        SteamAppDetails comingSoon = details(2L, true);
+        comingSoon.setComingSoon(true);
+
+        assertEquals(Duration.ofDays(7), cache.ttlFor(details(1L, true)));
+        assertEquals(Duration.ofDays(1), cache.ttlFor(details(3L, false)));
+        assertEquals(Duration.ofDays(1), cache.ttlFor(comingSoon));
+    }
+
+    @Test
+    void put_ShouldEvictLeastRecentlyUsedFromMemory() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SteamStoreDetailsCache cache = new SteamStoreDetailsCache(2, Duration.ofHours(1), Duration.ofHours(1),
+            null, registry);
+
+        cache.put(1L, details(1L, true));
+        cache.put(2L, details(2L, true));
+        cache.get(1L);
+        cache.put(3L, details(3L, true));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals(1.0, registry.get("lutem.steam-store.cache.evictions").counter().count());
+    }
+
+    @Test
+    void put_ShouldKeepMemoryEntryWhenPersistFails() {
+        SteamStoreCacheRepository repository = mock(SteamStoreCacheRepository.class);
+        when(repository.save(any())).thenThrow(new RuntimeException("db down"));
+        SteamStoreDetailsCache cache = new SteamStoreDetailsCache(10, Duration.ofHours(1), Duration.ofHours(1),
+            repository, new SimpleMeterRegistry());
+
+        cache.put(5L, details(5L, true));
+
+        assertNotNull(cache.get(5L));
+    }
+}
@@ -0,0 +1,200 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.config.OutboundHttpClient;
+import com.lutem.mvp.service.SteamStoreService.SteamAppDetails;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests SteamStoreService's enrichment pipeline against a local stub of the
+ * Steam Store appdetails and appreviews endpoints.
+ */
+class SteamStoreServiceTest {
+
+    private static final long STUB_LATENCY_MS = 100;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private SteamStoreService service;
+    private String baseUrl;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile boolean failing;
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/appdetails", exchange -> {
+            String appId = exchange.getRequestURI().getQuery().replace("appids=", "");
+            respond(exchange, "{\"" + appId + "\":{\"success\":" + !appId.equals("404")
+                + ",\"data\":{\"name\":\"Game " + appId + "\",\"type\":\"game\","
+                + "\"genres\":[{\"description\":\"RPG\"}],\"categories\":[{\"description\":\"Single-player\"}]}}}");
+        });
+        server.createContext("/appreviews", exchange ->
+            respond(exchange, "{\"success\":1,\"query_summary\":{\"total_positive\":90,\"total_negative\":10}}"));
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStub() {
+        if (service != null) {
+            service.shutdown();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private SteamStoreService newService(double requestsPerSecond, int burst, int maxInFlight) {
+        return newService(requestsPerSecond, burst, maxInFlight, 168);
+    }
+
+    private SteamStoreService newService(double requestsPerSecond, int burst, int maxInFlight, long ttlHours) {
+        return new SteamStoreService(baseUrl, requestsPerSecond, burst, maxInFlight, false,
+            100, ttlHours, ttlHours, 30, null, new OutboundHttpClient(5000, 10000, registry), registry);
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        requests.incrementAndGet();
+        if (failing) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        int now = concurrent.incrementAndGet();
+        maxConcurrent.accumulateAndGet(now, Math::max);
+        try {
+            Thread.sleep(STUB_LATENCY_MS);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            concurrent.decrementAndGet();
+        }
+    }
+
+    @Test
+    void getAppDetails_ShouldMergeDetailsAndReviews() {
+        service = newService(1000, 10, 4);
+
+        SteamAppDetails details = service.getAppDetails(42L);
+
+        assertNotNull(details);
+        assertEquals("Game 42", details.getName());
+        assertEquals(List.of("RPG"), details.getGenres());
+        assertEquals(90, details.getTotalPositiveReviews());
+        assertEquals(10, details.getTotalNegativeReviews());
+        assertNotNull(details.getPopularityScore());
+        // appdetails and appreviews were in flight together
+        assertEquals(2, maxConcurrent.get());
+    }
+
+    @Test
+    void getAppDetails_ShouldReturnNullForUnknownAppAndNotCacheIt() {
+        service = newService(1000, 10, 4);
+
+        assertNull(service.getAppDetails(404L));
+        assertEquals(0.0, registry.get("lutem.steam-store.cache.size").gauge().value());
+    }
+
+    @Test
+    void getAppDetails_ShouldServeRepeatsFromCache() {
+        service = newService(1000, 10, 4);
+
+        SteamAppDetails first = service.getAppDetails(7L);
+        SteamAppDetails second = service.getAppDetails(7L);
+
+        assertSame(first, second);
+        assertEquals(2, requests.get());
+        assertEquals(1.0, registry.get("lutem.steam-store.cache.requests")
+            .tag("tier", "memory").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void getAppDetails_ShouldRefreshExpiredEntries() {
+        service = newService(1000, 10, 4, 0);
+
+        SteamAppDetails first = service.getAppDetails(7L);
+        SteamAppDetails second = service.getAppDetails(7L);
+
+        assertNotSame(first, second);
+        assertEquals(4, requests.get());
+        assertEquals(1.0, registry.get("lutem.steam-store.cache.refreshes").tag("result", "updated").counter().count());
+    }
+
+    @Test
+    void getAppDetails_ShouldKeepStaleEntryWhenRefreshFails() {
+        service = newService(1000, 10, 4, 0);
+
+        SteamAppDetails first = service.getAppDetails(7L);
+        failing = true;
+        SteamAppDetails second = service.getAppDetails(7L);
+
+        assertSame(first, second);
+        assertEquals(1.0, registry.get("lutem.steam-store.cache.refreshes").tag("result", "kept-stale").counter().count());
+    }
+
+    @Test
+    void getAppDetailsAsync_ShouldBoundRequestsInFlight() {
+        service = newService(1000, 100, 4);
+        long start = System.nanoTime();
+
+        List<CompletableFuture<SteamAppDetails>> futures = new ArrayList<>();
+        for (long appId = 1; appId <= 20; appId++) {
+            futures.add(service.getAppDetailsAsync(appId));
+        }
+        futures.forEach(f -> assertNotNull(f.join()));
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(40, requests.get());
+        // 4 apps x 2 requests at a time, never more
+        assertTrue(maxConcurrent.get() <= 8, "max concurrent " + maxConcurrent.get());
+        assertTrue(maxConcurrent.get() > 2, "max concurrent " + maxConcurrent.get());
+        // Sequential fetching would take 40 x 100ms
+        assertTrue(elapsedMs < 40 * STUB_LATENCY_MS / 2, "took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void getAppDetailsAsync_ShouldRespectRateLimit() {
+        // 20 requests/s, no burst: 10 apps = 20 requests take at least ~950ms
+        service = newService(20, 1, 8);
+        long start = System.nanoTime();
+
+        List<CompletableFuture<SteamAppDetails>> futures = new ArrayList<>();
+        for (long appId = 1; appId <= 10; appId++) {
+            futures.add(service.getAppDetailsAsync(appId));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs >= 900, "took " + elapsedMs + "ms");
+    }
+}
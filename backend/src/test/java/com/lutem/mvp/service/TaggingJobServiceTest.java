@@ -0,0 +1,229 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.model.Game;
+import com.lutem.mvp.model.TaggingJob;
+import com.lutem.mvp.model.TaggingJobItem;
+import com.lutem.mvp.model.TaggingJobItemStatus;
+import com.lutem.mvp.model.TaggingJobStatus;
+import com.lutem.mvp.repository.GameRepository;
+import com.lutem.mvp.repository.TaggingJobItemRepository;
+import com.lutem.mvp.repository.TaggingJobRepository;
+import com.lutem.mvp.service.AITaggingService.TaggingResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests TaggingJobService's claim/retry/resume cycle against the H2 test
+ * database, with AITaggingService mocked.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaggingJobServiceTest {
+
+    @Autowired
+    private TaggingJobRepository jobRepository;
+
+    @Autowired
+    private TaggingJobItemRepository itemRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final String INSTANCE_ID = "instance-a";
+
+    private final Set<Long> failingGames = ConcurrentHashMap.newKeySet();
+    private final Set<Long> missingGames = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger tagCalls = new AtomicInteger();
+
+    private AITaggingService aiTaggingService;
+    private TaggingJobService service;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        jobRepository.deleteAll();
+
+        aiTaggingService = mock(AITaggingService.class);
+        when(aiTaggingService.isConfigured()).thenReturn(true);
+        when(aiTaggingService.tagGames(anyList())).thenAnswer(invocation -> {
+            tagCalls.incrementAndGet();
+            List<Long> ids = invocation.getArgument(0);
+            TaggingResult result = new TaggingResult();
+            for (Long id : ids) {
+                if (missingGames.contains(id)) {
+                    continue;
+                }
+                result.setTotal(result.getTotal() + 1);
+                if (failingGames.contains(id)) {
+                    result.incrementFailed();
+                    result.addFailedGame(id, "Claude returned garbage");
+                } else {
+                    Game game = new Game();
+                    game.setId(id);
+                    game.setName("Game " + id);
+                    result.incrementSuccess();
+                    result.addTaggedGame(game);
+                }
+            }
+            return result;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private TaggingJobService newService(int chunkSize, int maxAttempts, long backoffSeconds) {
+        return new TaggingJobService(jobRepository, itemRepository, gameRepository, aiTaggingService,
+            eventPublisher, transactionManager, chunkSize, maxAttempts, backoffSeconds, 15, INSTANCE_ID,
+            new SimpleMeterRegistry());
+    }
+
+    private TaggingJob awaitJob(Long jobId, TaggingJobStatus expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            TaggingJob job = jobRepository.findById(jobId).orElseThrow();
+            if (job.getStatus() == expected) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        fail("Job " + jobId + " did not reach " + expected);
+        return null;
+    }
+
+    @Test
+    void enqueue_ShouldTagAllGamesInChunks() throws InterruptedException {
+        service = newService(2, 3, 0);
+
+        TaggingJob queued = service.enqueue(List.of(1L, 2L, 3L, 4L, 5L, 3L), "admin", 7L);
+
+        assertEquals(5, queued.getTotal());
+        assertEquals(7L, queued.getCreatedByUserId());
+        TaggingJob done = awaitJob(queued.getId(), TaggingJobStatus.COMPLETED);
+        assertEquals(5, done.getSucceeded());
+        assertEquals(0, done.getFailed());
+        assertNotNull(done.getStartedAt());
+        assertNotNull(done.getFinishedAt());
+        assertEquals(3, tagCalls.get());
+    }
+
+    @Test
+    void enqueue_ShouldRetryFailuresUntilMaxAttempts() throws InterruptedException {
+        failingGames.add(2L);
+        missingGames.add(3L);
+        service = newService(10, 3, 0);
+
+        TaggingJob queued = service.enqueue(List.of(1L, 2L, 3L), "admin", null);
+
+        TaggingJob done = awaitJob(queued.getId(), TaggingJobStatus.COMPLETED);
+        assertEquals(1, done.getSucceeded());
+        assertEquals(2, done.getFailed());
+        // First chunk with all three games, then two retries of game 2
+        assertEquals(3, tagCalls.get());
+
+        Map<Long, String> failed = service.toResponse(done).getFailedGames();
+        assertEquals("Claude returned garbage", failed.get(2L));
+        assertEquals(TaggingJobService.GAME_NOT_FOUND, failed.get(3L));
+    }
+
+    @Test
+    void enqueue_ShouldBackOffBeforeRetrying() throws InterruptedException {
+        failingGames.add(1L);
+        service = newService(10, 3, 3600);
+
+        TaggingJob queued = service.enqueue(List.of(1L, 2L), "admin", null);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        TaggingJob job = jobRepository.findById(queued.getId()).orElseThrow();
+        while (job.getSucceeded() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            job = jobRepository.findById(queued.getId()).orElseThrow();
+        }
+        assertEquals(TaggingJobStatus.RUNNING, job.getStatus());
+        assertEquals(1, job.getSucceeded());
+
+        TaggingJobItem retry = itemRepository.findByJobIdAndStatus(queued.getId(), TaggingJobItemStatus.PENDING).get(0);
+        assertEquals(1L, retry.getGameId());
+        assertEquals(1, retry.getAttempts());
+        assertTrue(retry.getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(50)));
+        assertEquals(1, tagCalls.get());
+    }
+
+    private TaggingJob runningJobClaimedBy(String owner, String token) {
+        TaggingJob job = new TaggingJob("admin", null, 2);
+        job.setStatus(TaggingJobStatus.RUNNING);
+        job = jobRepository.save(job);
+        LocalDateTime crashedAt = LocalDateTime.now().minusMinutes(1);
+        for (long gameId = 1; gameId <= 2; gameId++) {
+            TaggingJobItem item = new TaggingJobItem(job.getId(), gameId, crashedAt);
+            item.setStatus(TaggingJobItemStatus.CLAIMED);
+            item.setClaimToken(token);
+            item.setClaimedBy(owner);
+            item.setClaimedAt(crashedAt);
+            itemRepository.save(item);
+        }
+        return job;
+    }
+
+    @Test
+    void resumeAfterRestart_ShouldReleaseOldClaimsAndFinishJob() throws InterruptedException {
+        TaggingJob job = runningJobClaimedBy(INSTANCE_ID, "previous-run");
+
+        service = newService(10, 3, 0);
+        service.resumeAfterRestart();
+
+        TaggingJob done = awaitJob(job.getId(), TaggingJobStatus.COMPLETED);
+        assertEquals(2, done.getSucceeded());
+        assertTrue(itemRepository.findByClaimToken("previous-run").isEmpty());
+    }
+
+    @Test
+    void resumeAfterRestart_ShouldLeaveOtherInstancesClaims() throws InterruptedException {
+        TaggingJob job = runningJobClaimedBy("instance-b", "other-instance");
+
+        service = newService(10, 3, 0);
+        service.resumeAfterRestart();
+        Thread.sleep(300);
+
+        // Still within instance-b's lease: it may be tagging these right now
+        assertEquals(2, itemRepository.findByClaimToken("other-instance").size());
+        assertEquals(0, jobRepository.findById(job.getId()).orElseThrow().getSucceeded());
+        assertEquals(0, tagCalls.get());
+    }
+
+    @Test
+    void backoffFor_ShouldDoublePerAttempt() {
+        service = newService(10, 5, 30);
+
+        assertEquals(Duration.ofSeconds(30), service.backoffFor(1));
+        assertEquals(Duration.ofSeconds(60), service.backoffFor(2));
+        assertEquals(Duration.ofSeconds(120), service.backoffFor(3));
+    }
+}
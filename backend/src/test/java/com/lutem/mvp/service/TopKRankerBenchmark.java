@@ -0,0 +1,85 @@
+package com.lutem.mvp.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares TopKRanker with the previous "HashMap of all scores + full sort" ranking
+ * used by /recommendations.
+ *
+ * Not a unit test (surefire skips it). Run from backend/ after test-compile:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.lutem.mvp.service.TopKRankerBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopKRankerBenchmark {
+
+    private static final int K = 5;
+
+    @Param({"1000", "10000", "100000"})
+    private int games;
+
+    private double[] scores;
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        scores = new double[games];
+        ids = new long[games];
+        for (int i = 0; i < games; i++) {
+            // Coarse scores like the real weights produce, so ties are common
+            scores[i] = Math.round(random.nextDouble() * 1200) / 10.0;
+            ids[i] = i + 1;
+        }
+    }
+
+    @Benchmark
+    public void fullSort(Blackhole blackhole) {
+        Map<Integer, Double> scored = new HashMap<>();
+        for (int i = 0; i < games; i++) {
+            if (scores[i] > 0) {
+                scored.put(i, scores[i]);
+            }
+        }
+        List<Map.Entry<Integer, Double>> ranked = scored.entrySet().stream()
+            .sorted(Map.Entry.<Integer, Double>comparingByValue((s1, s2) -> Double.compare(s2, s1)))
+            .collect(Collectors.toList());
+        for (int r = 0; r < Math.min(K, ranked.size()); r++) {
+            blackhole.consume(ranked.get(r).getKey());
+        }
+    }
+
+    @Benchmark
+    public void topKHeap(Blackhole blackhole) {
+        TopKRanker ranker = new TopKRanker(K);
+        for (int i = 0; i < games; i++) {
+            if (scores[i] > 0) {
+                ranker.offer(i, scores[i], ids[i]);
+            }
+        }
+        blackhole.consume(ranker.rankedPositions());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(TopKRankerBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.lutem.mvp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TopKRanker.
+ */
+class TopKRankerTest {
+
+    @Test
+    void rankedPositions_ShouldMatchFullSort() {
+        Random random = new Random(42);
+        int n = 1000;
+        double[] scores = new double[n];
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            // Few distinct values so ties are exercised
+            scores[i] = random.nextInt(20);
+            ids[i] = random.nextInt(1_000_000);
+        }
+
+        TopKRanker ranker = new TopKRanker(5);
+        for (int i = 0; i < n; i++) {
+            ranker.offer(i, scores[i], ids[i]);
+        }
+
+        int[] expected = IntStream.range(0, n).boxed()
+            .sorted(Comparator.<Integer>comparingDouble(i -> -scores[i]).thenComparingLong(i -> ids[i]))
+            .limit(5)
+            .mapToInt(Integer::intValue)
+            .toArray();
+        assertArrayEquals(expected, ranker.rankedPositions());
+
+        double[] rankedScores = ranker.rankedScores();
+        for (int r = 0; r < expected.length; r++) {
+            assertEquals(scores[expected[r]], rankedScores[r]);
+        }
+    }
+
+    @Test
+    void ties_ShouldBreakByKeyRegardlessOfOfferOrder() {
+        TopKRanker forward = new TopKRanker(2);
+        TopKRanker backward = new TopKRanker(2);
+        for (int i = 0; i < 10; i++) {
+            forward.offer(i, 50.0, 100 + i);
+            backward.offer(9 - i, 50.0, 100 + (9 - i));
+        }
+
+        assertArrayEquals(new int[] {0, 1}, forward.rankedPositions());
+        assertArrayEquals(new int[] {0, 1}, backward.rankedPositions());
+    }
+
+    @Test
+    void merge_ShouldEqualSingleRanker() {
+        TopKRanker single = new TopKRanker(3);
+        TopKRanker left = new TopKRanker(3);
+        TopKRanker right = new TopKRanker(3);
+        double[] scores = {10, 80, 30, 80, 55, 5, 90, 30};
+        for (int i = 0; i < scores.length; i++) {
+            single.offer(i, scores[i], i);
+            (i % 2 == 0 ? left : right).offer(i, scores[i], i);
+        }
+        left.merge(right);
+
+        assertArrayEquals(single.rankedPositions(), left.rankedPositions());
+        assertArrayEquals(new int[] {6, 1, 3}, left.rankedPositions());
+    }
+
+    @Test
+    void fewerCandidatesThanK_ShouldReturnAll() {
+        TopKRanker ranker = new TopKRanker(5);
+        assertTrue(ranker.isEmpty());
+        ranker.offer(3, 12.5, 7);
+        ranker.offer(1, 40.0, 9);
+
+        assertEquals(2, ranker.size());
+        assertArrayEquals(new int[] {1, 3}, ranker.rankedPositions());
+    }
+}
@@ -0,0 +1,79 @@
+package com.lutem.mvp.service;
+
+import com.lutem.mvp.dto.SatisfactionStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the async stats fetch and its latency budget (no Firestore).
+ */
+class UserSatisfactionServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UserSatisfactionService service = new UserSatisfactionService(10, 300, 50, 1, false, 16, registry);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private double outcome(String outcome) {
+        return registry.get("lutem.recommendations.stats").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void awaitForRecommendation_ShouldReturnCompletedStats() {
+        SatisfactionStats stats = new SatisfactionStats();
+
+        SatisfactionStats result = service.awaitForRecommendation(
+            CompletableFuture.completedFuture(stats), System.nanoTime());
+
+        assertSame(stats, result);
+        assertEquals(1, outcome("personalized"));
+        assertEquals(0.0, registry.get("lutem.recommendations.stats.fallback.ratio").gauge().value());
+    }
+
+    @Test
+    void awaitForRecommendation_ShouldFallBackAfterBudget() {
+        long start = System.nanoTime();
+
+        SatisfactionStats result = service.awaitForRecommendation(new CompletableFuture<>(), start);
+
+        assertNull(result);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, outcome("timeout"));
+        assertEquals(1, registry.get("lutem.recommendations.stats.wait").timer().count());
+        assertEquals(1.0, registry.get("lutem.recommendations.stats.fallback.ratio").gauge().value());
+    }
+
+    @Test
+    void awaitForRecommendation_ShouldNotWaitWhenBudgetAlreadySpent() {
+        long start = System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+
+        assertNull(service.awaitForRecommendation(new CompletableFuture<>(), start));
+        assertEquals(1, outcome("timeout"));
+    }
+
+    @Test
+    void awaitForRecommendation_ShouldFallBackOnError() {
+        CompletableFuture<SatisfactionStats> failed = CompletableFuture.failedFuture(new IllegalStateException("down"));
+
+        assertNull(service.awaitForRecommendation(failed, System.nanoTime()));
+        assertEquals(1, outcome("error"));
+    }
+
+    @Test
+    void getSatisfactionStatsAsync_ShouldServeSecondCallFromCache() throws Exception {
+        SatisfactionStats first = service.getSatisfactionStatsAsync("uid-1").get(5, TimeUnit.SECONDS);
+        CompletableFuture<SatisfactionStats> second = service.getSatisfactionStatsAsync("uid-1");
+
+        assertTrue(second.isDone());
+        assertSame(first, second.get());
+    }
+}
@@ -0,0 +1,68 @@
+package com.lutem.mvp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenBucket.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void reserve_ShouldAllowBurstThenSpaceRequests() {
+        TokenBucket bucket = new TokenBucket(2.0, 2);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(0, bucket.reserve(now));
+        // Third and fourth callers wait 0.5s and 1s respectively
+        assertEquals(SECOND / 2, bucket.reserve(now), 1_000_000);
+        assertEquals(SECOND, bucket.reserve(now), 1_000_000);
+    }
+
+    @Test
+    void reserve_ShouldRefillOverTimeUpToBurst() {
+        TokenBucket bucket = new TokenBucket(10.0, 3);
+        long now = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            bucket.reserve(now);
+        }
+
+        // After 10s idle only `burst` tokens are available
+        long later = now + 10 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve(later));
+        }
+        assertTrue(bucket.reserve(later) > 0);
+    }
+
+    @Test
+    void acquire_ShouldPaceCallers() throws Exception {
+        TokenBucket bucket = new TokenBucket(20.0, 1);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            bucket.acquire();
+        }
+        // First token is immediate, the next four take 50ms each
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(180));
+    }
+
+    @Test
+    void tryAcquire_ShouldNotWait() {
+        TokenBucket bucket = new TokenBucket(0.001, 1);
+
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidRates() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -1,4 +1,4 @@
-import type { SteamStatus, SteamImportResponse, UserLibraryResponse, TaggingResult, GameStats, UnmatchedGame, AiImportResult } from '@/types/steam';
+import type { SteamStatus, SteamImportResponse, UserLibraryResponse, TaggingResult, TaggingJob, GameStats, UnmatchedGame, AiImportResult } from '@/types/steam';
 
 import { API_BASE } from '@/lib/config';
 import { getCsrfToken, captureCsrfToken } from './csrf';
@@ -76,14 +76,19 @@ export const gamesApi = {
   getStats: () => fetchSteamApi<GameStats>('/admin/games/stats'),
 
   /**
-   * Trigger AI tagging for pending games
+   * Queue AI tagging for pending games (returns the background job right away)
    */
   tagPending: (gameIds?: number[]) =>
-    fetchSteamApi<TaggingResult>('/admin/games/tag', {
+    fetchSteamApi<TaggingJob>('/admin/games/tag', {
       method: 'POST',
       body: JSON.stringify(gameIds ? { gameIds } : { all: true }),
     }),
 
+  /**
+   * Progress of a tagging job
+   */
+  getTaggingJob: (jobId: number) => fetchSteamApi<TaggingJob>(`/admin/games/tag/jobs/${jobId}`),
+
   /**
    * Tag a single game
    */
@@ -3,6 +3,10 @@ import { persist } from 'zustand/middleware';
 import type { SteamImportResponse, UserLibraryResponse, LibrarySummary, TaggingResult, GameStats, UnmatchedGame, AiImportResult } from '@/types/steam';
 import { steamApi, gamesApi } from '@/api/steam';
 
+const TAGGING_POLL_INTERVAL_MS = 2000;
+
+const sleep = (ms: number) => new Promise((resolve) => setTimeout(resolve, ms));
+
 interface SteamState {
   // Status
   isConfigured: boolean | null;
@@ -142,7 +146,21 @@ export const useSteamStore = create<SteamState>()(
       tagPendingGames: async (gameIds?: number[]) => {
         set({ isTagging: true, error: null, taggingProgress: null });
         try {
-          const result = await gamesApi.tagPending(gameIds);
+          // Tagging runs as a background job; poll until it completes
+          let job = await gamesApi.tagPending(gameIds);
+          const toResult = (): TaggingResult => ({
+            total: job.total,
+            successCount: job.successCount,
+            failedCount: job.failedCount,
+            taggedGames: [],
+            failedGames: job.failedGames,
+          });
+          while (!job.finished) {
+            set({ taggingProgress: toResult() });
+            await sleep(TAGGING_POLL_INTERVAL_MS);
+            job = await gamesApi.getTaggingJob(job.jobId);
+          }
+          const result = toResult();
           set({ 
             taggingProgress: result,
             isTagging: false,
@@ -72,6 +72,21 @@ export interface TaggingResult {
   failedGames: Record<number, string>;
 }
 
+// Background tagging job (POST /admin/games/tag, AI import)
+export interface TaggingJob {
+  jobId: number;
+  status: 'QUEUED' | 'RUNNING' | 'COMPLETED';
+  total: number;
+  successCount: number;
+  failedCount: number;
+  processed: number;
+  finished: boolean;
+  failedGames: Record<number, string>;
+  createdAt: string;
+  startedAt?: string;
+  finishedAt?: string;
+}
+
 export interface TaggedGameInfo {
   id: number;
   name: string;
@@ -97,6 +112,8 @@ export interface AiImportResult {
   createdGames: AiCreatedGame[];
   failedGames: Record<number, string>;
   message: string;
+  queuedForTagging?: number;
+  jobId?: number | null;
 }
 
 export interface AiCreatedGame {